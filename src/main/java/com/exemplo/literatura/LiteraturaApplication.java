@@ -2,6 +2,7 @@ package com.exemplo.literatura;
 
 import com.exemplo.literatura.service.MenuCatalogoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,12 +13,18 @@ public class LiteraturaApplication implements CommandLineRunner {
     @Autowired
     private MenuCatalogoService menuCatalogoService;
 
+    @Value("${literatura.console.habilitado:true}")
+    private boolean consoleHabilitado;
+
     public static void main(String[] args) {
         SpringApplication.run(LiteraturaApplication.class, args);
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (!consoleHabilitado) {
+            return;
+        }
         menuCatalogoService.exibirMenuPrincipal();
     }
 }
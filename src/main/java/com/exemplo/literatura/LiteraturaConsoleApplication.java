@@ -2,19 +2,21 @@ package com.exemplo.literatura;
 
 import com.exemplo.literatura.dto.AutorDto;
 import com.exemplo.literatura.dto.LivroDto;
-import com.exemplo.literatura.service.GutendxHttpService;
+import com.exemplo.literatura.service.GutendxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Scanner;
 
 @Component
+@ConditionalOnProperty(name = "literatura.console.habilitado", havingValue = "true", matchIfMissing = true)
 public class LiteraturaConsoleApplication implements CommandLineRunner {
     
     @Autowired
-    private GutendxHttpService gutendxHttpService;
+    private GutendxService gutendxService;
     
     private Scanner scanner = new Scanner(System.in);
     
@@ -29,7 +31,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("=".repeat(60));
         
         // Testando conectividade antes de iniciar
-        if (!gutendxHttpService.testarConectividade()) {
+        if (!gutendxService.testarConectividade()) {
             System.err.println("❌ Não foi possível conectar à API. Verifique sua conexão com a internet.");
             return;
         }
@@ -98,7 +100,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("\n🔍 Buscando livros com título: " + titulo);
         System.out.println("⏳ Aguarde...");
         
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorTitulo(titulo);
+        List<LivroDto> livros = gutendxService.buscarLivrosPorTitulo(titulo);
         exibirResultados(livros, "título '" + titulo + "'");
     }
     
@@ -114,7 +116,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("\n🔍 Buscando livros do autor: " + autor);
         System.out.println("⏳ Aguarde...");
         
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorAutor(autor);
+        List<LivroDto> livros = gutendxService.buscarLivrosPorAutor(autor);
         exibirResultados(livros, "autor '" + autor + "'");
     }
     
@@ -137,7 +139,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("\n🔍 Buscando livros no idioma: " + idioma);
         System.out.println("⏳ Aguarde...");
         
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorIdioma(idioma);
+        List<LivroDto> livros = gutendxService.buscarLivrosPorIdioma(idioma);
         exibirResultados(livros, "idioma '" + idioma + "'");
     }
     
@@ -155,7 +157,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
             System.out.println("\n🔍 Buscando livro com ID: " + id);
             System.out.println("⏳ Aguarde...");
             
-            LivroDto livro = gutendxHttpService.buscarLivroPorId(id);
+            LivroDto livro = gutendxService.buscarLivroPorId(id);
             if (livro != null) {
                 System.out.println("\n" + "=".repeat(60));
                 System.out.println("📚 LIVRO ENCONTRADO");
@@ -186,7 +188,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("\n📖 Carregando página " + pagina + "...");
         System.out.println("⏳ Aguarde...");
         
-        var response = gutendxHttpService.listarLivros(pagina);
+        var response = gutendxService.listarLivros(pagina);
         if (response != null && response.getResults() != null) {
             System.out.println("\n" + "=".repeat(60));
             System.out.println("📄 PÁGINA " + pagina + " - Total de livros: " + response.getCount());
@@ -228,7 +230,7 @@ public class LiteraturaConsoleApplication implements CommandLineRunner {
         System.out.println("🧪 Fazendo uma requisição de demonstração...");
         
         // Demonstração prática
-        if (gutendxHttpService.testarConectividade()) {
+        if (gutendxService.testarConectividade()) {
             System.out.println("✅ Demonstração concluída com sucesso!");
             System.out.println("📊 Verifique os logs acima para ver os detalhes da requisição HTTP.");
         } else {
@@ -0,0 +1,254 @@
+package com.exemplo.literatura.controller;
+
+import com.exemplo.literatura.dto.AutorSimplificadoDto;
+import com.exemplo.literatura.dto.EstatisticasCatalogoDto;
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.dto.ResultadoImportacaoDto;
+import com.exemplo.literatura.model.SincronizacaoCheckpoint;
+import com.exemplo.literatura.service.CatalogoService;
+import com.exemplo.literatura.service.EstatisticasCatalogoService;
+import com.exemplo.literatura.service.ExportacaoCatalogoService;
+import com.exemplo.literatura.service.ImportacaoCatalogoService;
+import com.exemplo.literatura.service.IndiceTextoCatalogo;
+import com.exemplo.literatura.service.SnapshotCatalogoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controller REST para operações sobre o catálogo local
+ */
+@RestController
+@RequestMapping("/api/catalogo")
+public class CatalogoController {
+    
+    @Autowired
+    private ImportacaoCatalogoService importacaoService;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticasService;
+    
+    @Autowired
+    private ExportacaoCatalogoService exportacaoService;
+    
+    @Autowired
+    private SnapshotCatalogoService snapshotService;
+    
+    /**
+     * Importação em massa das páginas da API Gutendx para o catálogo
+     * POST /api/catalogo/importacao?paginaInicial=1&limitePaginas=10
+     */
+    @PostMapping("/importacao")
+    public ResponseEntity<ResultadoImportacaoDto> importarCatalogo(
+            @RequestParam(defaultValue = "1") int paginaInicial,
+            @RequestParam(required = false) Integer limitePaginas) {
+        
+        ResultadoImportacaoDto resultado = importacaoService.importarCatalogo(paginaInicial, limitePaginas);
+        if (resultado.isSucesso()) {
+            return ResponseEntity.ok(resultado);
+        } else {
+            return ResponseEntity.status(502).body(resultado);
+        }
+    }
+    
+    /**
+     * Sincronização incremental (retoma do último checkpoint se a anterior foi interrompida)
+     * POST /api/catalogo/sincronizacao?limitePaginas=50
+     */
+    @PostMapping("/sincronizacao")
+    public ResponseEntity<ResultadoImportacaoDto> sincronizarCatalogo(
+            @RequestParam(required = false) Integer limitePaginas) {
+        
+        ResultadoImportacaoDto resultado = importacaoService.sincronizarCatalogo(limitePaginas);
+        if (resultado.isSucesso()) {
+            return ResponseEntity.ok(resultado);
+        } else {
+            return ResponseEntity.status(502).body(resultado);
+        }
+    }
+    
+    /**
+     * Progresso da sincronização (página, inseridos, atualizados e ignorados)
+     * GET /api/catalogo/sincronizacao
+     */
+    @GetMapping("/sincronizacao")
+    public ResponseEntity<SincronizacaoCheckpoint> progressoSincronizacao() {
+        return catalogoService.obterProgressoSincronizacao()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Busca de texto no catálogo local pelo índice invertido
+     * (palavras sem acentos; a última vale como prefixo, e qualquer uma terminada em *)
+     * GET /api/catalogo/busca?q=dom casm&campo=titulo&limite=20
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<Map<String, Object>> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> campo,
+            @RequestParam(defaultValue = "20") int limite) {
+        
+        IndiceTextoCatalogo.Campo[] campos;
+        try {
+            campos = campo == null ? new IndiceTextoCatalogo.Campo[0] : campo.stream()
+                    .map(nome -> IndiceTextoCatalogo.Campo.valueOf(nome.trim().toUpperCase(Locale.ROOT)))
+                    .toArray(IndiceTextoCatalogo.Campo[]::new);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new LinkedHashMap<>();
+            erro.put("erro", "Campo inválido: " + campo + " (use titulo, autor ou assunto)");
+            return ResponseEntity.badRequest().body(erro);
+        }
+        
+        long inicio = System.nanoTime();
+        IndiceTextoCatalogo.Resultado resultado = catalogoService.buscarNoCatalogo(q, Math.max(0, limite), campos);
+        long micros = (System.nanoTime() - inicio) / 1_000;
+        
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("consulta", q);
+        resposta.put("total", resultado.total());
+        resposta.put("tempoMicrossegundos", micros);
+        resposta.put("livros", resultado.documentos());
+        return ResponseEntity.ok(resposta);
+    }
+    
+    /**
+     * Estatísticas do catálogo (totais, livros por idioma, autores por século),
+     * lidas da tabela agregada: barato o bastante para painéis consultarem com frequência
+     * GET /api/catalogo/estatisticas
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasCatalogoDto> estatisticas() {
+        return ResponseEntity.ok(catalogoService.obterEstatisticas());
+    }
+    
+    /**
+     * Refaz a tabela agregada a partir de livros e autores (ex: após alterações feitas direto no banco)
+     * POST /api/catalogo/estatisticas/recalculo
+     */
+    @PostMapping("/estatisticas/recalculo")
+    public ResponseEntity<EstatisticasCatalogoDto> recalcularEstatisticas() {
+        return ResponseEntity.ok(estatisticasService.recalcular());
+    }
+    
+    /**
+     * Livros do catálogo paginados por cursor (título ou downloads), em memória constante
+     * e com o mesmo custo em qualquer página; repetir com o proximoCursor recebido
+     * GET /api/catalogo/livros?ordem=titulo&tamanho=50&cursor=...
+     */
+    @GetMapping("/livros")
+    public ResponseEntity<?> listarLivros(
+            @RequestParam(defaultValue = "titulo") String ordem,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho) {
+        
+        CatalogoService.OrdemLivros ordemLivros;
+        try {
+            ordemLivros = CatalogoService.OrdemLivros.valueOf(ordem.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return erroRequisicao("Ordem inválida: " + ordem + " (use titulo ou downloads)");
+        }
+        
+        try {
+            PaginaCursorDto<LivroSimplificadoDto> pagina = catalogoService.listarLivrosPorCursor(ordemLivros, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return erroRequisicao(e.getMessage());
+        }
+    }
+    
+    /**
+     * Livros mais baixados do catálogo, de todos os idiomas ou de um só
+     * GET /api/catalogo/livros/populares?idioma=pt&limite=10
+     */
+    @GetMapping("/livros/populares")
+    public ResponseEntity<List<LivroSimplificadoDto>> livrosMaisPopulares(
+            @RequestParam(required = false) String idioma,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(catalogoService.listarLivrosMaisPopulares(idioma, limite));
+    }
+    
+    /**
+     * Autores do catálogo por nome, paginados por cursor
+     * GET /api/catalogo/autores?tamanho=50&cursor=...
+     */
+    @GetMapping("/autores")
+    public ResponseEntity<?> listarAutores(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho) {
+        
+        try {
+            PaginaCursorDto<AutorSimplificadoDto> pagina = catalogoService.listarAutoresPorCursor(cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return erroRequisicao(e.getMessage());
+        }
+    }
+    
+    /**
+     * Exportação do catálogo inteiro em fluxo (NDJSON ou CSV), lida do cursor do banco
+     * e escrita linha a linha, em memória constante; com gzip se o cliente aceitar (q maior
+     * que zero). Vary: Accept-Encoding separa as duas variantes nos caches
+     * GET /api/catalogo/exportacao?conteudo=livros&formato=ndjson   (Accept-Encoding: gzip)
+     */
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "livros") String conteudo,
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        ExportacaoCatalogoService.Conteudo conteudoExportado;
+        ExportacaoCatalogoService.Formato formatoExportado;
+        try {
+            conteudoExportado = ExportacaoCatalogoService.Conteudo.valueOf(conteudo.trim().toUpperCase(Locale.ROOT));
+            formatoExportado = ExportacaoCatalogoService.Formato.valueOf(formato.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // O tipo de retorno precisa ser o StreamingResponseBody (é por ele que o Spring reconhece o streaming)
+            String erro = "{\"erro\": \"Use conteudo=livros|autores e formato=ndjson|csv\"}";
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(saida -> saida.write(erro.getBytes(StandardCharsets.UTF_8)));
+        }
+        
+        boolean gzip = ExportacaoCatalogoService.aceitaGzip(acceptEncoding);
+        String arquivo = conteudoExportado.name().toLowerCase(Locale.ROOT) + "." + formatoExportado.getExtensao();
+        
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportado.getTipoMidia() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(saida -> exportacaoService.exportar(conteudoExportado, formatoExportado, gzip, saida));
+    }
+    
+    /**
+     * Grava o catálogo no snapshot binário (literatura.snapshot.arquivo), que a próxima
+     * subida com o banco vazio carrega sem acessar a API Gutendx
+     * POST /api/catalogo/snapshot
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<SnapshotCatalogoService.Resumo> gravarSnapshot() {
+        return ResponseEntity.ok(snapshotService.gravar());
+    }
+    
+    private ResponseEntity<Map<String, Object>> erroRequisicao(String mensagem) {
+        Map<String, Object> erro = new LinkedHashMap<>();
+        erro.put("erro", mensagem);
+        return ResponseEntity.badRequest().body(erro);
+    }
+}
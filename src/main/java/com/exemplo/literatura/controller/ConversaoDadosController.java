@@ -1,11 +1,12 @@
 package com.exemplo.literatura.controller;
 
 import com.exemplo.literatura.dto.*;
+import com.exemplo.literatura.service.ClienteGutendx;
 import com.exemplo.literatura.service.ConversaoDadosService;
-import com.exemplo.literatura.service.GutendxHttpService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,19 +24,17 @@ public class ConversaoDadosController {
     private ConversaoDadosService conversaoService;
     
     @Autowired
-    private GutendxHttpService gutendxHttpService;
+    private ClienteGutendx clienteGutendx;
     
     /**
      * Demonstra conversão completa de dados da API
      */
     @GetMapping("/completa")
-    public ResponseEntity<Map<String, Object>> conversaoCompleta(
+    public Mono<ResponseEntity<Map<String, Object>>> conversaoCompleta(
             @RequestParam(defaultValue = "shakespeare") String busca) {
         
-        try {
-            // Obter JSON da API
-            String jsonResposta = gutendxHttpService.obterJsonResposta(busca);
-            
+        // Obter JSON da API
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResposta -> {
             // Converter para objetos Java
             GutendxResponseCompleta resposta = conversaoService.converterResposta(jsonResposta);
             
@@ -57,24 +56,22 @@ public class ConversaoDadosController {
             resultado.put("livros", resposta.getLivros());
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
             erro.put("conversaoSucesso", false);
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Demonstra conversão com dados simplificados
      */
     @GetMapping("/simplificada")
-    public ResponseEntity<Map<String, Object>> conversaoSimplificada(
+    public Mono<ResponseEntity<Map<String, Object>>> conversaoSimplificada(
             @RequestParam(defaultValue = "machado") String busca) {
         
-        try {
-            String jsonResposta = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResposta -> {
             GutendxResponseCompleta resposta = conversaoService.converterResposta(jsonResposta);
             
             // Converter para versões simplificadas
@@ -91,23 +88,21 @@ public class ConversaoDadosController {
             resultado.put("autoresSimples", autoresSimples);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Demonstra métodos específicos dos DTOs
      */
     @GetMapping("/metodos-especificos")
-    public ResponseEntity<Map<String, Object>> metodosEspecificos(
+    public Mono<ResponseEntity<Map<String, Object>>> metodosEspecificos(
             @RequestParam(defaultValue = "dom casmurro") String busca) {
         
-        try {
-            String jsonResposta = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResposta -> {
             GutendxResponseCompleta resposta = conversaoService.converterResposta(jsonResposta);
             
             Map<String, Object> resultado = new HashMap<>();
@@ -152,24 +147,22 @@ public class ConversaoDadosController {
             }
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Demonstra filtros e análises da coleção
      */
     @GetMapping("/analises")
-    public ResponseEntity<Map<String, Object>> analisesColecao(
+    public Mono<ResponseEntity<Map<String, Object>>> analisesColecao(
             @RequestParam(defaultValue = "literature") String busca,
             @RequestParam(defaultValue = "en") String idioma) {
         
-        try {
-            String jsonResposta = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResposta -> {
             GutendxResponseCompleta resposta = conversaoService.converterResposta(jsonResposta);
             
             Map<String, Object> resultado = new HashMap<>();
@@ -202,12 +195,11 @@ public class ConversaoDadosController {
             resultado.put("estatisticasGerais", resposta.getEstatisticas());
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
@@ -2,28 +2,63 @@ package com.exemplo.literatura.controller;
 
 import com.exemplo.literatura.dto.GutendxResponse;
 import com.exemplo.literatura.dto.LivroDto;
+import com.exemplo.literatura.service.ArmazemRespostasDisco;
+import com.exemplo.literatura.service.BuscaMultiplaGutendx;
+import com.exemplo.literatura.service.CacheRespostasGutendx;
+import com.exemplo.literatura.service.ClienteGutendx;
 import com.exemplo.literatura.service.GutendxHttpService;
+import com.exemplo.literatura.service.ProtecaoChamadasGutendx;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Consultas à API Gutendx sem prender a thread da requisição: os endpoints devolvem
+ * Mono e o Spring MVC libera a thread do Tomcat enquanto a chamada está em voo
+ */
 @RestController
 @RequestMapping("/api/gutendx")
 public class GutendxController {
     
+    @Autowired
+    private ClienteGutendx clienteGutendx;
+    
     @Autowired
     private GutendxHttpService gutendxHttpService;
     
+    @Autowired
+    private CacheRespostasGutendx cacheRespostas;
+    
+    @Autowired
+    private ArmazemRespostasDisco armazemDisco;
+    
+    @Autowired
+    private BuscaMultiplaGutendx buscaMultipla;
+    
+    @Autowired
+    private ProtecaoChamadasGutendx protecao;
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final Duration TIMEOUT_BUSCA_MULTIPLA = Duration.ofMinutes(2);
+    
     /**
      * Busca livros por termo de pesquisa
      * GET /api/gutendx/buscar?termo=shakespeare
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<LivroDto>> buscarLivros(@RequestParam String termo) {
-        List<LivroDto> livros = gutendxHttpService.buscarLivros(termo);
-        return ResponseEntity.ok(livros);
+    public Mono<ResponseEntity<List<LivroDto>>> buscarLivros(@RequestParam String termo) {
+        return listaOuVazia(clienteGutendx.buscarLivros(termo), "buscar livros");
     }
     
     /**
@@ -31,9 +66,8 @@ public class GutendxController {
      * GET /api/gutendx/autor?nome=Shakespeare
      */
     @GetMapping("/autor")
-    public ResponseEntity<List<LivroDto>> buscarPorAutor(@RequestParam String nome) {
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorAutor(nome);
-        return ResponseEntity.ok(livros);
+    public Mono<ResponseEntity<List<LivroDto>>> buscarPorAutor(@RequestParam String nome) {
+        return listaOuVazia(clienteGutendx.buscarLivros(nome), "buscar livros do autor");
     }
     
     /**
@@ -41,9 +75,8 @@ public class GutendxController {
      * GET /api/gutendx/titulo?nome=Hamlet
      */
     @GetMapping("/titulo")
-    public ResponseEntity<List<LivroDto>> buscarPorTitulo(@RequestParam String nome) {
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorTitulo(nome);
-        return ResponseEntity.ok(livros);
+    public Mono<ResponseEntity<List<LivroDto>>> buscarPorTitulo(@RequestParam String nome) {
+        return listaOuVazia(clienteGutendx.buscarLivros(nome), "buscar livros por título");
     }
     
     /**
@@ -51,9 +84,39 @@ public class GutendxController {
      * GET /api/gutendx/idioma?codigo=en
      */
     @GetMapping("/idioma")
-    public ResponseEntity<List<LivroDto>> buscarPorIdioma(@RequestParam String codigo) {
-        List<LivroDto> livros = gutendxHttpService.buscarLivrosPorIdioma(codigo);
-        return ResponseEntity.ok(livros);
+    public Mono<ResponseEntity<List<LivroDto>>> buscarPorIdioma(@RequestParam String codigo) {
+        return listaOuVazia(clienteGutendx.buscarLivrosPorIdioma(codigo), "buscar livros por idioma");
+    }
+    
+    /**
+     * Busca vários termos (ex: autores) de uma vez, em paralelo
+     * Responde em NDJSON: uma linha por termo, na ordem em que cada busca termina, só com
+     * os livros ainda não enviados (os demais vão em "repetidos"), e uma linha final de resumo
+     * POST /api/gutendx/buscas  ["Machado de Assis", "Shakespeare", "Austen"]
+     */
+    @PostMapping(value = "/buscas", produces = "application/x-ndjson")
+    public ResponseEntity<?> buscarVariosTermos(@RequestBody List<String> termos) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(TIMEOUT_BUSCA_MULTIPLA.toMillis());
+        try {
+            buscaMultipla.buscar(termos, resultado -> enviarLinha(emitter, resultado))
+                    .whenComplete((resumo, erro) -> {
+                        if (erro != null) {
+                            emitter.completeWithError(erro);
+                            return;
+                        }
+                        try {
+                            enviarLinha(emitter, resumo);
+                            emitter.complete();
+                        } catch (UncheckedIOException e) {
+                            emitter.completeWithError(e);
+                        }
+                    });
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> erro = new LinkedHashMap<>();
+            erro.put("erro", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(erro);
+        }
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
     }
     
     /**
@@ -61,13 +124,14 @@ public class GutendxController {
      * GET /api/gutendx/livro/1342
      */
     @GetMapping("/livro/{id}")
-    public ResponseEntity<LivroDto> buscarPorId(@PathVariable Long id) {
-        LivroDto livro = gutendxHttpService.buscarLivroPorId(id);
-        if (livro != null) {
-            return ResponseEntity.ok(livro);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public Mono<ResponseEntity<LivroDto>> buscarPorId(@PathVariable Long id) {
+        return clienteGutendx.buscarLivroPorId(id)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    System.err.println("❌ Erro ao buscar livro por ID: " + e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
     
     /**
@@ -75,9 +139,13 @@ public class GutendxController {
      * GET /api/gutendx/listar?pagina=1
      */
     @GetMapping("/listar")
-    public ResponseEntity<GutendxResponse> listarLivros(@RequestParam(defaultValue = "1") int pagina) {
-        GutendxResponse response = gutendxHttpService.listarLivros(pagina);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<GutendxResponse>> listarLivros(@RequestParam(defaultValue = "1") int pagina) {
+        return clienteGutendx.listarLivros(pagina)
+                .onErrorResume(e -> {
+                    System.err.println("❌ Erro ao listar livros: " + e.getMessage());
+                    return Mono.just(new GutendxResponse());
+                })
+                .map(ResponseEntity::ok);
     }
     
     /**
@@ -85,12 +153,46 @@ public class GutendxController {
      * GET /api/gutendx/teste
      */
     @GetMapping("/teste")
-    public ResponseEntity<String> testarConectividade() {
-        boolean conectado = gutendxHttpService.testarConectividade();
-        if (conectado) {
-            return ResponseEntity.ok("✅ API Gutendx está acessível!");
-        } else {
-            return ResponseEntity.status(503).body("❌ API Gutendx não está acessível.");
+    public Mono<ResponseEntity<String>> testarConectividade() {
+        return clienteGutendx.testarConectividade().map(conectado -> conectado
+                ? ResponseEntity.ok("✅ API Gutendx está acessível!")
+                : ResponseEntity.status(503).body("❌ API Gutendx não está acessível."));
+    }
+    
+    /**
+     * Estatísticas do cache de respostas, do armazém em disco, do motor de requisições
+     * e da proteção (estado do circuito, taxa atual e esperas do limitador)
+     * GET /api/gutendx/estatisticas
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Object>> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("cache", cacheRespostas.getEstatisticas());
+        estatisticas.put("disco", armazemDisco.getEstatisticas());
+        estatisticas.put("requisicoes", gutendxHttpService.getEstatisticasRequisicoes());
+        estatisticas.put("protecao", protecao.getEstatisticas());
+        return ResponseEntity.ok(estatisticas);
+    }
+    
+    /**
+     * Junta o fluxo numa lista; em caso de erro responde com a lista vazia, como as buscas sempre fizeram
+     */
+    private static Mono<ResponseEntity<List<LivroDto>>> listaOuVazia(Flux<LivroDto> livros, String operacao) {
+        return livros.collectList()
+                .onErrorResume(e -> {
+                    System.err.println("❌ Erro ao " + operacao + ": " + e.getMessage());
+                    return Mono.just(List.of());
+                })
+                .map(ResponseEntity::ok);
+    }
+    
+    private static void enviarLinha(ResponseBodyEmitter emitter, Object linha) {
+        try {
+            emitter.send(linha, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            // Cliente desconectado: as buscas restantes terminam e são descartadas
+            throw new UncheckedIOException(e);
         }
     }
 }
@@ -1,11 +1,14 @@
 package com.exemplo.literatura.controller;
 
+import com.exemplo.literatura.service.ClienteGutendx;
 import com.exemplo.literatura.service.JsonAnalysisService;
-import com.exemplo.literatura.service.GutendxHttpService;
+import com.exemplo.literatura.service.JsonAnalysisService.Analise;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,19 +25,17 @@ public class JsonAnalysisController {
     private JsonAnalysisService jsonAnalysisService;
     
     @Autowired
-    private GutendxHttpService gutendxHttpService;
+    private ClienteGutendx clienteGutendx;
     
     /**
      * Analisa a estrutura de uma resposta da API Gutendx
      */
     @GetMapping("/estrutura")
-    public ResponseEntity<Map<String, Object>> analisarEstrutura(
+    public Mono<ResponseEntity<Map<String, Object>>> analisarEstrutura(
             @RequestParam(defaultValue = "shakespeare") String busca) {
         
-        try {
-            // Obter JSON da API
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
-            
+        // Obter JSON da API
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             // Analisar estrutura
             Map<String, Object> analise = jsonAnalysisService.analisarEstrutura(jsonResponse);
             
@@ -43,23 +44,21 @@ public class JsonAnalysisController {
             resultado.put("analiseEstrutura", analise);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Extrai todos os títulos de livros de uma busca
      */
     @GetMapping("/titulos")
-    public ResponseEntity<Map<String, Object>> extrairTitulos(
+    public Mono<ResponseEntity<Map<String, Object>>> extrairTitulos(
             @RequestParam(defaultValue = "machado") String busca) {
         
-        try {
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             List<String> titulos = jsonAnalysisService.extrairValoresPropriedade(jsonResponse, "title");
             
             Map<String, Object> resultado = new HashMap<>();
@@ -68,23 +67,21 @@ public class JsonAnalysisController {
             resultado.put("titulos", titulos);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Conta tipos de dados na resposta JSON
      */
     @GetMapping("/tipos-dados")
-    public ResponseEntity<Map<String, Object>> contarTiposDados(
+    public Mono<ResponseEntity<Map<String, Object>>> contarTiposDados(
             @RequestParam(defaultValue = "dom casmurro") String busca) {
         
-        try {
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             Map<String, Integer> tiposDados = jsonAnalysisService.contarTiposDados(jsonResponse);
             
             Map<String, Object> resultado = new HashMap<>();
@@ -92,23 +89,21 @@ public class JsonAnalysisController {
             resultado.put("tiposDados", tiposDados);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Encontra propriedades vazias ou nulas
      */
     @GetMapping("/propriedades-vazias")
-    public ResponseEntity<Map<String, Object>> encontrarPropriedadesVazias(
+    public Mono<ResponseEntity<Map<String, Object>>> encontrarPropriedadesVazias(
             @RequestParam(defaultValue = "literatura") String busca) {
         
-        try {
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             List<String> propriedadesVazias = jsonAnalysisService.encontrarPropriedadesVazias(jsonResponse);
             
             Map<String, Object> resultado = new HashMap<>();
@@ -117,23 +112,21 @@ public class JsonAnalysisController {
             resultado.put("propriedadesVazias", propriedadesVazias);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
      * Analisa arrays na resposta JSON
      */
     @GetMapping("/analise-arrays")
-    public ResponseEntity<Map<String, Object>> analisarArrays(
+    public Mono<ResponseEntity<Map<String, Object>>> analisarArrays(
             @RequestParam(defaultValue = "portuguese") String busca) {
         
-        try {
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             Map<String, Object> analiseArrays = jsonAnalysisService.analisarArrays(jsonResponse);
             
             Map<String, Object> resultado = new HashMap<>();
@@ -141,12 +134,11 @@ public class JsonAnalysisController {
             resultado.put("analiseArrays", analiseArrays);
             
             return ResponseEntity.ok(resultado);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
     
     /**
@@ -155,14 +147,17 @@ public class JsonAnalysisController {
     @PostMapping("/validar")
     public ResponseEntity<Map<String, Object>> validarJson(@RequestBody String jsonString) {
         
-        Map<String, Object> validacao = jsonAnalysisService.validarJson(jsonString);
+        // Validação, estrutura e tipos saem da mesma leitura do JSON
+        JsonAnalysisService.ResultadoAnalise analise = jsonAnalysisService.analisar(jsonString,
+            EnumSet.of(Analise.ESTRUTURA, Analise.TIPOS_DADOS));
+        Map<String, Object> validacao = analise.getValidacao();
         
-        if ((Boolean) validacao.get("valido")) {
+        if (analise.isValido()) {
             // Se válido, fazer análise completa
             Map<String, Object> analiseCompleta = new HashMap<>();
             analiseCompleta.put("validacao", validacao);
-            analiseCompleta.put("estrutura", jsonAnalysisService.analisarEstrutura(jsonString));
-            analiseCompleta.put("tiposDados", jsonAnalysisService.contarTiposDados(jsonString));
+            analiseCompleta.put("estrutura", analise.getEstrutura());
+            analiseCompleta.put("tiposDados", analise.getTiposDados());
             
             return ResponseEntity.ok(analiseCompleta);
         } else {
@@ -174,37 +169,38 @@ public class JsonAnalysisController {
      * Demonstração completa de análise JSON
      */
     @GetMapping("/demo-completa")
-    public ResponseEntity<Map<String, Object>> demonstracaoCompleta(
+    public Mono<ResponseEntity<Map<String, Object>>> demonstracaoCompleta(
             @RequestParam(defaultValue = "pride and prejudice") String busca) {
         
-        try {
-            String jsonResponse = gutendxHttpService.obterJsonResposta(busca);
-            
+        return clienteGutendx.obterJsonResposta(busca).map(jsonResponse -> {
             Map<String, Object> demonstracao = new HashMap<>();
             demonstracao.put("termoBusca", busca);
             demonstracao.put("tamanhoJson", jsonResponse.length());
             
+            // Todas as análises e extrações numa única passada pelo JSON
+            JsonAnalysisService.ResultadoAnalise analise = jsonAnalysisService.analisar(jsonResponse,
+                EnumSet.allOf(Analise.class), "title", "name", "languages");
+            
             // Análises diversas
-            demonstracao.put("estrutura", jsonAnalysisService.analisarEstrutura(jsonResponse));
-            demonstracao.put("tiposDados", jsonAnalysisService.contarTiposDados(jsonResponse));
-            demonstracao.put("analiseArrays", jsonAnalysisService.analisarArrays(jsonResponse));
+            demonstracao.put("estrutura", analise.getEstrutura());
+            demonstracao.put("tiposDados", analise.getTiposDados());
+            demonstracao.put("analiseArrays", analise.getAnaliseArrays());
             
             // Extrações específicas
-            demonstracao.put("titulos", jsonAnalysisService.extrairValoresPropriedade(jsonResponse, "title"));
-            demonstracao.put("autores", jsonAnalysisService.extrairValoresPropriedade(jsonResponse, "name"));
-            demonstracao.put("idiomas", jsonAnalysisService.extrairValoresPropriedade(jsonResponse, "languages"));
+            demonstracao.put("titulos", analise.getValores("title"));
+            demonstracao.put("autores", analise.getValores("name"));
+            demonstracao.put("idiomas", analise.getValores("languages"));
             
             // Propriedades vazias
-            List<String> propriedadesVazias = jsonAnalysisService.encontrarPropriedadesVazias(jsonResponse);
+            List<String> propriedadesVazias = analise.getPropriedadesVazias();
             demonstracao.put("propriedadesVazias", propriedadesVazias.size());
             
             return ResponseEntity.ok(demonstracao);
-            
-        } catch (Exception e) {
+        }).onErrorResume(e -> {
             Map<String, Object> erro = new HashMap<>();
             erro.put("erro", e.getMessage());
             erro.put("tipoErro", e.getClass().getSimpleName());
-            return ResponseEntity.badRequest().body(erro);
-        }
+            return Mono.just(ResponseEntity.badRequest().body(erro));
+        });
     }
 }
@@ -0,0 +1,79 @@
+package com.exemplo.literatura.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO com as estatísticas do catálogo lidas da tabela agregada
+ * (totais, livros por idioma e autores por século de nascimento)
+ */
+public class EstatisticasCatalogoDto {
+    
+    private long totalLivros;
+    private long totalAutores;
+    private long autoresVivos;
+    private Map<String, Long> livrosPorIdioma = new LinkedHashMap<>();
+    private Map<Integer, Long> autoresPorSeculo = new LinkedHashMap<>();
+    
+    // Getters e Setters
+    public long getTotalLivros() {
+        return totalLivros;
+    }
+    
+    public void setTotalLivros(long totalLivros) {
+        this.totalLivros = totalLivros;
+    }
+    
+    public long getTotalAutores() {
+        return totalAutores;
+    }
+    
+    public void setTotalAutores(long totalAutores) {
+        this.totalAutores = totalAutores;
+    }
+    
+    public long getAutoresVivos() {
+        return autoresVivos;
+    }
+    
+    public void setAutoresVivos(long autoresVivos) {
+        this.autoresVivos = autoresVivos;
+    }
+    
+    public long getAutoresFalecidos() {
+        return totalAutores - autoresVivos;
+    }
+    
+    /**
+     * Quantidade de livros por código de idioma, do mais frequente ao menos frequente
+     */
+    public Map<String, Long> getLivrosPorIdioma() {
+        return livrosPorIdioma;
+    }
+    
+    public void setLivrosPorIdioma(Map<String, Long> livrosPorIdioma) {
+        this.livrosPorIdioma = livrosPorIdioma;
+    }
+    
+    /**
+     * Quantidade de autores por século de nascimento (16 = 1501 a 1600; negativos antes de Cristo), em ordem
+     */
+    public Map<Integer, Long> getAutoresPorSeculo() {
+        return autoresPorSeculo;
+    }
+    
+    public void setAutoresPorSeculo(Map<Integer, Long> autoresPorSeculo) {
+        this.autoresPorSeculo = autoresPorSeculo;
+    }
+    
+    @Override
+    public String toString() {
+        return "EstatisticasCatalogoDto{" +
+                "totalLivros=" + totalLivros +
+                ", totalAutores=" + totalAutores +
+                ", autoresVivos=" + autoresVivos +
+                ", livrosPorIdioma=" + livrosPorIdioma +
+                ", autoresPorSeculo=" + autoresPorSeculo +
+                '}';
+    }
+}
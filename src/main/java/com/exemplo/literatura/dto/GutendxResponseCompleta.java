@@ -4,8 +4,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonAlias;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -153,15 +157,39 @@ public class GutendxResponseCompleta {
     
     /**
      * Obtém os livros mais populares (por número de downloads)
+     * Mantém só os "limite" melhores num heap (o pior no topo), em vez de ordenar a
+     * página inteira; empates ficam na ordem da página, como na ordenação estável
      */
     public List<LivroCompletoDto> getLivrosMaisPopulares(int limite) {
-        if (livros == null) return List.of();
+        if (limite < 0) {
+            throw new IllegalArgumentException(Integer.toString(limite));
+        }
+        if (livros == null || limite == 0) return List.of();
         
-        return livros.stream()
-                .filter(livro -> livro.getNumeroDownloads() != null)
-                .sorted((l1, l2) -> Integer.compare(l2.getNumeroDownloads(), l1.getNumeroDownloads()))
-                .limit(limite)
-                .collect(Collectors.toList());
+        // Posição na página de cada livro, para desempatar
+        Comparator<Map.Entry<Integer, LivroCompletoDto>> popularidade = Comparator
+                .<Map.Entry<Integer, LivroCompletoDto>>comparingInt(entrada -> entrada.getValue().getNumeroDownloads())
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Integer, LivroCompletoDto>> melhores =
+                new PriorityQueue<>(Math.min(limite, livros.size()) + 1, popularidade);
+        
+        for (int i = 0; i < livros.size(); i++) {
+            LivroCompletoDto livro = livros.get(i);
+            if (livro.getNumeroDownloads() == null) {
+                continue;
+            }
+            Map.Entry<Integer, LivroCompletoDto> entrada = Map.entry(i, livro);
+            if (melhores.size() < limite) {
+                melhores.add(entrada);
+            } else if (popularidade.compare(entrada, melhores.peek()) > 0) {
+                melhores.poll();
+                melhores.add(entrada);
+            }
+        }
+        
+        List<Map.Entry<Integer, LivroCompletoDto>> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(popularidade.reversed());
+        return ordenados.stream().map(Map.Entry::getValue).collect(Collectors.toList());
     }
     
     /**
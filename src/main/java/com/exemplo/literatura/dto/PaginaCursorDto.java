@@ -0,0 +1,46 @@
+package com.exemplo.literatura.dto;
+
+import java.util.List;
+
+/**
+ * DTO de uma página de listagem paginada por cursor (keyset)
+ * O cliente repete a chamada passando proximoCursor até ele vir nulo
+ */
+public class PaginaCursorDto<T> {
+    
+    private List<T> itens;
+    private String proximoCursor;
+    
+    // Construtores
+    public PaginaCursorDto() {}
+    
+    public PaginaCursorDto(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+    
+    // Getters e Setters
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+    
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+    
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+    
+    public boolean isTemProxima() {
+        return proximoCursor != null;
+    }
+    
+    public int getTamanho() {
+        return itens != null ? itens.size() : 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.exemplo.literatura.dto;
+
+/**
+ * DTO com o resultado (parcial ou final) de uma importação em lote do catálogo
+ * Acumula contadores por página e calcula as taxas de páginas e linhas por segundo
+ */
+public class ResultadoImportacaoDto {
+    
+    private int paginasProcessadas;
+    private int livrosInseridos;
+    private int autoresInseridos;
+    private int livrosAtualizados;
+    private int livrosIgnorados;
+    private long duracaoMillis;
+    private String erro;
+    
+    // Construtores
+    public ResultadoImportacaoDto() {}
+    
+    public ResultadoImportacaoDto(int livrosInseridos, int autoresInseridos, int livrosIgnorados) {
+        this.livrosInseridos = livrosInseridos;
+        this.autoresInseridos = autoresInseridos;
+        this.livrosIgnorados = livrosIgnorados;
+    }
+    
+    // Getters e Setters
+    public int getPaginasProcessadas() {
+        return paginasProcessadas;
+    }
+    
+    public void setPaginasProcessadas(int paginasProcessadas) {
+        this.paginasProcessadas = paginasProcessadas;
+    }
+    
+    public int getLivrosInseridos() {
+        return livrosInseridos;
+    }
+    
+    public void setLivrosInseridos(int livrosInseridos) {
+        this.livrosInseridos = livrosInseridos;
+    }
+    
+    public int getAutoresInseridos() {
+        return autoresInseridos;
+    }
+    
+    public void setAutoresInseridos(int autoresInseridos) {
+        this.autoresInseridos = autoresInseridos;
+    }
+    
+    public int getLivrosAtualizados() {
+        return livrosAtualizados;
+    }
+    
+    public void setLivrosAtualizados(int livrosAtualizados) {
+        this.livrosAtualizados = livrosAtualizados;
+    }
+    
+    public int getLivrosIgnorados() {
+        return livrosIgnorados;
+    }
+    
+    public void setLivrosIgnorados(int livrosIgnorados) {
+        this.livrosIgnorados = livrosIgnorados;
+    }
+    
+    public long getDuracaoMillis() {
+        return duracaoMillis;
+    }
+    
+    public void setDuracaoMillis(long duracaoMillis) {
+        this.duracaoMillis = duracaoMillis;
+    }
+    
+    public String getErro() {
+        return erro;
+    }
+    
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+    
+    // Métodos utilitários
+    
+    /**
+     * Soma o resultado de uma página aos totais
+     */
+    public void acumular(ResultadoImportacaoDto pagina) {
+        this.paginasProcessadas++;
+        this.livrosInseridos += pagina.getLivrosInseridos();
+        this.autoresInseridos += pagina.getAutoresInseridos();
+        this.livrosAtualizados += pagina.getLivrosAtualizados();
+        this.livrosIgnorados += pagina.getLivrosIgnorados();
+    }
+    
+    /**
+     * Total de linhas gravadas (livros inseridos ou atualizados + autores)
+     */
+    public int getLinhasGravadas() {
+        return livrosInseridos + livrosAtualizados + autoresInseridos;
+    }
+    
+    public double getPaginasPorSegundo() {
+        return duracaoMillis > 0 ? paginasProcessadas * 1000.0 / duracaoMillis : 0.0;
+    }
+    
+    public double getLinhasPorSegundo() {
+        return duracaoMillis > 0 ? getLinhasGravadas() * 1000.0 / duracaoMillis : 0.0;
+    }
+    
+    public boolean isSucesso() {
+        return erro == null;
+    }
+    
+    public String getResumo() {
+        return String.format("%d página(s) | %d livro(s) e %d autor(es) inseridos | %d atualizado(s) | %d ignorado(s) | %.2f pág/s | %.1f linhas/s",
+            paginasProcessadas, livrosInseridos, autoresInseridos, livrosAtualizados, livrosIgnorados,
+            getPaginasPorSegundo(), getLinhasPorSegundo());
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoImportacaoDto{" +
+                "paginasProcessadas=" + paginasProcessadas +
+                ", livrosInseridos=" + livrosInseridos +
+                ", autoresInseridos=" + autoresInseridos +
+                ", livrosAtualizados=" + livrosAtualizados +
+                ", livrosIgnorados=" + livrosIgnorados +
+                ", duracaoMillis=" + duracaoMillis +
+                ", erro='" + erro + '\'' +
+                '}';
+    }
+}
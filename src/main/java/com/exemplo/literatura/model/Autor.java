@@ -2,22 +2,33 @@ package com.exemplo.literatura.model;
 
 import jakarta.persistence.*;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
  * Entidade JPA para representar um autor no catálogo
  */
 @Entity
-@Table(name = "autores")
+@Table(name = "autores", indexes = {
+    // Paginação por cursor (keyset) na ordem de nome, desempatada pelo ID
+    @Index(name = "idx_autores_nome_id", columnList = "nome, id")
+})
 public class Autor {
     
+    // Sequência com alocação em blocos (pooled): permite ao Hibernate agrupar INSERTs em batch,
+    // o que não é possível com IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autores_seq")
+    @SequenceGenerator(name = "autores_seq", sequenceName = "autores_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
     private String nome;
     
+    // Chave de deduplicação: evita que importações concorrentes criem o mesmo autor duas vezes
+    @Column(name = "nome_normalizado", length = 200, unique = true)
+    private String nomeNormalizado;
+    
     @Column(name = "ano_nascimento")
     private Integer anoNascimento;
     
@@ -57,6 +68,10 @@ public class Autor {
         this.nome = nome;
     }
     
+    public String getNomeNormalizado() {
+        return nomeNormalizado;
+    }
+    
     public Integer getAnoNascimento() {
         return anoNascimento;
     }
@@ -81,6 +96,20 @@ public class Autor {
         this.livros = livros;
     }
     
+    @PrePersist
+    @PreUpdate
+    private void atualizarNomeNormalizado() {
+        this.nomeNormalizado = normalizarNome(nome);
+    }
+    
+    /**
+     * Normaliza o nome para comparação: sem espaços extras e em minúsculas
+     */
+    public static String normalizarNome(String nome) {
+        if (nome == null) return null;
+        return nome.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
     // Métodos utilitários
     public String getNomeFormatado() {
         if (nome == null || nome.trim().isEmpty()) {
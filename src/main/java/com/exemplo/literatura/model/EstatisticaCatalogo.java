@@ -0,0 +1,60 @@
+package com.exemplo.literatura.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidade JPA com um contador da tabela agregada de estatísticas do catálogo
+ * Cada linha é um contador (total de livros, livros em um idioma, autores nascidos
+ * em um século...) atualizado na mesma transação de cada inserção de livro ou autor,
+ * para que as estatísticas saiam de uma leitura só, sem varrer livros e autores
+ */
+@Entity
+@Table(name = "estatisticas_catalogo")
+public class EstatisticaCatalogo {
+    
+    public static final String LIVROS = "livros";
+    public static final String AUTORES = "autores";
+    public static final String AUTORES_VIVOS = "autores-vivos";
+    public static final String PREFIXO_IDIOMA = "idioma:";
+    public static final String PREFIXO_SECULO = "seculo:";
+    
+    @Id
+    @Column(length = 50)
+    private String chave;
+    
+    @Column(nullable = false)
+    private Long quantidade = 0L;
+    
+    // Construtores
+    public EstatisticaCatalogo() {}
+    
+    public EstatisticaCatalogo(String chave, Long quantidade) {
+        this.chave = chave;
+        this.quantidade = quantidade;
+    }
+    
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+    
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+    
+    public Long getQuantidade() {
+        return quantidade;
+    }
+    
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+    
+    @Override
+    public String toString() {
+        return "EstatisticaCatalogo{" +
+                "chave='" + chave + '\'' +
+                ", quantidade=" + quantidade +
+                '}';
+    }
+}
@@ -6,19 +6,34 @@ import java.util.Objects;
 /**
  * Entidade JPA para representar um livro no catálogo
  * Atributos conforme especificação: Título, Autor, Idiomas, Número de Downloads
+ * O autor é carregado sob demanda: as consultas de listagem pedem o grafo
+ * GRAFO_COM_AUTOR (um JOIN na mesma consulta) quando vão exibir o autor
  */
 @Entity
-@Table(name = "livros")
+@Table(name = "livros", indexes = {
+    // Paginação por cursor (keyset): ordem de título e de downloads, desempatada pelo ID
+    @Index(name = "idx_livros_titulo_id", columnList = "titulo, id"),
+    @Index(name = "idx_livros_downloads_id", columnList = "numero_downloads DESC, id"),
+    // Mais populares por idioma: o LIMIT lê só as primeiras entradas do idioma, já na ordem
+    @Index(name = "idx_livros_idioma_downloads", columnList = "idioma, numero_downloads DESC, id")
+})
+@NamedEntityGraph(name = Livro.GRAFO_COM_AUTOR, attributeNodes = @NamedAttributeNode("autor"))
 public class Livro {
     
+    public static final String GRAFO_COM_AUTOR = "Livro.comAutor";
+    
+    // Sequência com alocação em blocos (pooled): permite ao Hibernate agrupar INSERTs em batch,
+    // o que não é possível com IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livros_seq")
+    @SequenceGenerator(name = "livros_seq", sequenceName = "livros_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 500)
     private String titulo;
     
-    @ManyToOne(cascade = CascadeType.PERSIST, fetch = FetchType.EAGER)
+    // LAZY: com EAGER, cada consulta JPQL de livros disparava um SELECT extra por autor distinto
+    @ManyToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
     @JoinColumn(name = "autor_id")
     private Autor autor;
     
@@ -31,6 +46,9 @@ public class Livro {
     @Column(name = "gutenberg_id", unique = true)
     private Long gutenbergId; // ID original da API para evitar duplicatas
     
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo; // Assinatura de título/autor/idioma para sincronização incremental
+    
     // Construtores
     public Livro() {}
     
@@ -98,6 +116,14 @@ public class Livro {
         this.gutenbergId = gutenbergId;
     }
     
+    public String getHashConteudo() {
+        return hashConteudo;
+    }
+    
+    public void setHashConteudo(String hashConteudo) {
+        this.hashConteudo = hashConteudo;
+    }
+    
     // Métodos utilitários
     public String getNomeIdioma() {
         return switch (idioma != null ? idioma.toLowerCase() : "") {
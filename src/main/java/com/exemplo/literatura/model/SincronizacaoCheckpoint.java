@@ -0,0 +1,190 @@
+package com.exemplo.literatura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA com o ponto de controle da sincronização do catálogo com a API Gutendx
+ * Gravada na mesma transação de cada página, permite retomar uma sincronização interrompida
+ */
+@Entity
+@Table(name = "sincronizacao_checkpoint")
+public class SincronizacaoCheckpoint {
+    
+    public static final String CATALOGO_COMPLETO = "catalogo-completo";
+    
+    @Id
+    @Column(length = 50)
+    private String nome;
+    
+    @Column(name = "ultima_pagina_concluida", nullable = false)
+    private Integer ultimaPaginaConcluida = 0;
+    
+    @Column(name = "proxima_url", length = 500)
+    private String proximaUrl;
+    
+    @Column(nullable = false)
+    private Boolean concluida = false;
+    
+    @Column(name = "livros_inseridos", nullable = false)
+    private Integer livrosInseridos = 0;
+    
+    @Column(name = "livros_atualizados", nullable = false)
+    private Integer livrosAtualizados = 0;
+    
+    @Column(name = "livros_ignorados", nullable = false)
+    private Integer livrosIgnorados = 0;
+    
+    @Column(name = "total_livros_api")
+    private Integer totalLivrosApi;
+    
+    @Column(name = "iniciada_em")
+    private LocalDateTime iniciadaEm;
+    
+    @Column(name = "atualizada_em")
+    private LocalDateTime atualizadaEm;
+    
+    // Construtores
+    public SincronizacaoCheckpoint() {}
+    
+    public SincronizacaoCheckpoint(String nome) {
+        this.nome = nome;
+        this.iniciadaEm = LocalDateTime.now();
+        this.atualizadaEm = this.iniciadaEm;
+    }
+    
+    // Getters e Setters
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public Integer getUltimaPaginaConcluida() {
+        return ultimaPaginaConcluida;
+    }
+    
+    public void setUltimaPaginaConcluida(Integer ultimaPaginaConcluida) {
+        this.ultimaPaginaConcluida = ultimaPaginaConcluida;
+    }
+    
+    public String getProximaUrl() {
+        return proximaUrl;
+    }
+    
+    public void setProximaUrl(String proximaUrl) {
+        this.proximaUrl = proximaUrl;
+    }
+    
+    public Boolean getConcluida() {
+        return concluida;
+    }
+    
+    public void setConcluida(Boolean concluida) {
+        this.concluida = concluida;
+    }
+    
+    public Integer getLivrosInseridos() {
+        return livrosInseridos;
+    }
+    
+    public void setLivrosInseridos(Integer livrosInseridos) {
+        this.livrosInseridos = livrosInseridos;
+    }
+    
+    public Integer getLivrosAtualizados() {
+        return livrosAtualizados;
+    }
+    
+    public void setLivrosAtualizados(Integer livrosAtualizados) {
+        this.livrosAtualizados = livrosAtualizados;
+    }
+    
+    public Integer getLivrosIgnorados() {
+        return livrosIgnorados;
+    }
+    
+    public void setLivrosIgnorados(Integer livrosIgnorados) {
+        this.livrosIgnorados = livrosIgnorados;
+    }
+    
+    public Integer getTotalLivrosApi() {
+        return totalLivrosApi;
+    }
+    
+    public void setTotalLivrosApi(Integer totalLivrosApi) {
+        this.totalLivrosApi = totalLivrosApi;
+    }
+    
+    public LocalDateTime getIniciadaEm() {
+        return iniciadaEm;
+    }
+    
+    public void setIniciadaEm(LocalDateTime iniciadaEm) {
+        this.iniciadaEm = iniciadaEm;
+    }
+    
+    public LocalDateTime getAtualizadaEm() {
+        return atualizadaEm;
+    }
+    
+    public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+    
+    // Métodos utilitários
+    
+    /**
+     * Registra uma página concluída e os contadores dela
+     */
+    public void registrarPagina(int pagina, String proximaUrl, int inseridos, int atualizados, int ignorados) {
+        this.ultimaPaginaConcluida = pagina;
+        this.proximaUrl = proximaUrl;
+        this.concluida = proximaUrl == null;
+        this.livrosInseridos += inseridos;
+        this.livrosAtualizados += atualizados;
+        this.livrosIgnorados += ignorados;
+        this.atualizadaEm = LocalDateTime.now();
+    }
+    
+    /**
+     * Recomeça uma nova passada completa a partir da primeira página
+     */
+    public void reiniciar() {
+        this.ultimaPaginaConcluida = 0;
+        this.proximaUrl = null;
+        this.concluida = false;
+        this.livrosInseridos = 0;
+        this.livrosAtualizados = 0;
+        this.livrosIgnorados = 0;
+        this.iniciadaEm = LocalDateTime.now();
+        this.atualizadaEm = this.iniciadaEm;
+    }
+    
+    public int getLivrosProcessados() {
+        return livrosInseridos + livrosAtualizados + livrosIgnorados;
+    }
+    
+    /**
+     * Percentual aproximado do catálogo da API já percorrido
+     */
+    public double getPercentualConcluido() {
+        if (Boolean.TRUE.equals(concluida)) return 100.0;
+        if (totalLivrosApi == null || totalLivrosApi == 0) return 0.0;
+        return Math.min(100.0, getLivrosProcessados() * 100.0 / totalLivrosApi);
+    }
+    
+    @Override
+    public String toString() {
+        return "SincronizacaoCheckpoint{" +
+                "nome='" + nome + '\'' +
+                ", ultimaPaginaConcluida=" + ultimaPaginaConcluida +
+                ", concluida=" + concluida +
+                ", livrosInseridos=" + livrosInseridos +
+                ", livrosAtualizados=" + livrosAtualizados +
+                ", livrosIgnorados=" + livrosIgnorados +
+                '}';
+    }
+}
@@ -1,13 +1,20 @@
 package com.exemplo.literatura.repository;
 
 import com.exemplo.literatura.model.Autor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações com autores
@@ -19,6 +26,10 @@ public interface AutorRepository extends JpaRepository<Autor, Long> {
     // Consulta derivada para buscar autor por nome exato
     Optional<Autor> findByNome(String nome);
     
+    // Consulta para resolver, em uma única ida ao banco, os IDs de vários autores pelo nome normalizado
+    @Query("SELECT a.nomeNormalizado, a.id FROM Autor a WHERE a.nomeNormalizado IN :nomes")
+    List<Object[]> findIdsPorNomesNormalizados(@Param("nomes") Collection<String> nomesNormalizados);
+    
     // Consulta derivada para buscar autores por nome (case insensitive)
     List<Autor> findByNomeContainingIgnoreCase(String nome);
     
@@ -29,12 +40,30 @@ public interface AutorRepository extends JpaRepository<Autor, Long> {
     // Um autor estava vivo em um ano se:
     // - Nasceu antes ou no ano especificado E
     // - Morreu depois do ano especificado OU ainda está vivo (ano_morte é null)
-    @Query("SELECT a FROM Autor a WHERE a.anoNascimento <= :ano AND (a.anoMorte IS NULL OR a.anoMorte >= :ano)")
+    // Mesma ordem do índice de períodos de vida (nascimento, depois nome)
+    @Query("SELECT a FROM Autor a WHERE a.anoNascimento <= :ano AND (a.anoMorte IS NULL OR a.anoMorte >= :ano) " +
+           "ORDER BY a.anoNascimento, a.nome")
     List<Autor> findAutoresVivosNoAno(@Param("ano") Integer ano);
     
+    // Autores vivos em algum momento entre dois anos (o período de vida se sobrepõe ao intervalo)
+    @Query("SELECT a FROM Autor a WHERE a.anoNascimento <= :anoFim AND (a.anoMorte IS NULL OR a.anoMorte >= :anoInicio) " +
+           "ORDER BY a.anoNascimento, a.nome")
+    List<Autor> findAutoresVivosNoPeriodo(@Param("anoInicio") Integer anoInicio, @Param("anoFim") Integer anoFim);
+    
+    // Projeção (id, nascimento, morte) para montar o índice de períodos de vida em memória
+    @Query("SELECT a.id, a.anoNascimento, a.anoMorte FROM Autor a")
+    List<Object[]> findPeriodosDeVida();
+    
     // Consulta derivada para buscar autores vivos (ano de morte nulo)
     List<Autor> findByAnoMorteIsNull();
     
+    // Contagem derivada dos autores vivos (sem carregar as entidades)
+    long countByAnoMorteIsNull();
+    
+    // Autores por ano de nascimento, para recalcular a contagem por século da tabela agregada
+    @Query("SELECT a.anoNascimento, COUNT(a) FROM Autor a WHERE a.anoNascimento IS NOT NULL GROUP BY a.anoNascimento")
+    List<Object[]> contarAutoresPorAnoNascimento();
+    
     // Consulta derivada para buscar autores por período de nascimento
     List<Autor> findByAnoNascimentoBetween(Integer anoInicio, Integer anoFim);
     
@@ -42,6 +71,21 @@ public interface AutorRepository extends JpaRepository<Autor, Long> {
     @Query("SELECT a FROM Autor a JOIN a.livros l GROUP BY a ORDER BY COUNT(l) DESC")
     List<Autor> findAutoresComMaisLivros();
     
+    // Mesma consulta limitada no banco (LIMIT), com desempate pelo ID para a ordem ser estável
+    @Query("SELECT a FROM Autor a JOIN a.livros l GROUP BY a ORDER BY COUNT(l) DESC, a.id")
+    List<Autor> findAutoresComMaisLivros(Pageable limite);
+    
+    // Paginação por cursor (keyset) na ordem de nome: continua depois do último (nome, ID) da página anterior
+    Slice<Autor> findByOrderByNomeAscIdAsc(Pageable pagina);
+    
+    @Query("SELECT a FROM Autor a WHERE a.nome >= :nome AND (a.nome > :nome OR a.id > :id) ORDER BY a.nome, a.id")
+    Slice<Autor> findPaginaPorNomeApos(@Param("nome") String nome, @Param("id") Long id, Pageable pagina);
+    
+    // Percorre todos os autores por nome sem montar a lista (usar dentro de uma transação e fechar o Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Autor a ORDER BY a.nome, a.id")
+    Stream<Autor> streamTodosPorNome();
+    
     // Consulta para contar total de autores
     @Query("SELECT COUNT(a) FROM Autor a")
     Long contarTotalAutores();
@@ -0,0 +1,12 @@
+package com.exemplo.literatura.repository;
+
+import com.exemplo.literatura.model.EstatisticaCatalogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório da tabela agregada de estatísticas do catálogo
+ */
+@Repository
+public interface EstatisticaCatalogoRepository extends JpaRepository<EstatisticaCatalogo, String> {
+}
@@ -1,43 +1,77 @@
 package com.exemplo.literatura.repository;
 
 import com.exemplo.literatura.model.Livro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações com livros
  * Inclui consultas derivadas para busca por idioma
+ * As consultas que devolvem livros para exibição usam o grafo Livro.GRAFO_COM_AUTOR:
+ * o autor vem no mesmo SELECT, sem uma consulta extra por livro
  */
 @Repository
 public interface LivroRepository extends JpaRepository<Livro, Long> {
     
     // Consulta derivada para buscar livros por idioma
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findByIdioma(String idioma);
     
     // Consulta derivada para buscar livros por idioma ordenados por título
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findByIdiomaOrderByTitulo(String idioma);
     
     // Consulta derivada para buscar livros por idioma ordenados por downloads (decrescente)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findByIdiomaOrderByNumeroDownloadsDesc(String idioma);
     
     // Consulta derivada para buscar por título (case insensitive)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findByTituloContainingIgnoreCase(String titulo);
     
     // Consulta derivada para buscar por nome do autor
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findByAutorNomeContainingIgnoreCase(String nomeAutor);
     
     // Consulta para verificar se já existe um livro com o mesmo Gutenberg ID
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     Optional<Livro> findByGutenbergId(Long gutenbergId);
     
+    // Consulta para carregar, com o autor, os livros encontrados pelo índice de texto
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    List<Livro> findComAutorByIdIn(Collection<Long> ids);
+    
+    // Consulta para descobrir, em uma única ida ao banco, quais Gutenberg IDs já estão no catálogo
+    @Query("SELECT l.gutenbergId FROM Livro l WHERE l.gutenbergId IN :ids")
+    List<Long> findGutenbergIdsExistentes(@Param("ids") Collection<Long> ids);
+    
+    // Consulta para a sincronização incremental: downloads, assinatura de conteúdo e idioma dos livros de uma página
+    @Query("SELECT l.gutenbergId, l.numeroDownloads, l.hashConteudo, l.idioma FROM Livro l WHERE l.gutenbergId IN :ids")
+    List<Object[]> findAssinaturasPorGutenbergIds(@Param("ids") Collection<Long> ids);
+    
+    // Consulta de projeção para montar o índice de texto (sem carregar entidades)
+    @Query("SELECT l.id, l.gutenbergId, l.titulo, a.nome, l.idioma, l.numeroDownloads FROM Livro l LEFT JOIN l.autor a")
+    List<Object[]> findDadosIndiceTexto();
+    
     // Consulta para buscar todos os livros ordenados por título
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findAllByOrderByTitulo();
     
     // Consulta para buscar todos os livros ordenados por downloads (decrescente)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     List<Livro> findAllByOrderByNumeroDownloadsDesc();
     
     // Consulta personalizada para estatísticas por idioma
@@ -45,9 +79,48 @@ public interface LivroRepository extends JpaRepository<Livro, Long> {
     List<Object[]> contarLivrosPorIdioma();
     
     // Consulta personalizada para livros mais populares
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
     @Query("SELECT l FROM Livro l WHERE l.numeroDownloads IS NOT NULL ORDER BY l.numeroDownloads DESC")
     List<Livro> findLivrosMaisPopulares();
     
+    // Os N livros mais baixados (limite = PageRequest.ofSize(n)), lidos em ordem do índice (numero_downloads DESC, id)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    @Query("SELECT l FROM Livro l WHERE l.numeroDownloads IS NOT NULL ORDER BY l.numeroDownloads DESC, l.id")
+    List<Livro> findLivrosMaisPopulares(Pageable limite);
+    
+    // Os N livros mais baixados de um idioma, pelo índice (idioma, numero_downloads DESC, id)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    @Query("SELECT l FROM Livro l WHERE l.idioma = :idioma AND l.numeroDownloads IS NOT NULL " +
+           "ORDER BY l.numeroDownloads DESC, l.id")
+    List<Livro> findLivrosMaisPopularesPorIdioma(@Param("idioma") String idioma, Pageable limite);
+    
+    // Paginação por cursor (keyset): cada página continua depois do último (título, ID) da anterior,
+    // com o mesmo custo em qualquer profundidade. Pedir sempre a página 0 (PageRequest.ofSize):
+    // o Slice busca um livro a mais para saber se há próxima. O "titulo >= :titulo" redundante
+    // é o que deixa o banco começar a varredura do índice (titulo, id) direto na posição do cursor
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    Slice<Livro> findByOrderByTituloAscIdAsc(Pageable pagina);
+    
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    @Query("SELECT l FROM Livro l WHERE l.titulo >= :titulo AND (l.titulo > :titulo OR l.id > :id) ORDER BY l.titulo, l.id")
+    Slice<Livro> findPaginaPorTituloApos(@Param("titulo") String titulo, @Param("id") Long id, Pageable pagina);
+    
+    // Paginação por cursor na ordem de downloads (decrescente), só livros com downloads informados
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    Slice<Livro> findByNumeroDownloadsNotNullOrderByNumeroDownloadsDescIdAsc(Pageable pagina);
+    
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    @Query("SELECT l FROM Livro l WHERE l.numeroDownloads <= :downloads AND " +
+           "(l.numeroDownloads < :downloads OR l.id > :id) " +
+           "ORDER BY l.numeroDownloads DESC, l.id")
+    Slice<Livro> findPaginaPorDownloadsApos(@Param("downloads") Integer downloads, @Param("id") Long id, Pageable pagina);
+    
+    // Percorre o catálogo inteiro por título sem montar a lista (usar dentro de uma transação e fechar o Stream)
+    @EntityGraph(Livro.GRAFO_COM_AUTOR)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l FROM Livro l ORDER BY l.titulo, l.id")
+    Stream<Livro> streamTodosPorTitulo();
+    
     // Consulta para verificar se existe livro com título e autor específicos
     boolean existsByTituloAndAutorNome(String titulo, String nomeAutor);
 }
@@ -0,0 +1,12 @@
+package com.exemplo.literatura.repository;
+
+import com.exemplo.literatura.model.SincronizacaoCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório para os pontos de controle da sincronização com a API Gutendx
+ */
+@Repository
+public interface SincronizacaoCheckpointRepository extends JpaRepository<SincronizacaoCheckpoint, String> {
+}
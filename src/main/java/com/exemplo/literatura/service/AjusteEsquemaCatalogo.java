@@ -0,0 +1,153 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.repository.AutorRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ajustes de dados que o ddl-auto=update não faz num banco que já existia
+ * Roda depois de criados todos os beans e antes do servidor web aceitar requisições
+ * (e antes dos ouvintes da subida), para que nenhuma importação use o catálogo
+ * ainda sem ajuste. Cada passo não faz nada quando não há o que ajustar
+ */
+@Service
+public class AjusteEsquemaCatalogo implements SmartInitializingSingleton {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticas;
+    
+    private static final int TAMANHO_LOTE = 1000;
+    
+    // allocationSize das sequências de Livro e Autor (otimizador pooled do Hibernate)
+    private static final int BLOCO_SEQUENCIA = 50;
+    
+    /**
+     * Uma falha aqui interrompe a subida: seguir sem o ajuste duplicaria autores
+     * ou faria os próximos INSERTs colidirem com IDs existentes
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        alinharSequencias();
+        preencherNomesNormalizados();
+    }
+    
+    /**
+     * Coloca livros_seq e autores_seq acima do maior ID de cada tabela
+     * Num banco criado quando os IDs eram IDENTITY, o ddl-auto=update cria as sequências
+     * começando em 1 e o Hibernate passaria a gerar IDs que já existem. Como em
+     * SnapshotCatalogoService, a sequência é reiniciada um bloco depois do maior ID,
+     * para que o próximo bloco pooled (valor - BLOCO_SEQUENCIA + 1 .. valor) comece depois dele
+     * @return quantidade de sequências reiniciadas
+     */
+    public int alinharSequencias() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        boolean postgres = "PostgreSQL".equalsIgnoreCase(banco);
+        
+        int reiniciadas = 0;
+        for (String[] tabela : new String[][] {{"autores", "autores_seq"}, {"livros", "livros_seq"}}) {
+            String sequencia = tabela[1];
+            long maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela[0], Long.class);
+            long proximo = jdbcTemplate.queryForObject(postgres
+                    ? "SELECT nextval('" + sequencia + "')"
+                    : "SELECT NEXT VALUE FOR " + sequencia, Long.class);
+            if (maiorId > 0 && proximo - BLOCO_SEQUENCIA < maiorId) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequencia + " RESTART WITH " + (maiorId + 1 + BLOCO_SEQUENCIA));
+                System.out.printf("🔧 Sequência %s reiniciada depois do maior ID de %s (%d)%n", sequencia, tabela[0], maiorId);
+                reiniciadas++;
+            }
+        }
+        return reiniciadas;
+    }
+    
+    /**
+     * Preenche nome_normalizado dos autores gravados antes da coluna existir e junta
+     * os autores repetidos (mesmo nome normalizado) no de menor ID, ou no que já tinha
+     * a coluna preenchida. Os livros dos repetidos passam para o autor que fica
+     * Sem isso a resolução de autores não encontra essas linhas e o upsert cria
+     * uma segunda cópia de cada uma
+     * @return quantidade de autores repetidos removidos
+     */
+    public int preencherNomesNormalizados() {
+        Integer removidos = transactionTemplate.execute(status -> {
+            List<Object[]> semChave = jdbcTemplate.query(
+                "SELECT id, nome FROM autores WHERE nome_normalizado IS NULL ORDER BY id",
+                (linha, i) -> new Object[] {linha.getLong(1), Autor.normalizarNome(linha.getString(2))});
+            if (semChave.isEmpty()) {
+                return 0;
+            }
+            
+            // Autor que fica para cada nome: o que já tinha a chave ou o primeiro sem ela
+            Map<String, Long> mantidos = buscarIdsExistentes(semChave);
+            List<Object[]> chaves = new ArrayList<>();
+            List<Object[]> repetidos = new ArrayList<>();
+            for (Object[] autor : semChave) {
+                Long id = (Long) autor[0];
+                String nomeNormalizado = (String) autor[1];
+                Long mantido = mantidos.putIfAbsent(nomeNormalizado, id);
+                if (mantido == null) {
+                    chaves.add(new Object[] {nomeNormalizado, id});
+                } else {
+                    repetidos.add(new Object[] {mantido, id});
+                }
+            }
+            
+            // Repetidos saem antes de a chave ser gravada, por causa da restrição única
+            if (!repetidos.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE livros SET autor_id = ? WHERE autor_id = ?", repetidos, TAMANHO_LOTE,
+                    (ps, repetido) -> {
+                        ps.setLong(1, (Long) repetido[0]);
+                        ps.setLong(2, (Long) repetido[1]);
+                    });
+                jdbcTemplate.batchUpdate("DELETE FROM autores WHERE id = ?", repetidos, TAMANHO_LOTE,
+                    (ps, repetido) -> ps.setLong(1, (Long) repetido[1]));
+            }
+            jdbcTemplate.batchUpdate("UPDATE autores SET nome_normalizado = ? WHERE id = ?", chaves, TAMANHO_LOTE,
+                (ps, chave) -> {
+                    ps.setString(1, (String) chave[0]);
+                    ps.setLong(2, (Long) chave[1]);
+                });
+            
+            System.out.printf("🔧 Nome normalizado preenchido em %d autor(es); %d repetido(s) juntado(s)%n",
+                chaves.size(), repetidos.size());
+            return repetidos.size();
+        });
+        
+        if (removidos != null && removidos > 0) {
+            estatisticas.recalcular();
+        }
+        return removidos != null ? removidos : 0;
+    }
+    
+    private Map<String, Long> buscarIdsExistentes(List<Object[]> semChave) {
+        Map<String, Long> ids = new HashMap<>();
+        for (int inicio = 0; inicio < semChave.size(); inicio += TAMANHO_LOTE) {
+            List<String> nomes = semChave.subList(inicio, Math.min(semChave.size(), inicio + TAMANHO_LOTE)).stream()
+                    .map(autor -> (String) autor[1])
+                    .toList();
+            for (Object[] linha : autorRepository.findIdsPorNomesNormalizados(nomes)) {
+                ids.put((String) linha[0], (Long) linha[1]);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,28 @@
+package com.exemplo.literatura.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Alterações de estruturas em memória (caches e índices) que acompanham gravações no banco
+ * Dentro de uma transação só valem depois do commit (um rollback não deixa a memória
+ * com o que o banco desfez); fora de transação valem na hora
+ */
+final class AposCommit {
+    
+    private AposCommit() {
+    }
+    
+    static void executar(Runnable alteracao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alteracao.run();
+                }
+            });
+        } else {
+            alteracao.run();
+        }
+    }
+}
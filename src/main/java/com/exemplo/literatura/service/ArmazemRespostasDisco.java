@@ -0,0 +1,338 @@
+package com.exemplo.literatura.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Armazém em disco das respostas da API Gutendx, para sobreviver a reinícios
+ * Os corpos ficam num arquivo só de acréscimo (respostas.dat) e um índice em
+ * memória (chave da requisição -> posição, ETag, Last-Modified) é reconstruído
+ * lendo o arquivo na abertura; o último registro de cada chave vale. Um final de
+ * arquivo truncado (queda no meio de uma gravação) é descartado
+ *
+ * Formato de cada registro:
+ *   int MARCA | UTF chave | UTF etag | UTF lastModified | int crc32 | int tamanho | bytes corpo
+ */
+@Service
+public class ArmazemRespostasDisco {
+    
+    private static final int MARCA = 0x47445831; // "GDX1"
+    private static final String ARQUIVO = "respostas.dat";
+    
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final Map<String, Registro> indice = new ConcurrentHashMap<>();
+    private long bytesDescartaveis;
+    
+    private final AtomicLong gravacoes = new AtomicLong();
+    private final AtomicLong leituras = new AtomicLong();
+    
+    /**
+     * @param diretorio diretório do arquivo de respostas (criado se não existir)
+     * @param habilitado false para não gravar nem consultar nada
+     */
+    @Autowired
+    public ArmazemRespostasDisco(@Value("${gutendx.disco.diretorio:dados/gutendx}") String diretorio,
+                                 @Value("${gutendx.disco.habilitado:true}") boolean habilitado) {
+        if (!habilitado) {
+            this.arquivo = null;
+            this.canal = null;
+            return;
+        }
+        
+        try {
+            Path pasta = Path.of(diretorio);
+            Files.createDirectories(pasta);
+            this.arquivo = pasta.resolve(ARQUIVO);
+            compactarSeNecessario(this.arquivo);
+            this.canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            carregarIndice();
+            System.out.printf("💾 Armazém de respostas Gutendx: %d resposta(s) em %s%n", indice.size(), arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o armazém de respostas em " + diretorio, e);
+        }
+    }
+    
+    /**
+     * Armazém que nunca guarda nada (serviços criados fora do Spring)
+     */
+    public static ArmazemRespostasDisco desabilitado() {
+        return new ArmazemRespostasDisco(null, false);
+    }
+    
+    public boolean isHabilitado() {
+        return canal != null;
+    }
+    
+    /**
+     * Validadores guardados para a chave (para montar o GET condicional)
+     * @return registro com ETag/Last-Modified, ou null se a chave não estiver no disco
+     */
+    public Registro obterRegistro(String chave) {
+        return isHabilitado() ? indice.get(chave) : null;
+    }
+    
+    /**
+     * Lê do disco o corpo guardado para o registro, conferindo o CRC
+     */
+    public String lerCorpo(Registro registro) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(registro.tamanho());
+            long posicao = registro.posicaoCorpo();
+            while (buffer.hasRemaining()) {
+                int lidos = canal.read(buffer, posicao);
+                if (lidos < 0) {
+                    throw new EOFException("Registro além do fim do arquivo");
+                }
+                posicao += lidos;
+            }
+            
+            byte[] corpo = buffer.array();
+            if ((int) calcularCrc(corpo) != registro.crc()) {
+                throw new IOException("CRC inválido no armazém de respostas");
+            }
+            leituras.incrementAndGet();
+            return new String(corpo, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Acrescenta uma resposta ao final do arquivo e aponta o índice para ela
+     * Respostas sem ETag nem Last-Modified não são guardadas (não há como revalidar)
+     */
+    public synchronized void gravar(String chave, String etag, String lastModified, String corpo) {
+        if (!isHabilitado() || (etag == null && lastModified == null)) {
+            return;
+        }
+        
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        try {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(bytes.length + 256);
+            DataOutputStream dados = new DataOutputStream(saida);
+            dados.writeInt(MARCA);
+            dados.writeUTF(chave);
+            dados.writeUTF(etag != null ? etag : "");
+            dados.writeUTF(lastModified != null ? lastModified : "");
+            int crc = (int) calcularCrc(bytes);
+            dados.writeInt(crc);
+            dados.writeInt(bytes.length);
+            int tamanhoCabecalho = dados.size();
+            dados.write(bytes);
+            
+            long inicio = canal.size();
+            ByteBuffer buffer = ByteBuffer.wrap(saida.toByteArray());
+            long posicao = inicio;
+            while (buffer.hasRemaining()) {
+                posicao += canal.write(buffer, posicao);
+            }
+            
+            Registro anterior = indice.put(chave, new Registro(
+                vazioParaNulo(etag), vazioParaNulo(lastModified),
+                inicio, inicio + tamanhoCabecalho, bytes.length, crc));
+            if (anterior != null) {
+                bytesDescartaveis += anterior.tamanhoRegistro();
+            }
+            gravacoes.incrementAndGet();
+        } catch (IOException e) {
+            // Falha no disco não deve derrubar a requisição: a resposta só não fica guardada
+            System.err.println("⚠️ Não foi possível gravar resposta no disco: " + e.getMessage());
+        }
+    }
+    
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", isHabilitado());
+        estatisticas.put("respostas", indice.size());
+        estatisticas.put("gravacoes", gravacoes.get());
+        estatisticas.put("leituras", leituras.get());
+        try {
+            estatisticas.put("tamanhoArquivo", isHabilitado() ? canal.size() : 0L);
+        } catch (IOException e) {
+            estatisticas.put("tamanhoArquivo", -1L);
+        }
+        estatisticas.put("bytesDescartaveis", bytesDescartaveis);
+        return estatisticas;
+    }
+    
+    @PreDestroy
+    public void fechar() throws IOException {
+        if (canal != null && canal.isOpen()) {
+            canal.force(false);
+            canal.close();
+        }
+    }
+    
+    /**
+     * Lê os registros em sequência reconstruindo o índice; para no primeiro
+     * registro incompleto ou inválido e trunca o arquivo ali
+     */
+    private void carregarIndice() throws IOException {
+        long posicaoValida = 0;
+        canal.position(0);
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(Channels.newInputStream(canal), 64 * 1024));
+        ContadorLeitura contador = new ContadorLeitura();
+        
+        try {
+            while (true) {
+                Registro registro = lerRegistro(entrada, contador);
+                if (registro == null) {
+                    break;
+                }
+                posicaoValida = contador.posicao;
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Armazém de respostas com final inválido; descartando a partir do byte " + posicaoValida);
+        }
+        
+        if (canal.size() > posicaoValida) {
+            canal.truncate(posicaoValida);
+        }
+    }
+    
+    private Registro lerRegistro(DataInputStream entrada, ContadorLeitura contador) throws IOException {
+        int marca;
+        try {
+            marca = entrada.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (marca != MARCA) {
+            throw new IOException("Marca de registro inválida");
+        }
+        
+        String chave = entrada.readUTF();
+        String etag = entrada.readUTF();
+        String lastModified = entrada.readUTF();
+        int crc = entrada.readInt();
+        int tamanho = entrada.readInt();
+        
+        long posicaoCorpo = contador.posicao + 4
+                + tamanhoUtf(chave) + tamanhoUtf(etag) + tamanhoUtf(lastModified) + 8;
+        
+        byte[] corpo = entrada.readNBytes(tamanho);
+        if (corpo.length < tamanho || (int) calcularCrc(corpo) != crc) {
+            throw new IOException("Registro incompleto");
+        }
+        
+        Registro registro = new Registro(vazioParaNulo(etag), vazioParaNulo(lastModified),
+            contador.posicao, posicaoCorpo, tamanho, crc);
+        Registro anterior = indice.put(chave, registro);
+        if (anterior != null) {
+            bytesDescartaveis += anterior.tamanhoRegistro();
+        }
+        contador.posicao = posicaoCorpo + tamanho;
+        return registro;
+    }
+    
+    /**
+     * Reescreve o arquivo só com o último registro de cada chave quando mais da
+     * metade dele é de respostas substituídas. Feito antes de abrir o canal
+     */
+    private static void compactarSeNecessario(Path arquivo) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return;
+        }
+        
+        ArmazemRespostasDisco atual = new ArmazemRespostasDisco(arquivo);
+        try {
+            if (atual.bytesDescartaveis * 2 <= atual.canal.size()) {
+                return;
+            }
+            
+            Path temporario = arquivo.resolveSibling(ARQUIVO + ".compactando");
+            Files.deleteIfExists(temporario);
+            ArmazemRespostasDisco novo = new ArmazemRespostasDisco(temporario);
+            try {
+                for (Map.Entry<String, Registro> entrada : atual.indice.entrySet()) {
+                    Registro registro = entrada.getValue();
+                    novo.gravar(entrada.getKey(), registro.etag(), registro.lastModified(), atual.lerCorpo(registro));
+                }
+            } finally {
+                novo.fechar();
+            }
+            atual.fechar();
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("🧹 Armazém de respostas compactado: " + atual.indice.size() + " resposta(s)");
+        } finally {
+            atual.fechar();
+        }
+    }
+    
+    /**
+     * Abre um arquivo específico sem compactar (usado pela própria compactação)
+     */
+    private ArmazemRespostasDisco(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        this.canal = FileChannel.open(arquivo,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        carregarIndice();
+    }
+    
+    private static long calcularCrc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+    
+    /**
+     * Tamanho gravado por writeUTF (2 bytes de comprimento + UTF-8 modificado)
+     */
+    private static int tamanhoUtf(String valor) {
+        int tamanho = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                tamanho++;
+            } else if (c > 0x07FF) {
+                tamanho += 3;
+            } else {
+                tamanho += 2;
+            }
+        }
+        return tamanho + 2;
+    }
+    
+    private static String vazioParaNulo(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor;
+    }
+    
+    private static final class ContadorLeitura {
+        private long posicao;
+    }
+    
+    /**
+     * Entrada do índice: validadores HTTP e onde está o corpo no arquivo
+     */
+    public record Registro(String etag, String lastModified, long inicio, long posicaoCorpo, int tamanho, int crc) {
+        
+        long tamanhoRegistro() {
+            return posicaoCorpo + tamanho - inicio;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.LivroDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Busca de vários termos na API Gutendx de uma vez
+ * Todos os termos são disparados juntos pelo ClienteGutendx (cujo motor limita as
+ * requisições em voo e aproveita o cache), então o tempo total fica perto do da
+ * busca mais lenta, e não da soma. Cada termo é entregue assim que sua busca
+ * termina, só com os livros que nenhum termo anterior já entregou. A entrega roda
+ * numa thread própria, fora das threads do cliente HTTP: quem recebe pode
+ * demorar (ex: escrever para um cliente lento) sem atrasar as outras chamadas à API
+ */
+@Service
+public class BuscaMultiplaGutendx {
+    
+    private final ClienteGutendx clienteGutendx;
+    private final int maximoTermos;
+    
+    // Entregas aos consumidores; cada busca ocupa no máximo uma thread por vez
+    private final ExecutorService executorEntregas;
+    
+    /**
+     * @param maximoTermos quantidade máxima de termos distintos por chamada
+     */
+    @Autowired
+    public BuscaMultiplaGutendx(ClienteGutendx clienteGutendx,
+                                @Value("${gutendx.busca-multipla.maximo-termos:50}") int maximoTermos) {
+        this.clienteGutendx = clienteGutendx;
+        this.maximoTermos = maximoTermos;
+        
+        AtomicInteger contador = new AtomicInteger();
+        this.executorEntregas = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "gutendx-busca-multipla-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        executorEntregas.shutdownNow();
+    }
+    
+    /**
+     * Resultado de um termo: livros ainda não entregues e os IDs dos que outro termo já trouxe
+     * (erro preenchido, e listas vazias, se a busca do termo falhou)
+     */
+    public record ResultadoTermo(String termo, List<LivroDto> livros, List<Long> repetidos,
+                                 long milissegundos, String erro) {}
+    
+    /**
+     * Resumo da busca, quando todos os termos terminaram
+     */
+    public record Resumo(int termos, int livrosDistintos, int falhas, long milissegundos) {}
+    
+    /**
+     * Dispara a busca de todos os termos em paralelo
+     * @param termos termos de busca (vazios e repetidos, sem diferença de caixa, são ignorados)
+     * @param aoConcluir recebe cada termo assim que ele termina, um por vez e na ordem em que
+     *                   terminaram, numa thread de entrega; se lançar exceção, os termos seguintes
+     *                   não são entregues e o futuro falha com ela
+     * @return futuro com o resumo, completado depois do último termo entregue
+     * @throws IllegalArgumentException se não houver termos ou houver mais que o máximo
+     */
+    public CompletableFuture<Resumo> buscar(List<String> termos, Consumer<ResultadoTermo> aoConcluir) {
+        List<String> distintos = normalizar(termos);
+        if (distintos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um termo de busca");
+        }
+        if (distintos.size() > maximoTermos) {
+            throw new IllegalArgumentException("Máximo de " + maximoTermos + " termos por busca (recebidos " + distintos.size() + ")");
+        }
+        
+        long inicio = System.nanoTime();
+        // Guardado pelo próprio conjunto: separar repetidos e enfileirar a entrega é uma
+        // etapa só, para que a ordem de entrega seja a ordem em que cada livro foi visto.
+        // A entrega em si roda fora da trava, encadeada na anterior
+        Set<Long> entregues = new HashSet<>();
+        int[] falhas = new int[1];
+        AtomicReference<CompletableFuture<Void>> ultimaEntrega = new AtomicReference<>(CompletableFuture.completedFuture(null));
+        
+        List<CompletableFuture<Void>> buscas = new ArrayList<>(distintos.size());
+        for (String termo : distintos) {
+            buscas.add(clienteGutendx.buscarLivros(termo).collectList().toFuture().handle((livros, erro) -> {
+                long milissegundos = (System.nanoTime() - inicio) / 1_000_000;
+                synchronized (entregues) {
+                    ResultadoTermo resultado;
+                    if (erro != null) {
+                        falhas[0]++;
+                        resultado = new ResultadoTermo(termo, List.of(), List.of(), milissegundos, mensagem(erro));
+                    } else {
+                        List<LivroDto> novos = new ArrayList<>();
+                        List<Long> repetidos = new ArrayList<>();
+                        for (LivroDto livro : livros) {
+                            if (livro.getId() == null || entregues.add(livro.getId())) {
+                                novos.add(livro);
+                            } else {
+                                repetidos.add(livro.getId());
+                            }
+                        }
+                        resultado = new ResultadoTermo(termo, novos, repetidos, milissegundos, null);
+                    }
+                    ultimaEntrega.set(ultimaEntrega.get().thenRunAsync(() -> aoConcluir.accept(resultado), executorEntregas));
+                    return null;
+                }
+            }));
+        }
+        
+        return CompletableFuture.allOf(buscas.toArray(CompletableFuture[]::new))
+                .thenCompose(concluido -> ultimaEntrega.get())
+                .thenApply(entregue -> {
+                    synchronized (entregues) {
+                        return new Resumo(distintos.size(), entregues.size(), falhas[0],
+                                (System.nanoTime() - inicio) / 1_000_000);
+                    }
+                });
+    }
+    
+    private static List<String> normalizar(List<String> termos) {
+        Map<String, String> distintos = new LinkedHashMap<>();
+        if (termos != null) {
+            for (String termo : termos) {
+                if (termo != null && !termo.isBlank()) {
+                    distintos.putIfAbsent(termo.trim().toLowerCase(Locale.ROOT), termo.trim());
+                }
+            }
+        }
+        return new ArrayList<>(distintos.values());
+    }
+    
+    private static String mensagem(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,221 @@
+package com.exemplo.literatura.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache limitado das respostas JSON da API Gutendx
+ * Indexado pela consulta normalizada (termo, idioma, página, ID, ordenação), com
+ * despejo LRU por quantidade de entradas e por peso (total de caracteres dos JSONs)
+ * e TTL por entrada. Usado pelo GutendxHttpService
+ */
+@Service
+public class CacheRespostasGutendx {
+    
+    private final int maximoEntradas;
+    private final long pesoMaximo;
+    private final Duration ttlPadrao;
+    private final Duration ttlLivro;
+    private final LongSupplier relogio;
+    
+    // Ordem de acesso: o primeiro da iteração é o menos usado recentemente
+    private final LinkedHashMap<Chave, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long pesoAtual;
+    
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    private final AtomicLong despejos = new AtomicLong();
+    private final AtomicLong expiracoes = new AtomicLong();
+    
+    /**
+     * @param maximoEntradas quantidade máxima de respostas guardadas
+     * @param pesoMaximo soma máxima do tamanho (em caracteres) dos JSONs guardados
+     * @param ttlPadrao validade das buscas e listagens
+     * @param ttlLivro validade das consultas de um livro por ID (mudam raramente)
+     */
+    @Autowired
+    public CacheRespostasGutendx(@Value("${gutendx.cache.maximo-entradas:1000}") int maximoEntradas,
+                                 @Value("${gutendx.cache.peso-maximo-caracteres:20000000}") long pesoMaximo,
+                                 @Value("${gutendx.cache.ttl:10m}") Duration ttlPadrao,
+                                 @Value("${gutendx.cache.ttl-livro:1h}") Duration ttlLivro) {
+        this(maximoEntradas, pesoMaximo, ttlPadrao, ttlLivro, System::nanoTime);
+    }
+    
+    /**
+     * @param relogio fonte de tempo em nanossegundos (substituível nos testes)
+     */
+    CacheRespostasGutendx(int maximoEntradas, long pesoMaximo, Duration ttlPadrao, Duration ttlLivro,
+                          LongSupplier relogio) {
+        this.maximoEntradas = maximoEntradas;
+        this.pesoMaximo = pesoMaximo;
+        this.ttlPadrao = ttlPadrao;
+        this.ttlLivro = ttlLivro;
+        this.relogio = relogio;
+    }
+    
+    /**
+     * Cache que nunca guarda nada (serviços criados fora do Spring)
+     */
+    public static CacheRespostasGutendx desabilitado() {
+        return new CacheRespostasGutendx(0, 0, Duration.ZERO, Duration.ZERO);
+    }
+    
+    /**
+     * Devolve o JSON em cache para a consulta, ou null se não houver ou tiver expirado
+     */
+    public String obter(Chave chave) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && entrada.expiraEm() - relogio.getAsLong() <= 0) {
+                remover(chave, entrada);
+                expiracoes.incrementAndGet();
+                entrada = null;
+            }
+            if (entrada == null) {
+                faltas.incrementAndGet();
+                return null;
+            }
+            acertos.incrementAndGet();
+            return entrada.json();
+        }
+    }
+    
+    /**
+     * Guarda o JSON com o TTL do tipo de consulta (livro por ID ou busca/listagem)
+     */
+    public void armazenar(Chave chave, String json) {
+        armazenar(chave, json, chave.id() != null ? ttlLivro : ttlPadrao);
+    }
+    
+    /**
+     * Guarda o JSON com um TTL próprio. Respostas maiores que o peso máximo não entram
+     */
+    public void armazenar(Chave chave, String json, Duration ttl) {
+        if (json == null || ttl.isZero() || ttl.isNegative() || maximoEntradas <= 0 || json.length() > pesoMaximo) {
+            return;
+        }
+        
+        synchronized (entradas) {
+            Entrada anterior = entradas.remove(chave);
+            if (anterior != null) {
+                pesoAtual -= anterior.json().length();
+            }
+            
+            entradas.put(chave, new Entrada(json, relogio.getAsLong() + ttl.toNanos()));
+            pesoAtual += json.length();
+            
+            despejarExcedentes();
+        }
+    }
+    
+    public void limpar() {
+        synchronized (entradas) {
+            entradas.clear();
+            pesoAtual = 0;
+        }
+    }
+    
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        synchronized (entradas) {
+            estatisticas.put("entradas", entradas.size());
+            estatisticas.put("peso", pesoAtual);
+        }
+        estatisticas.put("maximoEntradas", maximoEntradas);
+        estatisticas.put("pesoMaximo", pesoMaximo);
+        estatisticas.put("ttlPadraoSegundos", ttlPadrao.toSeconds());
+        estatisticas.put("ttlLivroSegundos", ttlLivro.toSeconds());
+        estatisticas.put("acertos", acertos.get());
+        estatisticas.put("faltas", faltas.get());
+        estatisticas.put("despejos", despejos.get());
+        estatisticas.put("expiracoes", expiracoes.get());
+        return estatisticas;
+    }
+    
+    public long getAcertos() {
+        return acertos.get();
+    }
+    
+    public long getFaltas() {
+        return faltas.get();
+    }
+    
+    public long getDespejos() {
+        return despejos.get();
+    }
+    
+    /**
+     * Remove as entradas menos usadas recentemente até caber nos limites
+     * (entradas já expiradas na frente da fila saem primeiro sem contar como despejo)
+     */
+    private void despejarExcedentes() {
+        Iterator<Map.Entry<Chave, Entrada>> iterador = entradas.entrySet().iterator();
+        while ((entradas.size() > maximoEntradas || pesoAtual > pesoMaximo) && iterador.hasNext()) {
+            Map.Entry<Chave, Entrada> maisAntiga = iterador.next();
+            iterador.remove();
+            pesoAtual -= maisAntiga.getValue().json().length();
+            
+            if (maisAntiga.getValue().expiraEm() - relogio.getAsLong() <= 0) {
+                expiracoes.incrementAndGet();
+            } else {
+                despejos.incrementAndGet();
+            }
+        }
+    }
+    
+    private void remover(Chave chave, Entrada entrada) {
+        entradas.remove(chave);
+        pesoAtual -= entrada.json().length();
+    }
+    
+    private record Entrada(String json, long expiraEm) {}
+    
+    /**
+     * Consulta normalizada: termos com caixa e espaços diferentes caem na mesma entrada
+     */
+    public record Chave(String termo, String idioma, Integer pagina, Long id, String ordenacao) {
+        
+        public Chave {
+            termo = normalizar(termo);
+            idioma = normalizar(idioma);
+            ordenacao = normalizar(ordenacao);
+        }
+        
+        public static Chave busca(String termo) {
+            return new Chave(termo, null, null, null, null);
+        }
+        
+        public static Chave idioma(String idioma) {
+            return new Chave(null, idioma, null, null, null);
+        }
+        
+        public static Chave pagina(int pagina) {
+            return new Chave(null, null, pagina, null, null);
+        }
+        
+        public static Chave livro(Long id) {
+            return new Chave(null, null, null, id, null);
+        }
+        
+        public static Chave ordenacao(String ordenacao) {
+            return new Chave(null, null, null, null, ordenacao);
+        }
+        
+        private static String normalizar(String valor) {
+            if (valor == null) {
+                return null;
+            }
+            String normalizado = valor.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            return normalizado.isEmpty() ? null : normalizado;
+        }
+    }
+}
@@ -3,16 +3,44 @@ package com.exemplo.literatura.service;
 import com.exemplo.literatura.dto.GutendxResponseCompleta;
 import com.exemplo.literatura.dto.LivroCompletoDto;
 import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.dto.AutorSimplificadoDto;
+import com.exemplo.literatura.dto.EstatisticasCatalogoDto;
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.dto.ResultadoImportacaoDto;
 import com.exemplo.literatura.model.Livro;
 import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.SincronizacaoCheckpoint;
 import com.exemplo.literatura.repository.LivroRepository;
 import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Serviço principal para gerenciar o catálogo de livros e autores
@@ -32,11 +60,50 @@ public class CatalogoService {
     private AutorRepository autorRepository;
     
     @Autowired
-    private GutendxHttpService gutendxHttpService;
+    private GutendxService gutendxService;
     
     @Autowired
     private ConversaoDadosService conversaoService;
     
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private IndiceTextoCatalogo indiceTexto;
+    
+    @Autowired
+    private IndiceVidaAutores indiceVida;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticas;
+    
+    @Autowired
+    private LeituraMapeadaCatalogo leituraMapeada;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+    
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+    
+    /**
+     * Ordenações da listagem de livros por cursor
+     */
+    public enum OrdemLivros { TITULO, DOWNLOADS }
+    
+    // Mesma ordem de findAutoresVivosNoPeriodo, para o resultado não depender do caminho
+    private static final Comparator<Autor> ORDEM_NASCIMENTO = Comparator
+            .comparing(Autor::getAnoNascimento, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Autor::getNome, Comparator.nullsLast(Comparator.naturalOrder()));
+    
     /**
      * FUNCIONALIDADE OBRIGATÓRIA 1: Busca de livro por título
      * Busca na API Gutendx e salva o primeiro resultado no banco
@@ -46,7 +113,7 @@ public class CatalogoService {
             System.out.println("🔍 Buscando livro por título: " + titulo);
             
             // Buscar na API Gutendx
-            String jsonResposta = gutendxHttpService.obterJsonResposta(titulo);
+            String jsonResposta = gutendxService.obterJsonResposta(titulo);
             GutendxResponseCompleta resposta = conversaoService.converterResposta(jsonResposta);
             
             if (resposta.estaVazia()) {
@@ -69,6 +136,15 @@ public class CatalogoService {
             // Converter DTO para entidade e salvar
             Livro livro = converterDtoParaEntidade(livroDto);
             Livro livroSalvo = livroRepository.save(livro);
+            Map<String, Long> deltas = new HashMap<>();
+            EstatisticasCatalogoService.contarLivro(deltas, livroSalvo.getIdioma(), 1);
+            estatisticas.aplicar(deltas);
+            List<IndiceTextoCatalogo.Documento> documento = List.of(new IndiceTextoCatalogo.Documento(
+                livroSalvo.getId(), livroSalvo.getGutenbergId(), livroSalvo.getTitulo(),
+                livroSalvo.getAutor() != null ? livroSalvo.getAutor().getNome() : null,
+                livroSalvo.getIdioma(), livroSalvo.getNumeroDownloads()));
+            indiceTexto.indexar(documento);
+            leituraMapeada.gravar(documento);
             
             System.out.println("✅ Livro adicionado ao catálogo: " + livroSalvo.getTitulo());
             return livroSalvo;
@@ -89,6 +165,113 @@ public class CatalogoService {
         return livros;
     }
     
+    /**
+     * Listagem de livros paginada por cursor (keyset): cada página é uma consulta
+     * com LIMIT que continua depois do último item da anterior, com o mesmo custo
+     * em qualquer profundidade do catálogo. Com o modelo de leitura mapeado pronto,
+     * a página sai dele, sem consulta
+     * @param cursor proximoCursor da página anterior (nulo ou vazio = primeira página)
+     * @param tamanho itens por página (1 a 500)
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<LivroSimplificadoDto> listarLivrosPorCursor(OrdemLivros ordem, String cursor, int tamanho) {
+        Pageable pagina = PageRequest.ofSize(limitarTamanhoPagina(tamanho));
+        CursorKeyset posicao = cursor != null && !cursor.isBlank() ? CursorKeyset.decodificar(cursor) : null;
+        
+        PaginaCursorDto<LivroSimplificadoDto> mapeada = leituraMapeada.listarPorCursor(ordem, posicao, pagina.getPageSize());
+        if (mapeada != null) {
+            return mapeada;
+        }
+        
+        Slice<Livro> livros = switch (ordem) {
+            case TITULO -> posicao == null
+                    ? livroRepository.findByOrderByTituloAscIdAsc(pagina)
+                    : livroRepository.findPaginaPorTituloApos(posicao.valor(), posicao.id(), pagina);
+            case DOWNLOADS -> posicao == null
+                    ? livroRepository.findByNumeroDownloadsNotNullOrderByNumeroDownloadsDescIdAsc(pagina)
+                    : livroRepository.findPaginaPorDownloadsApos(posicao.valorInteiro(), posicao.id(), pagina);
+        };
+        
+        String proximoCursor = null;
+        if (livros.hasNext()) {
+            Livro ultimo = livros.getContent().get(livros.getNumberOfElements() - 1);
+            String chave = ordem == OrdemLivros.TITULO ? ultimo.getTitulo() : String.valueOf(ultimo.getNumeroDownloads());
+            proximoCursor = new CursorKeyset(chave, ultimo.getId()).codificar();
+        }
+        
+        List<LivroSimplificadoDto> itens = livros.getContent().stream().map(this::paraSimplificado).toList();
+        return new PaginaCursorDto<>(itens, proximoCursor);
+    }
+    
+    /**
+     * Os livros mais baixados do catálogo, ou de um idioma: o banco ordena e limita
+     * pelo índice de downloads, sem carregar o restante dos livros (ou o modelo de
+     * leitura mapeado responde, se estiver pronto)
+     * @param idioma código do idioma (nulo ou vazio = todos)
+     * @param limite quantidade de livros (até 500)
+     */
+    @Transactional(readOnly = true)
+    public List<LivroSimplificadoDto> listarLivrosMaisPopulares(String idioma, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        Pageable primeiros = PageRequest.ofSize(limitarTamanhoPagina(limite));
+        List<LivroSimplificadoDto> mapeados = leituraMapeada.listarMaisPopulares(
+            idioma == null || idioma.isBlank() ? null : idioma.trim().toLowerCase(), primeiros.getPageSize());
+        if (mapeados != null) {
+            return mapeados;
+        }
+        List<Livro> livros = idioma == null || idioma.isBlank()
+                ? livroRepository.findLivrosMaisPopulares(primeiros)
+                : livroRepository.findLivrosMaisPopularesPorIdioma(idioma.trim().toLowerCase(), primeiros);
+        return livros.stream().map(this::paraSimplificado).toList();
+    }
+    
+    private LivroSimplificadoDto paraSimplificado(Livro livro) {
+        return new LivroSimplificadoDto(livro.getGutenbergId(), livro.getTitulo(),
+                livro.getAutor() != null ? livro.getAutor().getNome() : null,
+                livro.getIdioma(), livro.getNumeroDownloads());
+    }
+    
+    /**
+     * Percorre o catálogo inteiro por título, um livro por vez, sem montar a lista:
+     * a cada bloco de livros o contexto de persistência é limpo (os livros e os
+     * autores trazidos pelo grafo), então a memória não cresce com o tamanho do catálogo
+     * @return quantidade de livros percorridos
+     */
+    @Transactional(readOnly = true)
+    public long percorrerLivrosPorTitulo(Consumer<Livro> consumidor) {
+        try (Stream<Livro> livros = livroRepository.streamTodosPorTitulo()) {
+            return percorrerLimpandoContexto(livros, consumidor);
+        }
+    }
+    
+    /**
+     * Percorre todos os autores por nome, um por vez, como percorrerLivrosPorTitulo
+     * @return quantidade de autores percorridos
+     */
+    @Transactional(readOnly = true)
+    public long percorrerAutoresPorNome(Consumer<Autor> consumidor) {
+        try (Stream<Autor> autores = autorRepository.streamTodosPorNome()) {
+            return percorrerLimpandoContexto(autores, consumidor);
+        }
+    }
+    
+    /**
+     * Entrega cada entidade do cursor e limpa o contexto a cada tamanhoLote entidades
+     * (detach só da entidade entregue deixaria para trás as associações carregadas junto)
+     */
+    private <T> long percorrerLimpandoContexto(Stream<T> entidades, Consumer<T> consumidor) {
+        long total = 0;
+        for (T entidade : (Iterable<T>) entidades::iterator) {
+            consumidor.accept(entidade);
+            if (++total % tamanhoLote == 0) {
+                entityManager.clear();
+            }
+        }
+        return total;
+    }
+    
     /**
      * FUNCIONALIDADE OBRIGATÓRIA 3: Listagem por idioma (consulta derivada)
      */
@@ -99,6 +282,189 @@ public class CatalogoService {
         return livros;
     }
     
+    /**
+     * Importação em lote de uma página da API Gutendx
+     * Resolve duplicatas e autores com uma consulta por página e grava
+     * autores e livros novos em batches JDBC, numa única transação
+     */
+    public ResultadoImportacaoDto importarLote(List<LivroCompletoDto> livrosDto) {
+        if (livrosDto == null || livrosDto.isEmpty()) {
+            return new ResultadoImportacaoDto();
+        }
+        
+        Map<Long, LivroCompletoDto> porGutenbergId = removerRepetidos(livrosDto);
+        
+        // Uma consulta para descobrir o que já está no catálogo
+        if (!porGutenbergId.isEmpty()) {
+            livroRepository.findGutenbergIdsExistentes(porGutenbergId.keySet())
+                    .forEach(porGutenbergId::remove);
+        }
+        int ignorados = livrosDto.size() - porGutenbergId.size();
+        
+        if (porGutenbergId.isEmpty()) {
+            return new ResultadoImportacaoDto(0, 0, ignorados);
+        }
+        
+        Map<String, Long> idsAutores = new HashMap<>();
+        int autoresInseridos = resolverAutoresEmLote(porGutenbergId.values(), idsAutores);
+        inserirLivrosEmLote(porGutenbergId.values(), idsAutores);
+        
+        return new ResultadoImportacaoDto(porGutenbergId.size(), autoresInseridos, ignorados);
+    }
+    
+    /**
+     * Sincronização incremental de uma página da API Gutendx
+     * Compara downloads e assinatura de conteúdo com o que está gravado (uma consulta
+     * por página), insere os livros novos, atualiza os alterados e ignora os demais.
+     * O ponto de controle é gravado na mesma transação, então uma falha nunca deixa
+     * a página gravada sem o checkpoint correspondente (nem o contrário)
+     */
+    public ResultadoImportacaoDto sincronizarLote(int pagina, GutendxResponseCompleta resposta) {
+        List<LivroCompletoDto> livrosDto = resposta.getLivros() != null ? resposta.getLivros() : List.of();
+        Map<Long, LivroCompletoDto> porGutenbergId = removerRepetidos(livrosDto);
+        
+        Map<Long, Object[]> assinaturas = new HashMap<>();
+        if (!porGutenbergId.isEmpty()) {
+            for (Object[] linha : livroRepository.findAssinaturasPorGutenbergIds(porGutenbergId.keySet())) {
+                assinaturas.put((Long) linha[0], linha);
+            }
+        }
+        
+        List<LivroCompletoDto> novos = new ArrayList<>();
+        List<LivroCompletoDto> alterados = new ArrayList<>();
+        for (LivroCompletoDto livroDto : porGutenbergId.values()) {
+            Object[] gravado = assinaturas.get(livroDto.getId());
+            if (gravado == null) {
+                novos.add(livroDto);
+            } else if (!Objects.equals(gravado[1], livroDto.getNumeroDownloads())
+                    || !Objects.equals(gravado[2], calcularHashConteudo(livroDto))) {
+                alterados.add(livroDto);
+            }
+        }
+        int ignorados = livrosDto.size() - novos.size() - alterados.size();
+        
+        Map<String, Long> idsAutores = new HashMap<>();
+        List<LivroCompletoDto> comAutor = new ArrayList<>(novos);
+        comAutor.addAll(alterados);
+        int autoresInseridos = resolverAutoresEmLote(comAutor, idsAutores);
+        
+        inserirLivrosEmLote(novos, idsAutores);
+        atualizarLivrosEmLote(alterados, idsAutores, assinaturas);
+        
+        SincronizacaoCheckpoint checkpoint = checkpointRepository.findById(SincronizacaoCheckpoint.CATALOGO_COMPLETO)
+                .orElseGet(() -> new SincronizacaoCheckpoint(SincronizacaoCheckpoint.CATALOGO_COMPLETO));
+        checkpoint.registrarPagina(pagina, resposta.temProximaPagina() ? resposta.getProximaPagina() : null,
+                novos.size(), alterados.size(), ignorados);
+        if (resposta.getTotalLivros() != null) {
+            checkpoint.setTotalLivrosApi(resposta.getTotalLivros());
+        }
+        checkpointRepository.save(checkpoint);
+        
+        ResultadoImportacaoDto resultado = new ResultadoImportacaoDto(novos.size(), autoresInseridos, ignorados);
+        resultado.setLivrosAtualizados(alterados.size());
+        return resultado;
+    }
+    
+    /**
+     * Obtém o ponto de controle da sincronização para continuar de onde parou.
+     * Se a última sincronização terminou (ou nunca houve uma), começa uma nova passada
+     */
+    public SincronizacaoCheckpoint prepararSincronizacao() {
+        SincronizacaoCheckpoint checkpoint = checkpointRepository.findById(SincronizacaoCheckpoint.CATALOGO_COMPLETO)
+                .orElseGet(() -> new SincronizacaoCheckpoint(SincronizacaoCheckpoint.CATALOGO_COMPLETO));
+        
+        if (Boolean.TRUE.equals(checkpoint.getConcluida())) {
+            checkpoint.reiniciar();
+        }
+        
+        return checkpointRepository.save(checkpoint);
+    }
+    
+    /**
+     * Progresso da sincronização atual ou da última concluída
+     */
+    @Transactional(readOnly = true)
+    public Optional<SincronizacaoCheckpoint> obterProgressoSincronizacao() {
+        return checkpointRepository.findById(SincronizacaoCheckpoint.CATALOGO_COMPLETO);
+    }
+    
+    /**
+     * Grava vários livros novos em batches JDBC do Hibernate e os inclui no índice de
+     * texto e no modelo de leitura mapeado (valem depois do commit, como as demais gravações)
+     * Os IDs vêm da sequência em blocos (allocationSize), então os INSERTs são
+     * agrupados de hibernate.jdbc.batch_size em hibernate.jdbc.batch_size; a cada
+     * bloco o contexto de persistência é descarregado e os livros gravados (com os
+     * autores novos que o persist levou junto) saem dele, para que não cresça com o
+     * tamanho da importação. O que o chamador já tinha no contexto continua gerenciado
+     * @param livros livros ainda não persistidos, com os autores carregados (o nome vai para os índices)
+     * @return quantidade de livros gravados
+     */
+    int salvarLivrosEmLote(List<Livro> livros) {
+        List<String> nomesAutores = new ArrayList<>(livros.size());
+        for (Livro livro : livros) {
+            nomesAutores.add(livro.getAutor() != null ? livro.getAutor().getNome() : null);
+        }
+        return salvarLivrosEmLote(livros, nomesAutores);
+    }
+    
+    /**
+     * @param nomesAutores nome do autor de cada livro, na mesma ordem (as referências
+     *                     de autor da importação não estão carregadas)
+     */
+    private int salvarLivrosEmLote(List<Livro> livros, List<String> nomesAutores) {
+        int gravados = 0;
+        Map<String, Long> deltas = new HashMap<>();
+        List<Object> doBloco = new ArrayList<>(tamanhoLote * 2);
+        
+        for (Livro livro : livros) {
+            // Referências de autor destacadas (de outra transação ou de um bloco anterior): reanexar pelo ID
+            Autor autor = livro.getAutor();
+            if (autor != null && autor.getId() != null && !entityManager.contains(autor)) {
+                livro.setAutor(entityManager.getReference(Autor.class, autor.getId()));
+                doBloco.add(livro.getAutor());
+            } else if (autor != null && autor.getId() == null) {
+                // Autor novo: gravado pelo cascade do persist
+                doBloco.add(autor);
+            }
+            
+            entityManager.persist(livro);
+            doBloco.add(livro);
+            EstatisticasCatalogoService.contarLivro(deltas, livro.getIdioma(), 1);
+            gravados++;
+            
+            if (gravados % tamanhoLote == 0) {
+                descarregar(doBloco);
+            }
+        }
+        
+        descarregar(doBloco);
+        estatisticas.aplicar(deltas);
+        
+        // IDs já atribuídos pela sequência no persist
+        List<IndiceTextoCatalogo.Documento> documentos = new ArrayList<>(livros.size());
+        for (int i = 0; i < livros.size(); i++) {
+            Livro livro = livros.get(i);
+            documentos.add(new IndiceTextoCatalogo.Documento(livro.getId(), livro.getGutenbergId(),
+                livro.getTitulo(), nomesAutores.get(i), livro.getIdioma(), livro.getNumeroDownloads()));
+        }
+        indiceTexto.indexar(documentos);
+        leituraMapeada.gravar(documentos);
+        return gravados;
+    }
+    
+    /**
+     * Envia os INSERTs pendentes e tira do contexto só as entidades que este lote colocou nele
+     */
+    private void descarregar(List<Object> doBloco) {
+        entityManager.flush();
+        for (Object entidade : doBloco) {
+            if (entityManager.contains(entidade)) {
+                entityManager.detach(entidade);
+            }
+        }
+        doBloco.clear();
+    }
+    
     // Métodos auxiliares
     
     /**
@@ -126,6 +492,7 @@ public class CatalogoService {
             livroDto.getNumeroDownloads(),
             livroDto.getId()
         );
+        livro.setHashConteudo(calcularHashConteudo(livroDto));
         
         return livro;
     }
@@ -134,22 +501,147 @@ public class CatalogoService {
      * Busca autor existente ou cria novo
      */
     private Autor buscarOuCriarAutor(AutorCompletoDto autorDto) {
-        String nomeAutor = autorDto.getNome();
+        // Cache por nome normalizado + upsert: não duplica o autor mesmo com importações concorrentes
+        return resolucaoAutores.buscarOuCriar(autorDto);
+    }
+    
+    /**
+     * Resolve os IDs dos primeiros autores de uma página inteira
+     * (cache em memória e, para o que faltar, uma consulta e um upsert em lote)
+     * @return quantidade de autores inseridos
+     */
+    private int resolverAutoresEmLote(Collection<LivroCompletoDto> livrosDto, Map<String, Long> idsAutores) {
+        List<AutorCompletoDto> autores = new ArrayList<>(livrosDto.size());
+        for (LivroCompletoDto livroDto : livrosDto) {
+            autores.add(livroDto.getPrimeiroAutor());
+        }
+        return resolucaoAutores.resolverIds(autores, idsAutores);
+    }
+    
+    /**
+     * Remove repetidos e livros sem ID dentro da própria página
+     */
+    private Map<Long, LivroCompletoDto> removerRepetidos(List<LivroCompletoDto> livrosDto) {
+        Map<Long, LivroCompletoDto> porGutenbergId = new LinkedHashMap<>();
+        for (LivroCompletoDto livroDto : livrosDto) {
+            if (livroDto.getId() != null && livroDto.getTitulo() != null) {
+                porGutenbergId.putIfAbsent(livroDto.getId(), livroDto);
+            }
+        }
+        return porGutenbergId;
+    }
+    
+    /**
+     * Insere livros novos pela API de gravação em lote do Hibernate
+     */
+    private void inserirLivrosEmLote(Collection<LivroCompletoDto> livrosDto, Map<String, Long> idsAutores) {
+        if (livrosDto.isEmpty()) {
+            return;
+        }
         
-        // Buscar autor existente
-        Optional<Autor> autorExistente = autorRepository.findByNome(nomeAutor);
-        if (autorExistente.isPresent()) {
-            return autorExistente.get();
+        List<Livro> livros = new ArrayList<>(livrosDto.size());
+        List<String> nomesAutores = new ArrayList<>(livrosDto.size());
+        for (LivroCompletoDto livroDto : livrosDto) {
+            Long autorId = obterIdAutor(livroDto, idsAutores);
+            Livro livro = new Livro(
+                limitar(livroDto.getTitulo(), 500),
+                autorId != null ? entityManager.getReference(Autor.class, autorId) : null,
+                obterIdiomaPrincipal(livroDto),
+                livroDto.getNumeroDownloads(),
+                livroDto.getId()
+            );
+            livro.setHashConteudo(calcularHashConteudo(livroDto));
+            livros.add(livro);
+            nomesAutores.add(obterNomeAutor(livroDto));
         }
         
-        // Criar novo autor
-        Autor novoAutor = new Autor(
-            nomeAutor,
-            autorDto.getAnoNascimento(),
-            autorDto.getAnoMorte()
-        );
+        salvarLivrosEmLote(livros, nomesAutores);
+    }
+    
+    /**
+     * Atualiza livros alterados na API em um único batch JDBC
+     * @param assinaturas linhas de findAssinaturasPorGutenbergIds (o idioma gravado
+     *                    ajusta a contagem por idioma se o livro mudou de idioma)
+     */
+    private void atualizarLivrosEmLote(Collection<LivroCompletoDto> livrosDto, Map<String, Long> idsAutores,
+                                       Map<Long, Object[]> assinaturas) {
+        if (livrosDto.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> linhas = new ArrayList<>(livrosDto.size());
+        List<IndiceTextoCatalogo.Documento> documentos = new ArrayList<>(livrosDto.size());
+        Map<String, Long> deltas = new HashMap<>();
+        for (LivroCompletoDto livroDto : livrosDto) {
+            String idiomaGravado = (String) assinaturas.get(livroDto.getId())[3];
+            if (!Objects.equals(idiomaGravado, obterIdiomaPrincipal(livroDto))) {
+                EstatisticasCatalogoService.contarLivro(deltas, idiomaGravado, -1);
+                EstatisticasCatalogoService.contarLivro(deltas, obterIdiomaPrincipal(livroDto), 1);
+            }
+            linhas.add(new Object[] {
+                limitar(livroDto.getTitulo(), 500),
+                obterIdAutor(livroDto, idsAutores),
+                obterIdiomaPrincipal(livroDto),
+                livroDto.getNumeroDownloads(),
+                calcularHashConteudo(livroDto),
+                livroDto.getId()
+            });
+            documentos.add(new IndiceTextoCatalogo.Documento(null, livroDto.getId(), limitar(livroDto.getTitulo(), 500),
+                obterNomeAutor(livroDto), obterIdiomaPrincipal(livroDto), livroDto.getNumeroDownloads()));
+        }
         
-        return autorRepository.save(novoAutor);
+        jdbcTemplate.batchUpdate(
+            "UPDATE livros SET titulo = ?, autor_id = ?, idioma = ?, numero_downloads = ?, hash_conteudo = ? WHERE gutenberg_id = ?",
+            linhas);
+        estatisticas.aplicar(deltas);
+        indiceTexto.atualizarPorGutenbergId(documentos);
+        leituraMapeada.atualizarPorGutenbergId(documentos);
+    }
+    
+    private String obterNomeAutor(LivroCompletoDto livroDto) {
+        AutorCompletoDto autorDto = livroDto.getPrimeiroAutor();
+        return autorDto != null ? limitar(autorDto.getNome(), 200) : null;
+    }
+    
+    private Long obterIdAutor(LivroCompletoDto livroDto, Map<String, Long> idsAutores) {
+        AutorCompletoDto autorDto = livroDto.getPrimeiroAutor();
+        return autorDto != null && autorDto.getNome() != null
+                ? idsAutores.get(Autor.normalizarNome(limitar(autorDto.getNome(), 200)))
+                : null;
+    }
+    
+    /**
+     * Assinatura SHA-256 dos campos gravados do livro (título, autor e idioma).
+     * O número de downloads é comparado à parte, por ser a coluna que mais muda
+     */
+    private String calcularHashConteudo(LivroCompletoDto livroDto) {
+        AutorCompletoDto autorDto = livroDto.getPrimeiroAutor();
+        String conteudo = limitar(livroDto.getTitulo(), 500) + '\u0000' +
+                (autorDto != null ? autorDto.getNome() + '\u0000' + autorDto.getAnoNascimento() + '\u0000' + autorDto.getAnoMorte() : "") + '\u0000' +
+                obterIdiomaPrincipal(livroDto);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+    
+    /**
+     * Idioma principal em minúsculas, como gravado na entidade
+     */
+    private String obterIdiomaPrincipal(LivroCompletoDto livroDto) {
+        if (livroDto.getIdiomas() != null && !livroDto.getIdiomas().isEmpty()) {
+            return limitar(livroDto.getIdiomas().get(0).toLowerCase(), 10);
+        }
+        return "unknown";
+    }
+    
+    /**
+     * Corta textos que excedem o tamanho da coluna
+     */
+    private String limitar(String texto, int tamanhoMaximo) {
+        return texto != null && texto.length() > tamanhoMaximo ? texto.substring(0, tamanhoMaximo) : texto;
     }
     
     /**
@@ -170,43 +662,88 @@ public class CatalogoService {
     // Métodos adicionais úteis
     
     /**
-     * Busca livros por título no catálogo local
+     * Busca livros por título no catálogo local (palavras do título, sem acentos,
+     * a última como prefixo). Enquanto o índice carrega, usa LIKE no banco
      */
+    @Transactional(readOnly = true)
     public List<Livro> buscarLivrosPorTituloLocal(String titulo) {
-        return livroRepository.findByTituloContainingIgnoreCase(titulo);
+        if (!indiceTexto.isPronto()) {
+            return livroRepository.findByTituloContainingIgnoreCase(titulo);
+        }
+        return carregarNaOrdem(indiceTexto.buscar(titulo, Integer.MAX_VALUE, IndiceTextoCatalogo.Campo.TITULO));
     }
     
     /**
-     * Busca livros por autor no catálogo local
+     * Busca livros por autor no catálogo local (mesmas regras da busca por título)
      */
+    @Transactional(readOnly = true)
     public List<Livro> buscarLivrosPorAutorLocal(String nomeAutor) {
-        return livroRepository.findByAutorNomeContainingIgnoreCase(nomeAutor);
+        if (!indiceTexto.isPronto()) {
+            return livroRepository.findByAutorNomeContainingIgnoreCase(nomeAutor);
+        }
+        return carregarNaOrdem(indiceTexto.buscar(nomeAutor, Integer.MAX_VALUE, IndiceTextoCatalogo.Campo.AUTOR));
+    }
+    
+    /**
+     * Busca de texto no catálogo local servida só pelo índice (sem ir ao banco)
+     * @param campos campos consultados (nenhum = título, autor e assuntos)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public IndiceTextoCatalogo.Resultado buscarNoCatalogo(String consulta, int limite, IndiceTextoCatalogo.Campo... campos) {
+        return indiceTexto.buscar(consulta, limite, campos);
+    }
+    
+    /**
+     * Carrega as entidades dos documentos encontrados mantendo a ordem do índice
+     */
+    private List<Livro> carregarNaOrdem(IndiceTextoCatalogo.Resultado resultado) {
+        List<Long> ids = resultado.documentos().stream().map(IndiceTextoCatalogo.Documento::id).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Livro> porId = new HashMap<>();
+        for (Livro livro : livroRepository.findComAutorByIdIn(ids)) {
+            porId.put(livro.getId(), livro);
+        }
+        
+        List<Livro> livros = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Livro livro = porId.get(id);
+            if (livro != null) {
+                livros.add(livro);
+            }
+        }
+        return livros;
     }
     
     /**
      * Obtém estatísticas do catálogo
      */
     public void exibirEstatisticasCatalogo() {
-        long totalLivros = livroRepository.count();
-        long totalAutores = autorRepository.count();
+        // Uma leitura da tabela agregada, em vez de contagens e agrupamentos sobre livros e autores
+        EstatisticasCatalogoDto resumo = estatisticas.obter();
         
         System.out.println("\n📊 ESTATÍSTICAS DO CATÁLOGO:");
         System.out.println("═".repeat(40));
-        System.out.println("📚 Total de livros: " + totalLivros);
-        System.out.println("👤 Total de autores: " + totalAutores);
+        System.out.println("📚 Total de livros: " + resumo.getTotalLivros());
+        System.out.println("👤 Total de autores: " + resumo.getTotalAutores());
         
         // Estatísticas por idioma
-        List<Object[]> estatisticasIdioma = livroRepository.contarLivrosPorIdioma();
-        if (!estatisticasIdioma.isEmpty()) {
+        if (!resumo.getLivrosPorIdioma().isEmpty()) {
             System.out.println("\n🌍 Livros por idioma:");
-            for (Object[] stat : estatisticasIdioma) {
-                String idioma = (String) stat[0];
-                Long quantidade = (Long) stat[1];
-                System.out.printf("   %s: %d livro(s)%n", obterNomeIdioma(idioma), quantidade);
-            }
+            resumo.getLivrosPorIdioma().forEach((idioma, quantidade) ->
+                System.out.printf("   %s: %d livro(s)%n", obterNomeIdioma(idioma), quantidade));
         }
     }
     
+    /**
+     * Estatísticas do catálogo (totais, idiomas e séculos) lidas da tabela agregada
+     */
+    @Transactional(readOnly = true)
+    public EstatisticasCatalogoDto obterEstatisticas() {
+        return estatisticas.obter();
+    }
+    
     /**
      * Verifica se o catálogo está vazio
      */
@@ -225,17 +762,73 @@ public class CatalogoService {
         return autores;
     }
     
+    /**
+     * Listagem de autores por nome paginada por cursor (mesmas regras de listarLivrosPorCursor)
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<AutorSimplificadoDto> listarAutoresPorCursor(String cursor, int tamanho) {
+        Pageable pagina = PageRequest.ofSize(limitarTamanhoPagina(tamanho));
+        CursorKeyset posicao = cursor != null && !cursor.isBlank() ? CursorKeyset.decodificar(cursor) : null;
+        Slice<Autor> autores = posicao == null
+                ? autorRepository.findByOrderByNomeAscIdAsc(pagina)
+                : autorRepository.findPaginaPorNomeApos(posicao.valor(), posicao.id(), pagina);
+        
+        String proximoCursor = null;
+        if (autores.hasNext()) {
+            Autor ultimo = autores.getContent().get(autores.getNumberOfElements() - 1);
+            proximoCursor = new CursorKeyset(ultimo.getNome(), ultimo.getId()).codificar();
+        }
+        
+        List<AutorSimplificadoDto> itens = autores.getContent().stream()
+                .map(autor -> new AutorSimplificadoDto(autor.getNome(), autor.getPeriodoVida()))
+                .toList();
+        return new PaginaCursorDto<>(itens, proximoCursor);
+    }
+    
+    private int limitarTamanhoPagina(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+    }
+    
     /**
      * FUNCIONALIDADE OBRIGATÓRIA 5: Listar autores vivos em determinado ano
      * Lista autores que estavam vivos em um ano específico
      */
+    @Transactional(readOnly = true)
     public List<Autor> listarAutoresVivosNoAno(Integer ano) {
         System.out.println("🕰️  Listando autores vivos no ano " + ano + "...");
-        List<Autor> autoresVivos = autorRepository.findAutoresVivosNoAno(ano);
+        List<Autor> autoresVivos = indiceVida.isPronto()
+                ? carregarAutores(indiceVida.vivosNoAno(ano))
+                : autorRepository.findAutoresVivosNoAno(ano);
         System.out.println("📊 Autores vivos em " + ano + ": " + autoresVivos.size());
         return autoresVivos;
     }
     
+    /**
+     * Lista autores vivos em algum momento entre os dois anos (inclusive)
+     */
+    @Transactional(readOnly = true)
+    public List<Autor> listarAutoresVivosNoPeriodo(int anoInicio, int anoFim) {
+        if (anoInicio > anoFim) {
+            throw new IllegalArgumentException("Ano inicial maior que o final: " + anoInicio + " > " + anoFim);
+        }
+        if (!indiceVida.isPronto()) {
+            return autorRepository.findAutoresVivosNoPeriodo(anoInicio, anoFim);
+        }
+        return carregarAutores(indiceVida.vivosNoPeriodo(anoInicio, anoFim));
+    }
+    
+    /**
+     * Carrega os autores devolvidos pelo índice, ordenados por nascimento e nome
+     */
+    private List<Autor> carregarAutores(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Autor> autores = new ArrayList<>(autorRepository.findAllById(ids));
+        autores.sort(ORDEM_NASCIMENTO);
+        return autores;
+    }
+    
     // Métodos auxiliares para autores
     
     /**
@@ -260,26 +853,25 @@ public class CatalogoService {
      * Obtém estatísticas dos autores
      */
     public void exibirEstatisticasAutores() {
-        long totalAutores = autorRepository.count();
-        List<Autor> autoresVivos = autorRepository.findByAnoMorteIsNull();
+        EstatisticasCatalogoDto resumo = estatisticas.obter();
         
         System.out.println("\n👥 ESTATÍSTICAS DOS AUTORES:");
         System.out.println("═".repeat(40));
-        System.out.println("📊 Total de autores: " + totalAutores);
-        System.out.println("💚 Autores ainda vivos: " + autoresVivos.size());
-        System.out.println("⚰️  Autores falecidos: " + (totalAutores - autoresVivos.size()));
+        System.out.println("📊 Total de autores: " + resumo.getTotalAutores());
+        System.out.println("💚 Autores ainda vivos: " + resumo.getAutoresVivos());
+        System.out.println("⚰️  Autores falecidos: " + resumo.getAutoresFalecidos());
         
-        if (totalAutores > 0) {
+        if (resumo.getTotalAutores() > 0) {
             // Estatísticas por século
             System.out.println("\n📅 Autores por século:");
-            exibirAutoresPorSeculo();
+            exibirAutoresPorSeculo(resumo.getAutoresPorSeculo());
         }
     }
     
     /**
      * Exibe autores agrupados por século de nascimento
      */
-    private void exibirAutoresPorSeculo() {
+    private void exibirAutoresPorSeculo(Map<Integer, Long> porSeculo) {
         // Séculos mais comuns na literatura
         int[][] seculos = {
             {1501, 1600, 16}, // Século XVI
@@ -291,9 +883,9 @@ public class CatalogoService {
         };
         
         for (int[] seculo : seculos) {
-            List<Autor> autoresSeculo = autorRepository.findAutoresPorSeculo(seculo[0], seculo[1]);
-            if (!autoresSeculo.isEmpty()) {
-                System.out.printf("   Século %d: %d autor(es)%n", seculo[2], autoresSeculo.size());
+            long quantidade = porSeculo.getOrDefault(seculo[2], 0L);
+            if (quantidade > 0) {
+                System.out.printf("   Século %d: %d autor(es)%n", seculo[2], quantidade);
             }
         }
     }
@@ -308,8 +900,12 @@ public class CatalogoService {
     /**
      * Obtém autores mais prolíficos (com mais livros)
      */
+    @Transactional(readOnly = true)
     public List<Autor> obterAutoresMaisProlificos(int limite) {
-        List<Autor> autores = autorRepository.findAutoresComMaisLivros();
-        return autores.stream().limit(limite).toList();
+        if (limite <= 0) {
+            return List.of();
+        }
+        // LIMIT no banco: antes todos os autores eram carregados e cortados em memória
+        return autorRepository.findAutoresComMaisLivros(PageRequest.ofSize(limite));
     }
 }
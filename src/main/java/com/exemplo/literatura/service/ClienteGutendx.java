@@ -0,0 +1,69 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.GutendxResponse;
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroCompletoDto;
+import com.exemplo.literatura.dto.LivroDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cliente reativo da API Gutendx: nenhuma operação bloqueia a thread chamadora.
+ * As chamadas só começam na inscrição e falham com IOException (status diferente
+ * de 200, falha de rede ou chamada recusada pela proteção). Quem precisa de uma
+ * API síncrona (os menus do console) usa o GutendxService
+ */
+public interface ClienteGutendx {
+    
+    /**
+     * Busca livros por termo de pesquisa (título, autor, etc.)
+     */
+    Flux<LivroDto> buscarLivros(String termo);
+    
+    /**
+     * Busca livros por código de idioma (ex: "en", "pt", "es")
+     */
+    Flux<LivroDto> buscarLivrosPorIdioma(String idioma);
+    
+    /**
+     * Busca um livro por ID; vazio se a API responder 404
+     */
+    Mono<LivroDto> buscarLivroPorId(Long id);
+    
+    /**
+     * Uma página da listagem do catálogo (começando em 1), com as informações de paginação
+     */
+    Mono<GutendxResponse> listarLivros(int pagina);
+    
+    /**
+     * JSON bruto da busca por termo, para as análises e conversões
+     */
+    Mono<String> obterJsonResposta(String termo);
+    
+    /**
+     * true se a listagem responder 200; nunca termina com erro
+     */
+    Mono<Boolean> testarConectividade();
+    
+    /**
+     * Páginas do catálogo a partir da URL informada, seguindo os links "next".
+     * Cada página só é baixada quando há demanda por ela, uma de cada vez
+     * @param urlInicial URL completa da primeira página (ex: a do checkpoint da sincronização)
+     */
+    Flux<GutendxResponseCompleta> percorrerPaginas(String urlInicial);
+    
+    /**
+     * Livros do catálogo a partir da URL informada, página a página. Mantém no
+     * máximo paginasAFrente páginas baixadas além da que está sendo consumida,
+     * então a memória não depende do tamanho do catálogo
+     * @param urlInicial URL completa da primeira página
+     * @param paginasAFrente páginas buscadas antes de o consumidor pedir (mínimo 1)
+     */
+    Flux<LivroCompletoDto> percorrerLivros(String urlInicial, int paginasAFrente);
+    
+    /**
+     * URL absoluta da página da listagem (começando em 1), para iniciar percorrerPaginas
+     * ou percorrerLivros; só monta o texto, sem chamada à API
+     */
+    String getUrlListagem(int pagina);
+}
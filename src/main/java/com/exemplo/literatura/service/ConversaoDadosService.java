@@ -1,11 +1,17 @@
 package com.exemplo.literatura.service;
 
 import com.exemplo.literatura.dto.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +43,77 @@ public class ConversaoDadosService {
         }
     }
     
+    /**
+     * Converte uma página da API lida direto de um InputStream (sem montar a String)
+     */
+    public GutendxResponseCompleta converterResposta(InputStream jsonResposta) {
+        List<LivroCompletoDto> livros = new ArrayList<>();
+        GutendxResponseCompleta resposta = lerPagina(jsonResposta, livros::add);
+        resposta.setLivros(livros);
+        return resposta;
+    }
+    
+    /**
+     * Lê uma página da API em fluxo, entregando cada livro ao consumidor assim que
+     * ele termina de ser lido. Só um livro fica em memória por vez; a resposta
+     * devolvida traz count/next/previous e a lista de livros vazia
+     * @param jsonResposta corpo da resposta (fechado ao final)
+     * @param consumidor recebe os livros na ordem do JSON
+     */
+    public GutendxResponseCompleta lerPagina(InputStream jsonResposta, Consumer<LivroCompletoDto> consumidor) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonResposta)) {
+            GutendxResponseCompleta resposta = new GutendxResponseCompleta();
+            resposta.setLivros(List.of());
+            
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Esperado um objeto JSON na raiz da resposta");
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                boolean nulo = valor == JsonToken.VALUE_NULL;
+                
+                // Mesmos nomes e aliases das anotações de GutendxResponseCompleta
+                switch (campo) {
+                    case "count", "total", "total_count" -> resposta.setTotalLivros(nulo ? null : parser.getValueAsInt());
+                    case "next", "next_page", "next_url" -> resposta.setProximaPagina(nulo ? null : parser.getValueAsString());
+                    case "previous", "prev_page", "prev_url", "previous_page" ->
+                        resposta.setPaginaAnterior(nulo ? null : parser.getValueAsString());
+                    case "results", "books", "data", "items" -> lerLivros(parser, consumidor);
+                    default -> parser.skipChildren();
+                }
+            }
+            return resposta;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao converter resposta JSON: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Percorre o array de livros; um objeto solto vale como array de um elemento
+     * (ACCEPT_SINGLE_VALUE_AS_ARRAY)
+     */
+    private void lerLivros(JsonParser parser, Consumer<LivroCompletoDto> consumidor) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            consumidor.accept(objectMapper.readValue(parser, LivroCompletoDto.class));
+            return;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                consumidor.accept(objectMapper.readValue(parser, LivroCompletoDto.class));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+    
     /**
      * Converte JSON de um livro individual para LivroCompletoDto
      */
@@ -0,0 +1,34 @@
+package com.exemplo.literatura.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação keyset: a chave de ordenação e o ID do último
+ * item da página, em Base64 (URL-safe) para ir na query string
+ */
+record CursorKeyset(String valor, long id) {
+    
+    String codificar() {
+        String bruto = id + ":" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static CursorKeyset decodificar(String cursor) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = bruto.indexOf(':');
+            return new CursorKeyset(bruto.substring(separador + 1), Long.parseLong(bruto.substring(0, separador)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
+    int valorInteiro() {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido para esta ordenação");
+        }
+    }
+}
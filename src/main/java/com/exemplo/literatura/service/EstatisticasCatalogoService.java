@@ -0,0 +1,202 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.EstatisticasCatalogoDto;
+import com.exemplo.literatura.model.EstatisticaCatalogo;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.EstatisticaCatalogoRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serviço da tabela agregada de estatísticas do catálogo
+ * Quem insere livros ou autores acumula as variações dos contadores (deltas) e as
+ * aplica com um upsert em lote na mesma transação da inserção; a leitura é um único
+ * SELECT na tabela agregada. recalcular() refaz todos os contadores a partir das
+ * tabelas de livros e autores (na primeira subida, ou se algo gravou por fora)
+ */
+@Service
+public class EstatisticasCatalogoService {
+    
+    @Autowired
+    private EstatisticaCatalogoRepository estatisticaRepository;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private static final int MAXIMO_TENTATIVAS_UPSERT = 3;
+    
+    private volatile String sqlUpsert;
+    
+    /**
+     * Acumula a entrada (sinal 1) ou saída (sinal -1) de um livro no idioma informado
+     */
+    public static void contarLivro(Map<String, Long> deltas, String idioma, long sinal) {
+        deltas.merge(EstatisticaCatalogo.LIVROS, sinal, Long::sum);
+        if (idioma != null) {
+            deltas.merge(EstatisticaCatalogo.PREFIXO_IDIOMA + idioma, sinal, Long::sum);
+        }
+    }
+    
+    /**
+     * Acumula a entrada de um autor (vivo se não tem ano de morte, como findByAnoMorteIsNull)
+     */
+    public static void contarAutor(Map<String, Long> deltas, Integer anoNascimento, Integer anoMorte) {
+        deltas.merge(EstatisticaCatalogo.AUTORES, 1L, Long::sum);
+        if (anoMorte == null) {
+            deltas.merge(EstatisticaCatalogo.AUTORES_VIVOS, 1L, Long::sum);
+        }
+        if (anoNascimento != null) {
+            deltas.merge(EstatisticaCatalogo.PREFIXO_SECULO + IndiceVidaAutores.seculo(anoNascimento), 1L, Long::sum);
+        }
+    }
+    
+    /**
+     * Aplica os deltas com um upsert em lote, na transação corrente.
+     * As chaves são gravadas sempre na mesma ordem, para que duas importações
+     * concorrentes travem as linhas na mesma sequência e não entrem em deadlock
+     */
+    public void aplicar(Map<String, Long> deltas) {
+        List<Object[]> linhas = new ArrayList<>(deltas.size());
+        for (Map.Entry<String, Long> delta : new TreeMap<>(deltas).entrySet()) {
+            if (delta.getValue() != 0) {
+                linhas.add(new Object[] {delta.getKey(), delta.getValue()});
+            }
+        }
+        if (linhas.isEmpty()) {
+            return;
+        }
+        
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                jdbcTemplate.batchUpdate(obterSqlUpsert(), linhas);
+                return;
+            } catch (DuplicateKeyException e) {
+                // MERGE do H2: outro importador criou a mesma chave entre a busca e a inserção
+                if (tentativa >= MAXIMO_TENTATIVAS_UPSERT) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Estatísticas do catálogo em uma única leitura da tabela agregada
+     */
+    public EstatisticasCatalogoDto obter() {
+        EstatisticasCatalogoDto estatisticas = new EstatisticasCatalogoDto();
+        Map<String, Long> porIdioma = new LinkedHashMap<>();
+        Map<Integer, Long> porSeculo = new TreeMap<>();
+        
+        for (EstatisticaCatalogo contador : estatisticaRepository.findAll()) {
+            String chave = contador.getChave();
+            long quantidade = contador.getQuantidade();
+            if (EstatisticaCatalogo.LIVROS.equals(chave)) {
+                estatisticas.setTotalLivros(quantidade);
+            } else if (EstatisticaCatalogo.AUTORES.equals(chave)) {
+                estatisticas.setTotalAutores(quantidade);
+            } else if (EstatisticaCatalogo.AUTORES_VIVOS.equals(chave)) {
+                estatisticas.setAutoresVivos(quantidade);
+            } else if (quantidade > 0 && chave.startsWith(EstatisticaCatalogo.PREFIXO_IDIOMA)) {
+                porIdioma.put(chave.substring(EstatisticaCatalogo.PREFIXO_IDIOMA.length()), quantidade);
+            } else if (quantidade > 0 && chave.startsWith(EstatisticaCatalogo.PREFIXO_SECULO)) {
+                porSeculo.put(Integer.parseInt(chave.substring(EstatisticaCatalogo.PREFIXO_SECULO.length())), quantidade);
+            }
+        }
+        
+        // Mesma ordem de contarLivrosPorIdioma (mais livros primeiro)
+        Map<String, Long> idiomasOrdenados = new LinkedHashMap<>();
+        porIdioma.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entrada -> idiomasOrdenados.put(entrada.getKey(), entrada.getValue()));
+        estatisticas.setLivrosPorIdioma(idiomasOrdenados);
+        estatisticas.setAutoresPorSeculo(new LinkedHashMap<>(porSeculo));
+        return estatisticas;
+    }
+    
+    /**
+     * Refaz todos os contadores a partir de livros e autores (consultas agrupadas),
+     * numa transação própria. Não deve correr junto com importações: as inserções
+     * feitas durante o recálculo podem ser contadas duas vezes
+     */
+    public EstatisticasCatalogoDto recalcular() {
+        long inicio = System.nanoTime();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> contadores = new LinkedHashMap<>();
+            contadores.put(EstatisticaCatalogo.LIVROS, livroRepository.count());
+            for (Object[] linha : livroRepository.contarLivrosPorIdioma()) {
+                contadores.put(EstatisticaCatalogo.PREFIXO_IDIOMA + linha[0], (Long) linha[1]);
+            }
+            contadores.put(EstatisticaCatalogo.AUTORES, autorRepository.count());
+            contadores.put(EstatisticaCatalogo.AUTORES_VIVOS, autorRepository.countByAnoMorteIsNull());
+            for (Object[] linha : autorRepository.contarAutoresPorAnoNascimento()) {
+                contadores.merge(EstatisticaCatalogo.PREFIXO_SECULO + IndiceVidaAutores.seculo((Integer) linha[0]),
+                        (Long) linha[1], Long::sum);
+            }
+            
+            jdbcTemplate.update("DELETE FROM estatisticas_catalogo");
+            List<Object[]> linhas = new ArrayList<>(contadores.size());
+            contadores.forEach((chave, quantidade) -> linhas.add(new Object[] {chave, quantidade}));
+            jdbcTemplate.batchUpdate("INSERT INTO estatisticas_catalogo (chave, quantidade) VALUES (?, ?)", linhas);
+        });
+        
+        System.out.printf("📊 Estatísticas do catálogo recalculadas em %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+        return obter();
+    }
+    
+    /**
+     * Na primeira subida (tabela agregada ainda vazia) calcula os contadores do que já está gravado
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void inicializarSeNecessario() {
+        if (!estatisticaRepository.existsById(EstatisticaCatalogo.LIVROS)) {
+            recalcular();
+        }
+    }
+    
+    /**
+     * Upsert que soma o delta ao contador, criando a linha se for a primeira vez
+     * (PostgreSQL: ON CONFLICT ... DO UPDATE; H2: MERGE com WHEN MATCHED/NOT MATCHED)
+     */
+    private String obterSqlUpsert() {
+        if (sqlUpsert == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName());
+            if ("PostgreSQL".equalsIgnoreCase(banco)) {
+                sqlUpsert = "INSERT INTO estatisticas_catalogo (chave, quantidade) VALUES (?, ?) " +
+                            "ON CONFLICT (chave) DO UPDATE SET quantidade = estatisticas_catalogo.quantidade + EXCLUDED.quantidade";
+            } else {
+                sqlUpsert = "MERGE INTO estatisticas_catalogo e " +
+                            "USING (VALUES (CAST(? AS VARCHAR(50)), CAST(? AS BIGINT))) AS v (chave, quantidade) " +
+                            "ON e.chave = v.chave " +
+                            "WHEN MATCHED THEN UPDATE SET quantidade = e.quantidade + v.quantidade " +
+                            "WHEN NOT MATCHED THEN INSERT (chave, quantidade) VALUES (v.chave, v.quantidade)";
+            }
+        }
+        return sqlUpsert;
+    }
+}
@@ -0,0 +1,229 @@
+package com.exemplo.literatura.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação do catálogo local em fluxo, para os jobs que consomem o catálogo inteiro
+ * Lê livros ou autores do cursor do banco (percorrerLivrosPorTitulo/percorrerAutoresPorNome)
+ * e escreve cada linha na saída assim que é lida: NDJSON por um único JsonGenerator
+ * reaproveitado em todas as linhas, ou CSV. Nada é acumulado, então a memória
+ * usada não depende do tamanho do catálogo
+ */
+@Service
+public class ExportacaoCatalogoService {
+    
+    public enum Conteudo { LIVROS, AUTORES }
+    
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String tipoMidia;
+        private final String extensao;
+        
+        Formato(String tipoMidia, String extensao) {
+            this.tipoMidia = tipoMidia;
+            this.extensao = extensao;
+        }
+        
+        public String getTipoMidia() {
+            return tipoMidia;
+        }
+        
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+    
+    private static final JsonFactory FABRICA_JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final int BUFFER_SAIDA = 64 * 1024;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    /**
+     * Escreve o conteúdo pedido na saída (que não é fechada)
+     * @param comprimir comprime com gzip (o fluxo gzip é finalizado no fim da exportação)
+     * @return quantidade de registros exportados
+     */
+    public long exportar(Conteudo conteudo, Formato formato, boolean comprimir, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        GZIPOutputStream gzip = comprimir ? new GZIPOutputStream(saida, BUFFER_SAIDA) : null;
+        OutputStream destino = gzip != null ? gzip : saida;
+        
+        long total;
+        try {
+            total = formato == Formato.NDJSON
+                    ? exportarNdjson(conteudo, destino)
+                    : exportarCsv(conteudo, destino);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (gzip != null) {
+            gzip.finish();
+        }
+        saida.flush();
+        
+        System.out.printf("📤 Exportação de %s em %s: %d registros em %d ms%n", conteudo.name().toLowerCase(),
+            formato.getExtensao(), total, (System.nanoTime() - inicio) / 1_000_000);
+        return total;
+    }
+    
+    /**
+     * Se o cabeçalho Accept-Encoding aceita gzip: "gzip" (ou "x-gzip") listado com q
+     * maior que zero, ou "*" com q maior que zero quando gzip não aparece. "gzip;q=0"
+     * recusa, e um q que não é número conta como 1
+     * @param acceptEncoding valor do cabeçalho (null se ausente)
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double qualidadeGzip = null;
+        Double qualidadeQualquer = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double qualidade = 1;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        qualidade = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        qualidade = 1;
+                    }
+                }
+            }
+            if (codificacao.equals("gzip") || codificacao.equals("x-gzip")) {
+                qualidadeGzip = qualidade;
+            } else if (codificacao.equals("*")) {
+                qualidadeQualquer = qualidade;
+            }
+        }
+        Double qualidade = qualidadeGzip != null ? qualidadeGzip : qualidadeQualquer;
+        return qualidade != null && qualidade > 0;
+    }
+    
+    /**
+     * Um objeto JSON por linha; o mesmo gerador escreve todas as linhas
+     */
+    private long exportarNdjson(Conteudo conteudo, OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = FABRICA_JSON.createGenerator(saida, JsonEncoding.UTF8)) {
+            gerador.setRootValueSeparator(null);
+            
+            long total = conteudo == Conteudo.LIVROS
+                    ? catalogoService.percorrerLivrosPorTitulo(livro -> escreverLinha(gerador, () -> {
+                        escreverLongo(gerador, "id", livro.getGutenbergId());
+                        gerador.writeStringField("titulo", livro.getTitulo());
+                        gerador.writeStringField("autores", livro.getAutor() != null ? livro.getAutor().getNome() : null);
+                        gerador.writeStringField("idioma", livro.getIdioma());
+                        escreverInteiro(gerador, "downloads", livro.getNumeroDownloads());
+                    }))
+                    : catalogoService.percorrerAutoresPorNome(autor -> escreverLinha(gerador, () -> {
+                        gerador.writeStringField("nome", autor.getNome());
+                        escreverInteiro(gerador, "anoNascimento", autor.getAnoNascimento());
+                        escreverInteiro(gerador, "anoMorte", autor.getAnoMorte());
+                    }));
+            gerador.flush();
+            return total;
+        }
+    }
+    
+    /**
+     * Cabeçalho e uma linha por registro, com aspas só onde o valor precisa (RFC 4180)
+     */
+    private long exportarCsv(Conteudo conteudo, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), BUFFER_SAIDA);
+        long total;
+        if (conteudo == Conteudo.LIVROS) {
+            escritor.write("id,titulo,autores,idioma,downloads\r\n");
+            total = catalogoService.percorrerLivrosPorTitulo(livro -> escreverCsv(escritor,
+                livro.getGutenbergId(), livro.getTitulo(), livro.getAutor() != null ? livro.getAutor().getNome() : null,
+                livro.getIdioma(), livro.getNumeroDownloads()));
+        } else {
+            escritor.write("nome,anoNascimento,anoMorte\r\n");
+            total = catalogoService.percorrerAutoresPorNome(autor -> escreverCsv(escritor,
+                autor.getNome(), autor.getAnoNascimento(), autor.getAnoMorte()));
+        }
+        escritor.flush();
+        return total;
+    }
+    
+    private static void escreverLinha(JsonGenerator gerador, Campos campos) {
+        try {
+            gerador.writeStartObject();
+            campos.escrever();
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void escreverInteiro(JsonGenerator gerador, String campo, Integer valor) throws IOException {
+        if (valor != null) {
+            gerador.writeNumberField(campo, valor);
+        } else {
+            gerador.writeNullField(campo);
+        }
+    }
+    
+    private static void escreverLongo(JsonGenerator gerador, String campo, Long valor) throws IOException {
+        if (valor != null) {
+            gerador.writeNumberField(campo, valor);
+        } else {
+            gerador.writeNullField(campo);
+        }
+    }
+    
+    private static void escreverCsv(Writer escritor, Object... valores) {
+        try {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                if (valores[i] != null) {
+                    escritor.write(escaparCsv(valores[i].toString()));
+                }
+            }
+            escritor.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    static String escaparCsv(String valor) {
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return precisaAspas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+    
+    /**
+     * Campos de um objeto JSON (os que já estão entre o início e o fim do objeto)
+     */
+    @FunctionalInterface
+    private interface Campos {
+        void escrever() throws IOException;
+    }
+}
@@ -1,11 +1,20 @@
 package com.exemplo.literatura.service;
 
 import com.exemplo.literatura.dto.GutendxResponse;
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroCompletoDto;
 import com.exemplo.literatura.dto.LivroDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -13,268 +22,360 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Cliente da API Gutendx sobre o HttpClient nativo do Java
+ * Todas as chamadas passam por um único motor assíncrono (sendAsync) que limita
+ * a quantidade de requisições simultâneas e junta requisições idênticas em
+ * andamento numa só chamada à API. As operações do ClienteGutendx (Mono/Flux)
+ * apenas embrulham as versões assíncronas; a fachada síncrona dos menus do
+ * console fica no GutendxService. Cada envio passa pelo limitador de taxa e pelo disjuntor
+ * (ProtecaoChamadasGutendx): com o circuito aberto a chamada falha na hora, ou é
+ * atendida com o corpo guardado em disco se houver. Com a PoliticaHedgeGutendx
+ * habilitada, um GET que demora além do percentil recente ganha uma cópia e vale a
+ * primeira resposta
+ */
 @Service
-public class GutendxHttpService {
+public class GutendxHttpService implements ClienteGutendx {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final ExecutorService executor;
+    private final ExecutorService executorLeitura;
+    private final int maximoSimultaneas;
     private static final String GUTENDX_BASE_URL = "https://gutendx.com";
+    private static final Duration TIMEOUT_PADRAO = Duration.ofSeconds(30);
+    private static final Duration TIMEOUT_CONECTIVIDADE = Duration.ofSeconds(10);
+    
+    // Requisições em andamento por URL: chamadas idênticas compartilham o mesmo futuro
+    private final Map<String, CompletableFuture<RespostaGutendx>> emAndamento = new ConcurrentHashMap<>();
+    
+    // Limite de concorrência sem bloquear threads: o que passa do limite espera na fila
+    private final Queue<Runnable> aguardandoVaga = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger vagasOcupadas = new AtomicInteger();
+    
+    // Respostas já obtidas (buscas, listagens e livros por ID); desabilitado fora do Spring
+    private CacheRespostasGutendx cacheRespostas = CacheRespostasGutendx.desabilitado();
+    
+    // Leitura em fluxo das páginas (JsonParser sobre o corpo HTTP)
+    private ConversaoDadosService conversaoDados = new ConversaoDadosService();
+    
+    // Corpos guardados em disco com ETag/Last-Modified para GET condicional
+    private ArmazemRespostasDisco armazemDisco = ArmazemRespostasDisco.desabilitado();
+    
+    // Limitador de taxa, disjuntor e novas tentativas; desabilitado fora do Spring
+    private ProtecaoChamadasGutendx protecao = ProtecaoChamadasGutendx.desabilitada();
+    
+    // Segunda requisição idêntica quando a primeira demora (opcional, desligada por padrão)
+    private PoliticaHedgeGutendx hedge = PoliticaHedgeGutendx.desabilitada();
+    
+    private final AtomicInteger requisicoesEnviadas = new AtomicInteger();
+    private final AtomicInteger requisicoesCompartilhadas = new AtomicInteger();
+    private final AtomicInteger respostasDoDisco = new AtomicInteger();
+    private final AtomicInteger falhasServidasDoDisco = new AtomicInteger();
     
     public GutendxHttpService() {
+        this(GUTENDX_BASE_URL);
+    }
+    
+    public GutendxHttpService(String baseUrl) {
+        this(baseUrl, 8, 16, false);
+    }
+    
+    /**
+     * Permite apontar o serviço para outro endereço (ex: servidor local de testes)
+     * @param baseUrl URL base da API Gutendx, sem barra final
+     * @param threads threads do executor que processa as respostas
+     * @param maximoSimultaneas máximo de requisições em voo ao mesmo tempo
+     * @param threadsVirtuais usa uma thread virtual por tarefa em vez do pool fixo (Java 21+)
+     */
+    @Autowired
+    public GutendxHttpService(@Value("${gutendx.base-url:" + GUTENDX_BASE_URL + "}") String baseUrl,
+                              @Value("${gutendx.http.threads:8}") int threads,
+                              @Value("${gutendx.http.max-requisicoes-simultaneas:16}") int maximoSimultaneas,
+                              @Value("${gutendx.http.threads-virtuais:${spring.threads.virtual.enabled:false}}") boolean threadsVirtuais) {
+        this(baseUrl, threadsVirtuais ? criarExecutorVirtual(threads) : criarExecutor(threads), maximoSimultaneas);
+    }
+    
+    /**
+     * @param executor executor usado pelo HttpClient para as respostas e etapas seguintes
+     */
+    public GutendxHttpService(String baseUrl, ExecutorService executor, int maximoSimultaneas) {
+        this.baseUrl = baseUrl;
+        this.executor = executor;
+        this.maximoSimultaneas = Math.max(1, maximoSimultaneas);
+        
+        // A leitura em fluxo bloqueia em read() enquanto as threads do HttpClient entregam
+        // os bytes do corpo; num pool próprio, com uma thread por vaga, nunca falta quem entregue
+        this.executorLeitura = criarExecutor(this.maximoSimultaneas, "gutendx-leitura-");
+        
         // Configurando o HttpClient com timeout e redirecionamento
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
                 .build();
         
         this.objectMapper = new ObjectMapper();
     }
     
+    private static ExecutorService criarExecutor(int threads) {
+        return criarExecutor(threads, "gutendx-http-");
+    }
+    
+    private static ExecutorService criarExecutor(int threads, String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
     /**
-     * Busca livros por termo de pesquisa usando HttpClient nativo do Java
-     * @param searchTerm termo de busca (título, autor, etc.)
-     * @return lista de livros encontrados
+     * Uma thread virtual por tarefa. Obtido por reflexão para o projeto continuar
+     * compilando com o perfil Java 17; numa JVM anterior à 21 volta ao pool fixo
      */
-    public List<LivroDto> buscarLivros(String searchTerm) {
+    private static ExecutorService criarExecutorVirtual(int threadsAlternativas) {
         try {
-            // Codificando o termo de busca para URL
-            String encodedSearchTerm = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
-            String url = GUTENDX_BASE_URL + "/books/?search=" + encodedSearchTerm;
-            
-            // Construindo a requisição HTTP
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Accept", "application/json")
-                    .header("User-Agent", "Literatura-App/1.0")
-                    .GET()
-                    .build();
-            
-            // Enviando a requisição e obtendo a resposta
-            HttpResponse<String> response = httpClient.send(request, 
-                    HttpResponse.BodyHandlers.ofString());
-            
-            // Verificando o código de status da resposta
-            if (response.statusCode() == 200) {
-                // Convertendo JSON para objeto Java
-                GutendxResponse gutendxResponse = objectMapper.readValue(
-                        response.body(), GutendxResponse.class);
-                
-                System.out.println("✅ Busca realizada com sucesso!");
-                System.out.println("📊 Status Code: " + response.statusCode());
-                System.out.println("📚 Total de livros encontrados: " + 
-                        (gutendxResponse.getResults() != null ? gutendxResponse.getResults().size() : 0));
-                
-                return gutendxResponse.getResults() != null ? gutendxResponse.getResults() : List.of();
-            } else {
-                System.err.println("❌ Erro na requisição. Status Code: " + response.statusCode());
-                System.err.println("📄 Resposta: " + response.body());
-                return List.of();
-            }
-            
-        } catch (IOException e) {
-            System.err.println("❌ Erro de I/O ao fazer requisição: " + e.getMessage());
-            return List.of();
-        } catch (InterruptedException e) {
-            System.err.println("❌ Requisição interrompida: " + e.getMessage());
-            Thread.currentThread().interrupt();
-            return List.of();
-        } catch (Exception e) {
-            System.err.println("❌ Erro inesperado: " + e.getMessage());
-            return List.of();
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            System.out.println("🧵 GutendxHttpService usando threads virtuais");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            System.err.println("⚠️ Threads virtuais exigem Java 21+; usando pool fixo de " + threadsAlternativas + " threads");
+            return criarExecutor(threadsAlternativas);
         }
     }
     
-    /**
-     * Busca livros por autor
-     * @param nomeAutor nome do autor
-     * @return lista de livros do autor
-     */
-    public List<LivroDto> buscarLivrosPorAutor(String nomeAutor) {
-        System.out.println("🔍 Buscando livros do autor: " + nomeAutor);
-        return buscarLivros(nomeAutor);
+    @Autowired(required = false)
+    public void setCacheRespostas(CacheRespostasGutendx cacheRespostas) {
+        this.cacheRespostas = cacheRespostas;
+    }
+    
+    @Autowired(required = false)
+    public void setConversaoDados(ConversaoDadosService conversaoDados) {
+        this.conversaoDados = conversaoDados;
+    }
+    
+    @Autowired(required = false)
+    public void setArmazemDisco(ArmazemRespostasDisco armazemDisco) {
+        this.armazemDisco = armazemDisco;
     }
     
+    @Autowired(required = false)
+    public void setProtecao(ProtecaoChamadasGutendx protecao) {
+        this.protecao = protecao;
+    }
+    
+    @Autowired(required = false)
+    public void setHedge(PoliticaHedgeGutendx hedge) {
+        this.hedge = hedge;
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        executorLeitura.shutdownNow();
+    }
+    
+    // Versões assíncronas
+    
     /**
-     * Busca livros por título
-     * @param titulo título do livro
-     * @return lista de livros com o título
+     * Busca livros por termo de pesquisa sem bloquear a thread chamadora
+     * @param searchTerm termo de busca (título, autor, etc.)
+     * @return futuro com a lista de livros encontrados
      */
-    public List<LivroDto> buscarLivrosPorTitulo(String titulo) {
-        System.out.println("🔍 Buscando livros com título: " + titulo);
-        return buscarLivros(titulo);
+    public CompletableFuture<List<LivroDto>> buscarLivrosAsync(String searchTerm) {
+        return obterJsonComCache(CacheRespostasGutendx.Chave.busca(searchTerm), getUrlBusca(searchTerm))
+                .thenApply(json -> extrairResultados(lerJson(json, GutendxResponse.class)));
     }
     
     /**
-     * Busca livros por idioma
+     * Busca livros por idioma sem bloquear a thread chamadora
      * @param idioma código do idioma (ex: "en", "pt", "es")
-     * @return lista de livros no idioma especificado
+     * @return futuro com a lista de livros no idioma
      */
-    public List<LivroDto> buscarLivrosPorIdioma(String idioma) {
-        try {
-            String url = GUTENDX_BASE_URL + "/books/?languages=" + idioma;
-            
-            System.out.println("🔍 Buscando livros no idioma: " + idioma);
-            System.out.println("🌐 URL da requisição: " + url);
-            
-            // Construindo a requisição HTTP
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Accept", "application/json")
-                    .header("User-Agent", "Literatura-App/1.0")
-                    .GET()
-                    .build();
-            
-            // Enviando a requisição
-            HttpResponse<String> response = httpClient.send(request, 
-                    HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                GutendxResponse gutendxResponse = objectMapper.readValue(
-                        response.body(), GutendxResponse.class);
-                
-                System.out.println("✅ Busca por idioma realizada com sucesso!");
-                System.out.println("📊 Status Code: " + response.statusCode());
-                
-                return gutendxResponse.getResults() != null ? gutendxResponse.getResults() : List.of();
-            } else {
-                System.err.println("❌ Erro na requisição por idioma. Status Code: " + response.statusCode());
-                return List.of();
-            }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao buscar livros por idioma: " + e.getMessage());
-            return List.of();
-        }
+    public CompletableFuture<List<LivroDto>> buscarLivrosPorIdiomaAsync(String idioma) {
+        return obterJsonComCache(CacheRespostasGutendx.Chave.idioma(idioma), baseUrl + "/books/?languages=" + idioma)
+                .thenApply(json -> extrairResultados(lerJson(json, GutendxResponse.class)));
     }
     
     /**
-     * Busca um livro específico por ID
+     * Busca um livro por ID sem bloquear a thread chamadora
      * @param id ID do livro no Project Gutenberg
-     * @return dados do livro ou null se não encontrado
+     * @return futuro com o livro, ou com null se a API responder 404
      */
-    public LivroDto buscarLivroPorId(Long id) {
-        try {
-            String url = GUTENDX_BASE_URL + "/books/" + id + "/";
-            
-            System.out.println("🔍 Buscando livro com ID: " + id);
-            System.out.println("🌐 URL da requisição: " + url);
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Accept", "application/json")
-                    .header("User-Agent", "Literatura-App/1.0")
-                    .GET()
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, 
-                    HttpResponse.BodyHandlers.ofString());
-            
-            System.out.println("📊 Status Code: " + response.statusCode());
-            
-            if (response.statusCode() == 200) {
-                LivroDto livro = objectMapper.readValue(response.body(), LivroDto.class);
-                System.out.println("✅ Livro encontrado: " + livro.getTitle());
-                return livro;
-            } else if (response.statusCode() == 404) {
-                System.out.println("❌ Livro com ID " + id + " não encontrado.");
-                return null;
-            } else {
-                System.err.println("❌ Erro na requisição. Status Code: " + response.statusCode());
-                return null;
-            }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao buscar livro por ID: " + e.getMessage());
-            return null;
+    public CompletableFuture<LivroDto> buscarLivroPorIdAsync(Long id) {
+        CacheRespostasGutendx.Chave chave = CacheRespostasGutendx.Chave.livro(id);
+        String emCache = cacheRespostas.obter(chave);
+        if (emCache != null) {
+            return CompletableFuture.completedFuture(lerJson(emCache, LivroDto.class));
         }
+        
+        return enviar(baseUrl + "/books/" + id + "/", TIMEOUT_PADRAO)
+                .thenApply(response -> {
+                    if (response.statusCode() == 404) {
+                        return null;
+                    }
+                    String json = verificarStatus(response);
+                    cacheRespostas.armazenar(chave, json);
+                    return lerJson(json, LivroDto.class);
+                });
     }
     
     /**
-     * Lista livros com paginação
+     * Lista uma página do catálogo sem bloquear a thread chamadora
      * @param pagina número da página (começando em 1)
-     * @return resposta com livros e informações de paginação
+     * @return futuro com a resposta e as informações de paginação
      */
-    public GutendxResponse listarLivros(int pagina) {
-        try {
-            String url = GUTENDX_BASE_URL + "/books/?page=" + pagina;
-            
-            System.out.println("📖 Listando livros - Página: " + pagina);
-            System.out.println("🌐 URL da requisição: " + url);
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(30))
-                    .header("Accept", "application/json")
-                    .header("User-Agent", "Literatura-App/1.0")
-                    .GET()
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, 
-                    HttpResponse.BodyHandlers.ofString());
-            
-            System.out.println("📊 Status Code: " + response.statusCode());
-            System.out.println("📏 Tamanho da resposta: " + response.body().length() + " caracteres");
-            
-            if (response.statusCode() == 200) {
-                GutendxResponse gutendxResponse = objectMapper.readValue(
-                        response.body(), GutendxResponse.class);
-                
-                System.out.println("✅ Lista de livros obtida com sucesso!");
-                System.out.println("📊 Total de livros no catálogo: " + gutendxResponse.getCount());
-                
-                return gutendxResponse;
-            } else {
-                System.err.println("❌ Erro ao listar livros. Status Code: " + response.statusCode());
-                return new GutendxResponse();
-            }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Erro ao listar livros: " + e.getMessage());
-            return new GutendxResponse();
-        }
+    public CompletableFuture<GutendxResponse> listarLivrosAsync(int pagina) {
+        return obterJsonComCache(CacheRespostasGutendx.Chave.pagina(pagina), getUrlListagem(pagina))
+                .thenApply(json -> lerJson(json, GutendxResponse.class));
+    }
+    
+    /**
+     * Obtém o JSON de uma busca por termo, do cache quando possível
+     * @param searchTerm termo de busca
+     * @return futuro com o JSON; falha com IOException se o status não for 200
+     */
+    public CompletableFuture<String> obterJsonRespostaAsync(String searchTerm) {
+        return obterJsonComCache(CacheRespostasGutendx.Chave.busca(searchTerm), getUrlBusca(searchTerm));
+    }
+    
+    /**
+     * Obtém o JSON bruto de uma URL absoluta da API sem bloquear a thread chamadora
+     * Não passa pelo cache: usado pela importação, que precisa dos dados atuais
+     * @param url URL completa (ex: link "next" da paginação)
+     * @return futuro com o JSON; falha com IOException se o status não for 200
+     */
+    public CompletableFuture<String> obterJsonAsync(String url) {
+        return enviar(url, TIMEOUT_PADRAO).thenApply(this::verificarStatus);
     }
     
     /**
-     * Método para testar a conectividade com a API
-     * @return true se a API estiver acessível
+     * Lê uma página da API em fluxo: o corpo HTTP vai direto para o JsonParser e
+     * cada livro é entregue ao consumidor assim que termina de ser lido, sem
+     * montar a String da página. Ocupa uma vaga do limite de concorrência até o
+     * fim da leitura; não passa pelo cache, pelo armazém em disco nem pela junção
+     * de requisições idênticas, e não é repetida em caso de falha (o corpo só pode
+     * ser lido uma vez). Respeita o limitador e o disjuntor. O corpo é lido no pool
+     * de leitura, nunca nas threads do HttpClient que o alimentam
+     * @param url URL completa da página (ex: link "next" da paginação)
+     * @param consumidor recebe os livros, na thread que lê a resposta
+     * @return futuro com count/next/previous da página (lista de livros vazia)
      */
-    public boolean testarConectividade() {
+    public CompletableFuture<GutendxResponseCompleta> percorrerLivrosAsync(String url, Consumer<LivroCompletoDto> consumidor) {
+        CompletableFuture<GutendxResponseCompleta> resultado = new CompletableFuture<>();
+        HttpRequest request = criarRequisicao(url, TIMEOUT_PADRAO).build();
+        
+        long espera;
         try {
-            String url = GUTENDX_BASE_URL + "/books/?page=1";
-            
-            System.out.println("🔧 Testando conectividade com a API Gutendx...");
-            System.out.println("🌐 URL de teste: " + url);
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(10))
-                    .header("Accept", "application/json")
-                    .header("User-Agent", "Literatura-App/1.0")
-                    .GET()
-                    .build();
-            
-            HttpResponse<String> response = httpClient.send(request, 
-                    HttpResponse.BodyHandlers.ofString());
-            
-            System.out.println("📊 Status Code: " + response.statusCode());
-            
-            if (response.statusCode() == 200) {
-                System.out.println("✅ Conectividade OK! API Gutendx está acessível.");
-                return true;
-            } else {
-                System.out.println("⚠️ API acessível mas retornou status: " + response.statusCode());
-                return false;
-            }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Erro de conectividade: " + e.getMessage());
-            return false;
+            espera = protecao.reservar();
+        } catch (ProtecaoChamadasGutendx.ChamadaRecusadaException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        
+        executarDepois(espera, () -> executarQuandoHouverVaga(() -> {
+            requisicoesEnviadas.incrementAndGet();
+            try {
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                        .whenComplete((response, erro) -> protecao.registrar(erro != null ? 0 : response.statusCode(),
+                                erro != null ? null : response.headers().firstValue("Retry-After").orElse(null)))
+                        .thenApplyAsync(response -> lerPaginaEmFluxo(response, consumidor), executorLeitura)
+                        .whenComplete((pagina, erro) -> {
+                            liberarVaga();
+                            if (erro != null) {
+                                resultado.completeExceptionally(erro);
+                            } else {
+                                resultado.complete(pagina);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                liberarVaga();
+                protecao.registrar(0, null);
+                resultado.completeExceptionally(e);
+            }
+        }));
+        
+        return resultado;
+    }
+    
+    // Versões reativas (ClienteGutendx): as mesmas chamadas, iniciadas na inscrição
+    
+    @Override
+    public Flux<LivroDto> buscarLivros(String termo) {
+        return Mono.fromFuture(() -> buscarLivrosAsync(termo)).flatMapIterable(livros -> livros);
+    }
+    
+    @Override
+    public Flux<LivroDto> buscarLivrosPorIdioma(String idioma) {
+        return Mono.fromFuture(() -> buscarLivrosPorIdiomaAsync(idioma)).flatMapIterable(livros -> livros);
+    }
+    
+    @Override
+    public Mono<LivroDto> buscarLivroPorId(Long id) {
+        return Mono.fromFuture(() -> buscarLivroPorIdAsync(id));
+    }
+    
+    @Override
+    public Mono<GutendxResponse> listarLivros(int pagina) {
+        return Mono.fromFuture(() -> listarLivrosAsync(pagina));
+    }
+    
+    @Override
+    public Mono<String> obterJsonResposta(String termo) {
+        return Mono.fromFuture(() -> obterJsonRespostaAsync(termo));
+    }
+    
+    @Override
+    public Mono<Boolean> testarConectividade() {
+        return Mono.fromFuture(() -> enviar(getUrlListagem(1), TIMEOUT_CONECTIVIDADE))
+                .map(response -> response.statusCode() == 200)
+                .onErrorReturn(false);
+    }
+    
+    @Override
+    public Flux<GutendxResponseCompleta> percorrerPaginas(String urlInicial) {
+        return obterPaginaSobDemanda(urlInicial)
+                .expand(pagina -> pagina.temProximaPagina()
+                        ? obterPaginaSobDemanda(pagina.getProximaPagina())
+                        : Mono.empty());
+    }
+    
+    @Override
+    public Flux<LivroCompletoDto> percorrerLivros(String urlInicial, int paginasAFrente) {
+        return percorrerPaginas(urlInicial)
+                .flatMapIterable(GutendxResponseCompleta::getLivros, Math.max(1, paginasAFrente));
+    }
+    
+    /**
+     * Página inteira, lida em fluxo como em obterPagina. O expand se inscreve na
+     * próxima página assim que a anterior termina; partir de Mono.just adia a
+     * requisição até o primeiro request, então nada é baixado sem demanda
+     */
+    private Mono<GutendxResponseCompleta> obterPaginaSobDemanda(String url) {
+        return Mono.just(url).flatMap(endereco -> {
+            List<LivroCompletoDto> livros = new ArrayList<>();
+            return Mono.fromFuture(percorrerLivrosAsync(endereco, livros::add))
+                    .doOnNext(pagina -> pagina.setLivros(livros));
+        });
     }
     
     /**
@@ -298,28 +399,422 @@ public class GutendxHttpService {
     }
     
     /**
-     * Obtém a resposta JSON bruta da API para análise
-     * @param searchTerm termo de busca
+     * Monta a URL da listagem paginada de livros
+     * @param pagina número da página (começando em 1)
+     * @return URL absoluta da página
+     */
+    @Override
+    public String getUrlListagem(int pagina) {
+        return baseUrl + "/books/?page=" + pagina;
+    }
+    
+    /**
+     * Monta a URL de busca por termo
+     * @param searchTerm termo de busca (título, autor, etc.)
+     * @return URL absoluta da busca
+     */
+    public String getUrlBusca(String searchTerm) {
+        return baseUrl + "/books/?search=" + URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Obtém uma página inteira convertida, lendo o corpo em fluxo (sem String intermediária)
+     * @param url URL completa da página (ex: link "next" da paginação)
+     * @return página com os livros
+     */
+    public GutendxResponseCompleta obterPagina(String url) throws IOException, InterruptedException {
+        List<LivroCompletoDto> livros = new ArrayList<>();
+        GutendxResponseCompleta pagina = aguardar(percorrerLivrosAsync(url, livros::add));
+        pagina.setLivros(livros);
+        return pagina;
+    }
+    
+    /**
+     * Obtém o JSON bruto de uma URL absoluta da API (ex: link "next" da paginação)
+     * @param url URL completa retornada pela própria API
      * @return JSON string da resposta
      */
-    public String obterJsonResposta(String searchTerm) throws IOException, InterruptedException {
-        String encodedSearchTerm = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
-        String url = GUTENDX_BASE_URL + "/books/?search=" + encodedSearchTerm;
+    public String obterJsonPagina(String url) throws IOException, InterruptedException {
+        return aguardar(obterJsonAsync(url));
+    }
+    
+    /**
+     * Estatísticas do motor de requisições
+     */
+    public Map<String, Object> getEstatisticasRequisicoes() {
+        return Map.of(
+            "enviadas", requisicoesEnviadas.get(),
+            "compartilhadas", requisicoesCompartilhadas.get(),
+            "naoModificadasServidasDoDisco", respostasDoDisco.get(),
+            "falhasServidasDoDisco", falhasServidasDoDisco.get(),
+            "hedge", hedge.getEstatisticas(),
+            "emAndamento", emAndamento.size(),
+            "aguardandoVaga", aguardandoVaga.size(),
+            "vagasOcupadas", vagasOcupadas.get(),
+            "maximoSimultaneas", maximoSimultaneas);
+    }
+    
+    // Motor de requisições
+    
+    /**
+     * Consulta o cache e, na falta, faz a requisição e guarda o JSON se o status for 200
+     */
+    private CompletableFuture<String> obterJsonComCache(CacheRespostasGutendx.Chave chave, String url) {
+        String emCache = cacheRespostas.obter(chave);
+        if (emCache != null) {
+            return CompletableFuture.completedFuture(emCache);
+        }
+        return obterJsonAsync(url).thenApply(json -> {
+            cacheRespostas.armazenar(chave, json);
+            return json;
+        });
+    }
+    
+    /**
+     * Envia um GET assíncrono, reaproveitando uma requisição idêntica que já esteja
+     * em andamento. Cada chamador recebe uma cópia do futuro compartilhado, então
+     * cancelar a sua não cancela a dos outros. Se a URL já tem corpo no disco, o GET
+     * é condicional e um 304 é atendido com o corpo guardado; o mesmo corpo atende a
+     * chamada se a API falhar (ou o circuito estiver aberto)
+     */
+    private CompletableFuture<RespostaGutendx> enviar(String url, Duration timeout) {
+        CompletableFuture<RespostaGutendx> novo = new CompletableFuture<>();
+        CompletableFuture<RespostaGutendx> existente = emAndamento.putIfAbsent(url, novo);
+        
+        if (existente != null) {
+            requisicoesCompartilhadas.incrementAndGet();
+            return existente.copy();
+        }
+        
+        ArmazemRespostasDisco.Registro guardado = armazemDisco.obterRegistro(url);
+        
+        HttpRequest.Builder builder = criarRequisicao(url, timeout);
+        if (guardado != null && guardado.etag() != null) {
+            builder.header("If-None-Match", guardado.etag());
+        }
+        if (guardado != null && guardado.lastModified() != null) {
+            builder.header("If-Modified-Since", guardado.lastModified());
+        }
+        HttpRequest request = builder.build();
+        
+        tentarEnviar(url, request, guardado, novo, 1);
+        return novo.copy();
+    }
+    
+    /**
+     * Uma tentativa do envio: reserva a vez no limitador (esperando se preciso), ocupa
+     * uma vaga e envia (com hedge, se habilitado). Falhas de rede, 5xx e 429 são repetidas
+     * com backoff (ou depois do Retry-After) enquanto a proteção permitir; a vaga é
+     * liberada durante a espera
+     */
+    private void tentarEnviar(String url, HttpRequest request, ArmazemRespostasDisco.Registro guardado,
+                              CompletableFuture<RespostaGutendx> novo, int tentativa) {
+        long espera;
+        try {
+            espera = protecao.reservar();
+        } catch (ProtecaoChamadasGutendx.ChamadaRecusadaException e) {
+            concluirComFalha(url, guardado, novo, e);
+            return;
+        }
+        
+        executarDepois(espera, () -> {
+            CompletableFuture<HttpResponse<String>> envio = hedge.isHabilitada()
+                    ? enviarComHedge(request)
+                    : enviarUmaVez(request);
+            envio.whenComplete((response, erro) -> {
+                int status = erro != null ? 0 : response.statusCode();
+                String retryAfter = erro != null ? null : response.headers().firstValue("Retry-After").orElse(null);
+                protecao.registrar(status, retryAfter);
+                
+                long atraso = protecao.atrasoNovaTentativa(tentativa, status, retryAfter);
+                if (atraso >= 0) {
+                    executarDepois(atraso, () -> tentarEnviar(url, request, guardado, novo, tentativa + 1));
+                    return;
+                }
+                if (erro != null) {
+                    concluirComFalha(url, guardado, novo, erro);
+                    return;
+                }
+                if ((status == 429 || status >= 500) && guardado != null) {
+                    concluirComFalha(url, guardado, novo, new IOException("Erro na API: " + status));
+                    return;
+                }
+                // Sai do mapa antes de completar: quem recebe o resultado e
+                // repete a chamada em seguida já faz uma requisição nova
+                emAndamento.remove(url, novo);
+                try {
+                    novo.complete(tratarResposta(url, guardado, response));
+                } catch (RuntimeException e) {
+                    novo.completeExceptionally(e);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Ocupa uma vaga e envia o GET. Cancelar o futuro devolvido (antes ou depois de
+     * sair da fila) cancela a requisição no HttpClient e libera a vaga
+     */
+    private CompletableFuture<HttpResponse<String>> enviarUmaVez(HttpRequest request) {
+        CompletableFuture<HttpResponse<String>> resultado = new CompletableFuture<>();
+        executarQuandoHouverVaga(() -> {
+            if (resultado.isDone()) {
+                liberarVaga();
+                return;
+            }
+            requisicoesEnviadas.incrementAndGet();
+            long inicio = System.nanoTime();
+            try {
+                CompletableFuture<HttpResponse<String>> envio = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+                resultado.whenComplete((response, erro) -> {
+                    if (resultado.isCancelled()) {
+                        envio.cancel(true);
+                    }
+                });
+                envio.whenComplete((response, erro) -> {
+                    liberarVaga();
+                    if (erro != null) {
+                        resultado.completeExceptionally(erro);
+                    } else {
+                        hedge.registrarLatencia(System.nanoTime() - inicio);
+                        resultado.complete(response);
+                    }
+                });
+            } catch (RuntimeException e) {
+                liberarVaga();
+                resultado.completeExceptionally(e);
+            }
+        });
+        return resultado;
+    }
+    
+    /**
+     * Envia o GET e, se a resposta não chegar no atraso da política, uma cópia dele
+     * (havendo orçamento e ficha livre no limitador, sem esperar). Vale a primeira
+     * resposta HTTP; a outra requisição é cancelada. Só falha se as duas falharem
+     */
+    private CompletableFuture<HttpResponse<String>> enviarComHedge(HttpRequest request) {
+        CorridaHedge corrida = new CorridaHedge();
+        long atraso = hedge.iniciarRequisicao();
+        CompletableFuture<HttpResponse<String>> primaria = enviarUmaVez(request);
+        corrida.iniciar(primaria);
         
-        HttpRequest request = HttpRequest.newBuilder()
+        CompletableFuture.delayedExecutor(atraso, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (corrida.vencedora.isDone() || !protecao.reservarSemEspera()) {
+                return;
+            }
+            if (!hedge.consumirOrcamento()) {
+                // Sem orçamento o hedge não sai: a ficha volta para as requisições reais
+                protecao.devolverFicha();
+                return;
+            }
+            corrida.lancarHedge(enviarUmaVez(request));
+        });
+        return corrida.vencedora;
+    }
+    
+    /**
+     * Estado da disputa entre a requisição primária e o hedge
+     */
+    private final class CorridaHedge {
+        
+        private final CompletableFuture<HttpResponse<String>> vencedora = new CompletableFuture<>();
+        private CompletableFuture<HttpResponse<String>> primaria;
+        private CompletableFuture<HttpResponse<String>> secundaria;
+        private Throwable falhaPrimaria;
+        private Throwable falhaSecundaria;
+        
+        synchronized void iniciar(CompletableFuture<HttpResponse<String>> envio) {
+            primaria = envio;
+            envio.whenComplete((response, erro) -> concluir(false, response, erro));
+        }
+        
+        void lancarHedge(CompletableFuture<HttpResponse<String>> envio) {
+            synchronized (this) {
+                if (vencedora.isDone()) {
+                    envio.cancel(true);
+                    return;
+                }
+                secundaria = envio;
+            }
+            envio.whenComplete((response, erro) -> concluir(true, response, erro));
+        }
+        
+        private void concluir(boolean hedgeDaCorrida, HttpResponse<String> response, Throwable erro) {
+            CompletableFuture<HttpResponse<String>> perdedora;
+            synchronized (this) {
+                if (erro != null) {
+                    if (hedgeDaCorrida) {
+                        falhaSecundaria = erro;
+                    } else {
+                        falhaPrimaria = erro;
+                    }
+                    // A primária falhou sem hedge em voo, ou as duas falharam: vale a falha da primária
+                    boolean semAlternativa = hedgeDaCorrida ? falhaPrimaria != null : secundaria == null || falhaSecundaria != null;
+                    if (semAlternativa) {
+                        vencedora.completeExceptionally(falhaPrimaria);
+                    }
+                    return;
+                }
+                if (!vencedora.complete(response)) {
+                    return;
+                }
+                perdedora = hedgeDaCorrida ? primaria : secundaria;
+            }
+            if (hedgeDaCorrida) {
+                hedge.registrarVitoriaDoHedge();
+            }
+            if (perdedora != null) {
+                perdedora.cancel(true);
+            }
+        }
+    }
+    
+    /**
+     * Encerra a requisição que não obteve resposta da API: com corpo guardado em
+     * disco para a URL, atende com ele (mesmo desatualizado); senão propaga a falha
+     */
+    private void concluirComFalha(String url, ArmazemRespostasDisco.Registro guardado,
+                                  CompletableFuture<RespostaGutendx> novo, Throwable erro) {
+        emAndamento.remove(url, novo);
+        if (guardado != null) {
+            try {
+                RespostaGutendx doDisco = new RespostaGutendx(200, armazemDisco.lerCorpo(guardado));
+                falhasServidasDoDisco.incrementAndGet();
+                novo.complete(doDisco);
+                return;
+            } catch (RuntimeException e) {
+                erro.addSuppressed(e);
+            }
+        }
+        novo.completeExceptionally(erro);
+    }
+    
+    /**
+     * Executa agora, ou no executor depois do atraso (sem prender thread durante a espera)
+     */
+    private void executarDepois(long atrasoMillis, Runnable tarefa) {
+        if (atrasoMillis <= 0) {
+            tarefa.run();
+        } else {
+            CompletableFuture.delayedExecutor(atrasoMillis, TimeUnit.MILLISECONDS, executor).execute(tarefa);
+        }
+    }
+
+    
+    private HttpRequest.Builder criarRequisicao(String url, Duration timeout) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(30))
+                .timeout(timeout)
                 .header("Accept", "application/json")
                 .header("User-Agent", "Literatura-App/1.0")
-                .GET()
-                .build();
-        
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
+                .GET();
+    }
+    
+    private GutendxResponseCompleta lerPaginaEmFluxo(HttpResponse<InputStream> response, Consumer<LivroCompletoDto> consumidor) {
+        try (InputStream corpo = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("Erro na API: " + response.statusCode()));
+            }
+            return conversaoDados.lerPagina(corpo, consumidor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 304: devolve o corpo do disco como se fosse um 200
+     * 200: guarda o corpo no disco quando a API informa ETag ou Last-Modified
+     */
+    private RespostaGutendx tratarResposta(String url, ArmazemRespostasDisco.Registro guardado,
+                                           HttpResponse<String> response) {
+        if (response.statusCode() == 304 && guardado != null) {
+            respostasDoDisco.incrementAndGet();
+            return new RespostaGutendx(200, armazemDisco.lerCorpo(guardado));
+        }
+        if (response.statusCode() == 200) {
+            armazemDisco.gravar(url,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                response.body());
+        }
+        return new RespostaGutendx(response.statusCode(), response.body());
+    }
+    
+    private void executarQuandoHouverVaga(Runnable envio) {
+        aguardandoVaga.add(envio);
+        despacharAguardando();
+    }
+    
+    private void liberarVaga() {
+        vagasOcupadas.decrementAndGet();
+        despacharAguardando();
+    }
+    
+    /**
+     * Ocupa vagas livres com envios da fila. A vaga é reservada antes de retirar o
+     * envio, então nunca há mais de maximoSimultaneas requisições em voo
+     */
+    private void despacharAguardando() {
+        while (!aguardandoVaga.isEmpty()) {
+            int ocupadas = vagasOcupadas.get();
+            if (ocupadas >= maximoSimultaneas) {
+                return;
+            }
+            if (!vagasOcupadas.compareAndSet(ocupadas, ocupadas + 1)) {
+                continue;
+            }
+            Runnable envio = aguardandoVaga.poll();
+            if (envio == null) {
+                vagasOcupadas.decrementAndGet();
+                continue;
+            }
+            envio.run();
+        }
+    }
+    
+    private String verificarStatus(RespostaGutendx response) {
         if (response.statusCode() == 200) {
             return response.body();
-        } else {
-            throw new IOException("Erro na API: " + response.statusCode());
+        }
+        throw new CompletionException(new IOException("Erro na API: " + response.statusCode()));
+    }
+    
+    private <T> T lerJson(String json, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(json, tipo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
+    
+    private List<LivroDto> extrairResultados(GutendxResponse response) {
+        return response.getResults() != null ? response.getResults() : List.of();
+    }
+    
+    /**
+     * Aguarda um futuro do motor devolvendo a causa original da falha
+     */
+    private <T> T aguardar(CompletableFuture<T> futuro) throws IOException, InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (causa instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(causa);
+        }
+    }
+    
+    /**
+     * Resultado do motor: status e corpo (vindo da rede ou, num 304, do disco)
+     */
+    private record RespostaGutendx(int statusCode, String body) {}
 }
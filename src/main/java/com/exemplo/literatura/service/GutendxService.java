@@ -3,43 +3,43 @@ package com.exemplo.literatura.service;
 import com.exemplo.literatura.dto.GutendxResponse;
 import com.exemplo.literatura.dto.LivroDto;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+/**
+ * Fachada síncrona do ClienteGutendx para os menus do console (e para quem já
+ * trabalha bloqueado, como a importação transacional do CatalogoService).
+ * Cada método aguarda a operação reativa correspondente; os controllers usam o
+ * ClienteGutendx diretamente e não prendem threads esperando a API
+ */
 @Service
 public class GutendxService {
     
-    private final WebClient webClient;
-    private static final String GUTENDX_BASE_URL = "https://gutendx.com";
+    private final ClienteGutendx cliente;
     
-    public GutendxService() {
-        this.webClient = WebClient.builder()
-                .baseUrl(GUTENDX_BASE_URL)
-                .build();
+    public GutendxService(ClienteGutendx cliente) {
+        this.cliente = cliente;
     }
     
     /**
      * Busca livros por termo de pesquisa
      * @param searchTerm termo de busca (título, autor, etc.)
-     * @return lista de livros encontrados
+     * @return lista de livros encontrados (vazia em caso de erro)
      */
     public List<LivroDto> buscarLivros(String searchTerm) {
         try {
-            GutendxResponse response = webClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/books/")
-                            .queryParam("search", searchTerm)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(GutendxResponse.class)
-                    .block();
+            List<LivroDto> livros = aguardar(cliente.buscarLivros(searchTerm).collectList());
             
-            return response != null ? response.getResults() : List.of();
+            System.out.println("✅ Busca realizada com sucesso!");
+            System.out.println("📚 Total de livros encontrados: " + livros.size());
+            
+            return livros;
         } catch (Exception e) {
-            System.err.println("Erro ao buscar livros: " + e.getMessage());
+            System.err.println("❌ Erro ao buscar livros: " + e.getMessage());
             return List.of();
         }
     }
@@ -50,6 +50,7 @@ public class GutendxService {
      * @return lista de livros do autor
      */
     public List<LivroDto> buscarLivrosPorAutor(String nomeAutor) {
+        System.out.println("🔍 Buscando livros do autor: " + nomeAutor);
         return buscarLivros(nomeAutor);
     }
     
@@ -59,6 +60,7 @@ public class GutendxService {
      * @return lista de livros com o título
      */
     public List<LivroDto> buscarLivrosPorTitulo(String titulo) {
+        System.out.println("🔍 Buscando livros com título: " + titulo);
         return buscarLivros(titulo);
     }
     
@@ -69,39 +71,28 @@ public class GutendxService {
      */
     public List<LivroDto> buscarLivrosPorIdioma(String idioma) {
         try {
-            GutendxResponse response = webClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/books/")
-                            .queryParam("languages", idioma)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(GutendxResponse.class)
-                    .block();
+            System.out.println("🔍 Buscando livros no idioma: " + idioma);
+            
+            List<LivroDto> livros = aguardar(cliente.buscarLivrosPorIdioma(idioma).collectList());
             
-            return response != null ? response.getResults() : List.of();
+            System.out.println("✅ Busca por idioma realizada com sucesso!");
+            return livros;
         } catch (Exception e) {
-            System.err.println("Erro ao buscar livros por idioma: " + e.getMessage());
+            System.err.println("❌ Erro ao buscar livros por idioma: " + e.getMessage());
             return List.of();
         }
     }
     
     /**
      * Busca livros mais populares (ordenados por download_count)
+     * A listagem da API já vem nessa ordem (sort=popular é o padrão da Gutendx),
+     * então basta a primeira página, que passa pelo cache do cliente
      * @param limite número máximo de livros a retornar
      * @return lista dos livros mais populares
      */
     public List<LivroDto> buscarLivrosPopulares(int limite) {
         try {
-            GutendxResponse response = webClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/books/")
-                            .queryParam("sort", "popular")
-                            .build())
-                    .retrieve()
-                    .bodyToMono(GutendxResponse.class)
-                    .block();
+            GutendxResponse response = aguardar(cliente.listarLivros(1));
             
             if (response != null && response.getResults() != null) {
                 return response.getResults().stream()
@@ -122,37 +113,85 @@ public class GutendxService {
      */
     public LivroDto buscarLivroPorId(Long id) {
         try {
-            return webClient
-                    .get()
-                    .uri("/books/{id}/", id)
-                    .retrieve()
-                    .bodyToMono(LivroDto.class)
-                    .block();
+            System.out.println("🔍 Buscando livro com ID: " + id);
+            
+            LivroDto livro = aguardar(cliente.buscarLivroPorId(id));
+            
+            if (livro != null) {
+                System.out.println("✅ Livro encontrado: " + livro.getTitle());
+            } else {
+                System.out.println("❌ Livro com ID " + id + " não encontrado.");
+            }
+            return livro;
         } catch (Exception e) {
-            System.err.println("Erro ao buscar livro por ID: " + e.getMessage());
+            System.err.println("❌ Erro ao buscar livro por ID: " + e.getMessage());
             return null;
         }
     }
     
     /**
-     * Lista todos os livros com paginação
+     * Lista livros com paginação
      * @param pagina número da página (começando em 1)
      * @return resposta com livros e informações de paginação
      */
     public GutendxResponse listarLivros(int pagina) {
         try {
-            return webClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/books/")
-                            .queryParam("page", pagina)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(GutendxResponse.class)
-                    .block();
+            System.out.println("📖 Listando livros - Página: " + pagina);
+            
+            GutendxResponse gutendxResponse = aguardar(cliente.listarLivros(pagina));
+            
+            System.out.println("✅ Lista de livros obtida com sucesso!");
+            System.out.println("📊 Total de livros no catálogo: " + gutendxResponse.getCount());
+            
+            return gutendxResponse;
         } catch (Exception e) {
-            System.err.println("Erro ao listar livros: " + e.getMessage());
+            System.err.println("❌ Erro ao listar livros: " + e.getMessage());
             return new GutendxResponse();
         }
     }
+    
+    /**
+     * Obtém a resposta JSON bruta da API para análise
+     * @param searchTerm termo de busca
+     * @return JSON string da resposta
+     * @throws IOException status diferente de 200, falha de rede ou chamada recusada pela proteção
+     */
+    public String obterJsonResposta(String searchTerm) throws IOException {
+        return aguardar(cliente.obterJsonResposta(searchTerm));
+    }
+    
+    /**
+     * Método para testar a conectividade com a API
+     * @return true se a API estiver acessível
+     */
+    public boolean testarConectividade() {
+        System.out.println("🔧 Testando conectividade com a API Gutendx...");
+        
+        boolean conectado = Boolean.TRUE.equals(cliente.testarConectividade().block());
+        
+        if (conectado) {
+            System.out.println("✅ Conectividade OK! API Gutendx está acessível.");
+        } else {
+            System.out.println("⚠️ API Gutendx não respondeu 200.");
+        }
+        return conectado;
+    }
+    
+    /**
+     * Aguarda o Mono devolvendo a causa original da falha (null se terminar vazio)
+     */
+    private static <T> T aguardar(Mono<T> operacao) throws IOException {
+        try {
+            return operacao.block();
+        } catch (RuntimeException e) {
+            Throwable causa = Exceptions.unwrap(e);
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.ResultadoImportacaoDto;
+import com.exemplo.literatura.model.SincronizacaoCheckpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de importação em massa do catálogo Gutendx
+ * Percorre as páginas seguindo os links "next" da API pelo Flux do ClienteGutendx:
+ * as próximas páginas são baixadas enquanto a thread chamadora grava cada página
+ * em lote, com no máximo paginasEmBuffer páginas à frente
+ */
+@Service
+public class ImportacaoCatalogoService {
+    
+    @Autowired
+    private ClienteGutendx clienteGutendx;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Value("${literatura.importacao.paginas-em-buffer:4}")
+    private int paginasEmBuffer;
+    
+    /**
+     * Importa o catálogo a partir da primeira página
+     * @param limitePaginas número máximo de páginas (null ou <= 0 para todas)
+     * @return totais da importação
+     */
+    public ResultadoImportacaoDto importarCatalogo(Integer limitePaginas) {
+        return importarCatalogo(1, limitePaginas);
+    }
+    
+    /**
+     * Importa o catálogo a partir de uma página qualquer, seguindo os links "next"
+     * @param paginaInicial primeira página a baixar (começando em 1)
+     * @param limitePaginas número máximo de páginas (null ou <= 0 para todas)
+     * @return totais da importação
+     */
+    public ResultadoImportacaoDto importarCatalogo(int paginaInicial, Integer limitePaginas) {
+        System.out.println("🚚 Iniciando importação em massa a partir da página " + paginaInicial);
+        
+        ResultadoImportacaoDto resultado = processarPaginas(
+            clienteGutendx.getUrlListagem(paginaInicial), paginaInicial, limitePaginas,
+            pagina -> catalogoService.importarLote(pagina.resposta().getLivros()));
+        
+        System.out.println("✅ Importação concluída: " + resultado.getResumo());
+        return resultado;
+    }
+    
+    /**
+     * Sincronização incremental do catálogo completo
+     * Continua do último checkpoint se a passada anterior foi interrompida; caso
+     * contrário começa uma nova passada, em que livros sem alteração são ignorados
+     * @param limitePaginas número máximo de páginas nesta execução (null ou <= 0 para todas)
+     * @return totais desta execução (o acumulado da passada fica no checkpoint)
+     */
+    public ResultadoImportacaoDto sincronizarCatalogo(Integer limitePaginas) {
+        SincronizacaoCheckpoint checkpoint = catalogoService.prepararSincronizacao();
+        int paginaInicial = checkpoint.getUltimaPaginaConcluida() + 1;
+        String urlInicial = checkpoint.getProximaUrl() != null
+                ? checkpoint.getProximaUrl()
+                : clienteGutendx.getUrlListagem(paginaInicial);
+        
+        if (paginaInicial > 1) {
+            System.out.println("🔁 Retomando sincronização a partir da página " + paginaInicial);
+        } else {
+            System.out.println("🔄 Iniciando nova sincronização do catálogo");
+        }
+        
+        ResultadoImportacaoDto resultado = processarPaginas(urlInicial, paginaInicial, limitePaginas,
+            pagina -> catalogoService.sincronizarLote(pagina.numero(), pagina.resposta()));
+        
+        System.out.println("✅ Sincronização: " + resultado.getResumo());
+        return resultado;
+    }
+    
+    /**
+     * Consome o Flux de páginas do cliente na thread chamadora, gravando cada uma
+     * com o consumidor informado. O Flux baixa até paginasEmBuffer páginas à frente
+     * da que está sendo gravada; sair do laço (erro na gravação) cancela os downloads
+     */
+    private ResultadoImportacaoDto processarPaginas(String urlInicial, int paginaInicial, Integer limitePaginas,
+                                                    Function<PaginaBaixada, ResultadoImportacaoDto> gravarPagina) {
+        int limite = (limitePaginas == null || limitePaginas <= 0) ? Integer.MAX_VALUE : limitePaginas;
+        ResultadoImportacaoDto resultado = new ResultadoImportacaoDto();
+        
+        long inicio = System.nanoTime();
+        try (Stream<GutendxResponseCompleta> paginas = clienteGutendx.percorrerPaginas(urlInicial)
+                .take(limite)
+                .toStream(Math.max(1, paginasEmBuffer))) {
+            
+            int numero = paginaInicial;
+            for (Iterator<GutendxResponseCompleta> it = paginas.iterator(); it.hasNext(); numero++) {
+                PaginaBaixada pagina = new PaginaBaixada(numero, it.next());
+                
+                resultado.acumular(gravarPagina.apply(pagina));
+                resultado.setDuracaoMillis((System.nanoTime() - inicio) / 1_000_000);
+                
+                System.out.printf("📦 Página %d gravada | %s%n", pagina.numero(), resultado.getResumo());
+            }
+            
+        } catch (RuntimeException e) {
+            Throwable causa = Exceptions.unwrap(e);
+            if (causa instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                resultado.setErro("Importação interrompida");
+            } else {
+                resultado.setErro(causa.getMessage());
+                System.err.println("❌ Erro na importação em massa: " + causa.getMessage());
+            }
+        }
+        
+        resultado.setDuracaoMillis((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+    
+    /**
+     * Página baixada com o seu número, na ordem da passada
+     */
+    private record PaginaBaixada(int numero, GutendxResponseCompleta resposta) {}
+}
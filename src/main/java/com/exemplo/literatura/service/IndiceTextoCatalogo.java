@@ -0,0 +1,467 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.repository.LivroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória do catálogo local (título, nome do autor e assuntos)
+ * Substitui as buscas `lower(x) like %termo%`, que percorrem a tabela inteira.
+ * Os textos são quebrados em palavras, em minúsculas e sem acentos ("Dom Casmurro",
+ * "dom casmurro" e "DÔM CÁSMURRO" dão no mesmo); cada palavra aponta para a lista
+ * ordenada dos documentos que a contêm, e o dicionário ordenado de palavras
+ * responde às buscas por prefixo.
+ *
+ * Carregado do banco na subida e atualizado pelo CatalogoService a cada gravação,
+ * só depois do commit (um rollback não deixa livro fantasma no índice)
+ */
+@Service
+public class IndiceTextoCatalogo {
+    
+    /**
+     * Campos indexados de cada livro
+     */
+    public enum Campo {
+        TITULO,
+        AUTOR,
+        ASSUNTO
+    }
+    
+    private final LivroRepository livroRepository;
+    private final boolean habilitado;
+    
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<Campo, TreeMap<String, Postagens>> termos = new EnumMap<>(Campo.class);
+    
+    // Documentos por ordinal (posição densa usada nas listas de postagens)
+    private final List<Documento> documentos = new ArrayList<>();
+    private final ArrayDeque<Integer> ordinaisLivres = new ArrayDeque<>();
+    private final Map<Long, Integer> ordinalPorId = new HashMap<>();
+    private final Map<Long, Long> idPorGutenbergId = new HashMap<>();
+    
+    private volatile boolean pronto;
+    
+    @Autowired
+    public IndiceTextoCatalogo(LivroRepository livroRepository,
+                               @Value("${literatura.indice-texto.habilitado:true}") boolean habilitado) {
+        this.livroRepository = livroRepository;
+        this.habilitado = habilitado;
+        for (Campo campo : Campo.values()) {
+            termos.put(campo, new TreeMap<>());
+        }
+    }
+    
+    /**
+     * Dados de um livro guardados no índice (o suficiente para listar o resultado
+     * sem voltar ao banco)
+     */
+    public record Documento(Long id, Long gutenbergId, String titulo, String autor, String idioma,
+                            Integer downloads, List<String> assuntos) {
+        
+        public Documento {
+            assuntos = assuntos != null ? List.copyOf(assuntos) : List.of();
+        }
+        
+        public Documento(Long id, Long gutenbergId, String titulo, String autor, String idioma, Integer downloads) {
+            this(id, gutenbergId, titulo, autor, idioma, downloads, List.of());
+        }
+    }
+    
+    /**
+     * Resultado de uma busca: os mais baixados primeiro, até o limite pedido
+     * @param total quantidade de livros que atendem à consulta (sem o limite)
+     */
+    public record Resultado(int total, List<Documento> documentos) {}
+    
+    public boolean isPronto() {
+        return pronto;
+    }
+    
+    /**
+     * Carrega o índice com todos os livros do banco quando o contexto sobe
+     * (antes dos runners do console, que já podem fazer buscas)
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void carregarNaSubida() {
+        if (habilitado && !pronto) {
+            reconstruir();
+        }
+    }
+    
+    /**
+     * Descarta o índice e o remonta a partir do banco (uma consulta de projeção)
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Object[]> linhas = livroRepository.findDadosIndiceTexto();
+        
+        trava.writeLock().lock();
+        try {
+            limparSemTrava();
+            for (Object[] linha : linhas) {
+                inserirSemTrava(new Documento((Long) linha[0], (Long) linha[1], (String) linha[2],
+                    (String) linha[3], (String) linha[4], (Integer) linha[5]));
+            }
+            pronto = true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+        
+        System.out.printf("🔎 Índice de texto do catálogo: %d livro(s) em %d ms%n",
+            linhas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Inclui ou substitui livros no índice. Dentro de uma transação, só vale
+     * depois do commit
+     */
+    public void indexar(Collection<Documento> novos) {
+        if (!habilitado || novos.isEmpty()) {
+            return;
+        }
+        List<Documento> copia = List.copyOf(novos);
+        AposCommit.executar(() -> {
+            trava.writeLock().lock();
+            try {
+                for (Documento documento : copia) {
+                    inserirSemTrava(documento);
+                }
+            } finally {
+                trava.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Substitui os dados de livros identificados só pelo Gutenberg ID (atualizações
+     * feitas direto por JDBC); livros que o índice não conhece são ignorados
+     */
+    public void atualizarPorGutenbergId(Collection<Documento> alterados) {
+        if (!habilitado || alterados.isEmpty()) {
+            return;
+        }
+        List<Documento> copia = List.copyOf(alterados);
+        AposCommit.executar(() -> {
+            trava.writeLock().lock();
+            try {
+                for (Documento documento : copia) {
+                    Long id = idPorGutenbergId.get(documento.gutenbergId());
+                    if (id != null) {
+                        inserirSemTrava(new Documento(id, documento.gutenbergId(), documento.titulo(),
+                            documento.autor(), documento.idioma(), documento.downloads(), documento.assuntos()));
+                    }
+                }
+            } finally {
+                trava.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Busca os livros que contêm todas as palavras da consulta em algum dos campos
+     * A última palavra vale como prefixo ("dom casm" encontra "Dom Casmurro"), assim
+     * como qualquer palavra terminada em *
+     * @param campos campos consultados (nenhum = todos)
+     */
+    public Resultado buscar(String consulta, int limite, Campo... campos) {
+        List<Termo> termosConsulta = analisarConsulta(consulta);
+        if (termosConsulta.isEmpty()) {
+            return new Resultado(0, List.of());
+        }
+        Campo[] consultados = campos.length == 0 ? Campo.values() : campos;
+        
+        trava.readLock().lock();
+        try {
+            BitSet encontrados = null;
+            for (Termo termo : termosConsulta) {
+                BitSet doTermo = documentosDoTermo(termo, consultados);
+                if (encontrados == null) {
+                    encontrados = doTermo;
+                } else {
+                    encontrados.and(doTermo);
+                }
+                if (encontrados.isEmpty()) {
+                    return new Resultado(0, List.of());
+                }
+            }
+            return new Resultado(encontrados.cardinality(), maisBaixados(encontrados, limite));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        trava.readLock().lock();
+        try {
+            estatisticas.put("pronto", pronto);
+            estatisticas.put("livros", ordinalPorId.size());
+            for (Campo campo : Campo.values()) {
+                estatisticas.put("termos" + campo.name().charAt(0) + campo.name().substring(1).toLowerCase(Locale.ROOT),
+                    termos.get(campo).size());
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        return estatisticas;
+    }
+    
+    /**
+     * Quebra o texto em palavras em minúsculas, sem acentos nem pontuação
+     */
+    static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return tokens;
+        }
+        
+        String dobrado = dobrarAcentos(texto);
+        StringBuilder atual = new StringBuilder();
+        for (int i = 0; i < dobrado.length(); i++) {
+            char c = dobrado.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                atual.append(Character.toLowerCase(c));
+            } else if (atual.length() > 0) {
+                tokens.add(atual.toString());
+                atual.setLength(0);
+            }
+        }
+        if (atual.length() > 0) {
+            tokens.add(atual.toString());
+        }
+        return tokens;
+    }
+    
+    private static String dobrarAcentos(String texto) {
+        boolean ascii = true;
+        for (int i = 0; i < texto.length() && ascii; i++) {
+            ascii = texto.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return texto;
+        }
+        
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder semMarcas = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                semMarcas.append(c);
+            }
+        }
+        return semMarcas.toString();
+    }
+    
+    private record Termo(String texto, boolean prefixo) {}
+    
+    private static List<Termo> analisarConsulta(String consulta) {
+        List<Termo> resultado = new ArrayList<>();
+        if (consulta == null) {
+            return resultado;
+        }
+        
+        String[] partes = consulta.trim().split("\\s+");
+        for (String parte : partes) {
+            List<String> tokens = tokenizar(parte);
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean ultimoDaParte = i == tokens.size() - 1;
+                resultado.add(new Termo(tokens.get(i), ultimoDaParte && parte.endsWith("*")));
+            }
+        }
+        
+        // A palavra ainda sendo digitada (a última) sempre vale como prefixo
+        if (!resultado.isEmpty()) {
+            Termo ultimo = resultado.remove(resultado.size() - 1);
+            resultado.add(new Termo(ultimo.texto(), true));
+        }
+        return resultado;
+    }
+    
+    private BitSet documentosDoTermo(Termo termo, Campo[] campos) {
+        BitSet documentosTermo = new BitSet(documentos.size());
+        for (Campo campo : campos) {
+            TreeMap<String, Postagens> dicionario = termos.get(campo);
+            if (termo.prefixo()) {
+                SortedMap<String, Postagens> faixa = dicionario.subMap(termo.texto(), termo.texto() + Character.MAX_VALUE);
+                for (Postagens postagens : faixa.values()) {
+                    postagens.marcar(documentosTermo);
+                }
+            } else {
+                Postagens postagens = dicionario.get(termo.texto());
+                if (postagens != null) {
+                    postagens.marcar(documentosTermo);
+                }
+            }
+        }
+        return documentosTermo;
+    }
+    
+    /**
+     * Os `limite` documentos mais baixados (empate pelo título) sem ordenar todos
+     */
+    private List<Documento> maisBaixados(BitSet encontrados, int limite) {
+        Comparator<Documento> porPopularidade = Comparator
+                .comparingInt((Documento d) -> d.downloads() != null ? d.downloads() : -1)
+                .thenComparing(Documento::titulo, Comparator.nullsFirst(Comparator.reverseOrder()));
+        
+        PriorityQueue<Documento> melhores = new PriorityQueue<>(Math.max(1, Math.min(limite, 1024)), porPopularidade);
+        for (int ordinal = encontrados.nextSetBit(0); ordinal >= 0; ordinal = encontrados.nextSetBit(ordinal + 1)) {
+            Documento documento = documentos.get(ordinal);
+            if (melhores.size() < limite) {
+                melhores.add(documento);
+            } else if (limite > 0 && porPopularidade.compare(documento, melhores.peek()) > 0) {
+                melhores.poll();
+                melhores.add(documento);
+            }
+        }
+        
+        List<Documento> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(porPopularidade.reversed());
+        return ordenados;
+    }
+    
+    private void inserirSemTrava(Documento documento) {
+        if (documento.id() == null) {
+            return;
+        }
+        removerSemTrava(documento.id());
+        // Gutenberg ID é único no banco: outro ID com o mesmo livro é um registro que já saiu
+        Long anteriorMesmoLivro = documento.gutenbergId() != null ? idPorGutenbergId.get(documento.gutenbergId()) : null;
+        if (anteriorMesmoLivro != null) {
+            removerSemTrava(anteriorMesmoLivro);
+        }
+        
+        int ordinal;
+        if (ordinaisLivres.isEmpty()) {
+            ordinal = documentos.size();
+            documentos.add(documento);
+        } else {
+            ordinal = ordinaisLivres.pop();
+            documentos.set(ordinal, documento);
+        }
+        ordinalPorId.put(documento.id(), ordinal);
+        if (documento.gutenbergId() != null) {
+            idPorGutenbergId.put(documento.gutenbergId(), documento.id());
+        }
+        
+        percorrerTermos(documento, (campo, token) ->
+            termos.get(campo).computeIfAbsent(token, t -> new Postagens()).adicionar(ordinal));
+    }
+    
+    private void removerSemTrava(Long id) {
+        Integer ordinal = ordinalPorId.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        
+        Documento anterior = documentos.get(ordinal);
+        percorrerTermos(anterior, (campo, token) -> {
+            TreeMap<String, Postagens> dicionario = termos.get(campo);
+            Postagens postagens = dicionario.get(token);
+            if (postagens != null && postagens.remover(ordinal)) {
+                dicionario.remove(token);
+            }
+        });
+        if (anterior.gutenbergId() != null) {
+            idPorGutenbergId.remove(anterior.gutenbergId(), id);
+        }
+        documentos.set(ordinal, null);
+        ordinaisLivres.push(ordinal);
+    }
+    
+    private void limparSemTrava() {
+        termos.values().forEach(TreeMap::clear);
+        documentos.clear();
+        ordinaisLivres.clear();
+        ordinalPorId.clear();
+        idPorGutenbergId.clear();
+    }
+    
+    private interface ConsumidorTermo {
+        void aceitar(Campo campo, String token);
+    }
+    
+    private static void percorrerTermos(Documento documento, ConsumidorTermo consumidor) {
+        for (String token : tokenizar(documento.titulo())) {
+            consumidor.aceitar(Campo.TITULO, token);
+        }
+        for (String token : tokenizar(documento.autor())) {
+            consumidor.aceitar(Campo.AUTOR, token);
+        }
+        for (String assunto : documento.assuntos()) {
+            for (String token : tokenizar(assunto)) {
+                consumidor.aceitar(Campo.ASSUNTO, token);
+            }
+        }
+    }
+    
+    /**
+     * Lista ordenada e sem repetição dos ordinais que contêm um termo
+     */
+    private static final class Postagens {
+        
+        private int[] ordinais = new int[2];
+        private int tamanho;
+        
+        void adicionar(int ordinal) {
+            // Quase sempre o maior ordinal até agora: acrescenta no fim
+            if (tamanho > 0 && ordinais[tamanho - 1] >= ordinal) {
+                int posicao = Arrays.binarySearch(ordinais, 0, tamanho, ordinal);
+                if (posicao >= 0) {
+                    return;
+                }
+                inserirEm(-posicao - 1, ordinal);
+                return;
+            }
+            inserirEm(tamanho, ordinal);
+        }
+        
+        /**
+         * @return true se a lista ficou vazia
+         */
+        boolean remover(int ordinal) {
+            int posicao = Arrays.binarySearch(ordinais, 0, tamanho, ordinal);
+            if (posicao >= 0) {
+                System.arraycopy(ordinais, posicao + 1, ordinais, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+            return tamanho == 0;
+        }
+        
+        void marcar(BitSet destino) {
+            for (int i = 0; i < tamanho; i++) {
+                destino.set(ordinais[i]);
+            }
+        }
+        
+        private void inserirEm(int posicao, int ordinal) {
+            if (tamanho == ordinais.length) {
+                ordinais = Arrays.copyOf(ordinais, tamanho * 2);
+            }
+            System.arraycopy(ordinais, posicao, ordinais, posicao + 1, tamanho - posicao);
+            ordinais[posicao] = ordinal;
+            tamanho++;
+        }
+    }
+}
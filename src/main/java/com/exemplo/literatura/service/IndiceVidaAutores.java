@@ -0,0 +1,368 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.repository.AutorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos períodos de vida dos autores (árvore de intervalos centrada)
+ * Responde "vivos no ano X" e "vivos em algum momento entre X e Y" em O(log n + k),
+ * e o histograma de nascimentos por século com buscas binárias num vetor ordenado,
+ * no lugar de findAutoresVivosNoAno (duas colunas anuláveis que nenhum índice B-tree
+ * atende bem) e de uma consulta por século.
+ *
+ * Mesma regra da consulta JPQL: autor sem ano de nascimento nunca entra; sem ano de
+ * morte, está vivo até hoje. Autores novos entram numa segunda árvore, só com os
+ * pendentes, remontada a cada inclusão (ela é pequena); a árvore principal é
+ * remontada com todos quando os pendentes passam de ~1/8 do índice. Cada consulta
+ * desce as duas árvores, então continua O(log n + k)
+ */
+@Service
+public class IndiceVidaAutores {
+    
+    private static final int SEM_MORTE = Integer.MAX_VALUE;
+    private static final int MINIMO_PENDENTES = 256;
+    
+    private final AutorRepository autorRepository;
+    private final boolean habilitado;
+    
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<Long, Intervalo> porId = new HashMap<>();
+    private final List<Intervalo> pendentes = new ArrayList<>();
+    private No raiz;
+    private int[] nascimentosOrdenados = new int[0];
+    private No raizPendentes;
+    private int[] nascimentosPendentes = new int[0];
+    
+    private volatile boolean pronto;
+    
+    @Autowired
+    public IndiceVidaAutores(AutorRepository autorRepository,
+                             @Value("${literatura.indice-vida-autores.habilitado:true}") boolean habilitado) {
+        this.autorRepository = autorRepository;
+        this.habilitado = habilitado;
+    }
+    
+    /**
+     * Período de vida de um autor (morte nula = ainda vivo)
+     */
+    public record Periodo(Long id, Integer anoNascimento, Integer anoMorte) {}
+    
+    private record Intervalo(long id, int nascimento, int morte) {}
+    
+    public boolean isPronto() {
+        return pronto;
+    }
+    
+    @EventListener(ContextRefreshedEvent.class)
+    public void carregarNaSubida() {
+        if (habilitado && !pronto) {
+            reconstruir();
+        }
+    }
+    
+    /**
+     * Descarta o índice e o remonta a partir do banco (uma consulta de projeção)
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Object[]> linhas = autorRepository.findPeriodosDeVida();
+        
+        trava.writeLock().lock();
+        try {
+            porId.clear();
+            pendentes.clear();
+            for (Object[] linha : linhas) {
+                Intervalo intervalo = criarIntervalo((Long) linha[0], (Integer) linha[1], (Integer) linha[2]);
+                if (intervalo != null) {
+                    porId.put(intervalo.id(), intervalo);
+                }
+            }
+            remontarSemTrava();
+            pronto = true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+        
+        System.out.printf("🕰️  Índice de períodos de vida: %d autor(es) em %d ms%n",
+            porId.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Inclui autores recém-gravados; IDs já conhecidos são ignorados. Dentro de uma
+     * transação, só vale depois do commit
+     */
+    public void registrar(Collection<Periodo> periodos) {
+        if (!habilitado || periodos.isEmpty()) {
+            return;
+        }
+        List<Periodo> copia = List.copyOf(periodos);
+        AposCommit.executar(() -> incluir(copia));
+    }
+    
+    /**
+     * IDs dos autores vivos no ano (nascidos até o ano e mortos no ano ou depois)
+     */
+    public List<Long> vivosNoAno(int ano) {
+        return vivosNoPeriodo(ano, ano);
+    }
+    
+    /**
+     * IDs dos autores vivos em algum momento entre os dois anos (inclusive)
+     */
+    public List<Long> vivosNoPeriodo(int anoInicio, int anoFim) {
+        List<Long> ids = new ArrayList<>();
+        trava.readLock().lock();
+        try {
+            coletar(raiz, anoInicio, anoFim, ids);
+            coletar(raizPendentes, anoInicio, anoFim, ids);
+        } finally {
+            trava.readLock().unlock();
+        }
+        return ids;
+    }
+    
+    /**
+     * Quantidade de autores nascidos entre os dois anos (inclusive)
+     */
+    public long contarNascidosEntre(int anoInicio, int anoFim) {
+        trava.readLock().lock();
+        try {
+            return contarEntre(nascimentosOrdenados, anoInicio, anoFim)
+                    + contarEntre(nascimentosPendentes, anoInicio, anoFim);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Nascimentos por século (16 = 1501 a 1600; negativos antes de Cristo), em ordem,
+     * só com os séculos que têm algum autor
+     */
+    public Map<Integer, Long> histogramaPorSeculo() {
+        Map<Integer, Long> histograma = new TreeMap<>();
+        trava.readLock().lock();
+        try {
+            contarPorSeculo(nascimentosOrdenados, histograma);
+            contarPorSeculo(nascimentosPendentes, histograma);
+        } finally {
+            trava.readLock().unlock();
+        }
+        return new LinkedHashMap<>(histograma);
+    }
+    
+    public int getTotalAutores() {
+        trava.readLock().lock();
+        try {
+            return porId.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Século de um ano: 1501..1600 = 16; 1..100 = 1; -100..-1 = -1 e -200..-101 = -2
+     * (antes de Cristo; o ano 0 conta como 1 a.C.)
+     */
+    static int seculo(int ano) {
+        if (ano > 0) {
+            return (ano - 1) / 100 + 1;
+        }
+        return -((Math.max(1, -ano) - 1) / 100 + 1);
+    }
+    
+    /**
+     * Salta de século em século: uma busca binária por século presente
+     */
+    private static void contarPorSeculo(int[] nascimentos, Map<Integer, Long> histograma) {
+        int posicao = 0;
+        while (posicao < nascimentos.length) {
+            int seculo = seculo(nascimentos[posicao]);
+            int fim = primeiraPosicaoMaiorQue(nascimentos, ultimoAnoDoSeculo(seculo));
+            histograma.merge(seculo, (long) (fim - posicao), Long::sum);
+            posicao = fim;
+        }
+    }
+    
+    private static int ultimoAnoDoSeculo(int seculo) {
+        if (seculo > 0) {
+            return seculo * 100;
+        }
+        return seculo == -1 ? 0 : (seculo + 1) * 100 - 1;
+    }
+    
+    private void incluir(List<Periodo> periodos) {
+        trava.writeLock().lock();
+        try {
+            for (Periodo periodo : periodos) {
+                if (periodo.id() == null || porId.containsKey(periodo.id())) {
+                    continue;
+                }
+                Intervalo intervalo = criarIntervalo(periodo.id(), periodo.anoNascimento(), periodo.anoMorte());
+                if (intervalo != null) {
+                    porId.put(intervalo.id(), intervalo);
+                    pendentes.add(intervalo);
+                }
+            }
+            // Remontar a principal custa O(n log n): só quando os pendentes passam de ~1/8
+            // do índice. Até lá só a árvore dos pendentes (no máximo n/8) é remontada
+            if (pendentes.size() > Math.max(MINIMO_PENDENTES, porId.size() / 8)) {
+                remontarSemTrava();
+            } else {
+                remontarPendentesSemTrava();
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    private static Intervalo criarIntervalo(Long id, Integer nascimento, Integer morte) {
+        if (id == null || nascimento == null) {
+            return null;
+        }
+        return new Intervalo(id, nascimento, morte != null ? morte : SEM_MORTE);
+    }
+    
+    private void remontarSemTrava() {
+        pendentes.clear();
+        List<Intervalo> todos = new ArrayList<>(porId.values());
+        raiz = construir(todos);
+        nascimentosOrdenados = ordenarNascimentos(todos);
+        remontarPendentesSemTrava();
+    }
+    
+    private void remontarPendentesSemTrava() {
+        raizPendentes = construir(pendentes);
+        nascimentosPendentes = ordenarNascimentos(pendentes);
+    }
+    
+    private static int[] ordenarNascimentos(List<Intervalo> intervalos) {
+        int[] nascimentos = new int[intervalos.size()];
+        for (int i = 0; i < nascimentos.length; i++) {
+            nascimentos[i] = intervalos.get(i).nascimento();
+        }
+        Arrays.sort(nascimentos);
+        return nascimentos;
+    }
+    
+    /**
+     * Nó da árvore centrada: guarda os intervalos que contêm o centro, ordenados
+     * pelo nascimento (crescente) e pela morte (decrescente); os que terminam antes
+     * do centro vão para a esquerda e os que começam depois, para a direita
+     */
+    private static final class No {
+        
+        final int centro;
+        final Intervalo[] porNascimento;
+        final Intervalo[] porMorte;
+        final No esquerda;
+        final No direita;
+        
+        No(int centro, Intervalo[] porNascimento, Intervalo[] porMorte, No esquerda, No direita) {
+            this.centro = centro;
+            this.porNascimento = porNascimento;
+            this.porMorte = porMorte;
+            this.esquerda = esquerda;
+            this.direita = direita;
+        }
+    }
+    
+    private static No construir(List<Intervalo> intervalos) {
+        if (intervalos.isEmpty()) {
+            return null;
+        }
+        
+        // Mediana dos nascimentos: o intervalo que nasce no centro sempre fica no nó
+        int[] nascimentos = new int[intervalos.size()];
+        for (int i = 0; i < nascimentos.length; i++) {
+            nascimentos[i] = intervalos.get(i).nascimento();
+        }
+        Arrays.sort(nascimentos);
+        int centro = nascimentos[nascimentos.length / 2];
+        
+        List<Intervalo> esquerda = new ArrayList<>();
+        List<Intervalo> direita = new ArrayList<>();
+        List<Intervalo> noCentro = new ArrayList<>();
+        for (Intervalo intervalo : intervalos) {
+            if (intervalo.morte() < centro) {
+                esquerda.add(intervalo);
+            } else if (intervalo.nascimento() > centro) {
+                direita.add(intervalo);
+            } else {
+                noCentro.add(intervalo);
+            }
+        }
+        
+        Intervalo[] porNascimento = noCentro.toArray(new Intervalo[0]);
+        Arrays.sort(porNascimento, Comparator.comparingInt(Intervalo::nascimento));
+        Intervalo[] porMorte = noCentro.toArray(new Intervalo[0]);
+        Arrays.sort(porMorte, Comparator.comparingInt(Intervalo::morte).reversed());
+        
+        return new No(centro, porNascimento, porMorte, construir(esquerda), construir(direita));
+    }
+    
+    /**
+     * Intervalos que se sobrepõem a [inicio, fim]
+     */
+    private static void coletar(No no, int inicio, int fim, List<Long> ids) {
+        while (no != null) {
+            if (fim < no.centro) {
+                // Todos no nó terminam depois do centro (> fim): basta ter nascido até o fim
+                for (Intervalo intervalo : no.porNascimento) {
+                    if (intervalo.nascimento() > fim) {
+                        break;
+                    }
+                    ids.add(intervalo.id());
+                }
+                no = no.esquerda;
+            } else if (inicio > no.centro) {
+                // Todos no nó nasceram até o centro (< inicio): basta morrer depois do início
+                for (Intervalo intervalo : no.porMorte) {
+                    if (intervalo.morte() < inicio) {
+                        break;
+                    }
+                    ids.add(intervalo.id());
+                }
+                no = no.direita;
+            } else {
+                for (Intervalo intervalo : no.porNascimento) {
+                    ids.add(intervalo.id());
+                }
+                coletar(no.esquerda, inicio, fim, ids);
+                no = no.direita;
+            }
+        }
+    }
+    
+    private static long contarEntre(int[] ordenados, int inicio, int fim) {
+        return primeiraPosicaoMaiorQue(ordenados, fim) - primeiraPosicaoMaiorQue(ordenados, inicio - 1);
+    }
+    
+    private static int primeiraPosicaoMaiorQue(int[] ordenados, int valor) {
+        int baixo = 0;
+        int alto = ordenados.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenados[meio] <= valor) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+}
@@ -1,16 +1,21 @@
 package com.exemplo.literatura.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Serviço especializado para análise avançada de dados JSON
  * usando Jackson 2.16 com técnicas de extração e manipulação
+ *
+ * As análises são feitas numa única passada sobre os tokens (JsonParser), sem
+ * montar a árvore de JsonNode: várias análises pedidas juntas custam uma leitura
+ * só, e a memória alocada acompanha o tamanho do resultado, não o do documento
  */
 @Service
 public class JsonAnalysisService {
@@ -22,108 +27,69 @@ public class JsonAnalysisService {
     }
     
     /**
-     * Analisa a estrutura completa de um JSON
+     * Análises que podem ser pedidas numa passada
      */
-    public Map<String, Object> analisarEstrutura(String jsonString) {
-        Map<String, Object> analise = new HashMap<>();
+    public enum Analise {
+        ESTRUTURA,
+        TIPOS_DADOS,
+        PROPRIEDADES_VAZIAS,
+        ARRAYS
+    }
+    
+    /**
+     * Faz todas as análises pedidas numa única leitura do JSON
+     * @param analises análises a calcular (a estrutura da raiz e a validação sempre vêm)
+     * @param propriedades propriedades cujos valores devem ser extraídos
+     */
+    public ResultadoAnalise analisar(String jsonString, Set<Analise> analises, String... propriedades) {
+        ResultadoAnalise resultado = new ResultadoAnalise(jsonString.length(), analises, propriedades);
         
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            
-            analise.put("tipo", getNodeType(rootNode));
-            analise.put("tamanho", jsonString.length());
-            
-            if (rootNode.isObject()) {
-                analise.put("propriedades", contarPropriedades(rootNode));
-                analise.put("estrutura", mapearEstrutura(rootNode));
-            } else if (rootNode.isArray()) {
-                analise.put("elementos", rootNode.size());
-                if (rootNode.size() > 0) {
-                    analise.put("tipoElementos", getNodeType(rootNode.get(0)));
-                }
-            }
-            
+        try (JsonParser parser = objectMapper.getFactory().createParser(jsonString)) {
+            new Passagem(parser, resultado).executar();
         } catch (Exception e) {
-            analise.put("erro", e.getMessage());
+            resultado.falhar(e);
         }
         
-        return analise;
+        return resultado;
+    }
+    
+    /**
+     * Analisa a estrutura completa de um JSON
+     */
+    public Map<String, Object> analisarEstrutura(String jsonString) {
+        return analisar(jsonString, EnumSet.of(Analise.ESTRUTURA)).getEstrutura();
     }
     
     /**
      * Extrai todos os valores de uma propriedade específica
      */
     public List<String> extrairValoresPropriedade(String jsonString, String propriedade) {
-        List<String> valores = new ArrayList<>();
-        
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            extrairValoresRecursivo(rootNode, propriedade, valores);
-        } catch (Exception e) {
-            System.err.println("Erro ao extrair propriedade: " + e.getMessage());
+        ResultadoAnalise resultado = analisar(jsonString, EnumSet.noneOf(Analise.class), propriedade);
+        if (!resultado.isValido()) {
+            System.err.println("Erro ao extrair propriedade: " + resultado.getErro());
         }
-        
-        return valores;
+        return resultado.getValores(propriedade);
     }
     
     /**
      * Conta ocorrências de diferentes tipos de dados
      */
     public Map<String, Integer> contarTiposDados(String jsonString) {
-        Map<String, Integer> contadores = new HashMap<>();
-        
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            contarTiposRecursivo(rootNode, contadores);
-        } catch (Exception e) {
-            contadores.put("erro", 1);
-        }
-        
-        return contadores;
+        return analisar(jsonString, EnumSet.of(Analise.TIPOS_DADOS)).getTiposDados();
     }
     
     /**
      * Encontra propriedades com valores nulos ou vazios
      */
     public List<String> encontrarPropriedadesVazias(String jsonString) {
-        List<String> propriedadesVazias = new ArrayList<>();
-        
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            encontrarVaziosRecursivo(rootNode, "", propriedadesVazias);
-        } catch (Exception e) {
-            propriedadesVazias.add("Erro: " + e.getMessage());
-        }
-        
-        return propriedadesVazias;
+        return analisar(jsonString, EnumSet.of(Analise.PROPRIEDADES_VAZIAS)).getPropriedadesVazias();
     }
     
     /**
      * Extrai estatísticas de arrays no JSON
      */
     public Map<String, Object> analisarArrays(String jsonString) {
-        Map<String, Object> estatisticas = new HashMap<>();
-        List<Map<String, Object>> arrays = new ArrayList<>();
-        
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            analisarArraysRecursivo(rootNode, "", arrays);
-            
-            estatisticas.put("totalArrays", arrays.size());
-            estatisticas.put("detalhes", arrays);
-            
-            if (!arrays.isEmpty()) {
-                OptionalDouble mediaTamanho = arrays.stream()
-                    .mapToInt(arr -> (Integer) arr.get("tamanho"))
-                    .average();
-                estatisticas.put("tamanhoMedio", mediaTamanho.orElse(0.0));
-            }
-            
-        } catch (Exception e) {
-            estatisticas.put("erro", e.getMessage());
-        }
-        
-        return estatisticas;
+        return analisar(jsonString, EnumSet.of(Analise.ARRAYS)).getAnaliseArrays();
     }
     
     /**
@@ -144,142 +110,353 @@ public class JsonAnalysisService {
      * Valida se o JSON está bem formado
      */
     public Map<String, Object> validarJson(String jsonString) {
-        Map<String, Object> resultado = new HashMap<>();
+        return analisar(jsonString, EnumSet.noneOf(Analise.class)).getValidacao();
+    }
+    
+    /**
+     * Resultado de uma passada de análise. Cada getter devolve o mesmo formato
+     * dos métodos de análise individuais
+     */
+    public static final class ResultadoAnalise {
         
-        try {
-            JsonNode node = objectMapper.readTree(jsonString);
+        private final int tamanho;
+        private final Set<Analise> analises;
+        
+        private String tipo;
+        private int propriedadesRaiz;
+        private final Map<String, String> estruturaRaiz = new HashMap<>();
+        private int elementosRaiz;
+        private String tipoElementosRaiz;
+        
+        private final Map<String, Integer> tiposDados = new HashMap<>();
+        private final List<String> propriedadesVazias = new ArrayList<>();
+        private final List<Map<String, Object>> arrays = new ArrayList<>();
+        private final Map<String, List<String>> valores = new LinkedHashMap<>();
+        
+        private Exception erro;
+        
+        private ResultadoAnalise(int tamanho, Set<Analise> analises, String... propriedades) {
+            this.tamanho = tamanho;
+            this.analises = analises;
+            for (String propriedade : propriedades) {
+                valores.put(propriedade, new ArrayList<>());
+            }
+        }
+        
+        public boolean isValido() {
+            return erro == null;
+        }
+        
+        public String getErro() {
+            return erro != null ? erro.getMessage() : null;
+        }
+        
+        public Map<String, Object> getValidacao() {
+            Map<String, Object> resultado = new HashMap<>();
+            if (erro != null) {
+                resultado.put("valido", false);
+                resultado.put("erro", erro.getMessage());
+                resultado.put("tipoErro", erro.getClass().getSimpleName());
+                return resultado;
+            }
+            
             resultado.put("valido", true);
-            resultado.put("tipo", getNodeType(node));
-            resultado.put("tamanho", jsonString.length());
+            resultado.put("tipo", tipo);
+            resultado.put("tamanho", tamanho);
+            if ("Object".equals(tipo)) {
+                resultado.put("propriedades", propriedadesRaiz);
+            } else if ("Array".equals(tipo)) {
+                resultado.put("elementos", elementosRaiz);
+            }
+            return resultado;
+        }
+        
+        public Map<String, Object> getEstrutura() {
+            exigir(Analise.ESTRUTURA);
+            Map<String, Object> analise = new HashMap<>();
+            if (erro != null) {
+                analise.put("erro", erro.getMessage());
+                return analise;
+            }
             
-            if (node.isObject()) {
-                resultado.put("propriedades", node.size());
-            } else if (node.isArray()) {
-                resultado.put("elementos", node.size());
+            analise.put("tipo", tipo);
+            analise.put("tamanho", tamanho);
+            if ("Object".equals(tipo)) {
+                analise.put("propriedades", propriedadesRaiz);
+                analise.put("estrutura", estruturaRaiz);
+            } else if ("Array".equals(tipo)) {
+                analise.put("elementos", elementosRaiz);
+                if (tipoElementosRaiz != null) {
+                    analise.put("tipoElementos", tipoElementosRaiz);
+                }
+            }
+            return analise;
+        }
+        
+        public Map<String, Integer> getTiposDados() {
+            exigir(Analise.TIPOS_DADOS);
+            if (erro != null) {
+                Map<String, Integer> contadores = new HashMap<>();
+                contadores.put("erro", 1);
+                return contadores;
+            }
+            return tiposDados;
+        }
+        
+        public List<String> getPropriedadesVazias() {
+            exigir(Analise.PROPRIEDADES_VAZIAS);
+            if (erro != null) {
+                List<String> vazias = new ArrayList<>();
+                vazias.add("Erro: " + erro.getMessage());
+                return vazias;
+            }
+            return propriedadesVazias;
+        }
+        
+        public Map<String, Object> getAnaliseArrays() {
+            exigir(Analise.ARRAYS);
+            Map<String, Object> estatisticas = new HashMap<>();
+            if (erro != null) {
+                estatisticas.put("erro", erro.getMessage());
+                return estatisticas;
             }
             
-        } catch (Exception e) {
-            resultado.put("valido", false);
-            resultado.put("erro", e.getMessage());
-            resultado.put("tipoErro", e.getClass().getSimpleName());
+            estatisticas.put("totalArrays", arrays.size());
+            estatisticas.put("detalhes", arrays);
+            if (!arrays.isEmpty()) {
+                OptionalDouble mediaTamanho = arrays.stream()
+                    .mapToInt(arr -> (Integer) arr.get("tamanho"))
+                    .average();
+                estatisticas.put("tamanhoMedio", mediaTamanho.orElse(0.0));
+            }
+            return estatisticas;
         }
         
-        return resultado;
-    }
-    
-    // Métodos auxiliares privados
-    
-    private String getNodeType(JsonNode node) {
-        if (node.isArray()) return "Array";
-        if (node.isObject()) return "Object";
-        if (node.isTextual()) return "String";
-        if (node.isNumber()) return "Number";
-        if (node.isBoolean()) return "Boolean";
-        if (node.isNull()) return "Null";
-        return "Unknown";
-    }
-    
-    private int contarPropriedades(JsonNode node) {
-        if (node.isObject()) {
-            return node.size();
+        /**
+         * Valores (não nulos) da propriedade, na ordem de um percurso em profundidade
+         * @throws IllegalArgumentException se a propriedade não foi pedida na análise
+         */
+        public List<String> getValores(String propriedade) {
+            List<String> lista = valores.get(propriedade);
+            if (lista == null) {
+                throw new IllegalArgumentException("Propriedade não pedida na análise: " + propriedade);
+            }
+            return erro != null ? new ArrayList<>() : lista;
         }
-        return 0;
-    }
-    
-    private Map<String, String> mapearEstrutura(JsonNode node) {
-        Map<String, String> estrutura = new HashMap<>();
         
-        if (node.isObject()) {
-            node.fieldNames().forEachRemaining(fieldName -> {
-                JsonNode fieldValue = node.get(fieldName);
-                estrutura.put(fieldName, getNodeType(fieldValue));
-            });
+        private void exigir(Analise analise) {
+            if (!analises.contains(analise)) {
+                throw new IllegalStateException("Análise não pedida: " + analise);
+            }
         }
         
-        return estrutura;
+        private void falhar(Exception e) {
+            this.erro = e;
+        }
     }
     
-    private void extrairValoresRecursivo(JsonNode node, String propriedade, List<String> valores) {
-        if (node.isObject()) {
-            if (node.has(propriedade)) {
-                JsonNode valorNode = node.get(propriedade);
-                if (!valorNode.isNull()) {
-                    valores.add(valorNode.asText());
+    /**
+     * Uma leitura do JSON alimentando todas as análises pedidas
+     * O caminho do valor atual é mantido num único StringBuilder e só vira String
+     * quando entra no resultado (propriedade vazia ou array encontrado)
+     */
+    private static final class Passagem {
+        
+        private final JsonParser parser;
+        private final ResultadoAnalise resultado;
+        
+        private final boolean contarTipos;
+        private final boolean procurarVazias;
+        private final boolean analisarArrays;
+        private final boolean rastrearCaminho;
+        
+        private final String[] propriedades;
+        private final List<String>[] valores;
+        private final StringBuilder caminho = new StringBuilder();
+        
+        // Posição de cada lista de valores no início de cada objeto aberto (nível * propriedades)
+        private int[] posicoesValores;
+        private int nivel;
+        
+        @SuppressWarnings("unchecked")
+        Passagem(JsonParser parser, ResultadoAnalise resultado) {
+            this.parser = parser;
+            this.resultado = resultado;
+            this.contarTipos = resultado.analises.contains(Analise.TIPOS_DADOS);
+            this.procurarVazias = resultado.analises.contains(Analise.PROPRIEDADES_VAZIAS);
+            this.analisarArrays = resultado.analises.contains(Analise.ARRAYS);
+            this.rastrearCaminho = procurarVazias || analisarArrays;
+            this.propriedades = resultado.valores.keySet().toArray(new String[0]);
+            this.valores = resultado.valores.values().toArray(new List[0]);
+            this.posicoesValores = new int[Math.max(1, propriedades.length) * 16];
+        }
+        
+        void executar() throws IOException {
+            JsonToken raiz = parser.nextToken();
+            if (raiz == null) {
+                // Conteúdo vazio: readTree devolveria um MissingNode
+                resultado.tipo = "Unknown";
+                if (contarTipos) {
+                    resultado.tiposDados.put("Unknown", 1);
                 }
+                return;
             }
             
-            node.fieldNames().forEachRemaining(fieldName -> {
-                extrairValoresRecursivo(node.get(fieldName), propriedade, valores);
-            });
-            
-        } else if (node.isArray()) {
-            for (JsonNode elemento : node) {
-                extrairValoresRecursivo(elemento, propriedade, valores);
-            }
+            resultado.tipo = tipo(raiz);
+            valor(raiz, false);
         }
-    }
-    
-    private void contarTiposRecursivo(JsonNode node, Map<String, Integer> contadores) {
-        String tipo = getNodeType(node);
-        contadores.merge(tipo, 1, Integer::sum);
         
-        if (node.isObject()) {
-            node.fieldNames().forEachRemaining(fieldName -> {
-                contarTiposRecursivo(node.get(fieldName), contadores);
-            });
-        } else if (node.isArray()) {
-            for (JsonNode elemento : node) {
-                contarTiposRecursivo(elemento, contadores);
+        /**
+         * Processa o valor cujo primeiro token acabou de ser lido
+         * @param campo true se o valor é de uma propriedade de objeto (entra na busca por vazios)
+         */
+        private void valor(JsonToken token, boolean campo) throws IOException {
+            if (contarTipos) {
+                resultado.tiposDados.merge(tipo(token), 1, Integer::sum);
+            }
+            
+            if (token == JsonToken.START_OBJECT) {
+                objeto(campo);
+            } else if (token == JsonToken.START_ARRAY) {
+                array(campo);
             }
         }
-    }
-    
-    private void encontrarVaziosRecursivo(JsonNode node, String caminho, List<String> vazios) {
-        if (node.isObject()) {
-            node.fieldNames().forEachRemaining(fieldName -> {
-                JsonNode fieldValue = node.get(fieldName);
-                String novoCaminho = caminho.isEmpty() ? fieldName : caminho + "." + fieldName;
+        
+        private void objeto(boolean campo) throws IOException {
+            boolean raiz = nivel == 0;
+            int tamanhoCaminho = caminho.length();
+            marcarPosicoesValores();
+            nivel++;
+            
+            int quantidade = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String nome = parser.currentName();
+                JsonToken token = parser.nextToken();
+                quantidade++;
                 
-                if (fieldValue.isNull() || 
-                    (fieldValue.isTextual() && fieldValue.asText().isEmpty()) ||
-                    (fieldValue.isArray() && fieldValue.size() == 0) ||
-                    (fieldValue.isObject() && fieldValue.size() == 0)) {
-                    vazios.add(novoCaminho);
-                } else {
-                    encontrarVaziosRecursivo(fieldValue, novoCaminho, vazios);
+                if (raiz) {
+                    resultado.estruturaRaiz.put(nome, tipo(token));
+                }
+                extrairValor(nome, token);
+                
+                if (rastrearCaminho) {
+                    if (tamanhoCaminho > 0) {
+                        caminho.append('.');
+                    }
+                    caminho.append(nome);
+                }
+                if (procurarVazias && (token == JsonToken.VALUE_NULL
+                        || (token == JsonToken.VALUE_STRING && parser.getTextLength() == 0))) {
+                    resultado.propriedadesVazias.add(caminho.toString());
                 }
-            });
-        } else if (node.isArray()) {
-            for (int i = 0; i < node.size(); i++) {
-                String novoCaminho = caminho + "[" + i + "]";
-                encontrarVaziosRecursivo(node.get(i), novoCaminho, vazios);
+                
+                valor(token, true);
+                caminho.setLength(tamanhoCaminho);
             }
-        }
-    }
-    
-    private void analisarArraysRecursivo(JsonNode node, String caminho, List<Map<String, Object>> arrays) {
-        if (node.isArray()) {
-            Map<String, Object> infoArray = new HashMap<>();
-            infoArray.put("caminho", caminho.isEmpty() ? "root" : caminho);
-            infoArray.put("tamanho", node.size());
             
-            if (node.size() > 0) {
-                infoArray.put("tipoElementos", getNodeType(node.get(0)));
+            nivel--;
+            if (raiz) {
+                resultado.propriedadesRaiz = quantidade;
+            }
+            if (campo && quantidade == 0 && procurarVazias) {
+                resultado.propriedadesVazias.add(caminho.toString());
             }
+        }
+        
+        private void array(boolean campo) throws IOException {
+            boolean raiz = nivel == 0;
+            int tamanhoCaminho = caminho.length();
+            nivel++;
             
-            arrays.add(infoArray);
+            // Entra na lista antes dos arrays internos, como num percurso em pré-ordem
+            Map<String, Object> infoArray = null;
+            if (analisarArrays) {
+                infoArray = new HashMap<>();
+                infoArray.put("caminho", tamanhoCaminho == 0 ? "root" : caminho.toString());
+                resultado.arrays.add(infoArray);
+            }
             
-            // Analisar elementos do array
-            for (int i = 0; i < node.size(); i++) {
-                String novoCaminho = caminho + "[" + i + "]";
-                analisarArraysRecursivo(node.get(i), novoCaminho, arrays);
+            int tamanho = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (tamanho == 0) {
+                    if (infoArray != null) {
+                        infoArray.put("tipoElementos", tipo(token));
+                    }
+                    if (raiz) {
+                        resultado.tipoElementosRaiz = tipo(token);
+                    }
+                }
+                
+                if (rastrearCaminho) {
+                    caminho.append('[').append(tamanho).append(']');
+                }
+                valor(token, false);
+                caminho.setLength(tamanhoCaminho);
+                tamanho++;
             }
             
-        } else if (node.isObject()) {
-            node.fieldNames().forEachRemaining(fieldName -> {
-                String novoCaminho = caminho.isEmpty() ? fieldName : caminho + "." + fieldName;
-                analisarArraysRecursivo(node.get(fieldName), novoCaminho, arrays);
-            });
+            nivel--;
+            if (infoArray != null) {
+                infoArray.put("tamanho", tamanho);
+            }
+            if (raiz) {
+                resultado.elementosRaiz = tamanho;
+            }
+            if (campo && tamanho == 0 && procurarVazias) {
+                resultado.propriedadesVazias.add(caminho.toString());
+            }
+        }
+        
+        /**
+         * Guarda onde cada lista de valores estava quando o objeto abriu: o valor
+         * do próprio objeto entra ali, antes dos valores dos objetos internos
+         */
+        private void marcarPosicoesValores() {
+            if (propriedades.length == 0) {
+                return;
+            }
+            int inicio = nivel * propriedades.length;
+            if (inicio + propriedades.length > posicoesValores.length) {
+                posicoesValores = Arrays.copyOf(posicoesValores, posicoesValores.length * 2);
+            }
+            for (int i = 0; i < propriedades.length; i++) {
+                posicoesValores[inicio + i] = valores[i].size();
+            }
+        }
+        
+        private void extrairValor(String nome, JsonToken token) throws IOException {
+            for (int i = 0; i < propriedades.length; i++) {
+                if (propriedades[i].equals(nome) && token != JsonToken.VALUE_NULL) {
+                    // nível já foi incrementado ao abrir o objeto dono da propriedade
+                    valores[i].add(posicoesValores[(nivel - 1) * propriedades.length + i], texto(token));
+                }
+            }
+        }
+        
+        /**
+         * Mesmo texto de JsonNode.asText(): objetos e arrays viram ""
+         */
+        private String texto(JsonToken token) throws IOException {
+            return switch (token) {
+                case VALUE_STRING, VALUE_NUMBER_INT -> parser.getText();
+                case VALUE_NUMBER_FLOAT -> String.valueOf(parser.getDoubleValue());
+                case VALUE_TRUE -> "true";
+                case VALUE_FALSE -> "false";
+                default -> "";
+            };
+        }
+        
+        private static String tipo(JsonToken token) {
+            return switch (token) {
+                case START_ARRAY -> "Array";
+                case START_OBJECT -> "Object";
+                case VALUE_STRING -> "String";
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "Number";
+                case VALUE_TRUE, VALUE_FALSE -> "Boolean";
+                case VALUE_NULL -> "Null";
+                default -> "Unknown";
+            };
         }
     }
 }
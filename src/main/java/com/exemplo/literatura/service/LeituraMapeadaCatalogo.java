@@ -0,0 +1,782 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.repository.LivroRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modelo de leitura do catálogo fora do heap, num arquivo mapeado em memória
+ * Cada livro é um registro de tamanho fixo (ID, Gutenberg ID, posição e tamanho do
+ * título, idioma, autor e downloads) em livros.dat; títulos e nomes de autores ficam
+ * em UTF-8 em textos.dat. Idiomas e autores são dicionários (o registro guarda a
+ * posição), e as ordens de listagem são arrays de posições de registro. Assim a
+ * listagem por cursor e os mais baixados (de todos ou de um idioma) saem direto
+ * dos arquivos mapeados, sem Hibernate nem entidades. No heap ficam só as ordens
+ * (por ID, Gutenberg ID, título, downloads e downloads de cada idioma: 20 bytes por
+ * livro) e os dicionários de idiomas e de autores.
+ *
+ * Uma gravação nunca reescreve um registro que já está nas ordens: o livro ganha um
+ * registro novo no fim de livros.dat e o anterior é marcado como removido. Os registros
+ * novos entram numa parte pequena de cada ordem (as recentes), intercalada com a
+ * principal nas leituras; quando as recentes passam de maximoRecentes, são mescladas
+ * na principal de uma vez. Assim gravar um livro custa O(maximoRecentes), não O(n).
+ *
+ * Os arquivos são uma área de trabalho: remontados do banco na subida e atualizados
+ * pelo CatalogoService a cada gravação, só depois do commit (como o índice de texto).
+ * Registros e títulos substituídos ficam nos arquivos até a próxima reconstrução.
+ * Os títulos são ordenados pelos bytes UTF-8 (a ordem do H2 e do PostgreSQL com
+ * collation "C"); em outra collation a ordem por título pode diferir da do banco
+ */
+@Service
+public class LeituraMapeadaCatalogo {
+    
+    // Registro de um livro em livros.dat
+    private static final int TAMANHO_REGISTRO = 32;
+    private static final int ID = 0;
+    private static final int GUTENBERG_ID = 8;
+    private static final int TITULO_POSICAO = 16;
+    private static final int TITULO_TAMANHO = 20;
+    private static final int IDIOMA = 22;
+    private static final int AUTOR = 24;
+    private static final int DOWNLOADS = 28;
+    
+    private static final long SEM_ID = Long.MIN_VALUE;
+    private static final int SEM_VALOR = Integer.MIN_VALUE;
+    private static final int CAPACIDADE_INICIAL = 1 << 20;
+    
+    private final LivroRepository livroRepository;
+    private final boolean habilitada;
+    private final Path diretorio;
+    private final int maximoRecentes;
+    
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private ArquivoMapeado registros;
+    private ArquivoMapeado textos;
+    private int quantidade;
+    private int vivos;
+    
+    // Dicionários (posição -> texto em textos.dat); os nomes ficam no heap só para deduplicar na gravação
+    private final List<String> idiomas = new ArrayList<>();
+    private final Map<String, Integer> posicoesIdiomas = new HashMap<>();
+    private final Map<String, Integer> posicoesAutores = new HashMap<>();
+    private long[] textosAutores = new long[0];
+    
+    // Registros a partir de primeiroRecente estão nas partes recentes; os removidos
+    // (substituídos por um registro novo) só podem estar nas principais
+    private int primeiroRecente;
+    private final BitSet removidos = new BitSet();
+    
+    private final Ordem porId = new Ordem(r -> true, this::compararId);
+    private final Ordem porGutenbergId = new Ordem(r -> gutenbergId(r) != SEM_ID, this::compararGutenbergId);
+    private final Ordem porTitulo = new Ordem(r -> true, this::compararTitulo);
+    private final Ordem porDownloads = new Ordem(r -> downloads(r) != SEM_VALOR, this::compararDownloads);
+    private final Map<Integer, Ordem> porDownloadsDoIdioma = new HashMap<>();
+    
+    private volatile boolean pronto;
+    
+    @Autowired
+    public LeituraMapeadaCatalogo(LivroRepository livroRepository,
+                                  @Value("${literatura.leitura-mapeada.habilitada:false}") boolean habilitada,
+                                  @Value("${literatura.leitura-mapeada.diretorio:dados/leitura}") String diretorio,
+                                  @Value("${literatura.leitura-mapeada.maximo-recentes:1024}") int maximoRecentes) {
+        this.livroRepository = livroRepository;
+        this.habilitada = habilitada;
+        this.diretorio = Path.of(diretorio);
+        this.maximoRecentes = Math.max(1, maximoRecentes);
+    }
+    
+    /**
+     * Com o modelo pronto, as listagens do CatalogoService são servidas por ele
+     */
+    public boolean isPronto() {
+        return pronto;
+    }
+    
+    @EventListener(ContextRefreshedEvent.class)
+    public void carregarNaSubida() {
+        if (habilitada && !pronto) {
+            reconstruir();
+        }
+    }
+    
+    /**
+     * Recria os arquivos a partir do banco (a mesma consulta de projeção do índice de texto)
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Object[]> linhas = livroRepository.findDadosIndiceTexto();
+        List<IndiceTextoCatalogo.Documento> documentos = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            documentos.add(new IndiceTextoCatalogo.Documento((Long) linha[0], (Long) linha[1], (String) linha[2],
+                (String) linha[3], (String) linha[4], (Integer) linha[5]));
+        }
+        
+        trava.writeLock().lock();
+        try {
+            fecharSemTrava();
+            Files.createDirectories(diretorio);
+            registros = new ArquivoMapeado(diretorio.resolve("livros.dat"));
+            textos = new ArquivoMapeado(diretorio.resolve("textos.dat"));
+            gravarSemTrava(documentos);
+            consolidarSemTrava();
+            pronto = true;
+        } catch (IOException e) {
+            fecharSemTrava();
+            throw new UncheckedIOException("Não foi possível criar o modelo de leitura em " + diretorio, e);
+        } finally {
+            trava.writeLock().unlock();
+        }
+        
+        System.out.printf("🗺️ Modelo de leitura mapeado: %d livro(s), %d KB fora do heap em %d ms%n",
+            documentos.size(), getBytesMapeados() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Deixa de servir as listagens (voltam ao banco) e fecha os arquivos
+     */
+    @PreDestroy
+    public void descartar() {
+        trava.writeLock().lock();
+        try {
+            fecharSemTrava();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Inclui ou substitui livros (pelo ID). Dentro de uma transação, só vale depois do commit
+     */
+    public void gravar(Collection<IndiceTextoCatalogo.Documento> novos) {
+        if (!habilitada || novos.isEmpty()) {
+            return;
+        }
+        List<IndiceTextoCatalogo.Documento> copia = List.copyOf(novos);
+        AposCommit.executar(() -> {
+            trava.writeLock().lock();
+            try {
+                if (pronto) {
+                    gravarSemTrava(copia);
+                }
+            } finally {
+                trava.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Substitui os dados de livros identificados só pelo Gutenberg ID (atualizações
+     * feitas direto por JDBC); livros que o modelo não conhece são ignorados
+     */
+    public void atualizarPorGutenbergId(Collection<IndiceTextoCatalogo.Documento> alterados) {
+        if (!habilitada || alterados.isEmpty()) {
+            return;
+        }
+        List<IndiceTextoCatalogo.Documento> copia = List.copyOf(alterados);
+        AposCommit.executar(() -> {
+            trava.writeLock().lock();
+            try {
+                if (!pronto) {
+                    return;
+                }
+                List<IndiceTextoCatalogo.Documento> comId = new ArrayList<>(copia.size());
+                for (IndiceTextoCatalogo.Documento documento : copia) {
+                    int registro = documento.gutenbergId() != null
+                            ? porGutenbergId.buscar(documento.gutenbergId(), this::gutenbergId)
+                            : -1;
+                    if (registro >= 0) {
+                        comId.add(new IndiceTextoCatalogo.Documento(id(registro), documento.gutenbergId(),
+                            documento.titulo(), documento.autor(), documento.idioma(), documento.downloads()));
+                    }
+                }
+                gravarSemTrava(comId);
+            } finally {
+                trava.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Página da listagem por cursor, com as mesmas regras de CatalogoService.listarLivrosPorCursor
+     * @param posicao último item da página anterior (nulo = primeira página)
+     * @return a página, ou null se o modelo não estiver pronto (a consulta vai ao banco)
+     */
+    PaginaCursorDto<LivroSimplificadoDto> listarPorCursor(CatalogoService.OrdemLivros ordem, CursorKeyset posicao, int tamanho) {
+        trava.readLock().lock();
+        try {
+            if (!pronto) {
+                return null;
+            }
+            boolean porTituloDoLivro = ordem == CatalogoService.OrdemLivros.TITULO;
+            AteOCursor ateOCursor = null;
+            if (posicao != null && porTituloDoLivro) {
+                byte[] titulo = posicao.valor().getBytes(StandardCharsets.UTF_8);
+                ateOCursor = registro -> {
+                    int comparacao = compararComTitulo(titulo, registro);
+                    return comparacao > 0 || (comparacao == 0 && id(registro) <= posicao.id());
+                };
+            } else if (posicao != null) {
+                int downloads = posicao.valorInteiro();
+                ateOCursor = registro -> downloads(registro) > downloads
+                        || (downloads(registro) == downloads && id(registro) <= posicao.id());
+            }
+            
+            // Um registro além da página só para saber se há próxima
+            int[] pagina = (porTituloDoLivro ? porTitulo : porDownloads).listar(ateOCursor, (int) Math.min(Integer.MAX_VALUE, tamanho + 1L));
+            int fim = Math.min(pagina.length, tamanho);
+            List<LivroSimplificadoDto> itens = new ArrayList<>(fim);
+            for (int i = 0; i < fim; i++) {
+                itens.add(paraSimplificado(pagina[i]));
+            }
+            
+            String proximoCursor = null;
+            if (pagina.length > fim && fim > 0) {
+                int ultimo = pagina[fim - 1];
+                String chave = porTituloDoLivro ? titulo(ultimo) : String.valueOf(downloads(ultimo));
+                proximoCursor = new CursorKeyset(chave, id(ultimo)).codificar();
+            }
+            return new PaginaCursorDto<>(itens, proximoCursor);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Os livros mais baixados, de todos os idiomas (ordem de downloads) ou de um só
+     * (a ordem de downloads daquele idioma): lê só os primeiros da ordem
+     * @param idioma código em minúsculas (nulo = todos)
+     * @return os livros, ou null se o modelo não estiver pronto (a consulta vai ao banco)
+     */
+    List<LivroSimplificadoDto> listarMaisPopulares(String idioma, int limite) {
+        trava.readLock().lock();
+        try {
+            if (!pronto) {
+                return null;
+            }
+            Ordem ordem = porDownloads;
+            if (idioma != null) {
+                Integer posicao = posicoesIdiomas.get(idioma);
+                ordem = posicao != null ? porDownloadsDoIdioma.get(posicao) : null;
+                if (ordem == null) {
+                    return List.of();
+                }
+            }
+            
+            int[] primeiros = ordem.listar(null, limite);
+            List<LivroSimplificadoDto> livros = new ArrayList<>(primeiros.length);
+            for (int registro : primeiros) {
+                livros.add(paraSimplificado(registro));
+            }
+            return livros;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    public long getBytesMapeados() {
+        trava.readLock().lock();
+        try {
+            return registros == null ? 0 : (long) quantidade * TAMANHO_REGISTRO + textos.usados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        trava.readLock().lock();
+        try {
+            estatisticas.put("pronto", pronto);
+            estatisticas.put("livros", vivos);
+            estatisticas.put("autores", posicoesAutores.size());
+            estatisticas.put("idiomas", idiomas.size());
+            estatisticas.put("registrosRecentes", quantidade - primeiroRecente);
+            estatisticas.put("bytesRegistros", (long) quantidade * TAMANHO_REGISTRO);
+            estatisticas.put("bytesTextos", textos != null ? textos.usados : 0);
+        } finally {
+            trava.readLock().unlock();
+        }
+        return estatisticas;
+    }
+    
+    // Gravação (com a trava de escrita)
+    
+    private void gravarSemTrava(List<IndiceTextoCatalogo.Documento> documentos) {
+        if (documentos.isEmpty()) {
+            return;
+        }
+        
+        // Cada livro gravado ganha um registro novo no fim; o anterior sai das ordens
+        Map<Long, Integer> registrosDoLote = new HashMap<>();
+        for (IndiceTextoCatalogo.Documento documento : documentos) {
+            Integer doLote = registrosDoLote.get(documento.id());
+            if (doLote != null) {
+                // Repetido no lote: o registro novo ainda não está em nenhuma ordem
+                escreverRegistro(doLote, documento);
+                continue;
+            }
+            int anterior = porId.buscar(documento.id(), this::id);
+            if (anterior >= 0) {
+                removerSemTrava(anterior);
+            }
+            int registro = quantidade++;
+            registros.garantir((long) quantidade * TAMANHO_REGISTRO);
+            escreverRegistro(registro, documento);
+            registrosDoLote.put(documento.id(), registro);
+            vivos++;
+        }
+        
+        int[] gravados = registrosDoLote.values().stream().mapToInt(Integer::intValue).toArray();
+        for (int registro : gravados) {
+            if (downloads(registro) != SEM_VALOR) {
+                porDownloadsDoIdioma.computeIfAbsent(posicaoIdioma(registro), this::criarOrdemDoIdioma);
+            }
+        }
+        for (Ordem ordem : ordens()) {
+            ordem.incluir(gravados);
+        }
+        
+        if (quantidade - primeiroRecente > maximoRecentes) {
+            consolidarSemTrava();
+        }
+    }
+    
+    /**
+     * Tira o registro de todas as ordens: das recentes na hora; das principais, marcado
+     * como removido até a próxima consolidação
+     */
+    private void removerSemTrava(int registro) {
+        if (registro >= primeiroRecente) {
+            for (Ordem ordem : ordens()) {
+                ordem.removerRecente(registro);
+            }
+        } else {
+            removidos.set(registro);
+        }
+        vivos--;
+    }
+    
+    /**
+     * Mescla as partes recentes nas principais, já sem os removidos: O(n), uma vez a
+     * cada maximoRecentes registros gravados
+     */
+    private void consolidarSemTrava() {
+        for (Ordem ordem : ordens()) {
+            ordem.consolidar();
+        }
+        removidos.clear();
+        primeiroRecente = quantidade;
+    }
+    
+    private List<Ordem> ordens() {
+        List<Ordem> ordens = new ArrayList<>(4 + porDownloadsDoIdioma.size());
+        ordens.add(porId);
+        ordens.add(porGutenbergId);
+        ordens.add(porTitulo);
+        ordens.add(porDownloads);
+        ordens.addAll(porDownloadsDoIdioma.values());
+        return ordens;
+    }
+    
+    private Ordem criarOrdemDoIdioma(int posicaoIdioma) {
+        return new Ordem(r -> posicaoIdioma(r) == posicaoIdioma && downloads(r) != SEM_VALOR, this::compararDownloads);
+    }
+    
+    private void escreverRegistro(int registro, IndiceTextoCatalogo.Documento documento) {
+        MappedByteBuffer buffer = registros.buffer;
+        int base = registro * TAMANHO_REGISTRO;
+        long texto = acrescentarTexto(documento.titulo() != null ? documento.titulo() : "");
+        buffer.putLong(base + ID, documento.id());
+        buffer.putLong(base + GUTENBERG_ID, documento.gutenbergId() != null ? documento.gutenbergId() : SEM_ID);
+        buffer.putInt(base + TITULO_POSICAO, (int) (texto >>> 16));
+        buffer.putShort(base + TITULO_TAMANHO, (short) texto);
+        buffer.putShort(base + IDIOMA, (short) posicaoIdioma(documento.idioma()));
+        buffer.putInt(base + AUTOR, documento.autor() != null ? posicaoAutor(documento.autor()) : -1);
+        buffer.putInt(base + DOWNLOADS, documento.downloads() != null ? documento.downloads() : SEM_VALOR);
+    }
+    
+    /**
+     * Acrescenta o texto em textos.dat (títulos substituídos ficam para trás até a
+     * próxima reconstrução)
+     * @return posição << 16 | tamanho em bytes
+     */
+    private long acrescentarTexto(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            bytes = Arrays.copyOf(bytes, 0xFFFF);
+        }
+        int posicao = textos.usados;
+        textos.garantir((long) posicao + bytes.length);
+        textos.buffer.put(posicao, bytes);
+        textos.usados += bytes.length;
+        return (long) posicao << 16 | bytes.length;
+    }
+    
+    private int posicaoIdioma(String idioma) {
+        String codigo = idioma != null ? idioma : "";
+        Integer posicao = posicoesIdiomas.get(codigo);
+        if (posicao == null) {
+            posicao = idiomas.size();
+            idiomas.add(codigo);
+            posicoesIdiomas.put(codigo, posicao);
+        }
+        return posicao;
+    }
+    
+    private int posicaoAutor(String nome) {
+        Integer posicao = posicoesAutores.get(nome);
+        if (posicao == null) {
+            posicao = posicoesAutores.size();
+            if (posicao == textosAutores.length) {
+                textosAutores = Arrays.copyOf(textosAutores, Math.max(256, posicao * 2));
+            }
+            textosAutores[posicao] = acrescentarTexto(nome);
+            posicoesAutores.put(nome, posicao);
+        }
+        return posicao;
+    }
+    
+    private void fecharSemTrava() {
+        pronto = false;
+        if (registros != null) {
+            registros.fechar();
+            textos.fechar();
+        }
+        registros = null;
+        textos = null;
+        quantidade = 0;
+        vivos = 0;
+        primeiroRecente = 0;
+        removidos.clear();
+        idiomas.clear();
+        posicoesIdiomas.clear();
+        posicoesAutores.clear();
+        textosAutores = new long[0];
+        for (Ordem ordem : ordens()) {
+            ordem.esvaziar();
+        }
+        porDownloadsDoIdioma.clear();
+    }
+    
+    // Leitura dos registros mapeados
+    
+    private long id(int registro) {
+        return registros.buffer.getLong(registro * TAMANHO_REGISTRO + ID);
+    }
+    
+    private long gutenbergId(int registro) {
+        return registros.buffer.getLong(registro * TAMANHO_REGISTRO + GUTENBERG_ID);
+    }
+    
+    private int posicaoTitulo(int registro) {
+        return registros.buffer.getInt(registro * TAMANHO_REGISTRO + TITULO_POSICAO);
+    }
+    
+    private int tamanhoTitulo(int registro) {
+        return Short.toUnsignedInt(registros.buffer.getShort(registro * TAMANHO_REGISTRO + TITULO_TAMANHO));
+    }
+    
+    private int posicaoIdioma(int registro) {
+        return registros.buffer.getShort(registro * TAMANHO_REGISTRO + IDIOMA);
+    }
+    
+    private int autor(int registro) {
+        return registros.buffer.getInt(registro * TAMANHO_REGISTRO + AUTOR);
+    }
+    
+    private int downloads(int registro) {
+        return registros.buffer.getInt(registro * TAMANHO_REGISTRO + DOWNLOADS);
+    }
+    
+    private String titulo(int registro) {
+        return lerTexto(posicaoTitulo(registro), tamanhoTitulo(registro));
+    }
+    
+    private String lerTexto(int posicao, int tamanho) {
+        byte[] bytes = new byte[tamanho];
+        textos.buffer.get(posicao, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private LivroSimplificadoDto paraSimplificado(int registro) {
+        long gutenbergId = gutenbergId(registro);
+        int autor = autor(registro);
+        int downloads = downloads(registro);
+        String nomeAutor = autor >= 0 ? lerTexto((int) (textosAutores[autor] >>> 16), (int) (textosAutores[autor] & 0xFFFF)) : null;
+        return new LivroSimplificadoDto(gutenbergId != SEM_ID ? gutenbergId : null, titulo(registro), nomeAutor,
+            idiomas.get(posicaoIdioma(registro)), downloads != SEM_VALOR ? downloads : null);
+    }
+    
+    // Comparações (todas desempatam pelo ID, então cada registro tem uma só posição na ordem)
+    
+    private int compararId(int a, int b) {
+        return Long.compare(id(a), id(b));
+    }
+    
+    private int compararGutenbergId(int a, int b) {
+        int comparacao = Long.compare(gutenbergId(a), gutenbergId(b));
+        return comparacao != 0 ? comparacao : compararId(a, b);
+    }
+    
+    private int compararTitulo(int a, int b) {
+        int comparacao = compararBytes(posicaoTitulo(a), tamanhoTitulo(a), posicaoTitulo(b), tamanhoTitulo(b));
+        return comparacao != 0 ? comparacao : compararId(a, b);
+    }
+    
+    private int compararDownloads(int a, int b) {
+        int comparacao = Integer.compare(downloads(b), downloads(a));
+        return comparacao != 0 ? comparacao : compararId(a, b);
+    }
+    
+    /**
+     * Compara dois textos de textos.dat byte a byte (sem sinal), sem decodificar
+     */
+    private int compararBytes(int posicaoA, int tamanhoA, int posicaoB, int tamanhoB) {
+        MappedByteBuffer buffer = textos.buffer;
+        int comum = Math.min(tamanhoA, tamanhoB);
+        for (int i = 0; i < comum; i++) {
+            int comparacao = Byte.compareUnsigned(buffer.get(posicaoA + i), buffer.get(posicaoB + i));
+            if (comparacao != 0) {
+                return comparacao;
+            }
+        }
+        return Integer.compare(tamanhoA, tamanhoB);
+    }
+    
+    private int compararComTitulo(byte[] titulo, int registro) {
+        MappedByteBuffer buffer = textos.buffer;
+        int posicao = posicaoTitulo(registro);
+        int tamanho = tamanhoTitulo(registro);
+        int comum = Math.min(titulo.length, tamanho);
+        for (int i = 0; i < comum; i++) {
+            int comparacao = Byte.compareUnsigned(titulo[i], buffer.get(posicao + i));
+            if (comparacao != 0) {
+                return comparacao;
+            }
+        }
+        return Integer.compare(titulo.length, tamanho);
+    }
+    
+    @FunctionalInterface
+    private interface ComparadorRegistros {
+        int comparar(int a, int b);
+    }
+    
+    @FunctionalInterface
+    private interface FiltroRegistro {
+        boolean aceita(int registro);
+    }
+    
+    @FunctionalInterface
+    private interface AteOCursor {
+        boolean ateOCursor(int registro);
+    }
+    
+    @FunctionalInterface
+    private interface ChaveRegistro {
+        long chave(int registro);
+    }
+    
+    /**
+     * Uma ordem de listagem: a parte principal (com os removidos, pulados na leitura)
+     * e a parte recente, pequena, com os registros gravados desde a última consolidação.
+     * As duas são arrays de posições de registro ordenados pelo mesmo comparador
+     */
+    private final class Ordem {
+        
+        private final FiltroRegistro filtro;
+        private final ComparadorRegistros comparador;
+        private int[] principal = new int[0];
+        private int[] recentes = new int[0];
+        
+        Ordem(FiltroRegistro filtro, ComparadorRegistros comparador) {
+            this.filtro = filtro;
+            this.comparador = comparador;
+        }
+        
+        /**
+         * Mescla os registros gravados (os aceitos pelo filtro) na parte recente
+         */
+        void incluir(int[] gravados) {
+            recentes = mesclar(recentes, gravados);
+        }
+        
+        void removerRecente(int registro) {
+            if (!filtro.aceita(registro)) {
+                return;
+            }
+            int posicao = primeiraPosicao(recentes, r -> comparador.comparar(r, registro) < 0);
+            if (posicao < recentes.length && recentes[posicao] == registro) {
+                int[] restantes = new int[recentes.length - 1];
+                System.arraycopy(recentes, 0, restantes, 0, posicao);
+                System.arraycopy(recentes, posicao + 1, restantes, posicao, restantes.length - posicao);
+                recentes = restantes;
+            }
+        }
+        
+        void consolidar() {
+            int[] vigentes = new int[principal.length];
+            int tamanho = 0;
+            for (int registro : principal) {
+                if (!removidos.get(registro)) {
+                    vigentes[tamanho++] = registro;
+                }
+            }
+            principal = mesclarOrdenados(Arrays.copyOf(vigentes, tamanho), recentes);
+            recentes = new int[0];
+        }
+        
+        void esvaziar() {
+            principal = new int[0];
+            recentes = new int[0];
+        }
+        
+        /**
+         * Até limite registros depois do cursor (nulo = desde o início), intercalando as
+         * duas partes e pulando os removidos: O(log n + limite)
+         */
+        int[] listar(AteOCursor ateOCursor, int limite) {
+            int i = ateOCursor != null ? primeiraPosicao(principal, ateOCursor::ateOCursor) : 0;
+            int j = ateOCursor != null ? primeiraPosicao(recentes, ateOCursor::ateOCursor) : 0;
+            int[] saida = new int[Math.max(0, Math.min(limite, principal.length + recentes.length))];
+            int tamanho = 0;
+            while (tamanho < saida.length) {
+                while (i < principal.length && removidos.get(principal[i])) {
+                    i++;
+                }
+                boolean temPrincipal = i < principal.length;
+                boolean temRecente = j < recentes.length;
+                if (!temPrincipal && !temRecente) {
+                    break;
+                }
+                if (!temRecente || (temPrincipal && comparador.comparar(principal[i], recentes[j]) < 0)) {
+                    saida[tamanho++] = principal[i++];
+                } else {
+                    saida[tamanho++] = recentes[j++];
+                }
+            }
+            return tamanho == saida.length ? saida : Arrays.copyOf(saida, tamanho);
+        }
+        
+        /**
+         * Registro vigente com a chave (a ordem tem que ser pela chave), ou -1
+         */
+        int buscar(long chave, ChaveRegistro chaveDe) {
+            int posicao = primeiraPosicao(recentes, r -> chaveDe.chave(r) < chave);
+            if (posicao < recentes.length && chaveDe.chave(recentes[posicao]) == chave) {
+                return recentes[posicao];
+            }
+            posicao = primeiraPosicao(principal, r -> chaveDe.chave(r) < chave);
+            for (; posicao < principal.length && chaveDe.chave(principal[posicao]) == chave; posicao++) {
+                if (!removidos.get(principal[posicao])) {
+                    return principal[posicao];
+                }
+            }
+            return -1;
+        }
+        
+        private int[] mesclar(int[] atual, int[] gravados) {
+            Integer[] lote = Arrays.stream(gravados).filter(filtro::aceita).boxed().toArray(Integer[]::new);
+            Arrays.sort(lote, comparador::comparar);
+            return mesclarOrdenados(atual, Arrays.stream(lote).mapToInt(Integer::intValue).toArray());
+        }
+        
+        private int[] mesclarOrdenados(int[] a, int[] b) {
+            int[] mesclada = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < a.length && j < b.length) {
+                mesclada[k++] = comparador.comparar(a[i], b[j]) <= 0 ? a[i++] : b[j++];
+            }
+            while (i < a.length) {
+                mesclada[k++] = a[i++];
+            }
+            while (j < b.length) {
+                mesclada[k++] = b[j++];
+            }
+            return mesclada;
+        }
+    }
+    
+    /**
+     * Primeira posição do array ordenado em que o predicado (verdadeiro num prefixo) é falso
+     */
+    private static int primeiraPosicao(int[] ordenados, FiltroRegistro antes) {
+        int baixo = 0;
+        int alto = ordenados.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (antes.aceita(ordenados[meio])) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+    
+    /**
+     * Arquivo mapeado que cresce dobrando de tamanho (um novo mapeamento a cada
+     * crescimento; o anterior é liberado pelo coletor junto com o buffer)
+     */
+    private static final class ArquivoMapeado {
+        
+        private final FileChannel canal;
+        private MappedByteBuffer buffer;
+        private int usados;
+        
+        ArquivoMapeado(Path arquivo) throws IOException {
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, CAPACIDADE_INICIAL);
+        }
+        
+        void garantir(long tamanho) {
+            if (tamanho <= buffer.capacity()) {
+                return;
+            }
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Modelo de leitura maior que 2 GB");
+            }
+            long capacidade = Math.min(Integer.MAX_VALUE, Math.max(tamanho, buffer.capacity() * 2L));
+            try {
+                buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        void fechar() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                System.err.println("❌ Erro ao fechar o modelo de leitura: " + e.getMessage());
+            }
+        }
+    }
+}
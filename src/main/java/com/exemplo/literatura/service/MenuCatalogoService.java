@@ -1,5 +1,6 @@
 package com.exemplo.literatura.service;
 
+import com.exemplo.literatura.dto.ResultadoImportacaoDto;
 import com.exemplo.literatura.model.Autor;
 import com.exemplo.literatura.model.Livro;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,9 @@ public class MenuCatalogoService {
     @Autowired
     private CatalogoService catalogoService;
     
+    @Autowired
+    private ImportacaoCatalogoService importacaoService;
+    
     private final Scanner scanner = new Scanner(System.in);
     
     /**
@@ -40,6 +44,7 @@ public class MenuCatalogoService {
                     case 4 -> listarTodosAutores();
                     case 5 -> listarAutoresVivosNoAno();
                     case 6 -> exibirEstatisticas();
+                    case 7 -> importarCatalogoEmMassa();
                     case 0 -> {
                         executando = false;
                         exibirDespedida();
@@ -82,6 +87,7 @@ public class MenuCatalogoService {
         System.out.println("║                                                                  ║");
         System.out.println("║  📊 EXTRAS:                                                     ║");
         System.out.println("║     6 - Estatísticas do catálogo                                ║");
+        System.out.println("║     7 - Importação em massa do Gutendx                          ║");
         System.out.println("║                                                                  ║");
         System.out.println("║     0 - Sair                                                    ║");
         System.out.println("║                                                                  ║");
@@ -252,6 +258,34 @@ public class MenuCatalogoService {
         catalogoService.exibirEstatisticasAutores();
     }
     
+    private void importarCatalogoEmMassa() {
+        System.out.println("\n╔══════════════════════════════════════════════════════════════════╗");
+        System.out.println("║              🚚 IMPORTAÇÃO EM MASSA DO GUTENDX                   ║");
+        System.out.println("╚══════════════════════════════════════════════════════════════════╝");
+        
+        System.out.print("\n📄 Quantas páginas importar? (ENTER para todas): ");
+        String entrada = scanner.nextLine().trim();
+        
+        Integer limitePaginas = null;
+        if (!entrada.isEmpty()) {
+            try {
+                limitePaginas = Integer.parseInt(entrada);
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Digite um número válido!");
+                return;
+            }
+        }
+        
+        ResultadoImportacaoDto resultado = importacaoService.importarCatalogo(limitePaginas);
+        
+        if (resultado.isSucesso()) {
+            System.out.println("\n✅ " + resultado.getResumo());
+        } else {
+            System.out.println("\n⚠️ Importação interrompida: " + resultado.getErro());
+            System.out.println("📊 Parcial: " + resultado.getResumo());
+        }
+    }
+    
     // Métodos auxiliares
     
     private void exibirDetalhesLivro(Livro livro) {
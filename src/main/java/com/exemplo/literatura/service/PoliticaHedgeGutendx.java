@@ -0,0 +1,138 @@
+package com.exemplo.literatura.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Política de requisições "hedged" do GutendxHttpService, contra a cauda de latência
+ * Se a resposta não chega dentro do percentil configurado das latências recentes,
+ * uma segunda requisição idêntica é enviada; vale a primeira resposta e a outra é
+ * cancelada. O orçamento limita a carga extra: cada requisição acumula uma fração de
+ * crédito e cada hedge gasta um crédito inteiro
+ */
+@Service
+public class PoliticaHedgeGutendx {
+    
+    private static final int JANELA = 256;
+    private static final int AMOSTRAS_MINIMAS = 20;
+    private static final double CREDITOS_MAXIMOS = 10;
+    
+    private final boolean habilitada;
+    private final double percentil;
+    private final long atrasoMinimo;
+    private final long atrasoInicial;
+    private final double orcamento;
+    
+    // Latências das últimas respostas (anel), guardadas pelo monitor da instância
+    private final long[] latencias = new long[JANELA];
+    private int amostras;
+    private int proxima;
+    private double creditos = CREDITOS_MAXIMOS;
+    
+    private long hedgesEnviados;
+    private long hedgesVencedores;
+    private long semOrcamento;
+    
+    /**
+     * @param percentil percentil das latências recentes (ex: 95) após o qual a segunda requisição sai
+     * @param atrasoMinimo menor atraso antes do hedge, qualquer que seja o percentil
+     * @param atrasoInicial atraso usado enquanto não há amostras suficientes
+     * @param orcamento fração das requisições que pode virar hedge (ex: 0.1 = até 10% de carga extra)
+     */
+    @Autowired
+    public PoliticaHedgeGutendx(@Value("${gutendx.hedge.habilitado:false}") boolean habilitada,
+                                @Value("${gutendx.hedge.percentil:95}") double percentil,
+                                @Value("${gutendx.hedge.atraso-minimo:50ms}") Duration atrasoMinimo,
+                                @Value("${gutendx.hedge.atraso-inicial:1s}") Duration atrasoInicial,
+                                @Value("${gutendx.hedge.orcamento:0.1}") double orcamento) {
+        this.habilitada = habilitada;
+        this.percentil = Math.max(1, Math.min(percentil, 100));
+        this.atrasoMinimo = atrasoMinimo.toNanos();
+        this.atrasoInicial = atrasoInicial.toNanos();
+        this.orcamento = Math.max(0, orcamento);
+    }
+    
+    /**
+     * Política que nunca envia hedge (serviços criados fora do Spring)
+     */
+    public static PoliticaHedgeGutendx desabilitada() {
+        return new PoliticaHedgeGutendx(false, 95, Duration.ZERO, Duration.ZERO, 0);
+    }
+    
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+    
+    /**
+     * Registra a latência de uma resposta recebida (primária ou hedge)
+     */
+    public synchronized void registrarLatencia(long nanos) {
+        latencias[proxima] = nanos;
+        proxima = (proxima + 1) % JANELA;
+        amostras = Math.min(amostras + 1, JANELA);
+    }
+    
+    /**
+     * Conta uma requisição primária no orçamento e devolve quanto esperar por ela antes do hedge
+     * @return atraso em milissegundos
+     */
+    public synchronized long iniciarRequisicao() {
+        creditos = Math.min(CREDITOS_MAXIMOS, creditos + orcamento);
+        return (calcularAtraso() + 999_999) / 1_000_000;
+    }
+    
+    /**
+     * Gasta um crédito para enviar o hedge
+     * @return false se o orçamento acabou (o hedge não deve sair)
+     */
+    public synchronized boolean consumirOrcamento() {
+        if (creditos < 1) {
+            semOrcamento++;
+            return false;
+        }
+        creditos -= 1;
+        hedgesEnviados++;
+        return true;
+    }
+    
+    public synchronized void registrarVitoriaDoHedge() {
+        hedgesVencedores++;
+    }
+    
+    public synchronized Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", habilitada);
+        estatisticas.put("percentil", percentil);
+        estatisticas.put("atrasoAtualMs", calcularAtraso() / 1_000_000);
+        estatisticas.put("amostras", amostras);
+        estatisticas.put("orcamento", orcamento);
+        estatisticas.put("hedgesEnviados", hedgesEnviados);
+        estatisticas.put("hedgesVencedores", hedgesVencedores);
+        estatisticas.put("semOrcamento", semOrcamento);
+        return estatisticas;
+    }
+    
+    public synchronized long getHedgesEnviados() {
+        return hedgesEnviados;
+    }
+    
+    public synchronized long getHedgesVencedores() {
+        return hedgesVencedores;
+    }
+    
+    private long calcularAtraso() {
+        if (amostras < AMOSTRAS_MINIMAS) {
+            return Math.max(atrasoMinimo, atrasoInicial);
+        }
+        long[] ordenadas = Arrays.copyOf(latencias, amostras);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100 * amostras) - 1;
+        return Math.max(atrasoMinimo, ordenadas[Math.max(0, indice)]);
+    }
+}
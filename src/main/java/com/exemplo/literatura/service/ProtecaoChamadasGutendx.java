@@ -0,0 +1,337 @@
+package com.exemplo.literatura.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Proteção das chamadas à API Gutendx: limitador de taxa (token bucket) e disjuntor
+ * (circuit breaker) das chamadas do GutendxHttpService
+ *
+ * Limitador: cada requisição reserva uma ficha; sem ficha, o chamador espera a
+ * reposição (e se a espera passar do máximo a chamada é recusada na hora). A taxa
+ * se adapta: cai pela metade a cada 429/503 da API e volta a subir aos poucos com
+ * as respostas normais; um Retry-After pausa o limitador inteiro até o prazo.
+ *
+ * Disjuntor: depois de N falhas seguidas (erro de rede, timeout, 5xx ou 429) abre e
+ * recusa as chamadas na hora, em vez de cada uma esperar o timeout; passado o tempo
+ * aberto deixa uma chamada de teste passar (meio aberto), que fecha ou reabre o circuito
+ */
+@Service
+public class ProtecaoChamadasGutendx {
+    
+    public enum EstadoCircuito { FECHADO, ABERTO, MEIO_ABERTO }
+    
+    /**
+     * Chamada recusada sem ir à API (circuito aberto ou espera do limitador longa demais)
+     */
+    public static class ChamadaRecusadaException extends IOException {
+        public ChamadaRecusadaException(String mensagem) {
+            super(mensagem);
+        }
+    }
+    
+    private final boolean habilitada;
+    private final double taxaMaxima;
+    private final double taxaMinima;
+    private final double rajada;
+    private final long esperaMaxima;
+    private final int falhasParaAbrir;
+    private final long tempoAberto;
+    private final int tentativas;
+    private final long backoffInicial;
+    private final LongSupplier relogio;
+    
+    // Estado do limitador e do disjuntor, guardado pelo monitor da instância (tempos em nanossegundos)
+    private double taxaAtual;
+    private double fichas;
+    private long ultimaReposicao;
+    private long pausadoAte;
+    private EstadoCircuito estado = EstadoCircuito.FECHADO;
+    private int falhasSeguidas;
+    private long abertoAte;
+    private boolean testeEmAndamento;
+    
+    private long esperas;
+    private long esperaTotal;
+    private long maiorEspera;
+    private long recusadasPorEspera;
+    private long recusadasCircuitoAberto;
+    private long aberturas;
+    private long respostasLimitadas;
+    private long novasTentativas;
+    
+    /**
+     * @param requisicoesPorSegundo taxa máxima do limitador (e inicial)
+     * @param rajada fichas acumuladas no máximo (requisições seguidas sem espera)
+     * @param esperaMaxima maior espera aceita no limitador (ou num Retry-After) antes de recusar
+     * @param falhasParaAbrir falhas seguidas que abrem o circuito
+     * @param tempoAberto quanto tempo o circuito fica aberto antes da chamada de teste
+     * @param tentativas total de tentativas por requisição (1 = sem novas tentativas)
+     * @param backoffInicial base do backoff exponencial com jitter entre as tentativas
+     */
+    @Autowired
+    public ProtecaoChamadasGutendx(@Value("${gutendx.protecao.habilitada:true}") boolean habilitada,
+                                   @Value("${gutendx.protecao.requisicoes-por-segundo:10}") double requisicoesPorSegundo,
+                                   @Value("${gutendx.protecao.rajada:10}") int rajada,
+                                   @Value("${gutendx.protecao.espera-maxima:5s}") Duration esperaMaxima,
+                                   @Value("${gutendx.protecao.falhas-para-abrir:5}") int falhasParaAbrir,
+                                   @Value("${gutendx.protecao.tempo-aberto:30s}") Duration tempoAberto,
+                                   @Value("${gutendx.protecao.tentativas:3}") int tentativas,
+                                   @Value("${gutendx.protecao.backoff-inicial:500ms}") Duration backoffInicial) {
+        this(habilitada, requisicoesPorSegundo, rajada, esperaMaxima, falhasParaAbrir, tempoAberto,
+             tentativas, backoffInicial, System::nanoTime);
+    }
+    
+    /**
+     * @param relogio fonte de tempo em nanossegundos (substituível nos testes)
+     */
+    ProtecaoChamadasGutendx(boolean habilitada, double requisicoesPorSegundo, int rajada, Duration esperaMaxima,
+                            int falhasParaAbrir, Duration tempoAberto, int tentativas, Duration backoffInicial,
+                            LongSupplier relogio) {
+        this.habilitada = habilitada;
+        this.taxaMaxima = Math.max(0.001, requisicoesPorSegundo);
+        this.taxaMinima = Math.min(1.0, taxaMaxima);
+        this.rajada = Math.max(1, rajada);
+        this.esperaMaxima = esperaMaxima.toNanos();
+        this.falhasParaAbrir = Math.max(1, falhasParaAbrir);
+        this.tempoAberto = tempoAberto.toNanos();
+        this.tentativas = Math.max(1, tentativas);
+        this.backoffInicial = backoffInicial.toNanos();
+        this.relogio = relogio;
+        this.taxaAtual = taxaMaxima;
+        this.fichas = this.rajada;
+        this.ultimaReposicao = relogio.getAsLong();
+    }
+    
+    /**
+     * Proteção que deixa tudo passar, sem novas tentativas (serviços criados fora do Spring)
+     */
+    public static ProtecaoChamadasGutendx desabilitada() {
+        return new ProtecaoChamadasGutendx(false, 1, 1, Duration.ZERO, 1, Duration.ZERO, 1, Duration.ZERO);
+    }
+    
+    /**
+     * Reserva a vez de uma requisição
+     * @return quantos milissegundos esperar antes de enviá-la (0 = enviar já)
+     * @throws ChamadaRecusadaException circuito aberto, ou a espera passaria do máximo
+     */
+    public synchronized long reservar() throws ChamadaRecusadaException {
+        if (!habilitada) {
+            return 0;
+        }
+        long agora = relogio.getAsLong();
+        verificarCircuito(agora);
+        
+        fichas = Math.min(rajada, fichas + (agora - ultimaReposicao) / 1e9 * taxaAtual);
+        ultimaReposicao = agora;
+        
+        // Fichas negativas são reservas de quem já está esperando: a espera cresce com a fila
+        long espera = fichas >= 1 ? 0 : (long) Math.ceil((1 - fichas) / taxaAtual * 1e9);
+        espera = Math.max(espera, pausadoAte - agora);
+        if (espera > esperaMaxima) {
+            recusadasPorEspera++;
+            liberarTeste();
+            throw new ChamadaRecusadaException(String.format(
+                "Limite de requisições à API Gutendx: espera de %d ms acima do máximo", espera / 1_000_000));
+        }
+        
+        fichas -= 1;
+        if (espera > 0) {
+            esperas++;
+            esperaTotal += espera;
+            maiorEspera = Math.max(maiorEspera, espera);
+        }
+        return (espera + 999_999) / 1_000_000;
+    }
+    
+    /**
+     * Reserva uma ficha só se ela estiver disponível agora e o circuito fechado
+     * (requisições opcionais, como o hedge, não esperam nem entram na fila)
+     * @return false se a requisição não deve sair
+     */
+    public synchronized boolean reservarSemEspera() {
+        if (!habilitada) {
+            return true;
+        }
+        long agora = relogio.getAsLong();
+        if (getEstadoCircuito() != EstadoCircuito.FECHADO || pausadoAte - agora > 0) {
+            return false;
+        }
+        fichas = Math.min(rajada, fichas + (agora - ultimaReposicao) / 1e9 * taxaAtual);
+        ultimaReposicao = agora;
+        if (fichas < 1) {
+            return false;
+        }
+        fichas -= 1;
+        return true;
+    }
+    
+    /**
+     * Devolve uma ficha reservada com reservarSemEspera que acabou não sendo usada
+     * (ex: o hedge ficou sem orçamento), para não reduzir a vazão das requisições reais
+     */
+    public synchronized void devolverFicha() {
+        if (habilitada) {
+            fichas = Math.min(rajada, fichas + 1);
+        }
+    }
+    
+    /**
+     * Registra o resultado de uma requisição enviada
+     * @param status código HTTP, ou 0 para erro de rede/timeout
+     * @param retryAfter cabeçalho Retry-After da resposta (pode ser nulo)
+     */
+    public synchronized void registrar(int status, String retryAfter) {
+        if (!habilitada) {
+            return;
+        }
+        long agora = relogio.getAsLong();
+        boolean limitada = status == 429 || status == 503;
+        
+        if (limitada) {
+            respostasLimitadas++;
+            taxaAtual = Math.max(taxaMinima, taxaAtual / 2);
+            long prazo = lerRetryAfter(retryAfter);
+            if (prazo > 0) {
+                pausadoAte = Math.max(pausadoAte, agora + Math.min(prazo, esperaMaxima));
+            }
+        }
+        
+        if (ehFalha(status)) {
+            falhasSeguidas++;
+            if (estado == EstadoCircuito.MEIO_ABERTO || falhasSeguidas >= falhasParaAbrir) {
+                abrir(agora);
+            }
+        } else {
+            // Aumento aditivo: cerca de 50 respostas normais para voltar da mínima à máxima
+            taxaAtual = Math.min(taxaMaxima, taxaAtual + taxaMaxima / 50);
+            falhasSeguidas = 0;
+            estado = EstadoCircuito.FECHADO;
+            testeEmAndamento = false;
+        }
+    }
+    
+    /**
+     * Quanto esperar antes de repetir uma requisição que falhou
+     * @param tentativa número da tentativa que acabou de falhar (a primeira é 1)
+     * @return milissegundos até a próxima tentativa, ou -1 se não deve repetir (resposta
+     *         definitiva, tentativas esgotadas, circuito aberto ou Retry-After longo demais)
+     */
+    public synchronized long atrasoNovaTentativa(int tentativa, int status, String retryAfter) {
+        if (!habilitada || tentativa >= tentativas || !ehFalha(status) || estado != EstadoCircuito.FECHADO) {
+            return -1;
+        }
+        
+        long prazo = lerRetryAfter(retryAfter);
+        long atraso;
+        if (prazo > 0) {
+            // O prazo pedido pela API, mais um pouco de jitter para os clientes não voltarem juntos
+            atraso = prazo + ThreadLocalRandom.current().nextLong(backoffInicial + 1);
+        } else {
+            // Backoff exponencial com jitter total: sorteado entre 0 e base * 2^(tentativa-1)
+            long teto = backoffInicial << Math.min(tentativa - 1, 20);
+            atraso = ThreadLocalRandom.current().nextLong(teto + 1);
+        }
+        if (atraso > esperaMaxima) {
+            return -1;
+        }
+        novasTentativas++;
+        return (atraso + 999_999) / 1_000_000;
+    }
+    
+    public synchronized EstadoCircuito getEstadoCircuito() {
+        if (habilitada && estado == EstadoCircuito.ABERTO && relogio.getAsLong() - abertoAte >= 0) {
+            return EstadoCircuito.MEIO_ABERTO;
+        }
+        return estado;
+    }
+    
+    public synchronized Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", habilitada);
+        estatisticas.put("estadoCircuito", getEstadoCircuito().name());
+        estatisticas.put("falhasSeguidas", falhasSeguidas);
+        estatisticas.put("aberturasCircuito", aberturas);
+        estatisticas.put("recusadasCircuitoAberto", recusadasCircuitoAberto);
+        estatisticas.put("taxaAtualPorSegundo", Math.round(taxaAtual * 100) / 100.0);
+        estatisticas.put("taxaMaximaPorSegundo", taxaMaxima);
+        estatisticas.put("esperasLimitador", esperas);
+        estatisticas.put("esperaTotalMs", esperaTotal / 1_000_000);
+        estatisticas.put("esperaMediaMs", esperas > 0 ? esperaTotal / esperas / 1_000_000 : 0);
+        estatisticas.put("maiorEsperaMs", maiorEspera / 1_000_000);
+        estatisticas.put("recusadasPorEspera", recusadasPorEspera);
+        estatisticas.put("respostasLimitadas", respostasLimitadas);
+        estatisticas.put("novasTentativas", novasTentativas);
+        return estatisticas;
+    }
+    
+    /**
+     * Recusa a chamada se o circuito está aberto; passado o tempo aberto, só a
+     * primeira chamada passa (teste) até o resultado dela ser registrado
+     */
+    private void verificarCircuito(long agora) throws ChamadaRecusadaException {
+        if (estado == EstadoCircuito.ABERTO && agora - abertoAte >= 0) {
+            estado = EstadoCircuito.MEIO_ABERTO;
+            testeEmAndamento = false;
+        }
+        if (estado == EstadoCircuito.ABERTO || (estado == EstadoCircuito.MEIO_ABERTO && testeEmAndamento)) {
+            recusadasCircuitoAberto++;
+            throw new ChamadaRecusadaException("Circuito aberto: API Gutendx indisponível, tente mais tarde");
+        }
+        if (estado == EstadoCircuito.MEIO_ABERTO) {
+            testeEmAndamento = true;
+        }
+    }
+    
+    private void liberarTeste() {
+        if (estado == EstadoCircuito.MEIO_ABERTO) {
+            testeEmAndamento = false;
+        }
+    }
+    
+    private void abrir(long agora) {
+        if (estado != EstadoCircuito.ABERTO) {
+            aberturas++;
+            System.err.printf("⚡ Circuito da API Gutendx aberto após %d falha(s) seguida(s)%n", falhasSeguidas);
+        }
+        estado = EstadoCircuito.ABERTO;
+        abertoAte = agora + tempoAberto;
+        testeEmAndamento = false;
+    }
+    
+    private static boolean ehFalha(int status) {
+        return status == 0 || status == 429 || status >= 500;
+    }
+    
+    /**
+     * Retry-After em segundos ou como data HTTP; devolve o prazo em nanossegundos (0 se ausente ou inválido)
+     */
+    static long lerRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0;
+        }
+        String valor = retryAfter.trim();
+        try {
+            return Math.max(0, Duration.ofSeconds(Long.parseLong(valor)).toNanos());
+        } catch (NumberFormatException | ArithmeticException e) {
+            // Segue para o formato de data
+        }
+        try {
+            ZonedDateTime data = ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(data.getZone()), data).toNanos());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return 0;
+        }
+    }
+}
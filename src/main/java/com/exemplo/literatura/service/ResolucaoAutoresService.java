@@ -0,0 +1,243 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.repository.AutorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço que resolve nomes de autores em IDs do catálogo
+ * Mantém um cache LRU limitado (nome normalizado -> ID) e, para os nomes que não
+ * estão no cache, faz uma consulta e um upsert em lote por página. A restrição
+ * única em nome_normalizado garante que importadores concorrentes não dupliquem autores
+ */
+@Service
+public class ResolucaoAutoresService {
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private IndiceVidaAutores indiceVida;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticas;
+    
+    @Value("${literatura.autores.cache.tamanho-maximo:10000}")
+    private int tamanhoMaximo;
+    
+    private final Map<String, Long> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> maisAntigo) {
+            return size() > tamanhoMaximo;
+        }
+    };
+    
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong faltas = new AtomicLong();
+    
+    private static final int MAXIMO_TENTATIVAS_UPSERT = 3;
+    
+    private volatile String sqlUpsert;
+    
+    /**
+     * Resolve os IDs de todos os autores informados, criando os que não existem
+     * @param autores autores de uma página (repetidos são tratados uma vez só)
+     * @param idsPorNomeNormalizado mapa preenchido com nome normalizado -> ID
+     * @return quantidade de autores inseridos
+     */
+    public int resolverIds(Collection<AutorCompletoDto> autores, Map<String, Long> idsPorNomeNormalizado) {
+        Map<String, AutorCompletoDto> pendentes = new LinkedHashMap<>();
+        
+        synchronized (cache) {
+            for (AutorCompletoDto autorDto : autores) {
+                if (autorDto == null || autorDto.getNome() == null || autorDto.getNome().isBlank()) {
+                    continue;
+                }
+                String chave = Autor.normalizarNome(limitarNome(autorDto.getNome()));
+                if (idsPorNomeNormalizado.containsKey(chave) || pendentes.containsKey(chave)) {
+                    continue;
+                }
+                Long id = cache.get(chave);
+                if (id != null) {
+                    acertos.incrementAndGet();
+                    idsPorNomeNormalizado.put(chave, id);
+                } else {
+                    faltas.incrementAndGet();
+                    pendentes.put(chave, autorDto);
+                }
+            }
+        }
+        
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        
+        Map<String, Long> encontrados = buscarIds(pendentes.keySet());
+        
+        int inseridos = 0;
+        Map<String, Long> deltas = new HashMap<>();
+        for (int tentativa = 1; encontrados.size() < pendentes.size(); tentativa++) {
+            List<Object[]> linhas = new ArrayList<>();
+            List<AutorCompletoDto> autoresDasLinhas = new ArrayList<>();
+            for (Map.Entry<String, AutorCompletoDto> pendente : pendentes.entrySet()) {
+                if (!encontrados.containsKey(pendente.getKey())) {
+                    AutorCompletoDto autorDto = pendente.getValue();
+                    autoresDasLinhas.add(autorDto);
+                    linhas.add(new Object[] {
+                        pendente.getKey(),
+                        limitarNome(autorDto.getNome()),
+                        autorDto.getAnoNascimento(),
+                        autorDto.getAnoMorte()
+                    });
+                }
+            }
+            
+            try {
+                int afetadas = 0;
+                int[] contagens = jdbcTemplate.batchUpdate(obterSqlUpsert(), linhas);
+                for (int i = 0; i < contagens.length; i++) {
+                    // Em lote alguns drivers não informam a contagem por linha (SUCCESS_NO_INFO = -2)
+                    int linhasAfetadas = contagens[i] < 0 ? 1 : contagens[i];
+                    afetadas += linhasAfetadas;
+                    if (linhasAfetadas > 0) {
+                        AutorCompletoDto autorDto = autoresDasLinhas.get(i);
+                        EstatisticasCatalogoService.contarAutor(deltas, autorDto.getAnoNascimento(), autorDto.getAnoMorte());
+                    }
+                }
+                inseridos += Math.min(afetadas, linhas.size());
+            } catch (DuplicateKeyException e) {
+                // MERGE do H2 não é atômico contra outro importador inserindo o mesmo nome:
+                // relê o que já existe e tenta de novo só com os que ainda faltam
+                if (tentativa >= MAXIMO_TENTATIVAS_UPSERT) {
+                    throw e;
+                }
+            }
+            
+            encontrados.putAll(buscarIds(pendentes.keySet()));
+        }
+        
+        estatisticas.aplicar(deltas);
+        idsPorNomeNormalizado.putAll(encontrados);
+        armazenarAposCommit(encontrados);
+        registrarPeriodosDeVida(pendentes, encontrados);
+        return inseridos;
+    }
+    
+    /**
+     * Resolve (ou cria) um único autor e devolve a entidade gerenciada
+     */
+    public Autor buscarOuCriar(AutorCompletoDto autorDto) {
+        Map<String, Long> ids = new HashMap<>();
+        resolverIds(List.of(autorDto), ids);
+        Long id = ids.get(Autor.normalizarNome(limitarNome(autorDto.getNome())));
+        return id != null ? autorRepository.findById(id).orElse(null) : null;
+    }
+    
+    /**
+     * Esvazia o cache (ex: após remover autores do banco)
+     */
+    public void limparCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+    
+    public Map<String, Object> getEstatisticasCache() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        synchronized (cache) {
+            estatisticas.put("tamanho", cache.size());
+        }
+        estatisticas.put("tamanhoMaximo", tamanhoMaximo);
+        estatisticas.put("acertos", acertos.get());
+        estatisticas.put("faltas", faltas.get());
+        return estatisticas;
+    }
+    
+    private Map<String, Long> buscarIds(Collection<String> nomesNormalizados) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] linha : autorRepository.findIdsPorNomesNormalizados(nomesNormalizados)) {
+            ids.put((String) linha[0], (Long) linha[1]);
+        }
+        return ids;
+    }
+    
+    /**
+     * IDs só entram no cache depois do commit: se a transação que criou o
+     * autor for desfeita, o cache não fica apontando para uma linha inexistente
+     */
+    private void armazenarAposCommit(Map<String, Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<String, Long> copia = new HashMap<>(ids);
+        AposCommit.executar(() -> armazenar(copia));
+    }
+    
+    /**
+     * Leva os autores resolvidos ao índice de períodos de vida (que ignora os que já conhece)
+     */
+    private void registrarPeriodosDeVida(Map<String, AutorCompletoDto> pendentes, Map<String, Long> ids) {
+        List<IndiceVidaAutores.Periodo> periodos = new ArrayList<>(ids.size());
+        for (Map.Entry<String, Long> encontrado : ids.entrySet()) {
+            AutorCompletoDto autorDto = pendentes.get(encontrado.getKey());
+            if (autorDto != null) {
+                periodos.add(new IndiceVidaAutores.Periodo(
+                    encontrado.getValue(), autorDto.getAnoNascimento(), autorDto.getAnoMorte()));
+            }
+        }
+        indiceVida.registrar(periodos);
+    }
+    
+    private void armazenar(Map<String, Long> ids) {
+        synchronized (cache) {
+            cache.putAll(ids);
+        }
+    }
+    
+    /**
+     * Upsert em lote que nunca falha por nome repetido, mesmo com outro importador
+     * inserindo o mesmo autor ao mesmo tempo (PostgreSQL: ON CONFLICT; H2: MERGE ... WHEN NOT MATCHED).
+     * O ID vem da mesma sequência usada pelo Hibernate; com o otimizador pooled cada
+     * chamada a nextval reserva um bloco inteiro, então os IDs nunca se sobrepõem
+     */
+    private String obterSqlUpsert() {
+        if (sqlUpsert == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName());
+            if ("PostgreSQL".equalsIgnoreCase(banco)) {
+                sqlUpsert = "INSERT INTO autores (id, nome_normalizado, nome, ano_nascimento, ano_morte) " +
+                            "VALUES (nextval('autores_seq'), ?, ?, ?, ?) " +
+                            "ON CONFLICT (nome_normalizado) DO NOTHING";
+            } else {
+                sqlUpsert = "MERGE INTO autores a " +
+                            "USING (VALUES (CAST(? AS VARCHAR(200)), CAST(? AS VARCHAR(200)), CAST(? AS INTEGER), CAST(? AS INTEGER))) " +
+                            "AS v (nome_normalizado, nome, ano_nascimento, ano_morte) " +
+                            "ON a.nome_normalizado = v.nome_normalizado " +
+                            "WHEN NOT MATCHED THEN INSERT (id, nome_normalizado, nome, ano_nascimento, ano_morte) " +
+                            "VALUES (NEXT VALUE FOR autores_seq, v.nome_normalizado, v.nome, v.ano_nascimento, v.ano_morte)";
+            }
+        }
+        return sqlUpsert;
+    }
+    
+    private String limitarNome(String nome) {
+        return nome != null && nome.length() > 200 ? nome.substring(0, 200) : nome;
+    }
+}
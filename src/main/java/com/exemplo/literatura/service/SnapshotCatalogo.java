@@ -0,0 +1,381 @@
+package com.exemplo.literatura.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binário do catálogo, gravado em colunas (um array por atributo)
+ * Os idiomas ficam num dicionário (cada livro guarda só a posição do idioma) e os
+ * autores numa tabela própria que serve de dicionário dos nomes (cada livro guarda
+ * a posição do autor). A leitura mapeia o arquivo em memória (FileChannel.map) e lê
+ * as colunas direto do buffer mapeado, sem copiar o arquivo para o heap
+ *
+ * Formato (big-endian, cada coluna começa alinhada em 8 bytes):
+ *   cabeçalho: int MARCA | int VERSAO | int idiomas | int autores | int livros
+ *   idiomas:   int[idiomas + 1] deslocamentos | bytes UTF-8
+ *   autores:   int[autores + 1] deslocamentos | bytes UTF-8 dos nomes | int[autores] nascimento | int[autores] morte
+ *   livros:    long[livros] gutenbergId | int[livros + 1] deslocamentos | bytes UTF-8 dos títulos
+ *              | int[livros] autor | short[livros] idioma | int[livros] downloads | byte[livros * 32] hash
+ * Ausências: Integer.MIN_VALUE nos anos e downloads, Long.MIN_VALUE no gutenbergId,
+ * -1 no autor e hash todo zerado
+ */
+public final class SnapshotCatalogo {
+    
+    private static final int MARCA = 0x4C545331; // "LTS1"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 5 * Integer.BYTES;
+    private static final int TAMANHO_HASH = 32;
+    private static final int SEM_VALOR = Integer.MIN_VALUE;
+    private static final long SEM_ID = Long.MIN_VALUE;
+    private static final byte[] HASH_VAZIO = new byte[TAMANHO_HASH];
+    
+    private final ByteBuffer buffer;
+    private final int quantidadeIdiomas;
+    private final int quantidadeAutores;
+    private final int quantidadeLivros;
+    
+    private final ColunaTexto idiomas;
+    private final ColunaTexto nomesAutores;
+    private final int posNascimento;
+    private final int posMorte;
+    private final int posGutenbergId;
+    private final ColunaTexto titulos;
+    private final int posAutor;
+    private final int posIdioma;
+    private final int posDownloads;
+    private final int posHash;
+    
+    private SnapshotCatalogo(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < TAMANHO_CABECALHO || buffer.getInt(0) != MARCA) {
+            throw new IOException("Arquivo não é um snapshot do catálogo");
+        }
+        if (buffer.getInt(4) != VERSAO) {
+            throw new IOException("Versão de snapshot não suportada: " + buffer.getInt(4));
+        }
+        quantidadeIdiomas = buffer.getInt(8);
+        quantidadeAutores = buffer.getInt(12);
+        quantidadeLivros = buffer.getInt(16);
+        
+        int pos = alinhar(TAMANHO_CABECALHO);
+        idiomas = new ColunaTexto(pos, quantidadeIdiomas);
+        nomesAutores = new ColunaTexto(idiomas.fim(), quantidadeAutores);
+        posNascimento = nomesAutores.fim();
+        posMorte = alinhar(posNascimento + quantidadeAutores * Integer.BYTES);
+        posGutenbergId = alinhar(posMorte + quantidadeAutores * Integer.BYTES);
+        titulos = new ColunaTexto(alinhar(posGutenbergId + quantidadeLivros * Long.BYTES), quantidadeLivros);
+        posAutor = titulos.fim();
+        posIdioma = alinhar(posAutor + quantidadeLivros * Integer.BYTES);
+        posDownloads = alinhar(posIdioma + quantidadeLivros * Short.BYTES);
+        posHash = alinhar(posDownloads + quantidadeLivros * Integer.BYTES);
+        
+        if ((long) posHash + (long) quantidadeLivros * TAMANHO_HASH > buffer.capacity()) {
+            throw new IOException("Snapshot do catálogo truncado");
+        }
+    }
+    
+    /**
+     * Mapeia o arquivo em memória (só leitura); o canal é fechado logo em seguida,
+     * o mapeamento continua válido enquanto o snapshot for referenciado
+     */
+    public static SnapshotCatalogo abrir(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot do catálogo maior que 2 GB");
+            }
+            MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new SnapshotCatalogo(mapeado);
+        }
+    }
+    
+    public int getQuantidadeIdiomas() {
+        return quantidadeIdiomas;
+    }
+    
+    public int getQuantidadeAutores() {
+        return quantidadeAutores;
+    }
+    
+    public int getQuantidadeLivros() {
+        return quantidadeLivros;
+    }
+    
+    public long getTamanhoBytes() {
+        return buffer.capacity();
+    }
+    
+    public String idioma(int posicao) {
+        return idiomas.texto(posicao);
+    }
+    
+    // Autores (posição 0 .. quantidadeAutores - 1)
+    
+    public String nomeAutor(int autor) {
+        return nomesAutores.texto(autor);
+    }
+    
+    public Integer anoNascimento(int autor) {
+        return valorOuNulo(buffer.getInt(posNascimento + autor * Integer.BYTES));
+    }
+    
+    public Integer anoMorte(int autor) {
+        return valorOuNulo(buffer.getInt(posMorte + autor * Integer.BYTES));
+    }
+    
+    // Livros (posição 0 .. quantidadeLivros - 1)
+    
+    public Long gutenbergId(int livro) {
+        long id = buffer.getLong(posGutenbergId + livro * Long.BYTES);
+        return id == SEM_ID ? null : id;
+    }
+    
+    public String titulo(int livro) {
+        return titulos.texto(livro);
+    }
+    
+    /**
+     * Posição do autor do livro na tabela de autores, ou -1 se o livro não tem autor
+     */
+    public int autor(int livro) {
+        return buffer.getInt(posAutor + livro * Integer.BYTES);
+    }
+    
+    /**
+     * Posição do idioma do livro no dicionário de idiomas
+     */
+    public int posicaoIdioma(int livro) {
+        return buffer.getShort(posIdioma + livro * Short.BYTES);
+    }
+    
+    public String idiomaLivro(int livro) {
+        return idioma(posicaoIdioma(livro));
+    }
+    
+    public Integer downloads(int livro) {
+        return valorOuNulo(buffer.getInt(posDownloads + livro * Integer.BYTES));
+    }
+    
+    /**
+     * Assinatura de conteúdo do livro em hexadecimal (como em Livro.hashConteudo), ou null
+     */
+    public String hashConteudo(int livro) {
+        byte[] hash = new byte[TAMANHO_HASH];
+        buffer.get(posHash + livro * TAMANHO_HASH, hash);
+        return Arrays.equals(hash, HASH_VAZIO) ? null : HexFormat.of().formatHex(hash);
+    }
+    
+    private static Integer valorOuNulo(int valor) {
+        return valor == SEM_VALOR ? null : valor;
+    }
+    
+    private static int alinhar(int posicao) {
+        return (posicao + 7) & ~7;
+    }
+    
+    /**
+     * Buffer de uma coluna a gravar, com o tamanho arredondado para o alinhamento de 8 bytes
+     */
+    private static ByteBuffer coluna(int tamanho, Consumer<ByteBuffer> preencher) {
+        ByteBuffer buffer = ByteBuffer.allocate(alinhar(tamanho));
+        preencher.accept(buffer);
+        return buffer.clear();
+    }
+    
+    /**
+     * Coluna de textos: deslocamentos (int[quantidade + 1]) seguidos dos bytes UTF-8
+     */
+    private final class ColunaTexto {
+        
+        private final int posDeslocamentos;
+        private final int posBytes;
+        private final int fim;
+        
+        ColunaTexto(int posicao, int quantidade) {
+            this.posDeslocamentos = posicao;
+            this.posBytes = posicao + (quantidade + 1) * Integer.BYTES;
+            this.fim = alinhar(posBytes + buffer.getInt(posDeslocamentos + quantidade * Integer.BYTES));
+        }
+        
+        String texto(int posicao) {
+            int inicio = buffer.getInt(posDeslocamentos + posicao * Integer.BYTES);
+            int tamanho = buffer.getInt(posDeslocamentos + (posicao + 1) * Integer.BYTES) - inicio;
+            byte[] bytes = new byte[tamanho];
+            buffer.get(posBytes + inicio, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        int fim() {
+            return fim;
+        }
+    }
+    
+    /**
+     * Monta as colunas em memória e grava o arquivo com um FileChannel
+     * Os autores são adicionados primeiro; cada livro aponta para a posição
+     * devolvida por adicionarAutor (ou -1)
+     */
+    public static final class Gravador {
+        
+        private final Map<String, Integer> posicoesIdiomas = new HashMap<>();
+        private final List<String> idiomas = new ArrayList<>();
+        
+        private int autores;
+        private final ColunaTextoGravada nomesAutores = new ColunaTextoGravada();
+        private int[] nascimentos = new int[256];
+        private int[] mortes = new int[256];
+        
+        private int livros;
+        private long[] gutenbergIds = new long[1024];
+        private final ColunaTextoGravada titulos = new ColunaTextoGravada();
+        private int[] autoresLivros = new int[1024];
+        private short[] idiomasLivros = new short[1024];
+        private int[] downloads = new int[1024];
+        private final ByteArrayOutputStream hashes = new ByteArrayOutputStream();
+        
+        /**
+         * @return posição do autor, a ser usada em adicionarLivro
+         */
+        public int adicionarAutor(String nome, Integer anoNascimento, Integer anoMorte) {
+            if (autores == nascimentos.length) {
+                nascimentos = Arrays.copyOf(nascimentos, autores * 2);
+                mortes = Arrays.copyOf(mortes, autores * 2);
+            }
+            nomesAutores.adicionar(nome);
+            nascimentos[autores] = anoNascimento != null ? anoNascimento : SEM_VALOR;
+            mortes[autores] = anoMorte != null ? anoMorte : SEM_VALOR;
+            return autores++;
+        }
+        
+        /**
+         * @param autor posição devolvida por adicionarAutor, ou -1 se o livro não tem autor
+         * @param hashConteudo assinatura SHA-256 em hexadecimal, ou null
+         */
+        public void adicionarLivro(Long gutenbergId, String titulo, int autor, String idioma,
+                                   Integer numeroDownloads, String hashConteudo) {
+            if (autor < -1 || autor >= autores) {
+                throw new IllegalArgumentException("Autor fora da tabela do snapshot: " + autor);
+            }
+            if (livros == gutenbergIds.length) {
+                int capacidade = livros * 2;
+                gutenbergIds = Arrays.copyOf(gutenbergIds, capacidade);
+                autoresLivros = Arrays.copyOf(autoresLivros, capacidade);
+                idiomasLivros = Arrays.copyOf(idiomasLivros, capacidade);
+                downloads = Arrays.copyOf(downloads, capacidade);
+            }
+            gutenbergIds[livros] = gutenbergId != null ? gutenbergId : SEM_ID;
+            titulos.adicionar(titulo);
+            autoresLivros[livros] = autor;
+            idiomasLivros[livros] = posicaoIdioma(idioma);
+            downloads[livros] = numeroDownloads != null ? numeroDownloads : SEM_VALOR;
+            hashes.writeBytes(hashConteudo != null && hashConteudo.length() == TAMANHO_HASH * 2
+                    ? HexFormat.of().parseHex(hashConteudo) : HASH_VAZIO);
+            livros++;
+        }
+        
+        public int getQuantidadeLivros() {
+            return livros;
+        }
+        
+        public int getQuantidadeAutores() {
+            return autores;
+        }
+        
+        /**
+         * Grava num arquivo temporário e o move para o destino, para que uma queda
+         * no meio da gravação nunca deixe um snapshot pela metade
+         * @return tamanho do arquivo em bytes
+         */
+        public long gravar(Path destino) throws IOException {
+            ColunaTextoGravada colunaIdiomas = new ColunaTextoGravada();
+            idiomas.forEach(colunaIdiomas::adicionar);
+            
+            ByteBuffer cabecalho = ByteBuffer.allocate(alinhar(TAMANHO_CABECALHO))
+                    .putInt(MARCA).putInt(VERSAO).putInt(idiomas.size()).putInt(autores).putInt(livros);
+            
+            List<ByteBuffer> colunas = new ArrayList<>();
+            colunas.add(cabecalho.clear());
+            colunaIdiomas.escrever(colunas);
+            nomesAutores.escrever(colunas);
+            colunas.add(coluna(autores * Integer.BYTES, b -> b.asIntBuffer().put(nascimentos, 0, autores)));
+            colunas.add(coluna(autores * Integer.BYTES, b -> b.asIntBuffer().put(mortes, 0, autores)));
+            colunas.add(coluna(livros * Long.BYTES, b -> b.asLongBuffer().put(gutenbergIds, 0, livros)));
+            titulos.escrever(colunas);
+            colunas.add(coluna(livros * Integer.BYTES, b -> b.asIntBuffer().put(autoresLivros, 0, livros)));
+            colunas.add(coluna(livros * Short.BYTES, b -> b.asShortBuffer().put(idiomasLivros, 0, livros)));
+            colunas.add(coluna(livros * Integer.BYTES, b -> b.asIntBuffer().put(downloads, 0, livros)));
+            colunas.add(coluna(livros * TAMANHO_HASH, b -> b.put(hashes.toByteArray())));
+            
+            Path pasta = destino.toAbsolutePath().getParent();
+            Files.createDirectories(pasta);
+            Path temporario = Files.createTempFile(pasta, destino.getFileName().toString(), ".tmp");
+            try {
+                ByteBuffer[] buffers = colunas.toArray(ByteBuffer[]::new);
+                long tamanho = colunas.stream().mapToLong(ByteBuffer::remaining).sum();
+                try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                    for (long gravados = 0; gravados < tamanho; ) {
+                        gravados += canal.write(buffers);
+                    }
+                    canal.force(false);
+                }
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return tamanho;
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        }
+        
+        private short posicaoIdioma(String idioma) {
+            Integer posicao = posicoesIdiomas.get(idioma);
+            if (posicao == null) {
+                if (idiomas.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Idiomas demais para o dicionário do snapshot");
+                }
+                posicao = idiomas.size();
+                idiomas.add(idioma);
+                posicoesIdiomas.put(idioma, posicao);
+            }
+            return posicao.shortValue();
+        }
+    }
+    
+    /**
+     * Coluna de textos em montagem (deslocamentos + bytes UTF-8 concatenados)
+     */
+    private static final class ColunaTextoGravada {
+        
+        private int[] deslocamentos = new int[1025];
+        private int quantidade;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        void adicionar(String texto) {
+            if (quantidade + 1 == deslocamentos.length) {
+                deslocamentos = Arrays.copyOf(deslocamentos, deslocamentos.length * 2);
+            }
+            bytes.writeBytes(texto.getBytes(StandardCharsets.UTF_8));
+            deslocamentos[++quantidade] = bytes.size();
+        }
+        
+        void escrever(List<ByteBuffer> colunas) {
+            colunas.add(coluna(Integer.BYTES * (quantidade + 1) + bytes.size(), buffer -> {
+                buffer.asIntBuffer().put(deslocamentos, 0, quantidade + 1);
+                buffer.position(Integer.BYTES * (quantidade + 1));
+                buffer.put(bytes.toByteArray());
+            }));
+        }
+    }
+}
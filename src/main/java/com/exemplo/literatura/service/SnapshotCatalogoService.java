@@ -0,0 +1,283 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grava o catálogo num snapshot binário em colunas (SnapshotCatalogo) e o carrega
+ * na subida quando o banco está vazio, como acontece a cada início com o H2 em
+ * memória (ddl-auto=create-drop). A carga lê o arquivo mapeado em memória e insere
+ * autores e livros com batches JDBC, sem passar pelo Hibernate nem pela API Gutendx
+ */
+@Service
+public class SnapshotCatalogoService {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticas;
+    
+    @Autowired
+    private IndiceTextoCatalogo indiceTexto;
+    
+    @Autowired
+    private IndiceVidaAutores indiceVida;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private LeituraMapeadaCatalogo leituraMapeada;
+    
+    @Value("${literatura.snapshot.habilitado:false}")
+    private boolean habilitado;
+    
+    @Value("${literatura.snapshot.arquivo:dados/catalogo.snapshot}")
+    private String arquivo;
+    
+    @Value("${literatura.snapshot.gravar-ao-encerrar:false}")
+    private boolean gravarAoEncerrar;
+    
+    private static final int TAMANHO_LOTE_JDBC = 5000;
+    private static final int TAMANHO_LEITURA = 1000;
+    
+    // allocationSize das sequências de Livro e Autor (otimizador pooled do Hibernate)
+    private static final int BLOCO_SEQUENCIA = 50;
+    
+    /**
+     * Resultado de uma gravação ou carga do snapshot
+     */
+    public record Resumo(String arquivo, int livros, int autores, long bytes, long milissegundos) {}
+    
+    public Path getArquivo() {
+        return Path.of(arquivo);
+    }
+    
+    /**
+     * Grava o catálogo atual no arquivo configurado
+     */
+    public Resumo gravar() {
+        return gravar(getArquivo());
+    }
+    
+    /**
+     * Grava autores e livros do banco no snapshot (duas consultas de projeção)
+     */
+    public Resumo gravar(Path destino) {
+        long inicio = System.nanoTime();
+        SnapshotCatalogo.Gravador gravador = new SnapshotCatalogo.Gravador();
+        Map<Long, Integer> posicoesAutores = new HashMap<>();
+        
+        // Template próprio só para o fetch size; a conexão é a mesma da transação
+        JdbcTemplate leitura = new JdbcTemplate(jdbcTemplate.getDataSource());
+        leitura.setFetchSize(TAMANHO_LEITURA);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            leitura.query("SELECT id, nome, ano_nascimento, ano_morte FROM autores ORDER BY id", linha -> {
+                posicoesAutores.put(linha.getLong(1), gravador.adicionarAutor(linha.getString(2),
+                    linha.getObject(3, Integer.class), linha.getObject(4, Integer.class)));
+            });
+            leitura.query("SELECT gutenberg_id, titulo, autor_id, idioma, numero_downloads, hash_conteudo " +
+                          "FROM livros ORDER BY id", linha -> {
+                Long autorId = linha.getObject(3, Long.class);
+                gravador.adicionarLivro(linha.getObject(1, Long.class), linha.getString(2),
+                    autorId != null ? posicoesAutores.get(autorId) : -1, linha.getString(4),
+                    linha.getObject(5, Integer.class), linha.getString(6));
+            });
+        });
+        
+        try {
+            long bytes = gravador.gravar(destino);
+            Resumo resumo = new Resumo(destino.toString(), gravador.getQuantidadeLivros(),
+                gravador.getQuantidadeAutores(), bytes, (System.nanoTime() - inicio) / 1_000_000);
+            System.out.printf("📦 Snapshot do catálogo gravado: %d livro(s), %d autor(es), %d KB em %d ms (%s)%n",
+                resumo.livros(), resumo.autores(), bytes / 1024, resumo.milissegundos(), destino);
+            return resumo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar o snapshot em " + destino, e);
+        }
+    }
+    
+    /**
+     * Carrega o snapshot num catálogo vazio, numa única transação
+     * Os IDs são reservados de uma vez nas sequências (livros_seq e autores_seq), então
+     * as gravações seguintes do Hibernate e do upsert de autores continuam sem colisão.
+     * Depois da carga as estatísticas são recalculadas e os índices em memória remontados
+     * @throws IllegalStateException se o catálogo já tiver livros ou autores
+     */
+    public Resumo carregar(Path origem) {
+        long inicio = System.nanoTime();
+        if (livroRepository.count() > 0 || autorRepository.count() > 0) {
+            throw new IllegalStateException("O snapshot só pode ser carregado num catálogo vazio");
+        }
+        
+        SnapshotCatalogo snapshot;
+        try {
+            snapshot = SnapshotCatalogo.abrir(origem);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o snapshot " + origem, e);
+        }
+        int autores = snapshot.getQuantidadeAutores();
+        int livros = snapshot.getQuantidadeLivros();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            long baseAutores = reservarIds("autores_seq", autores);
+            long baseLivros = reservarIds("livros_seq", livros);
+            
+            inserirEmLotes("INSERT INTO autores (id, nome, nome_normalizado, ano_nascimento, ano_morte) VALUES (?, ?, ?, ?, ?)",
+                autores, (ps, i) -> {
+                    String nome = snapshot.nomeAutor(i);
+                    ps.setLong(1, baseAutores + i);
+                    ps.setString(2, nome);
+                    ps.setString(3, Autor.normalizarNome(nome));
+                    ps.setObject(4, snapshot.anoNascimento(i), Types.INTEGER);
+                    ps.setObject(5, snapshot.anoMorte(i), Types.INTEGER);
+                });
+            inserirEmLotes("INSERT INTO livros (id, titulo, autor_id, idioma, numero_downloads, gutenberg_id, hash_conteudo) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                livros, (ps, i) -> {
+                    int autor = snapshot.autor(i);
+                    ps.setLong(1, baseLivros + i);
+                    ps.setString(2, snapshot.titulo(i));
+                    ps.setObject(3, autor >= 0 ? baseAutores + autor : null, Types.BIGINT);
+                    ps.setString(4, snapshot.idiomaLivro(i));
+                    ps.setObject(5, snapshot.downloads(i), Types.INTEGER);
+                    ps.setObject(6, snapshot.gutenbergId(i), Types.BIGINT);
+                    ps.setString(7, snapshot.hashConteudo(i));
+                });
+        });
+        long milissegundosCarga = (System.nanoTime() - inicio) / 1_000_000;
+        
+        resolucaoAutores.limparCache();
+        estatisticas.recalcular();
+        if (indiceTexto.isPronto()) {
+            indiceTexto.reconstruir();
+        }
+        if (indiceVida.isPronto()) {
+            indiceVida.reconstruir();
+        }
+        if (leituraMapeada.isPronto()) {
+            leituraMapeada.reconstruir();
+        }
+        
+        Resumo resumo = new Resumo(origem.toString(), livros, autores, snapshot.getTamanhoBytes(), milissegundosCarga);
+        System.out.printf("📦 Snapshot do catálogo carregado: %d livro(s), %d autor(es) em %d ms (%s)%n",
+            livros, autores, milissegundosCarga, origem);
+        return resumo;
+    }
+    
+    /**
+     * Na subida, carrega o snapshot se ele existir e o catálogo estiver vazio
+     * Roda antes dos outros ouvintes da subida (índices e estatísticas), que já
+     * encontram o catálogo carregado
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void carregarNaSubida() {
+        Path origem = getArquivo();
+        if (!habilitado || !Files.isRegularFile(origem)) {
+            return;
+        }
+        if (livroRepository.count() > 0 || autorRepository.count() > 0) {
+            System.out.println("📦 Catálogo já tem dados; snapshot não carregado");
+            return;
+        }
+        try {
+            carregar(origem);
+        } catch (RuntimeException e) {
+            // Snapshot corrompido ou de outra versão: sobe com o catálogo vazio
+            System.err.println("❌ Erro ao carregar o snapshot do catálogo: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Grava o snapshot ao encerrar, antes de o banco em memória ser descartado
+     */
+    @PreDestroy
+    public void gravarAoEncerrar() {
+        if (habilitado && gravarAoEncerrar) {
+            try {
+                gravar();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Erro ao gravar o snapshot do catálogo: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Reserva quantidade IDs consecutivos na sequência e devolve o primeiro
+     * O valor lido com nextval está acima de qualquer bloco já entregue ao Hibernate;
+     * a sequência é reiniciada um bloco depois do último ID reservado, para que o
+     * próximo bloco pooled (valor - BLOCO_SEQUENCIA + 1 .. valor) comece depois dele
+     */
+    private long reservarIds(String sequencia, int quantidade) {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        String sqlProximo = "PostgreSQL".equalsIgnoreCase(banco)
+                ? "SELECT nextval('" + sequencia + "')"
+                : "SELECT NEXT VALUE FOR " + sequencia;
+        
+        long primeiro = jdbcTemplate.queryForObject(sqlProximo, Long.class) + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequencia + " RESTART WITH " + (primeiro + quantidade + BLOCO_SEQUENCIA));
+        return primeiro;
+    }
+    
+    private void inserirEmLotes(String sql, int quantidade, Linha linha) {
+        for (int inicio = 0; inicio < quantidade; inicio += TAMANHO_LOTE_JDBC) {
+            int deslocamento = inicio;
+            int tamanho = Math.min(TAMANHO_LOTE_JDBC, quantidade - inicio);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    linha.preencher(ps, deslocamento + i);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return tamanho;
+                }
+            });
+        }
+    }
+    
+    /**
+     * Preenche os parâmetros do INSERT com a linha de posição i do snapshot
+     */
+    @FunctionalInterface
+    private interface Linha {
+        void preencher(PreparedStatement ps, int i) throws SQLException;
+    }
+}
@@ -0,0 +1,99 @@
+package com.exemplo.literatura.benchmark;
+
+import com.exemplo.literatura.service.JsonAnalysisService;
+import com.exemplo.literatura.service.JsonAnalysisService.Analise;
+import com.exemplo.literatura.support.AnaliseJsonEmArvore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métodos de JsonAnalysisService, e a comparação da análise em árvore (um
+ * readTree por análise) com a passada única em fluxo, usando o mesmo conjunto
+ * de análises do endpoint /api/json-analysis/demo-completa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnaliseJsonBenchmark {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonAnalysisService analiseService = new JsonAnalysisService(objectMapper);
+    private final AnaliseJsonEmArvore emArvore = new AnaliseJsonEmArvore(objectMapper);
+    
+    @Benchmark
+    public void demoCompletaEmArvore(PaginaGutendx pagina, Blackhole bh) {
+        String json = pagina.json;
+        bh.consume(emArvore.analisarEstrutura(json));
+        bh.consume(emArvore.contarTiposDados(json));
+        bh.consume(emArvore.analisarArrays(json));
+        bh.consume(emArvore.extrairValoresPropriedade(json, "title"));
+        bh.consume(emArvore.extrairValoresPropriedade(json, "name"));
+        bh.consume(emArvore.extrairValoresPropriedade(json, "languages"));
+        bh.consume(emArvore.encontrarPropriedadesVazias(json));
+    }
+    
+    @Benchmark
+    public Object demoCompletaPassadaUnica(PaginaGutendx pagina) {
+        return analiseService.analisar(pagina.json, EnumSet.allOf(Analise.class), "title", "name", "languages");
+    }
+    
+    @Benchmark
+    public Object analisarEstrutura(PaginaGutendx pagina) {
+        return analiseService.analisarEstrutura(pagina.json);
+    }
+    
+    @Benchmark
+    public Object extrairValoresPropriedade(PaginaGutendx pagina) {
+        return analiseService.extrairValoresPropriedade(pagina.json, "title");
+    }
+    
+    @Benchmark
+    public Object contarTiposDados(PaginaGutendx pagina) {
+        return analiseService.contarTiposDados(pagina.json);
+    }
+    
+    @Benchmark
+    public Object contarTiposDadosEmArvore(PaginaGutendx pagina) {
+        return emArvore.contarTiposDados(pagina.json);
+    }
+    
+    @Benchmark
+    public Object encontrarPropriedadesVazias(PaginaGutendx pagina) {
+        return analiseService.encontrarPropriedadesVazias(pagina.json);
+    }
+    
+    @Benchmark
+    public Object encontrarPropriedadesVaziasEmArvore(PaginaGutendx pagina) {
+        return emArvore.encontrarPropriedadesVazias(pagina.json);
+    }
+    
+    @Benchmark
+    public Object analisarArrays(PaginaGutendx pagina) {
+        return analiseService.analisarArrays(pagina.json);
+    }
+    
+    @Benchmark
+    public Object jsonParaMap(PaginaGutendx pagina) {
+        return analiseService.jsonParaMap(pagina.json);
+    }
+    
+    @Benchmark
+    public Object validarJson(PaginaGutendx pagina) {
+        return analiseService.validarJson(pagina.json);
+    }
+}
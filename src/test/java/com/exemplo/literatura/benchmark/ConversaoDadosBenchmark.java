@@ -0,0 +1,47 @@
+package com.exemplo.literatura.benchmark;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.service.ConversaoDadosService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das respostas da API em DTOs, como feita em cada requisição
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoDadosBenchmark {
+    
+    private final ConversaoDadosService conversaoService = new ConversaoDadosService();
+    
+    @Benchmark
+    public GutendxResponseCompleta converterRespostaString(PaginaGutendx pagina) {
+        return conversaoService.converterResposta(pagina.json);
+    }
+    
+    @Benchmark
+    public GutendxResponseCompleta converterRespostaFluxo(PaginaGutendx pagina) {
+        return conversaoService.converterResposta(new ByteArrayInputStream(pagina.bytes));
+    }
+    
+    @Benchmark
+    public List<LivroSimplificadoDto> converterParaSimplificados(PaginaGutendx pagina) {
+        return conversaoService.converterParaSimplificados(pagina.resposta.getLivros());
+    }
+}
@@ -0,0 +1,41 @@
+package com.exemplo.literatura.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Dispara os benchmarks JMH deste pacote pelo Surefire e grava o resultado em
+ * target/jmh/resultado.json. Desligado por padrão:
+ *   mvn test -Pbenchmark
+ *   mvn test -Pbenchmark -Dbenchmark.incluir=AnaliseJson -Dbenchmark.livros=32,1000
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExecutarBenchmarksTest {
+    
+    @Test
+    void executarBenchmarks() throws Exception {
+        File resultado = new File("target/jmh/resultado.json");
+        resultado.getParentFile().mkdirs();
+        
+        OptionsBuilder opcoes = new OptionsBuilder();
+        opcoes.include(ExecutarBenchmarksTest.class.getPackageName() + "\\..*"
+                        + System.getProperty("benchmark.incluir", "Benchmark"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.getPath())
+                .shouldFailOnError(true);
+        
+        String livros = System.getProperty("benchmark.livros");
+        if (livros != null && !livros.isBlank()) {
+            opcoes.param("livros", livros.split(","));
+        }
+        
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.exemplo.literatura.benchmark;
+
+import com.exemplo.literatura.service.IndiceTextoCatalogo;
+import com.exemplo.literatura.service.IndiceTextoCatalogo.Campo;
+import com.exemplo.literatura.service.IndiceTextoCatalogo.Documento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas ao índice de texto num catálogo sintético (títulos e autores montados
+ * com um vocabulário de palavras inventadas, com e sem acento, semente fixa)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceTextoBenchmark {
+    
+    private static final String[] SILABAS = {"ca", "sa", "mur", "ro", "dom", "lá", "ção", "ma", "chá", "de", "as",
+        "sis", "pri", "de", "bras", "cu", "to", "ré", "vi", "nho", "ter", "ra", "mar", "go", "lu", "ís"};
+    
+    @Param({"100000"})
+    public int livros;
+    
+    private IndiceTextoCatalogo indice;
+    
+    @Setup
+    public void montar() {
+        Random aleatorio = new Random(42);
+        List<String> vocabulario = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder palavra = new StringBuilder();
+            int silabas = 2 + aleatorio.nextInt(3);
+            for (int s = 0; s < silabas; s++) {
+                palavra.append(SILABAS[aleatorio.nextInt(SILABAS.length)]);
+            }
+            vocabulario.add(palavra.toString());
+        }
+        
+        indice = new IndiceTextoCatalogo(null, true);
+        List<Documento> documentos = new ArrayList<>(livros);
+        for (int i = 0; i < livros; i++) {
+            StringBuilder titulo = new StringBuilder();
+            int palavras = 1 + aleatorio.nextInt(6);
+            for (int p = 0; p < palavras; p++) {
+                titulo.append(p > 0 ? " " : "").append(vocabulario.get(zipf(aleatorio, vocabulario.size())));
+            }
+            String autor = vocabulario.get(aleatorio.nextInt(vocabulario.size())) + ", "
+                    + vocabulario.get(aleatorio.nextInt(vocabulario.size()));
+            documentos.add(new Documento((long) i + 1, (long) i + 1, titulo.toString(), autor, "pt",
+                aleatorio.nextInt(100_000)));
+        }
+        // Entra no índice como as importações fazem: em páginas
+        for (int inicio = 0; inicio < documentos.size(); inicio += 32) {
+            indice.indexar(documentos.subList(inicio, Math.min(inicio + 32, documentos.size())));
+        }
+    }
+    
+    /**
+     * Palavras comuns aparecem muito mais que as raras, como em títulos reais
+     */
+    private static int zipf(Random aleatorio, int tamanho) {
+        return (int) Math.min(tamanho - 1, Math.floor(Math.pow(tamanho, aleatorio.nextDouble())) - 1);
+    }
+    
+    @Benchmark
+    public Object palavraRara() {
+        return indice.buscar("terrasis", 20);
+    }
+    
+    @Benchmark
+    public Object duasPalavrasComPrefixo() {
+        return indice.buscar("cadom mur", 20, Campo.TITULO);
+    }
+    
+    @Benchmark
+    public Object prefixoCurtoComAcento() {
+        return indice.buscar("çã", 20);
+    }
+    
+    @Benchmark
+    public Object autor() {
+        return indice.buscar("lumar", 20, Campo.AUTOR);
+    }
+}
@@ -0,0 +1,36 @@
+package com.exemplo.literatura.benchmark;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.service.ConversaoDadosService;
+import com.exemplo.literatura.support.FixturesGutendx;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Página Gutendx compartilhada pelos benchmarks, nos três tamanhos medidos:
+ * uma página real da API (32 livros), uma busca grande (1k) e o catálogo
+ * inteiro do Gutenberg (70k). Montada uma vez por execução a partir dos livros
+ * gravados em src/test/resources/gutendx
+ */
+@State(Scope.Benchmark)
+public class PaginaGutendx {
+    
+    @Param({"32", "1000", "70000"})
+    public int livros;
+    
+    public String json;
+    public byte[] bytes;
+    public GutendxResponseCompleta resposta;
+    
+    @Setup(Level.Trial)
+    public void montar() {
+        json = FixturesGutendx.pagina(livros);
+        bytes = json.getBytes(StandardCharsets.UTF_8);
+        resposta = new ConversaoDadosService().converterResposta(json);
+    }
+}
@@ -0,0 +1,45 @@
+package com.exemplo.literatura.benchmark;
+
+import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.dto.LivroCompletoDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregações de GutendxResponseCompleta usadas pelos endpoints e pelo menu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespostaCompletaBenchmark {
+    
+    @Benchmark
+    public List<AutorCompletoDto> getTodosAutores(PaginaGutendx pagina) {
+        return pagina.resposta.getTodosAutores();
+    }
+    
+    @Benchmark
+    public List<String> getTodosIdiomas(PaginaGutendx pagina) {
+        return pagina.resposta.getTodosIdiomas();
+    }
+    
+    @Benchmark
+    public String getEstatisticas(PaginaGutendx pagina) {
+        return pagina.resposta.getEstatisticas();
+    }
+    
+    @Benchmark
+    public List<LivroCompletoDto> getLivrosMaisPopulares(PaginaGutendx pagina) {
+        return pagina.resposta.getLivrosMaisPopulares(10);
+    }
+}
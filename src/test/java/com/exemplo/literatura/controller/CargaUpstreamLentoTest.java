@@ -0,0 +1,175 @@
+package com.exemplo.literatura.controller;
+
+import com.exemplo.literatura.LiteraturaApplication;
+import com.exemplo.literatura.service.GutendxService;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga: muitas requisições REST simultâneas presas numa API Gutendx lenta
+ * Mede quantas o app consegue manter abertas ao mesmo tempo, o pico de threads da
+ * JVM e a vazão em três modos: o caminho bloqueante (fachada GutendxService, que
+ * aguarda o Mono) com threads de plataforma, limitado pelo pool do Tomcat, e com
+ * threads virtuais; e o endpoint reativo (/api/gutendx/buscar), que devolve a
+ * thread do Tomcat enquanto a chamada está em voo.
+ * Desligado por padrão:
+ *   mvn test -Dtest=CargaUpstreamLentoTest -Dbenchmark=true
+ *   mvn test -Pjava21 -Dtest=CargaUpstreamLentoTest -Dbenchmark=true   (inclui o modo virtual)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CargaUpstreamLentoTest {
+    
+    private static final int REQUISICOES = Integer.getInteger("benchmark.requisicoes", 400);
+    private static final int THREADS_TOMCAT = 50;
+    private static final long ATRASO_UPSTREAM_MILLIS = 1_000;
+    private static final String ROTA_BLOQUEANTE = "/carga/bloqueante";
+    
+    private GutendxStubServer stub;
+    
+    @BeforeEach
+    void iniciarStub() {
+        stub = GutendxStubServer.iniciar().comAtraso(ATRASO_UPSTREAM_MILLIS);
+    }
+    
+    @AfterEach
+    void encerrarStub() {
+        stub.close();
+    }
+    
+    @Test
+    void threadsDePlataformaFicamLimitadasAoPoolDoTomcat() throws Exception {
+        int simultaneas = executarCarga(false, ROTA_BLOQUEANTE);
+        
+        assertThat(simultaneas).isLessThanOrEqualTo(THREADS_TOMCAT);
+    }
+    
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void threadsVirtuaisMantemTodasAsRequisicoesAbertas() throws Exception {
+        int simultaneas = executarCarga(true, ROTA_BLOQUEANTE);
+        
+        assertThat(simultaneas).isGreaterThan(THREADS_TOMCAT);
+    }
+    
+    @Test
+    void endpointReativoMantemTodasAsRequisicoesAbertasSemThreadsExtras() throws Exception {
+        int simultaneas = executarCarga(false, "/api/gutendx/buscar");
+        
+        assertThat(simultaneas).isGreaterThan(THREADS_TOMCAT);
+    }
+    
+    /**
+     * Sobe o app no modo informado, dispara todas as requisições de uma vez contra a
+     * rota e devolve o pico de chamadas simultâneas que chegaram à API lenta
+     */
+    private int executarCarga(boolean threadsVirtuais, String rota) throws Exception {
+        String modo = (ROTA_BLOQUEANTE.equals(rota) ? "bloqueante" : "reativo") + "-" + (threadsVirtuais ? "virtuais" : "plataforma");
+        
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(LiteraturaApplication.class)
+                .initializers(CargaUpstreamLentoTest::registrarRotaBloqueante)
+                .profiles("test")
+                .run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:carga-" + modo,
+                    "--gutendx.base-url=" + stub.getBaseUrl(),
+                    "--gutendx.http.max-requisicoes-simultaneas=" + (REQUISICOES * 2),
+                    // Sem limitador de taxa: o que se mede aqui são as threads, não a proteção da API
+                    "--gutendx.protecao.habilitada=false",
+                    "--server.tomcat.threads.max=" + THREADS_TOMCAT,
+                    "--spring.threads.virtual.enabled=" + threadsVirtuais)) {
+            
+            String porta = contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            AtomicInteger presasNoPico = new AtomicInteger();
+            ScheduledExecutorService amostragem = Executors.newSingleThreadScheduledExecutor();
+            amostragem.scheduleAtFixedRate(() -> presasNoPico.accumulateAndGet(contarThreadsPresasNaFachada(), Math::max),
+                    0, 100, TimeUnit.MILLISECONDS);
+            
+            long inicio = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> respostas = new ArrayList<>();
+            for (int i = 0; i < REQUISICOES; i++) {
+                // Termos distintos: requisições idênticas seriam juntadas numa só chamada
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create("http://127.0.0.1:" + porta + rota + "?termo=carga" + i))
+                        .timeout(Duration.ofMinutes(2))
+                        .GET()
+                        .build();
+                respostas.add(cliente.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            
+            int sucesso = 0;
+            for (CompletableFuture<HttpResponse<Void>> resposta : respostas) {
+                if (resposta.get().statusCode() == 200) {
+                    sucesso++;
+                }
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            amostragem.shutdownNow();
+            
+            // O pico da JVM inclui as threads do stub (uma por requisição lenta), iguais nos dois modos
+            System.out.printf("📊 %s: %d requisições (%d ok) | pico de %d simultâneas na API lenta | até %d threads presas esperando a API | pico de %d threads na JVM | %.1f s | %.0f req/s%n",
+                modo, REQUISICOES, sucesso, stub.getMaximoSimultaneas(), presasNoPico.get(), threads.getPeakThreadCount(),
+                segundos, REQUISICOES / segundos);
+            
+            assertThat(sucesso).isEqualTo(REQUISICOES);
+            return stub.getMaximoSimultaneas();
+        }
+    }
+    
+    /**
+     * Threads paradas dentro da fachada síncrona (aguardando o Mono da API)
+     */
+    private static int contarThreadsPresasNaFachada() {
+        int presas = 0;
+        for (StackTraceElement[] pilha : Thread.getAllStackTraces().values()) {
+            for (StackTraceElement quadro : pilha) {
+                if (quadro.getClassName().equals(GutendxService.class.getName())) {
+                    presas++;
+                    break;
+                }
+            }
+        }
+        return presas;
+    }
+    
+    /**
+     * Rota só do teste que passa pela fachada síncrona, como um controller que aguardasse o Mono
+     */
+    private static void registrarRotaBloqueante(ConfigurableApplicationContext contexto) {
+        ((GenericApplicationContext) contexto).registerBean("rotaBloqueanteCarga", RouterFunction.class, () ->
+                RouterFunctions.route()
+                        .GET(ROTA_BLOQUEANTE, request -> ServerResponse.ok().body(contexto.getBean(GutendxService.class)
+                                .buscarLivros(request.param("termo").orElseThrow())))
+                        .build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AjusteEsquemaCatalogoTest {
+    
+    @Autowired
+    private AjusteEsquemaCatalogo ajusteEsquema;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void limpar() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+    }
+    
+    @Test
+    void preencheAutoresAntigosEJuntaRepetidos() {
+        // Linhas gravadas antes da coluna nome_normalizado existir
+        inserirAutorAntigo(10_001L, "Twain, Mark");
+        inserirAutorAntigo(10_002L, "  twain,   MARK ");
+        inserirAutorAntigo(10_003L, "Austen, Jane");
+        inserirLivro(20_001L, "Livro do Primeiro", 10_001L);
+        inserirLivro(20_002L, "Livro do Repetido", 10_002L);
+        
+        assertThat(ajusteEsquema.preencherNomesNormalizados()).isEqualTo(1);
+        
+        assertThat(jdbcTemplate.queryForList("SELECT id, nome_normalizado FROM autores ORDER BY id"))
+                .extracting(linha -> linha.get("ID") + "|" + linha.get("NOME_NORMALIZADO"))
+                .containsExactly("10001|twain, mark", "10003|austen, jane");
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT autor_id FROM livros", Long.class))
+                .containsExactly(10_001L);
+        
+        // A resolução encontra as linhas antigas em vez de inserir outra cópia
+        Map<String, Long> ids = new HashMap<>();
+        int inseridos = resolucaoAutores.resolverIds(List.of(
+            new AutorCompletoDto("Twain, Mark", 1835, 1910),
+            new AutorCompletoDto("Austen, Jane", 1775, 1817)), ids);
+        assertThat(inseridos).isZero();
+        assertThat(ids).containsEntry("twain, mark", 10_001L).containsEntry("austen, jane", 10_003L);
+        
+        assertThat(ajusteEsquema.preencherNomesNormalizados()).isZero();
+    }
+    
+    @Test
+    void repetidoDeAutorJaNormalizadoVaiParaEle() {
+        Map<String, Long> ids = new HashMap<>();
+        resolucaoAutores.resolverIds(List.of(new AutorCompletoDto("Dickens, Charles", 1812, 1870)), ids);
+        Long normalizado = ids.get("dickens, charles");
+        inserirAutorAntigo(10_001L, "Dickens, Charles");
+        inserirLivro(20_001L, "Livro Antigo", 10_001L);
+        
+        assertThat(ajusteEsquema.preencherNomesNormalizados()).isEqualTo(1);
+        
+        assertThat(autorRepository.findAll()).singleElement()
+                .satisfies(autor -> assertThat(autor.getId()).isEqualTo(normalizado));
+        assertThat(jdbcTemplate.queryForObject("SELECT autor_id FROM livros", Long.class)).isEqualTo(normalizado);
+    }
+    
+    @Test
+    void sequenciasPassamDosIdsGravadosSemElas() {
+        // IDs de quando as tabelas usavam IDENTITY, acima do que as sequências já entregaram
+        long maiorAutor = 7_000_000L;
+        long maiorLivro = 8_000_000L;
+        inserirAutorAntigo(maiorAutor, "Autor de Antes das Sequências");
+        inserirLivro(maiorLivro, "Livro de Antes das Sequências", maiorAutor);
+        
+        assertThat(ajusteEsquema.alinharSequencias()).isEqualTo(2);
+        assertThat(ajusteEsquema.alinharSequencias()).isZero();
+        
+        // Mais de um bloco pooled do Hibernate e o upsert de autores (nextval direto)
+        List<Autor> autores = new ArrayList<>();
+        List<Livro> livros = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            autores.add(new Autor("Autor Novo " + i, 1900, null));
+            livros.add(new Livro("Livro Novo " + i, null, "pt", i, 9_000_000L + i));
+        }
+        autorRepository.saveAll(autores);
+        livroRepository.saveAll(livros);
+        Map<String, Long> ids = new HashMap<>();
+        resolucaoAutores.resolverIds(List.of(new AutorCompletoDto("Autor pelo Upsert", 1950, null)), ids);
+        
+        assertThat(autorRepository.count()).isEqualTo(122);
+        assertThat(livroRepository.count()).isEqualTo(121);
+        assertThat(autores.get(autores.size() - 1).getId()).isGreaterThan(maiorAutor);
+        assertThat(livros.get(livros.size() - 1).getId()).isGreaterThan(maiorLivro);
+        assertThat(ids.get("autor pelo upsert")).isGreaterThan(maiorAutor);
+    }
+    
+    private void inserirAutorAntigo(long id, String nome) {
+        jdbcTemplate.update("INSERT INTO autores (id, nome) VALUES (?, ?)", id, nome);
+    }
+    
+    private void inserirLivro(long id, String titulo, long autorId) {
+        jdbcTemplate.update("INSERT INTO livros (id, titulo, autor_id, idioma, gutenberg_id) VALUES (?, ?, ?, 'en', ?)",
+            id, titulo, autorId, id);
+    }
+}
@@ -0,0 +1,124 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArmazemRespostasDiscoTest {
+    
+    private static final String PAGINA_1 = "/books/?page=1";
+    
+    @TempDir
+    Path diretorio;
+    
+    private GutendxStubServer stub;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void iniciar() {
+        stub = GutendxStubServer.iniciar().comFixture(PAGINA_1, "gutendx/pagina-1.json");
+        executor = Executors.newFixedThreadPool(2);
+    }
+    
+    @AfterEach
+    void encerrar() {
+        stub.close();
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Simula uma nova execução do app: armazém reaberto do disco e serviço novo
+     */
+    private GutendxHttpService reiniciarApp(ArmazemRespostasDisco armazem) {
+        GutendxHttpService gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 4);
+        gutendxHttpService.setArmazemDisco(armazem);
+        return gutendxHttpService;
+    }
+    
+    @Test
+    void aposReinicioRevalidaComEtagEUsaOCorpoDoDisco() throws Exception {
+        ArmazemRespostasDisco primeiro = new ArmazemRespostasDisco(diretorio.toString(), true);
+        String original = reiniciarApp(primeiro).obterJsonPagina(stub.getBaseUrl() + PAGINA_1);
+        primeiro.fechar();
+        
+        assertThat(stub.getUltimoIfNoneMatch(PAGINA_1)).isNull();
+        
+        ArmazemRespostasDisco reaberto = new ArmazemRespostasDisco(diretorio.toString(), true);
+        GutendxHttpService gutendxHttpService = reiniciarApp(reaberto);
+        String revalidado = gutendxHttpService.obterJsonPagina(stub.getBaseUrl() + PAGINA_1);
+        
+        assertThat(revalidado).isEqualTo(original);
+        assertThat(stub.getUltimoIfNoneMatch(PAGINA_1)).isEqualTo(stub.getEtag(PAGINA_1));
+        assertThat(stub.getNaoModificadas()).isEqualTo(1);
+        assertThat(gutendxHttpService.getEstatisticasRequisicoes().get("naoModificadasServidasDoDisco")).isEqualTo(1);
+        assertThat(gutendxHttpService.listarLivros(1).block().getResults()).hasSize(3);
+        reaberto.fechar();
+    }
+    
+    @Test
+    void respostaAlteradaSubstituiORegistroNoDisco() throws Exception {
+        ArmazemRespostasDisco armazem = new ArmazemRespostasDisco(diretorio.toString(), true);
+        GutendxHttpService gutendxHttpService = reiniciarApp(armazem);
+        gutendxHttpService.obterJsonPagina(stub.getBaseUrl() + PAGINA_1);
+        
+        stub.comResposta(PAGINA_1, "{\"count\": 0, \"results\": []}");
+        assertThat(gutendxHttpService.obterJsonPagina(stub.getBaseUrl() + PAGINA_1)).contains("\"count\": 0");
+        assertThat(stub.getNaoModificadas()).isZero();
+        armazem.fechar();
+        
+        ArmazemRespostasDisco reaberto = new ArmazemRespostasDisco(diretorio.toString(), true);
+        ArmazemRespostasDisco.Registro registro = reaberto.obterRegistro(stub.getBaseUrl() + PAGINA_1);
+        assertThat(registro.etag()).isEqualTo(stub.getEtag(PAGINA_1));
+        assertThat(reaberto.lerCorpo(registro)).contains("\"count\": 0");
+        reaberto.fechar();
+    }
+    
+    @Test
+    void finalTruncadoEDescartadoNaAbertura() throws IOException {
+        ArmazemRespostasDisco armazem = new ArmazemRespostasDisco(diretorio.toString(), true);
+        armazem.gravar("a", "\"1\"", null, "{\"a\": 1}");
+        armazem.gravar("b", "\"2\"", null, "{\"b\": 2}");
+        armazem.fechar();
+        
+        // Queda no meio da gravação do segundo registro
+        Path arquivo = diretorio.resolve("respostas.dat");
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(arquivo) - 3);
+        }
+        
+        ArmazemRespostasDisco reaberto = new ArmazemRespostasDisco(diretorio.toString(), true);
+        assertThat(reaberto.lerCorpo(reaberto.obterRegistro("a"))).isEqualTo("{\"a\": 1}");
+        assertThat(reaberto.obterRegistro("b")).isNull();
+        
+        reaberto.gravar("c", null, "Wed, 01 Jan 2025 00:00:00 GMT", "{\"c\": 3}");
+        assertThat(reaberto.lerCorpo(reaberto.obterRegistro("c"))).isEqualTo("{\"c\": 3}");
+        reaberto.fechar();
+    }
+    
+    @Test
+    void compactaQuandoAMaiorParteDoArquivoFoiSubstituida() throws IOException {
+        ArmazemRespostasDisco armazem = new ArmazemRespostasDisco(diretorio.toString(), true);
+        for (int versao = 0; versao < 10; versao++) {
+            armazem.gravar("pagina", "\"" + versao + "\"", null, "{\"versao\": " + versao + "}");
+        }
+        armazem.fechar();
+        long tamanhoAntes = Files.size(diretorio.resolve("respostas.dat"));
+        
+        ArmazemRespostasDisco reaberto = new ArmazemRespostasDisco(diretorio.toString(), true);
+        assertThat(Files.size(diretorio.resolve("respostas.dat"))).isLessThan(tamanhoAntes);
+        assertThat(reaberto.lerCorpo(reaberto.obterRegistro("pagina"))).isEqualTo("{\"versao\": 9}");
+        reaberto.fechar();
+    }
+}
@@ -0,0 +1,142 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.LivroDto;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuscaMultiplaGutendxTest {
+    
+    private static final long ATRASO_MILLIS = 400;
+    private static final int TERMOS = 12;
+    
+    private GutendxStubServer stub;
+    private ExecutorService executor;
+    private GutendxHttpService gutendxHttpService;
+    private BuscaMultiplaGutendx buscaMultipla;
+    
+    @BeforeEach
+    void iniciar() {
+        stub = GutendxStubServer.iniciar().comAtraso(ATRASO_MILLIS)
+                .comFixture("/books/?page=1", "gutendx/pagina-1.json");
+        // Termos com páginas que se repetem: os mesmos livros aparecem em vários termos
+        for (int i = 0; i < TERMOS; i++) {
+            stub.comFixture("/books/?search=autor" + i, "gutendx/pagina-" + (i % 3 + 1) + ".json");
+        }
+        executor = Executors.newFixedThreadPool(4);
+        gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 16);
+        buscaMultipla = new BuscaMultiplaGutendx(gutendxHttpService, 20);
+    }
+    
+    @AfterEach
+    void encerrar() {
+        stub.close();
+        executor.shutdownNow();
+        buscaMultipla.encerrar();
+    }
+    
+    @Test
+    void buscasCorremEmParaleloEEntregamCadaLivroUmaVez() {
+        List<String> termos = new ArrayList<>();
+        for (int i = 0; i < TERMOS; i++) {
+            termos.add("autor" + i);
+        }
+        termos.add("AUTOR0");
+        termos.add("  ");
+        termos.add("inexistente");
+        
+        List<BuscaMultiplaGutendx.ResultadoTermo> recebidos = Collections.synchronizedList(new ArrayList<>());
+        long inicio = System.nanoTime();
+        BuscaMultiplaGutendx.Resumo resumo = buscaMultipla.buscar(termos, recebidos::add).join();
+        long milissegundos = (System.nanoTime() - inicio) / 1_000_000;
+        
+        // Perto da busca mais lenta, longe da soma (13 x 400 ms)
+        assertThat(milissegundos).isLessThan(ATRASO_MILLIS * 3);
+        assertThat(stub.getMaximoSimultaneas()).isGreaterThan(1);
+        
+        assertThat(recebidos).hasSize(TERMOS + 1);
+        assertThat(resumo.termos()).isEqualTo(TERMOS + 1);
+        assertThat(resumo.falhas()).isEqualTo(1);
+        assertThat(recebidos).filteredOn(resultado -> resultado.termo().equals("inexistente"))
+                .singleElement().satisfies(resultado -> assertThat(resultado.erro()).contains("404"));
+        
+        Set<Long> entregues = new HashSet<>();
+        Set<Long> repetidos = new HashSet<>();
+        for (BuscaMultiplaGutendx.ResultadoTermo resultado : recebidos) {
+            for (LivroDto livro : resultado.livros()) {
+                assertThat(entregues.add(livro.getId())).as("livro %d entregue duas vezes", livro.getId()).isTrue();
+            }
+            repetidos.addAll(resultado.repetidos());
+        }
+        assertThat(entregues).hasSize(resumo.livrosDistintos()).containsAll(repetidos);
+        assertThat(repetidos).isNotEmpty();
+    }
+    
+    @Test
+    void consumidorLentoNaoPrendeAsThreadsDoCliente() throws Exception {
+        List<String> termos = new ArrayList<>();
+        for (int i = 0; i < TERMOS; i++) {
+            termos.add("autor" + i);
+        }
+        
+        // O consumidor fica parado no primeiro termo, como um cliente que não lê a resposta
+        CountDownLatch primeiraEntrega = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<BuscaMultiplaGutendx.ResultadoTermo> recebidos = Collections.synchronizedList(new ArrayList<>());
+        Set<String> threadsDeEntrega = Collections.synchronizedSet(new HashSet<>());
+        CompletableFuture<BuscaMultiplaGutendx.Resumo> resumo = buscaMultipla.buscar(termos, resultado -> {
+            recebidos.add(resultado);
+            threadsDeEntrega.add(Thread.currentThread().getName());
+            primeiraEntrega.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(primeiraEntrega.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // A entrega roda nas threads da busca múltipla: o cliente continua atendendo outras chamadas
+        assertThat(gutendxHttpService.obterJsonAsync(gutendxHttpService.getUrlListagem(1)))
+                .succeedsWithin(Duration.ofSeconds(5));
+        assertThat(recebidos).hasSize(1);
+        assertThat(resumo).isNotDone();
+        
+        liberar.countDown();
+        assertThat(resumo).succeedsWithin(Duration.ofSeconds(5))
+                .extracting(BuscaMultiplaGutendx.Resumo::termos).isEqualTo(TERMOS);
+        assertThat(recebidos).hasSize(TERMOS);
+        assertThat(threadsDeEntrega).allMatch(nome -> nome.startsWith("gutendx-busca-multipla-"));
+    }
+    
+    @Test
+    void recusaListaVaziaOuGrandeDemais() {
+        assertThatThrownBy(() -> buscaMultipla.buscar(List.of(" ", ""), resultado -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+        
+        List<String> demais = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            demais.add("termo" + i);
+        }
+        assertThatThrownBy(() -> buscaMultipla.buscar(demais, resultado -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("20");
+        assertThat(stub.getTotalRequisicoes()).isZero();
+    }
+}
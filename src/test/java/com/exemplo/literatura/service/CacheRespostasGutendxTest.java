@@ -0,0 +1,99 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.service.CacheRespostasGutendx.Chave;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheRespostasGutendxTest {
+    
+    private final AtomicLong relogio = new AtomicLong();
+    
+    private CacheRespostasGutendx criarCache(int maximoEntradas, long pesoMaximo) {
+        return new CacheRespostasGutendx(maximoEntradas, pesoMaximo,
+            Duration.ofMinutes(10), Duration.ofHours(1), relogio::get);
+    }
+    
+    @Test
+    void consultasNormalizadasCaemNaMesmaEntrada() {
+        CacheRespostasGutendx cache = criarCache(10, 1_000);
+        
+        cache.armazenar(Chave.busca("Dom  Casmurro "), "{\"count\": 1}");
+        
+        assertThat(cache.obter(Chave.busca("dom casmurro"))).isEqualTo("{\"count\": 1}");
+        assertThat(cache.obter(Chave.idioma("dom casmurro"))).isNull();
+        assertThat(cache.getAcertos()).isEqualTo(1);
+        assertThat(cache.getFaltas()).isEqualTo(1);
+    }
+    
+    @Test
+    void entradasExpiramPeloTtlDoTipoDeConsulta() {
+        CacheRespostasGutendx cache = criarCache(10, 1_000);
+        cache.armazenar(Chave.busca("shakespeare"), "busca");
+        cache.armazenar(Chave.livro(1513L), "livro");
+        cache.armazenar(Chave.pagina(1), "pagina", Duration.ofSeconds(30));
+        
+        relogio.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(cache.obter(Chave.pagina(1))).isNull();
+        assertThat(cache.obter(Chave.busca("shakespeare"))).isEqualTo("busca");
+        
+        relogio.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertThat(cache.obter(Chave.busca("shakespeare"))).isNull();
+        assertThat(cache.obter(Chave.livro(1513L))).isEqualTo("livro");
+        
+        assertThat(cache.getEstatisticas().get("expiracoes")).isEqualTo(2L);
+    }
+    
+    @Test
+    void despejaMenosUsadasPorQuantidadeEPorPeso() {
+        CacheRespostasGutendx cache = criarCache(3, 10);
+        cache.armazenar(Chave.pagina(1), "aaa");
+        cache.armazenar(Chave.pagina(2), "bbb");
+        cache.armazenar(Chave.pagina(3), "ccc");
+        
+        // Acessar a página 1 faz da página 2 a menos usada recentemente
+        cache.obter(Chave.pagina(1));
+        cache.armazenar(Chave.pagina(4), "ddd");
+        
+        assertThat(cache.obter(Chave.pagina(2))).isNull();
+        assertThat(cache.getDespejos()).isEqualTo(1);
+        
+        // Peso: 3 + 3 + 3 + 5 > 10
+        cache.armazenar(Chave.pagina(5), "eeeee");
+        assertThat(cache.getEstatisticas().get("peso")).isEqualTo(8L);
+        assertThat(cache.obter(Chave.pagina(5))).isEqualTo("eeeee");
+        
+        // Maior que o peso máximo: não entra
+        cache.armazenar(Chave.pagina(6), "x".repeat(11));
+        assertThat(cache.obter(Chave.pagina(6))).isNull();
+    }
+    
+    @Test
+    void clientesCompartilhamORespostaDaApi() {
+        CacheRespostasGutendx cache = criarCache(10, 1_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        try (GutendxStubServer stub = GutendxStubServer.iniciar()
+                .comFixture("/books/?search=shakespeare", "gutendx/pagina-1.json")) {
+            
+            GutendxHttpService gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 4);
+            gutendxHttpService.setCacheRespostas(cache);
+            GutendxService gutendxService = new GutendxService(gutendxHttpService);
+            
+            assertThat(gutendxHttpService.buscarLivros("shakespeare").collectList().block()).hasSize(3);
+            assertThat(gutendxHttpService.buscarLivros("Shakespeare").collectList().block()).hasSize(3);
+            assertThat(gutendxService.buscarLivros("SHAKESPEARE ")).hasSize(3);
+            
+            assertThat(stub.getTotalRequisicoes()).isEqualTo(1);
+            assertThat(cache.getAcertos()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
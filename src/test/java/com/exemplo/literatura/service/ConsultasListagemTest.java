@@ -0,0 +1,259 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.AutorSimplificadoDto;
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import com.exemplo.literatura.support.ContadorSql;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cada listagem do catálogo deve custar um número fixo de comandos SQL,
+ * qualquer que seja o tamanho do resultado (sem N+1), e o que a tela usa
+ * dos livros e autores devolvidos não pode disparar consultas depois
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultasListagemTest {
+    
+    private static final int AUTORES = 40;
+    private static final int MAXIMO_CONSULTAS = 1;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private IndiceTextoCatalogo indiceTexto;
+    
+    @Autowired
+    private IndiceVidaAutores indiceVida;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+    
+    @BeforeEach
+    void popularCatalogo() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        
+        // Um autor distinto por livro: com N+1, cada listagem faria dezenas de consultas
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Autor> autores = new ArrayList<>();
+            for (int i = 0; i < AUTORES; i++) {
+                autores.add(new Autor("Autor Listagem " + i, 1800 + i, i % 4 == 0 ? null : 1870 + i));
+            }
+            autorRepository.saveAll(autores);
+            
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < AUTORES * 2; i++) {
+                livros.add(new Livro("Livro Listagem " + i, autores.get(i % AUTORES),
+                    i % 3 == 0 ? "pt" : "en", 1000 - i, 900_000L + i));
+            }
+            catalogoService.salvarLivrosEmLote(livros);
+        });
+        
+        indiceTexto.reconstruir();
+        indiceVida.reconstruir();
+    }
+    
+    @Test
+    void listagensDeLivrosTrazemOAutorNaMesmaConsulta() {
+        assertConsultasDeLivros("listarTodosOsLivros", catalogoService::listarTodosOsLivros);
+        assertConsultasDeLivros("listarLivrosPorIdioma", () -> catalogoService.listarLivrosPorIdioma("pt"));
+        assertConsultasDeLivros("buscarLivrosPorTituloLocal", () -> catalogoService.buscarLivrosPorTituloLocal("listagem"));
+        assertConsultasDeLivros("buscarLivrosPorAutorLocal", () -> catalogoService.buscarLivrosPorAutorLocal("autor listagem"));
+        
+        // Consultas usadas enquanto o índice de texto não está pronto, e as de ranking
+        assertConsultasDeLivros("findByTituloContainingIgnoreCase", () -> livroRepository.findByTituloContainingIgnoreCase("listagem"));
+        assertConsultasDeLivros("findByAutorNomeContainingIgnoreCase", () -> livroRepository.findByAutorNomeContainingIgnoreCase("listagem"));
+        assertConsultasDeLivros("findLivrosMaisPopulares", livroRepository::findLivrosMaisPopulares);
+        assertConsultasDeLivros("findByIdiomaOrderByNumeroDownloadsDesc", () -> livroRepository.findByIdiomaOrderByNumeroDownloadsDesc("en"));
+    }
+    
+    @Test
+    void listagensDeAutoresUsamUmaConsulta() {
+        assertConsultasDeAutores("listarTodosOsAutores", catalogoService::listarTodosOsAutores);
+        assertConsultasDeAutores("listarAutoresVivosNoAno", () -> catalogoService.listarAutoresVivosNoAno(1900));
+        assertConsultasDeAutores("listarAutoresVivosNoPeriodo", () -> catalogoService.listarAutoresVivosNoPeriodo(1850, 1860));
+        assertConsultasDeAutores("buscarAutoresPorNome", () -> catalogoService.buscarAutoresPorNome("listagem"));
+        assertConsultasDeAutores("obterAutoresMaisProlificos", () -> catalogoService.obterAutoresMaisProlificos(5));
+    }
+    
+    @Test
+    void paginacaoPorCursorPercorreTudoNaOrdemSemRepetir() {
+        List<Long> porTitulo = percorrerPaginas(cursor ->
+            catalogoService.listarLivrosPorCursor(CatalogoService.OrdemLivros.TITULO, cursor, 7), LivroSimplificadoDto::getId);
+        assertThat(porTitulo).containsExactlyElementsOf(
+            catalogoService.listarTodosOsLivros().stream().map(Livro::getGutenbergId).toList());
+        
+        List<Long> porDownloads = percorrerPaginas(cursor ->
+            catalogoService.listarLivrosPorCursor(CatalogoService.OrdemLivros.DOWNLOADS, cursor, 9), LivroSimplificadoDto::getId);
+        assertThat(porDownloads).containsExactlyElementsOf(
+            livroRepository.findLivrosMaisPopulares().stream().map(Livro::getGutenbergId).toList());
+        
+        List<String> autores = percorrerPaginas(cursor ->
+            catalogoService.listarAutoresPorCursor(cursor, 6), AutorSimplificadoDto::getNome);
+        assertThat(autores).containsExactlyElementsOf(
+            catalogoService.listarTodosOsAutores().stream().map(Autor::getNome).toList());
+        
+        assertThatThrownBy(() -> catalogoService.listarLivrosPorCursor(CatalogoService.OrdemLivros.TITULO, "@@", 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void autoresMaisProlificosEPercursoPorStream() {
+        List<String> sql = ContadorSql.capturar(() ->
+            assertThat(catalogoService.obterAutoresMaisProlificos(5)).hasSize(5));
+        // Limitado no banco (H2/PostgreSQL: "fetch first ? rows only" ou "limit ?")
+        assertThat(sql).hasSize(1).first().asString().containsPattern("(?i)fetch first|limit");
+        
+        AtomicLong comAutor = new AtomicLong();
+        long total = catalogoService.percorrerLivrosPorTitulo(livro -> {
+            if (livro.getAutor() != null && livro.getAutor().getNome() != null) {
+                comAutor.incrementAndGet();
+            }
+        });
+        assertThat(total).isEqualTo(AUTORES * 2);
+        assertThat(comAutor).hasValue(AUTORES * 2);
+    }
+    
+    @Test
+    void percursoPorStreamNaoAcumulaAutoresNoContexto() {
+        // Mais autores distintos que um bloco do percurso: com detach só do livro, ficariam todos no contexto
+        int extras = tamanhoLote * 3;
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < extras; i++) {
+                livros.add(new Livro("Livro Percurso " + i, new Autor("Autor Percurso " + i, 1900, null), "en", i, 950_000L + i));
+            }
+            catalogoService.salvarLivrosEmLote(livros);
+        });
+        
+        AtomicLong maiorContexto = new AtomicLong();
+        long total = catalogoService.percorrerLivrosPorTitulo(livro -> maiorContexto.accumulateAndGet(
+            entityManager.unwrap(Session.class).getStatistics().getEntityCount(), Math::max));
+        
+        assertThat(total).isEqualTo(AUTORES * 2 + extras);
+        assertThat(maiorContexto.get()).isPositive().isLessThanOrEqualTo(tamanhoLote * 2L);
+    }
+    
+    @Test
+    void gravacaoEmLoteIndexaEMantemAsEntidadesDoChamador() {
+        int quantidade = tamanhoLote * 2 + 1;
+        transactionTemplate.executeWithoutResult(status -> {
+            Autor autor = autorRepository.save(new Autor("Autor Gravação em Lote", 1850, 1910));
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                livros.add(new Livro("Crônica Lotada " + i, autor, "pt", i, 960_000L + i));
+            }
+            catalogoService.salvarLivrosEmLote(livros);
+            
+            // Só os livros gravados saem do contexto; o autor do chamador continua gerenciado
+            assertThat(entityManager.contains(autor)).isTrue();
+            assertThat(livros).noneMatch(entityManager::contains);
+        });
+        
+        // Sem reconstruir: o índice de texto recebeu os livros no commit
+        assertThat(catalogoService.buscarNoCatalogo("cronica lotada", quantidade).total()).isEqualTo(quantidade);
+    }
+    
+    @Test
+    void maisPopularesSaoLimitadosNoBanco() {
+        List<Long> todos = livroRepository.findLivrosMaisPopulares().stream().map(Livro::getGutenbergId).toList();
+        List<Long> todosEmPortugues = livroRepository.findByIdiomaOrderByNumeroDownloadsDesc("pt").stream()
+                .map(Livro::getGutenbergId).toList();
+        
+        List<List<LivroSimplificadoDto>> resultado = new ArrayList<>();
+        List<String> sql = ContadorSql.capturar(() -> {
+            resultado.add(catalogoService.listarLivrosMaisPopulares(null, 5));
+            resultado.add(catalogoService.listarLivrosMaisPopulares("PT", 5));
+        });
+        
+        assertThat(sql).hasSize(2).allSatisfy(comando -> assertThat(comando).containsPattern("(?i)fetch first|limit"));
+        assertThat(resultado.get(0)).extracting(LivroSimplificadoDto::getId).containsExactlyElementsOf(todos.subList(0, 5));
+        assertThat(resultado.get(1)).extracting(LivroSimplificadoDto::getId).containsExactlyElementsOf(todosEmPortugues.subList(0, 5));
+        assertThat(resultado.get(1)).extracting(LivroSimplificadoDto::getAutores).doesNotContainNull();
+        assertThat(catalogoService.listarLivrosMaisPopulares("pt", 0)).isEmpty();
+    }
+    
+    /**
+     * Segue os cursores até o fim; cada página deve custar uma consulta só
+     */
+    private <T, K> List<K> percorrerPaginas(Function<String, PaginaCursorDto<T>> pagina, Function<T, K> chave) {
+        List<K> chaves = new ArrayList<>();
+        String cursor = null;
+        do {
+            List<PaginaCursorDto<T>> atual = new ArrayList<>();
+            String cursorAtual = cursor;
+            assertThat(ContadorSql.capturar(() -> atual.add(pagina.apply(cursorAtual)))).hasSize(1);
+            atual.get(0).getItens().forEach(item -> chaves.add(chave.apply(item)));
+            cursor = atual.get(0).getProximoCursor();
+        } while (cursor != null);
+        return chaves;
+    }
+    
+    private void assertConsultasDeLivros(String listagem, Supplier<List<Livro>> consulta) {
+        List<List<Livro>> resultado = new ArrayList<>();
+        List<String> sql = ContadorSql.capturar(() -> {
+            resultado.add(consulta.get());
+            // O que o menu exibe de cada livro (fora da transação, como no console)
+            resultado.get(0).forEach(livro -> livro.getResumo());
+        });
+        
+        assertThat(resultado.get(0)).as(listagem).hasSizeGreaterThan(1);
+        assertThat(sql).as("SQL de %s", listagem).hasSizeLessThanOrEqualTo(MAXIMO_CONSULTAS);
+    }
+    
+    private void assertConsultasDeAutores(String listagem, Supplier<List<Autor>> consulta) {
+        List<List<Autor>> resultado = new ArrayList<>();
+        List<String> sql = ContadorSql.capturar(() -> {
+            resultado.add(consulta.get());
+            resultado.get(0).forEach(autor -> autor.getNomeFormatado().concat(autor.getPeriodoVida()));
+        });
+        
+        assertThat(resultado.get(0)).as(listagem).hasSizeGreaterThan(1);
+        assertThat(sql).as("SQL de %s", listagem).hasSizeLessThanOrEqualTo(MAXIMO_CONSULTAS);
+    }
+}
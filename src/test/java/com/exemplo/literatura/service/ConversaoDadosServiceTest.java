@@ -0,0 +1,94 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroCompletoDto;
+import com.exemplo.literatura.support.FixturesGutendx;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConversaoDadosServiceTest {
+    
+    private final ConversaoDadosService conversaoService = new ConversaoDadosService();
+    
+    private static String lerFixture(String recurso) throws IOException {
+        try (InputStream in = ConversaoDadosServiceTest.class.getClassLoader().getResourceAsStream(recurso)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static InputStream fluxo(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void leituraEmFluxoEquivaleAConversaoDaString() throws IOException {
+        String json = lerFixture("gutendx/pagina-1.json");
+        
+        GutendxResponseCompleta daString = conversaoService.converterResposta(json);
+        GutendxResponseCompleta emFluxo = conversaoService.converterResposta(fluxo(json));
+        
+        assertThat(emFluxo.getTotalLivros()).isEqualTo(daString.getTotalLivros());
+        assertThat(emFluxo.getProximaPagina()).isEqualTo(daString.getProximaPagina());
+        assertThat(emFluxo.getPaginaAnterior()).isEqualTo(daString.getPaginaAnterior());
+        assertThat(emFluxo.getLivros()).usingRecursiveFieldByFieldElementComparator().isEqualTo(daString.getLivros());
+    }
+    
+    @Test
+    void entregaCadaLivroAoConsumidorEIgnoraCamposDesconhecidos() {
+        String json = "{\"extra\": {\"a\": [1, 2]}, \"books\": ["
+                + "{\"id\": 1, \"title\": \"Um\", \"novo_campo\": true},"
+                + "{\"id\": 2, \"title\": \"Dois\"}"
+                + "], \"total\": 2, \"next_url\": null}";
+        
+        List<LivroCompletoDto> recebidos = new ArrayList<>();
+        GutendxResponseCompleta pagina = conversaoService.lerPagina(fluxo(json), recebidos::add);
+        
+        assertThat(recebidos).extracting(LivroCompletoDto::getTitulo).containsExactly("Um", "Dois");
+        assertThat(pagina.getTotalLivros()).isEqualTo(2);
+        assertThat(pagina.getProximaPagina()).isNull();
+        assertThat(pagina.getLivros()).isEmpty();
+    }
+    
+    @Test
+    void objetoSoltoEmResultsValeComoUmLivro() {
+        List<LivroCompletoDto> recebidos = new ArrayList<>();
+        conversaoService.lerPagina(fluxo("{\"results\": {\"id\": 7, \"title\": \"Sozinho\"}}"), recebidos::add);
+        
+        assertThat(recebidos).extracting(LivroCompletoDto::getId).containsExactly(7L);
+    }
+    
+    @Test
+    void maisPopularesPeloHeapEquivalemAOrdenacaoCompleta() {
+        GutendxResponseCompleta pagina = conversaoService.converterResposta(FixturesGutendx.pagina(300));
+        // Empates e livros sem downloads, que a ordenação estável deixa na ordem da página
+        pagina.getLivros().get(5).setNumeroDownloads(null);
+        pagina.getLivros().get(40).setNumeroDownloads(pagina.getLivros().get(10).getNumeroDownloads());
+        pagina.getLivros().get(41).setNumeroDownloads(pagina.getLivros().get(10).getNumeroDownloads());
+        
+        for (int limite : new int[] {0, 1, 10, 299, 500}) {
+            List<LivroCompletoDto> ordenacaoCompleta = pagina.getLivros().stream()
+                    .filter(livro -> livro.getNumeroDownloads() != null)
+                    .sorted((l1, l2) -> Integer.compare(l2.getNumeroDownloads(), l1.getNumeroDownloads()))
+                    .limit(limite)
+                    .toList();
+            assertThat(pagina.getLivrosMaisPopulares(limite)).as("limite %d", limite).containsExactlyElementsOf(ordenacaoCompleta);
+        }
+        assertThat(new GutendxResponseCompleta().getLivrosMaisPopulares(5)).isEmpty();
+    }
+    
+    @Test
+    void jsonInvalidoFalhaComMensagemDeConversao() {
+        assertThatThrownBy(() -> conversaoService.lerPagina(fluxo("[1, 2]"), livro -> {}))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Erro ao converter resposta JSON");
+    }
+}
@@ -0,0 +1,164 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import com.exemplo.literatura.service.ExportacaoCatalogoService.Conteudo;
+import com.exemplo.literatura.service.ExportacaoCatalogoService.Formato;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoCatalogoServiceTest {
+    
+    private static final int AUTORES = 30;
+    private static final String TITULO_ESPECIAL = "Livro \"Exportação\", parte 1";
+    private static final String TITULO_SEM_ID = "Sem Identificador no Gutenberg";
+    
+    @Autowired
+    private ExportacaoCatalogoService exportacaoService;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @BeforeEach
+    void popularCatalogo() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Autor> autores = new ArrayList<>();
+            for (int i = 0; i < AUTORES; i++) {
+                autores.add(new Autor("Autor Exportação " + i, 1800 + i, i % 3 == 0 ? null : 1870 + i));
+            }
+            autorRepository.saveAll(autores);
+            
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < AUTORES * 2; i++) {
+                livros.add(new Livro("Livro Exportação " + i, autores.get(i % AUTORES),
+                    i % 2 == 0 ? "pt" : "en", i % 7 == 0 ? null : 500 - i, 700_000L + i));
+            }
+            livros.add(new Livro(TITULO_ESPECIAL, null, "pt", 1, 799_999L));
+            livros.add(new Livro(TITULO_SEM_ID, autores.get(0), "pt", 2, null));
+            catalogoService.salvarLivrosEmLote(livros);
+        });
+    }
+    
+    @Test
+    void ndjsonTemUmObjetoPorLinhaNaOrdemDoCatalogo() throws IOException {
+        String exportado = exportar(Conteudo.LIVROS, Formato.NDJSON, false);
+        
+        assertThat(exportado).endsWith("\n");
+        String[] linhas = exportado.split("\n");
+        assertThat(linhas).hasSize((int) livroRepository.count());
+        
+        List<String> titulos = new ArrayList<>();
+        for (String linha : linhas) {
+            titulos.add(objectMapper.readTree(linha).get("titulo").asText());
+        }
+        assertThat(titulos).isEqualTo(livroRepository.findAllByOrderByTitulo().stream().map(Livro::getTitulo).toList());
+        
+        JsonNode especial = objectMapper.readTree(linhas[0]);
+        assertThat(especial.get("titulo").asText()).isEqualTo(TITULO_ESPECIAL);
+        assertThat(especial.get("id").asLong()).isEqualTo(799_999L);
+        assertThat(especial.get("autores").isNull()).isTrue();
+        
+        JsonNode semDownloads = objectMapper.readTree(linhas[1]);
+        assertThat(semDownloads.get("titulo").asText()).isEqualTo("Livro Exportação 0");
+        assertThat(semDownloads.get("autores").asText()).isEqualTo("Autor Exportação 0");
+        assertThat(semDownloads.get("downloads").isNull()).isTrue();
+        
+        // gutenberg_id é opcional: a linha sai com id nulo, e as seguintes continuam
+        JsonNode semId = objectMapper.readTree(linhas[linhas.length - 1]);
+        assertThat(semId.get("titulo").asText()).isEqualTo(TITULO_SEM_ID);
+        assertThat(semId.get("id").isNull()).isTrue();
+    }
+    
+    @Test
+    void csvTemCabecalhoEEscapaVirgulasEAspas() throws IOException {
+        String[] livros = exportar(Conteudo.LIVROS, Formato.CSV, false).split("\r\n");
+        
+        assertThat(livros).hasSize((int) livroRepository.count() + 1);
+        assertThat(livros[0]).isEqualTo("id,titulo,autores,idioma,downloads");
+        assertThat(livros[1]).isEqualTo("799999,\"Livro \"\"Exportação\"\", parte 1\",,pt,1");
+        assertThat(livros[2]).isEqualTo("700000,Livro Exportação 0,Autor Exportação 0,pt,");
+        assertThat(livros[livros.length - 1]).isEqualTo(",Sem Identificador no Gutenberg,Autor Exportação 0,pt,2");
+        
+        String[] autores = exportar(Conteudo.AUTORES, Formato.CSV, false).split("\r\n");
+        assertThat(autores).hasSize(AUTORES + 1);
+        assertThat(autores[0]).isEqualTo("nome,anoNascimento,anoMorte");
+        assertThat(autores[1]).isEqualTo("Autor Exportação 0,1800,");
+        assertThat(autores[2]).isEqualTo("Autor Exportação 1,1801,1871");
+    }
+    
+    @Test
+    void gzipTemOMesmoConteudoDescomprimido() throws IOException {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        long total = exportacaoService.exportar(Conteudo.AUTORES, Formato.NDJSON, true, comprimido);
+        
+        String descomprimido;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(comprimido.toByteArray()))) {
+            descomprimido = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        
+        assertThat(total).isEqualTo(AUTORES);
+        assertThat(descomprimido).isEqualTo(exportar(Conteudo.AUTORES, Formato.NDJSON, false));
+    }
+    
+    @Test
+    void gzipSoQuandoOAcceptEncodingAceita() {
+        assertThat(ExportacaoCatalogoService.aceitaGzip("gzip")).isTrue();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("br;q=1.0, *;q=0.1")).isTrue();
+        
+        assertThat(ExportacaoCatalogoService.aceitaGzip(null)).isFalse();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("identity")).isFalse();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("gzip;q=0")).isFalse();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(ExportacaoCatalogoService.aceitaGzip("*, gzip;q=0")).isFalse();
+    }
+    
+    private String exportar(Conteudo conteudo, Formato formato, boolean comprimir) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportar(conteudo, formato, comprimir, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
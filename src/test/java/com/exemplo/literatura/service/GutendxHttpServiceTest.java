@@ -0,0 +1,207 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroCompletoDto;
+import com.exemplo.literatura.dto.LivroDto;
+import com.exemplo.literatura.support.FixturesGutendx;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GutendxHttpServiceTest {
+    
+    private GutendxStubServer stub;
+    private ExecutorService executor;
+    private GutendxHttpService gutendxHttpService;
+    
+    private void iniciar(long atrasoMillis, int maximoSimultaneas) {
+        stub = GutendxStubServer.iniciar().comAtraso(atrasoMillis);
+        for (int pagina = 1; pagina <= 3; pagina++) {
+            stub.comFixture("/books/?page=" + pagina, "gutendx/pagina-" + pagina + ".json");
+        }
+        stub.comFixture("/books/?search=shakespeare", "gutendx/pagina-1.json");
+        executor = Executors.newFixedThreadPool(4);
+        gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, maximoSimultaneas);
+    }
+    
+    @AfterEach
+    void encerrar() {
+        stub.close();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void buscasIdenticasSimultaneasCompartilhamUmaRequisicao() {
+        iniciar(300, 8);
+        
+        List<CompletableFuture<List<LivroDto>>> buscas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            buscas.add(gutendxHttpService.buscarLivrosAsync("shakespeare"));
+        }
+        
+        for (CompletableFuture<List<LivroDto>> busca : buscas) {
+            assertThat(busca.join()).hasSize(3);
+        }
+        assertThat(stub.getRequisicoes("/books/?search=shakespeare")).isEqualTo(1);
+        assertThat(gutendxHttpService.getEstatisticasRequisicoes().get("compartilhadas")).isEqualTo(19);
+        
+        // Depois de concluída, a mesma busca volta a ir à API
+        gutendxHttpService.buscarLivros("shakespeare").blockLast();
+        assertThat(stub.getRequisicoes("/books/?search=shakespeare")).isEqualTo(2);
+    }
+    
+    @Test
+    void respeitaLimiteDeRequisicoesSimultaneas() {
+        iniciar(200, 2);
+        
+        List<CompletableFuture<String>> paginas = new ArrayList<>();
+        for (int pagina = 1; pagina <= 3; pagina++) {
+            paginas.add(gutendxHttpService.obterJsonAsync(gutendxHttpService.getUrlListagem(pagina)));
+            paginas.add(gutendxHttpService.obterJsonAsync(stub.getBaseUrl() + "/books/?page=" + pagina + "&copia=1"));
+        }
+        
+        CompletableFuture.allOf(paginas.stream()
+                .map(pagina -> pagina.exceptionally(erro -> null))
+                .toArray(CompletableFuture[]::new)).join();
+        
+        assertThat(stub.getTotalRequisicoes()).isEqualTo(6);
+        assertThat(stub.getMaximoSimultaneas()).isLessThanOrEqualTo(2);
+    }
+    
+    @Test
+    void cancelarUmChamadorNaoCancelaOsOutros() {
+        iniciar(300, 4);
+        
+        CompletableFuture<String> primeiro = gutendxHttpService.obterJsonAsync(gutendxHttpService.getUrlListagem(1));
+        CompletableFuture<String> segundo = gutendxHttpService.obterJsonAsync(gutendxHttpService.getUrlListagem(1));
+        primeiro.cancel(true);
+        
+        assertThat(segundo.join()).contains("Romeo and Juliet");
+        assertThat(stub.getRequisicoes("/books/?page=1")).isEqualTo(1);
+    }
+    
+    @Test
+    void statusDiferenteDe200FalhaComIOException() {
+        iniciar(0, 4);
+        
+        assertThatThrownBy(() -> gutendxHttpService.obterJsonPagina(stub.getBaseUrl() + "/books/?page=99"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("404");
+        assertThat(gutendxHttpService.buscarLivroPorId(99L).block()).isNull();
+    }
+    
+    @Test
+    void percorreLivrosDaPaginaEmFluxo() throws Exception {
+        iniciar(0, 4);
+        
+        List<Long> ids = new ArrayList<>();
+        GutendxResponseCompleta pagina = gutendxHttpService
+                .percorrerLivrosAsync(gutendxHttpService.getUrlListagem(1), livro -> ids.add(livro.getId()))
+                .get();
+        
+        assertThat(ids).containsExactly(1513L, 1342L, 1524L);
+        assertThat(pagina.getTotalLivros()).isEqualTo(7);
+        assertThat(pagina.getProximaPagina()).isEqualTo(stub.getBaseUrl() + "/books/?page=2");
+        assertThat(pagina.getLivros()).isEmpty();
+        
+        GutendxResponseCompleta completa = gutendxHttpService.obterPagina(gutendxHttpService.getUrlListagem(1));
+        assertThat(completa.getLivros()).extracting(LivroCompletoDto::getId).containsExactly(1513L, 1342L, 1524L);
+        
+        assertThatThrownBy(() -> gutendxHttpService.obterPagina(stub.getBaseUrl() + "/books/?page=99"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("404");
+    }
+    
+    @Test
+    void leiturasEmFluxoAlemDasThreadsDoClienteNaoTravam() {
+        // Mais páginas em voo que threads no executor do HttpClient: a leitura bloqueante
+        // do corpo não pode ocupar as threads que entregam os bytes desse mesmo corpo
+        iniciar(0, 6);
+        executor.shutdownNow();
+        executor = Executors.newFixedThreadPool(2);
+        gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 6);
+        for (int pagina = 1; pagina <= 6; pagina++) {
+            stub.comResposta("/books/?page=grande-" + pagina, FixturesGutendx.pagina(2_000));
+        }
+        
+        List<CompletableFuture<GutendxResponseCompleta>> paginas = new ArrayList<>();
+        List<AtomicInteger> lidos = new ArrayList<>();
+        for (int pagina = 1; pagina <= 6; pagina++) {
+            AtomicInteger contador = new AtomicInteger();
+            lidos.add(contador);
+            paginas.add(gutendxHttpService.percorrerLivrosAsync(
+                stub.getBaseUrl() + "/books/?page=grande-" + pagina, livro -> contador.incrementAndGet()));
+        }
+        
+        assertThat(CompletableFuture.allOf(paginas.toArray(CompletableFuture[]::new)))
+                .succeedsWithin(Duration.ofSeconds(20));
+        assertThat(lidos).allSatisfy(contador -> assertThat(contador.get()).isEqualTo(2_000));
+        gutendxHttpService.encerrar();
+    }
+    
+    @Test
+    void percorreOCatalogoSoBaixandoPaginasComDemanda() throws Exception {
+        iniciar(0, 4);
+        
+        List<LivroCompletoDto> recebidos = new CopyOnWriteArrayList<>();
+        CountDownLatch primeiro = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(1);
+        BaseSubscriber<LivroCompletoDto> consumidor = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+            
+            @Override
+            protected void hookOnNext(LivroCompletoDto livro) {
+                recebidos.add(livro);
+                primeiro.countDown();
+            }
+            
+            @Override
+            protected void hookFinally(SignalType tipo) {
+                fim.countDown();
+            }
+        };
+        
+        gutendxHttpService.percorrerLivros(gutendxHttpService.getUrlListagem(1), 1).subscribe(consumidor);
+        assertThat(primeiro.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        
+        // Um livro pedido: a página corrente e no máximo uma à frente (a terceira não)
+        assertThat(recebidos).hasSize(1);
+        assertThat(stub.getTotalRequisicoes()).isEqualTo(2);
+        
+        consumidor.request(Long.MAX_VALUE);
+        assertThat(fim.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(recebidos).extracting(LivroCompletoDto::getId).startsWith(1513L, 1342L, 1524L).hasSize(9);
+        assertThat(stub.getTotalRequisicoes()).isEqualTo(3);
+        
+        // Quem para no meio da segunda página cancela a passada: no máximo uma página à frente
+        List<LivroCompletoDto> quatro = gutendxHttpService.percorrerLivros(gutendxHttpService.getUrlListagem(1), 1)
+                .take(4)
+                .collectList()
+                .block();
+        assertThat(quatro).hasSize(4);
+        assertThat(stub.getTotalRequisicoes()).isLessThanOrEqualTo(3 + 3);
+    }
+}
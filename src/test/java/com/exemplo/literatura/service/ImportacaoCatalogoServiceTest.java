@@ -0,0 +1,222 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.EstatisticasCatalogoDto;
+import com.exemplo.literatura.dto.ResultadoImportacaoDto;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.model.SincronizacaoCheckpoint;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacaoCatalogoServiceTest {
+    
+    private static final GutendxStubServer stub = GutendxStubServer.iniciar()
+            .comFixture("/books/?page=1", "gutendx/pagina-1.json")
+            .comFixture("/books/?page=2", "gutendx/pagina-2.json")
+            .comFixture("/books/?page=3", "gutendx/pagina-3.json");
+    
+    @DynamicPropertySource
+    static void configurarGutendx(DynamicPropertyRegistry registry) {
+        registry.add("gutendx.base-url", stub::getBaseUrl);
+    }
+    
+    @AfterAll
+    static void pararStub() {
+        stub.close();
+    }
+    
+    @Autowired
+    private ImportacaoCatalogoService importacaoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private IndiceTextoCatalogo indiceTexto;
+    
+    @Autowired
+    private EstatisticasCatalogoService estatisticasService;
+    
+    @Autowired
+    private ConversaoDadosService conversaoService;
+    
+    @BeforeEach
+    void limparCatalogo() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        indiceTexto.reconstruir();
+        estatisticasService.recalcular();
+    }
+    
+    @Test
+    void importaTodasAsPaginasSeguindoLinksNext() {
+        ResultadoImportacaoDto resultado = importacaoService.importarCatalogo(null);
+        
+        assertThat(resultado.isSucesso()).isTrue();
+        assertThat(resultado.getPaginasProcessadas()).isEqualTo(3);
+        assertThat(resultado.getLivrosInseridos()).isEqualTo(7);
+        assertThat(resultado.getAutoresInseridos()).isEqualTo(6);
+        assertThat(resultado.getLivrosIgnorados()).isEqualTo(2);
+        
+        assertThat(livroRepository.count()).isEqualTo(7);
+        assertThat(autorRepository.count()).isEqualTo(6);
+        assertThat(livroRepository.findByGutenbergId(55752L))
+                .hasValueSatisfying(livro -> {
+                    assertThat(livro.getIdioma()).isEqualTo("pt");
+                    assertThat(livro.getAutor().getNome()).isEqualTo("Machado de Assis");
+                });
+        assertThat(livroRepository.findByAutorNomeContainingIgnoreCase("shakespeare")).hasSize(2);
+    }
+    
+    @Test
+    void importacaoESincronizacaoAtualizamOIndiceDeTexto() {
+        importacaoService.importarCatalogo(null);
+        
+        assertThat(catalogoService.buscarLivrosPorTituloLocal("dom casm"))
+                .extracting(Livro::getGutenbergId).containsExactly(55752L);
+        assertThat(catalogoService.buscarLivrosPorAutorLocal("SHAKESPEARE")).hasSize(2);
+        assertThat(catalogoService.buscarNoCatalogo("machado", 10).total()).isEqualTo(1);
+        
+        stub.comFixture("/books/?page=3", "gutendx/pagina-3-atualizada.json");
+        try {
+            importacaoService.sincronizarCatalogo(null);
+        } finally {
+            stub.comFixture("/books/?page=3", "gutendx/pagina-3.json");
+        }
+        assertThat(catalogoService.buscarLivrosPorTituloLocal("comrade"))
+                .extracting(Livro::getGutenbergId).containsExactly(76L);
+        
+        // O índice remontado do banco dá o mesmo resultado
+        indiceTexto.reconstruir();
+        assertThat(catalogoService.buscarLivrosPorTituloLocal("comrade"))
+                .extracting(Livro::getGutenbergId).containsExactly(76L);
+    }
+    
+    @Test
+    void estatisticasAgregadasAcompanhamImportacaoESincronizacao() throws IOException {
+        importacaoService.importarCatalogo(null);
+        importacaoService.importarCatalogo(null);
+        
+        EstatisticasCatalogoDto estatisticas = catalogoService.obterEstatisticas();
+        assertThat(estatisticas.getTotalLivros()).isEqualTo(7);
+        assertThat(estatisticas.getTotalAutores()).isEqualTo(6);
+        assertThat(estatisticas.getAutoresFalecidos()).isEqualTo(6);
+        assertThat(estatisticas.getLivrosPorIdioma()).containsExactly(Map.entry("en", 6L), Map.entry("pt", 1L));
+        assertThat(estatisticas.getAutoresPorSeculo()).containsExactly(
+            Map.entry(16, 1L), Map.entry(18, 1L), Map.entry(19, 4L));
+        
+        // Huckleberry Finn (76) muda de idioma: sai de "en" e entra em "fr"
+        String pagina;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("gutendx/pagina-3.json")) {
+            pagina = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String alterada = pagina.replaceFirst("(\"id\":\\s*76,[\\s\\S]*?\"languages\":\\s*\\[)\"en\"", "$1\"fr\"");
+        assertThat(alterada).isNotEqualTo(pagina);
+        catalogoService.sincronizarLote(3, conversaoService.converterResposta(alterada));
+        
+        estatisticas = catalogoService.obterEstatisticas();
+        assertThat(estatisticas.getLivrosPorIdioma())
+                .containsExactly(Map.entry("en", 5L), Map.entry("fr", 1L), Map.entry("pt", 1L));
+        
+        // Os contadores incrementais batem com o recálculo a partir das tabelas
+        assertThat(estatisticas).usingRecursiveComparison().isEqualTo(estatisticasService.recalcular());
+    }
+    
+    @Test
+    void reimportacaoNaoDuplicaLivrosNemAutores() {
+        importacaoService.importarCatalogo(null);
+        ResultadoImportacaoDto segunda = importacaoService.importarCatalogo(null);
+        
+        assertThat(segunda.getLivrosInseridos()).isZero();
+        assertThat(segunda.getAutoresInseridos()).isZero();
+        assertThat(segunda.getLivrosIgnorados()).isEqualTo(9);
+        assertThat(livroRepository.count()).isEqualTo(7);
+        assertThat(autorRepository.count()).isEqualTo(6);
+    }
+    
+    @Test
+    void respeitaLimiteDePaginas() {
+        ResultadoImportacaoDto resultado = importacaoService.importarCatalogo(2, 1);
+        
+        assertThat(resultado.getPaginasProcessadas()).isEqualTo(1);
+        assertThat(resultado.getLivrosInseridos()).isEqualTo(3);
+        assertThat(livroRepository.findByGutenbergId(1342L)).isEmpty();
+    }
+    
+    @Test
+    void sincronizacaoInterrompidaRetomaDoCheckpoint() {
+        ResultadoImportacaoDto primeira = importacaoService.sincronizarCatalogo(1);
+        
+        assertThat(primeira.getLivrosInseridos()).isEqualTo(3);
+        SincronizacaoCheckpoint checkpoint = catalogoService.obterProgressoSincronizacao().orElseThrow();
+        assertThat(checkpoint.getUltimaPaginaConcluida()).isEqualTo(1);
+        assertThat(checkpoint.getConcluida()).isFalse();
+        
+        ResultadoImportacaoDto retomada = importacaoService.sincronizarCatalogo(null);
+        
+        assertThat(retomada.getPaginasProcessadas()).isEqualTo(2);
+        assertThat(retomada.getLivrosInseridos()).isEqualTo(4);
+        checkpoint = catalogoService.obterProgressoSincronizacao().orElseThrow();
+        assertThat(checkpoint.getUltimaPaginaConcluida()).isEqualTo(3);
+        assertThat(checkpoint.getConcluida()).isTrue();
+        assertThat(checkpoint.getLivrosInseridos()).isEqualTo(7);
+        assertThat(livroRepository.count()).isEqualTo(7);
+    }
+    
+    @Test
+    void novaSincronizacaoIgnoraLivrosSemAlteracaoEAtualizaOsAlterados() {
+        importacaoService.sincronizarCatalogo(null);
+        
+        ResultadoImportacaoDto semMudancas = importacaoService.sincronizarCatalogo(null);
+        assertThat(semMudancas.getPaginasProcessadas()).isEqualTo(3);
+        assertThat(semMudancas.getLivrosInseridos()).isZero();
+        assertThat(semMudancas.getLivrosAtualizados()).isZero();
+        assertThat(semMudancas.getLivrosIgnorados()).isEqualTo(9);
+        
+        stub.comFixture("/books/?page=3", "gutendx/pagina-3-atualizada.json");
+        try {
+            ResultadoImportacaoDto comMudancas = importacaoService.sincronizarCatalogo(null);
+            assertThat(comMudancas.getLivrosAtualizados()).isEqualTo(2);
+            assertThat(comMudancas.getLivrosInseridos()).isZero();
+        } finally {
+            stub.comFixture("/books/?page=3", "gutendx/pagina-3.json");
+        }
+        
+        assertThat(livroRepository.findByGutenbergId(2701L))
+                .hasValueSatisfying(livro -> assertThat(livro.getNumeroDownloads()).isEqualTo(18500));
+        assertThat(livroRepository.findByGutenbergId(76L))
+                .hasValueSatisfying(livro -> assertThat(livro.getTitulo()).endsWith("(Tom Sawyer's Comrade)"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.service.IndiceTextoCatalogo.Campo;
+import com.exemplo.literatura.service.IndiceTextoCatalogo.Documento;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTextoCatalogoTest {
+    
+    private final IndiceTextoCatalogo indice = new IndiceTextoCatalogo(null, true);
+    
+    private List<Long> ids(String consulta, Campo... campos) {
+        return indice.buscar(consulta, 10, campos).documentos().stream().map(Documento::id).toList();
+    }
+    
+    private void indexarExemplos() {
+        indice.indexar(List.of(
+            new Documento(1L, 55752L, "Dom Casmurro", "Machado de Assis", "pt", 800),
+            new Documento(2L, 54829L, "Memórias Póstumas de Brás Cubas", "Machado de Assis", "pt", 1200),
+            new Documento(3L, 1524L, "Hamlet, Prince of Denmark", "Shakespeare, William", "en", 30000),
+            new Documento(4L, 1513L, "Romeo and Juliet", "Shakespeare, William", "en", 94163,
+                List.of("Tragedies", "Verona (Italy) -- Drama"))));
+    }
+    
+    @Test
+    void tokenizaSemAcentosNemPontuacao() {
+        assertThat(IndiceTextoCatalogo.tokenizar("Memórias Póstumas de Brás Cubas"))
+                .containsExactly("memorias", "postumas", "de", "bras", "cubas");
+        assertThat(IndiceTextoCatalogo.tokenizar("Moby Dick; Or, The Whale"))
+                .containsExactly("moby", "dick", "or", "the", "whale");
+        assertThat(IndiceTextoCatalogo.tokenizar("Ação & Coração")).containsExactly("acao", "coracao");
+    }
+    
+    @Test
+    void buscaPorPalavrasComAcentosEPrefixo() {
+        indexarExemplos();
+        
+        assertThat(ids("dom casm")).containsExactly(1L);
+        assertThat(ids("DÔM CÁSMURRO")).containsExactly(1L);
+        assertThat(ids("memorias postumas")).containsExactly(2L);
+        assertThat(ids("bras*  cubas")).containsExactly(2L);
+        assertThat(ids("machado", Campo.AUTOR)).containsExactly(2L, 1L);
+        assertThat(ids("machado", Campo.TITULO)).isEmpty();
+        assertThat(ids("verona", Campo.ASSUNTO)).containsExactly(4L);
+        // Palavras que não são a última precisam bater inteiras
+        assertThat(ids("dom cas")).containsExactly(1L);
+        assertThat(ids("do casmurro")).isEmpty();
+    }
+    
+    @Test
+    void resultadoVemPelosMaisBaixadosComTotalSemLimite() {
+        indexarExemplos();
+        
+        IndiceTextoCatalogo.Resultado resultado = indice.buscar("shakespeare", 1);
+        
+        assertThat(resultado.total()).isEqualTo(2);
+        assertThat(resultado.documentos()).extracting(Documento::id).containsExactly(4L);
+    }
+    
+    @Test
+    void atualizacaoSubstituiTermosAntigos() {
+        indexarExemplos();
+        
+        indice.atualizarPorGutenbergId(List.of(
+            new Documento(null, 1524L, "The Tragedy of Hamlet", "Shakespeare, William", "en", 31000)));
+        
+        assertThat(ids("denmark")).isEmpty();
+        assertThat(ids("tragedy hamlet")).containsExactly(3L);
+        assertThat(indice.getEstatisticas()).containsEntry("livros", 4);
+        
+        // Outro ID com o mesmo Gutenberg ID substitui o registro antigo
+        indice.indexar(List.of(new Documento(9L, 55752L, "Dom Casmurro", "Machado de Assis", "pt", 810)));
+        assertThat(ids("casmurro")).containsExactly(9L);
+    }
+    
+    @Test
+    void dentroDeTransacaoSoIndexaDepoisDoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indexarExemplos();
+            assertThat(ids("casmurro")).isEmpty();
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(ids("casmurro")).containsExactly(1L);
+    }
+}
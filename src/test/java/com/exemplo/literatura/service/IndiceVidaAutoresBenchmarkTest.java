@@ -0,0 +1,136 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara as consultas JPQL de autores vivos/por século com o índice de períodos
+ * de vida, sobre autores sintéticos gravados direto por JDBC
+ * Desligado por padrão. Para rodar no H2 dos testes:
+ *   mvn test -Dtest=IndiceVidaAutoresBenchmarkTest -Dbenchmark=true [-Dbenchmark.autores=100000]
+ * (mesmas propriedades de InsercaoEmLoteBenchmarkTest para apontar para um PostgreSQL)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IndiceVidaAutoresBenchmarkTest {
+    
+    private static final int QUANTIDADE_AUTORES = Integer.getInteger("benchmark.autores", 100_000);
+    private static final int CONSULTAS = 200;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private IndiceVidaAutores indiceVida;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void popular() {
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        
+        // Nascimentos concentrados entre 1700 e 1950, 5% vivos e 2% sem ano de nascimento
+        Random aleatorio = new Random(7);
+        List<Object[]> linhas = new ArrayList<>(QUANTIDADE_AUTORES);
+        for (int i = 0; i < QUANTIDADE_AUTORES; i++) {
+            int nascimento = aleatorio.nextInt(10) == 0
+                    ? -500 + aleatorio.nextInt(2200)
+                    : 1700 + (int) Math.min(250, Math.abs(aleatorio.nextGaussian() * 90));
+            boolean vivo = nascimento > 1930 && aleatorio.nextInt(2) == 0;
+            linhas.add(new Object[] {
+                (long) i + 1, "autor sintetico " + i, "Autor Sintético " + i,
+                aleatorio.nextInt(50) == 0 ? null : nascimento,
+                vivo ? null : nascimento + 25 + aleatorio.nextInt(65)
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO autores (id, nome_normalizado, nome, ano_nascimento, ano_morte) VALUES (?, ?, ?, ?, ?)",
+            linhas);
+        indiceVida.reconstruir();
+    }
+    
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM autores");
+        indiceVida.reconstruir();
+    }
+    
+    @Test
+    void compararJpqlComIndice() {
+        Random aleatorio = new Random(11);
+        int[] anos = new int[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            anos[i] = 1500 + aleatorio.nextInt(520);
+        }
+        
+        // Mesmo resultado pelos dois caminhos
+        for (int ano : new int[] {1600, 1850, 2020}) {
+            assertThat(indiceVida.vivosNoAno(ano)).containsExactlyInAnyOrderElementsOf(
+                autorRepository.findAutoresVivosNoAno(ano).stream().map(a -> a.getId()).toList());
+        }
+        
+        medir("vivos no ano (JPQL, entidades)", i -> autorRepository.findAutoresVivosNoAno(anos[i]).size());
+        medir("vivos no ano (JPQL, só IDs)", i -> jdbcTemplate.queryForList(
+            "SELECT id FROM autores WHERE ano_nascimento <= ? AND (ano_morte IS NULL OR ano_morte >= ?)",
+            Long.class, anos[i], anos[i]).size());
+        medir("vivos no ano (índice, IDs)", i -> indiceVida.vivosNoAno(anos[i]).size());
+        medir("vivos entre ano e ano+10 (índice)", i -> indiceVida.vivosNoPeriodo(anos[i], anos[i] + 10).size());
+        
+        int[][] seculos = {{1501, 1600}, {1601, 1700}, {1701, 1800}, {1801, 1900}, {1901, 2000}, {2001, 2100}};
+        medir("6 séculos (JPQL, uma consulta por século)", i -> {
+            int total = 0;
+            for (int[] seculo : seculos) {
+                total += autorRepository.findAutoresPorSeculo(seculo[0], seculo[1]).size();
+            }
+            return total;
+        });
+        medir("histograma por século (índice)", i -> {
+            Map<Integer, Long> histograma = indiceVida.histogramaPorSeculo();
+            return histograma.size();
+        });
+    }
+    
+    private void medir(String descricao, IntUnaryOperator consulta) {
+        int repeticoes = descricao.contains("JPQL") ? CONSULTAS / 10 : CONSULTAS;
+        long soma = 0;
+        // Aquecimento fora da medição
+        for (int i = 0; i < repeticoes; i++) {
+            soma += consulta.applyAsInt(i);
+        }
+        
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            soma += consulta.applyAsInt(i);
+        }
+        double microssegundos = (System.nanoTime() - inicio) / 1e3 / repeticoes;
+        
+        System.out.printf("📊 %d autores | %-45s %10.1f µs/consulta (média de %d resultados)%n",
+            QUANTIDADE_AUTORES, descricao, microssegundos, soma / (2L * repeticoes));
+    }
+}
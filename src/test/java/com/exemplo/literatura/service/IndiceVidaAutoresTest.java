@@ -0,0 +1,106 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.service.IndiceVidaAutores.Periodo;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceVidaAutoresTest {
+    
+    private final IndiceVidaAutores indice = new IndiceVidaAutores(null, true);
+    
+    @Test
+    void mesmaRegraDaConsultaJpql() {
+        indice.registrar(List.of(
+            new Periodo(1L, 1839, 1908),   // Machado de Assis
+            new Periodo(2L, 1564, 1616),   // Shakespeare
+            new Periodo(3L, 1947, null),   // vivo
+            new Periodo(4L, null, 1900),   // sem nascimento: nunca aparece
+            new Periodo(5L, -384, -322)));  // Aristóteles
+        
+        assertThat(indice.vivosNoAno(1900)).containsExactly(1L);
+        assertThat(indice.vivosNoAno(1908)).containsExactly(1L);
+        assertThat(indice.vivosNoAno(1909)).isEmpty();
+        assertThat(indice.vivosNoAno(2024)).containsExactly(3L);
+        assertThat(indice.vivosNoAno(-350)).containsExactly(5L);
+        assertThat(indice.vivosNoPeriodo(1600, 1840)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(indice.contarNascidosEntre(1801, 1900)).isEqualTo(1);
+        assertThat(indice.histogramaPorSeculo()).containsExactly(
+            Map.entry(-4, 1L), Map.entry(16, 1L), Map.entry(19, 1L), Map.entry(20, 1L));
+    }
+    
+    @Test
+    void seculosComecamNoAnoUm() {
+        assertThat(IndiceVidaAutores.seculo(1600)).isEqualTo(16);
+        assertThat(IndiceVidaAutores.seculo(1601)).isEqualTo(17);
+        assertThat(IndiceVidaAutores.seculo(1)).isEqualTo(1);
+        assertThat(IndiceVidaAutores.seculo(0)).isEqualTo(-1);
+        assertThat(IndiceVidaAutores.seculo(-100)).isEqualTo(-1);
+        assertThat(IndiceVidaAutores.seculo(-101)).isEqualTo(-2);
+    }
+    
+    @Test
+    void consultasEquivalemAVarreduraCompletaAntesEDepoisDeRemontar() {
+        Random aleatorio = new Random(42);
+        List<Periodo> autores = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            int nascimento = -300 + aleatorio.nextInt(2330);
+            Integer morte = aleatorio.nextInt(10) == 0 ? null : nascimento + aleatorio.nextInt(100);
+            autores.add(new Periodo(id, aleatorio.nextInt(50) == 0 ? null : nascimento, morte));
+        }
+        
+        // Em lotes pequenos: parte fica na árvore dos pendentes, parte já na principal remontada
+        for (int i = 0; i < autores.size(); i += 100) {
+            indice.registrar(autores.subList(i, i + 100));
+            conferir(autores.subList(0, i + 100), aleatorio);
+        }
+        assertThat(indice.getTotalAutores()).isEqualTo((int) autores.stream().filter(a -> a.anoNascimento() != null).count());
+        
+        // Registrar de novo não duplica
+        indice.registrar(autores.subList(0, 500));
+        assertThat(indice.vivosNoPeriodo(Integer.MIN_VALUE, Integer.MAX_VALUE)).doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void dentroDeTransacaoSoEntraDepoisDoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.registrar(List.of(new Periodo(1L, 1800, 1850)));
+            assertThat(indice.vivosNoAno(1820)).isEmpty();
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(indice.vivosNoAno(1820)).containsExactly(1L);
+    }
+    
+    private void conferir(List<Periodo> autores, Random aleatorio) {
+        List<Periodo> registrados = autores.stream().filter(a -> a.anoNascimento() != null).toList();
+        
+        for (int consulta = 0; consulta < 20; consulta++) {
+            int inicio = -350 + aleatorio.nextInt(2400);
+            int fim = inicio + (consulta % 2 == 0 ? 0 : aleatorio.nextInt(200));
+            List<Long> esperado = registrados.stream()
+                    .filter(a -> a.anoNascimento() <= fim && (a.anoMorte() == null || a.anoMorte() >= inicio))
+                    .map(Periodo::id)
+                    .toList();
+            assertThat(indice.vivosNoPeriodo(inicio, fim)).as("%d..%d", inicio, fim)
+                    .containsExactlyInAnyOrderElementsOf(esperado);
+        }
+        
+        Map<Integer, Long> histograma = new TreeMap<>();
+        for (Periodo autor : registrados) {
+            histograma.merge(IndiceVidaAutores.seculo(autor.anoNascimento()), 1L, Long::sum);
+        }
+        assertThat(indice.histogramaPorSeculo()).containsExactlyEntriesOf(histograma);
+    }
+}
@@ -0,0 +1,111 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a vazão de INSERTs de livros: um save() por linha contra a gravação em lote
+ * Desligado por padrão. Para rodar no H2 dos testes:
+ *   mvn test -Dtest=InsercaoEmLoteBenchmarkTest -Dbenchmark=true
+ * Para rodar num PostgreSQL local, sobrescrever a conexão:
+ *   -Dspring.datasource.url=jdbc:postgresql://localhost:5432/literatura
+ *   -Dspring.datasource.username=... -Dspring.datasource.password=...
+ *   -Dspring.datasource.driver-class-name=org.postgresql.Driver
+ *   -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsercaoEmLoteBenchmarkTest {
+    
+    private static final int QUANTIDADE_LIVROS = Integer.getInteger("benchmark.livros", 5000);
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private Autor autor;
+    
+    @BeforeEach
+    void limpar() {
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        autor = autorRepository.save(new Autor("Autor de Benchmark", 1800, 1900));
+    }
+    
+    @Test
+    void compararSaveUnitarioComGravacaoEmLote() {
+        // Aquecimento (JIT e pool de conexões) fora da medição
+        gravarUmPorUm(gerarLivros(500, 0));
+        gravarEmLote(gerarLivros(500, 500));
+        livroRepository.deleteAll();
+        
+        long inicioUnitario = System.nanoTime();
+        gravarUmPorUm(gerarLivros(QUANTIDADE_LIVROS, 1_000));
+        double segundosUnitario = (System.nanoTime() - inicioUnitario) / 1e9;
+        
+        long inicioLote = System.nanoTime();
+        gravarEmLote(gerarLivros(QUANTIDADE_LIVROS, 1_000 + QUANTIDADE_LIVROS));
+        double segundosLote = (System.nanoTime() - inicioLote) / 1e9;
+        
+        System.out.printf("📊 %d livros | save() por linha: %.0f linhas/s | em lote: %.0f linhas/s | %.1fx%n",
+            QUANTIDADE_LIVROS, QUANTIDADE_LIVROS / segundosUnitario, QUANTIDADE_LIVROS / segundosLote,
+            segundosUnitario / segundosLote);
+        
+        assertThat(livroRepository.count()).isEqualTo(2L * QUANTIDADE_LIVROS);
+    }
+    
+    /**
+     * Linha de base: cada livro gravado e descarregado isoladamente, como em
+     * buscarEAdicionarLivroPorTitulo
+     */
+    private void gravarUmPorUm(List<Livro> livros) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Autor autorGerenciado = autorRepository.findById(autor.getId()).orElseThrow();
+            for (Livro livro : livros) {
+                livro.setAutor(autorGerenciado);
+                livroRepository.saveAndFlush(livro);
+            }
+        });
+    }
+    
+    private void gravarEmLote(List<Livro> livros) {
+        transactionTemplate.executeWithoutResult(status -> catalogoService.salvarLivrosEmLote(livros));
+    }
+    
+    private List<Livro> gerarLivros(int quantidade, long primeiroGutenbergId) {
+        List<Livro> livros = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Livro livro = new Livro("Livro " + (primeiroGutenbergId + i), autor,
+                i % 3 == 0 ? "pt" : "en", i, primeiroGutenbergId + i);
+            livros.add(livro);
+        }
+        return livros;
+    }
+}
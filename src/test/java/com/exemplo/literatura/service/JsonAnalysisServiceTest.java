@@ -0,0 +1,94 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.service.JsonAnalysisService.Analise;
+import com.exemplo.literatura.service.JsonAnalysisService.ResultadoAnalise;
+import com.exemplo.literatura.support.AnaliseJsonEmArvore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonAnalysisServiceTest {
+    
+    private static final String ANINHADO = """
+        {"nome": "raiz", "vazio": "", "nulo": null, "lista": [],
+         "filhos": [{"autores": [{"nome": "A", "anos": [1, 2.5, true]}], "nome": "B", "extra": {}},
+                    {"nome": null, "sub": {"nome": "C", "outro": {"nome": "D"}}}],
+         "numero": 7, "ativo": false}
+        """;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonAnalysisService analiseService = new JsonAnalysisService(objectMapper);
+    private final AnaliseJsonEmArvore emArvore = new AnaliseJsonEmArvore(objectMapper);
+    
+    private static String lerFixture(String recurso) throws IOException {
+        try (InputStream in = JsonAnalysisServiceTest.class.getClassLoader().getResourceAsStream(recurso)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"gutendx/pagina-1.json", "gutendx/pagina-2.json", "gutendx/pagina-3.json"})
+    void passadaUnicaEquivaleAAnaliseEmArvoreNasPaginasGutendx(String fixture) throws IOException {
+        assertEquivalente(lerFixture(fixture), "title", "name", "languages");
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {ANINHADO, "[{\"nome\": \"x\"}, [], [[1], {}]]", "[]", "\"texto\"", "42", "null", "  "})
+    void passadaUnicaEquivaleAAnaliseEmArvoreEmCasosDeBorda(String json) {
+        assertEquivalente(json, "nome", "anos", "outro");
+    }
+    
+    @Test
+    void jsonInvalidoTemOMesmoFormatoDeErro() {
+        String invalido = "{\"title\": [1, 2}";
+        
+        ResultadoAnalise resultado = analiseService.analisar(invalido, EnumSet.allOf(Analise.class), "title");
+        
+        assertThat(resultado.isValido()).isFalse();
+        assertThat(resultado.getEstrutura()).containsOnlyKeys("erro");
+        assertThat(resultado.getTiposDados()).isEqualTo(emArvore.contarTiposDados(invalido));
+        assertThat(resultado.getPropriedadesVazias()).hasSize(1).first().asString().startsWith("Erro: ");
+        assertThat(resultado.getAnaliseArrays()).containsOnlyKeys("erro");
+        assertThat(resultado.getValores("title")).isEmpty();
+        assertThat(resultado.getValidacao())
+                .containsEntry("valido", false)
+                .containsEntry("tipoErro", emArvore.validarJson(invalido).get("tipoErro"));
+    }
+    
+    @Test
+    void soEntregaAnalisesEPropriedadesPedidas() {
+        ResultadoAnalise resultado = analiseService.analisar(ANINHADO, EnumSet.of(Analise.TIPOS_DADOS), "nome");
+        
+        assertThat(resultado.getValores("nome")).containsExactly("raiz", "B", "A", "C", "D");
+        assertThatThrownBy(resultado::getAnaliseArrays).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> resultado.getValores("title")).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private void assertEquivalente(String json, String... propriedades) {
+        ResultadoAnalise resultado = analiseService.analisar(json, EnumSet.allOf(Analise.class), propriedades);
+        
+        assertThat(resultado.getEstrutura()).isEqualTo(emArvore.analisarEstrutura(json));
+        assertThat(resultado.getTiposDados()).isEqualTo(emArvore.contarTiposDados(json));
+        assertThat(resultado.getPropriedadesVazias()).isEqualTo(emArvore.encontrarPropriedadesVazias(json));
+        assertThat(resultado.getAnaliseArrays()).isEqualTo(emArvore.analisarArrays(json));
+        assertThat(resultado.getValidacao()).isEqualTo(emArvore.validarJson(json));
+        for (String propriedade : propriedades) {
+            assertThat(resultado.getValores(propriedade))
+                    .as(propriedade)
+                    .isEqualTo(emArvore.extrairValoresPropriedade(json, propriedade));
+        }
+        
+        // Os métodos individuais continuam com o mesmo resultado
+        assertThat(analiseService.analisarArrays(json)).isEqualTo(emArvore.analisarArrays(json));
+        assertThat(analiseService.encontrarPropriedadesVazias(json)).isEqualTo(emArvore.encontrarPropriedadesVazias(json));
+    }
+}
@@ -0,0 +1,199 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a listagem por cursor e os mais baixados por idioma via JPA com o modelo de
+ * leitura mapeado em memória, num catálogo grande (100 mil livros por padrão, carregados
+ * de um snapshot): tempo, bytes alocados por requisição e coletas do GC
+ * Desligado por padrão. Para rodar no H2 dos testes:
+ *   mvn test -Dtest=LeituraMapeadaBenchmarkTest -Dbenchmark=true [-Dbenchmark.livros=100000]
+ */
+@SpringBootTest(properties = {
+    "literatura.leitura-mapeada.habilitada=true",
+    "literatura.leitura-mapeada.diretorio=target/leitura-mapeada-benchmark"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LeituraMapeadaBenchmarkTest {
+    
+    private static final int QUANTIDADE_LIVROS = Integer.getInteger("benchmark.livros", 100_000);
+    private static final int QUANTIDADE_AUTORES = QUANTIDADE_LIVROS / 5;
+    private static final String[] IDIOMAS = {"en", "fr", "de", "pt", "es", "it", "nl", "fi", "la", "zh"};
+    private static final int REQUISICOES = 2_000;
+    private static final int TAMANHO_PAGINA = 50;
+    
+    @TempDir
+    Path diretorio;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LeituraMapeadaCatalogo leituraMapeada;
+    
+    @Autowired
+    private SnapshotCatalogoService snapshotService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @BeforeEach
+    void popular() throws IOException {
+        limpar();
+        
+        SnapshotCatalogo.Gravador gravador = new SnapshotCatalogo.Gravador();
+        for (int i = 0; i < QUANTIDADE_AUTORES; i++) {
+            gravador.adicionarAutor("Autor de Benchmark " + i, 1700 + i % 300, null);
+        }
+        for (int i = 0; i < QUANTIDADE_LIVROS; i++) {
+            gravador.adicionarLivro(1_000_000L + i, "Livro de Benchmark número " + i + " — volume " + (i % 12),
+                i % 50 == 0 ? -1 : i % QUANTIDADE_AUTORES, IDIOMAS[i % IDIOMAS.length],
+                i % 40 == 0 ? null : (i * 37) % 100_000, null);
+        }
+        Path arquivo = diretorio.resolve("catalogo.snapshot");
+        gravador.gravar(arquivo);
+        snapshotService.carregar(arquivo);
+        leituraMapeada.reconstruir();
+    }
+    
+    @AfterEach
+    void limpar() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        leituraMapeada.reconstruir();
+    }
+    
+    @Test
+    void jpaContraModeloMapeado() {
+        // Aquecimento dos dois caminhos fora da medição
+        leituraMapeada.descartar();
+        executar(REQUISICOES / 10);
+        leituraMapeada.reconstruir();
+        executar(REQUISICOES / 10);
+        
+        leituraMapeada.descartar();
+        Medicao jpa = medir();
+        leituraMapeada.reconstruir();
+        Medicao mapeado = medir();
+        
+        imprimir("JPA", jpa);
+        imprimir("mapeado", mapeado);
+        System.out.printf("📊 Modelo mapeado: %d KB fora do heap | %s%n",
+            leituraMapeada.getBytesMapeados() / 1024, leituraMapeada.getEstatisticas());
+        
+        assertThat(mapeado.itens()).isEqualTo(jpa.itens());
+    }
+    
+    @Test
+    void gravacoesDeUmLivroNaoCopiamAsOrdens() {
+        // Fora de transação a gravação vale na hora; o modelo é remontado do banco no fim
+        int gravacoes = 5_000;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < gravacoes; i++) {
+            leituraMapeada.gravar(List.of(new IndiceTextoCatalogo.Documento(50_000_000L + i % 2_500, 9_000_000L + i % 2_500,
+                "Livro Gravado " + i, "Autor de Benchmark " + i % 100, IDIOMAS[i % IDIOMAS.length], 1_000_000 + i)));
+        }
+        double msGravacoes = (System.nanoTime() - inicio) / 1e6;
+        
+        System.out.printf("📊 Modelo mapeado com %d livros: %d gravações de um livro em %.0f ms (%.3f ms/gravação)%n",
+            QUANTIDADE_LIVROS, gravacoes, msGravacoes, msGravacoes / gravacoes);
+        
+        assertThat(leituraMapeada.getEstatisticas()).containsEntry("livros", QUANTIDADE_LIVROS + 2_500);
+        assertThat(catalogoService.listarLivrosMaisPopulares(null, 1)).singleElement()
+                .satisfies(livro -> assertThat(livro.getDownloads()).isEqualTo(1_000_000 + gravacoes - 1));
+    }
+    
+    private record Medicao(long itens, double milissegundos, long bytesAlocados, long coletas, long msColetas) {}
+    
+    private Medicao medir() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long coletasAntes = coletas();
+        long msColetasAntes = msColetas();
+        long alocadosAntes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        
+        long itens = executar(REQUISICOES);
+        
+        return new Medicao(itens, (System.nanoTime() - inicio) / 1e6,
+            threads.getCurrentThreadAllocatedBytes() - alocadosAntes,
+            coletas() - coletasAntes, msColetas() - msColetasAntes);
+    }
+    
+    /**
+     * Alterna páginas por cursor (título e downloads, a partir de posições variadas)
+     * e os mais baixados de um idioma
+     */
+    private long executar(int requisicoes) {
+        long itens = 0;
+        String cursorTitulo = null;
+        String cursorDownloads = null;
+        for (int i = 0; i < requisicoes; i++) {
+            switch (i % 3) {
+                case 0 -> {
+                    PaginaCursorDto<LivroSimplificadoDto> pagina = catalogoService.listarLivrosPorCursor(
+                        CatalogoService.OrdemLivros.TITULO, cursorTitulo, TAMANHO_PAGINA);
+                    itens += pagina.getItens().size();
+                    cursorTitulo = pagina.getProximoCursor();
+                }
+                case 1 -> {
+                    PaginaCursorDto<LivroSimplificadoDto> pagina = catalogoService.listarLivrosPorCursor(
+                        CatalogoService.OrdemLivros.DOWNLOADS, cursorDownloads, TAMANHO_PAGINA);
+                    itens += pagina.getItens().size();
+                    cursorDownloads = pagina.getProximoCursor();
+                }
+                default -> itens += catalogoService.listarLivrosMaisPopulares(
+                    IDIOMAS[i % IDIOMAS.length], TAMANHO_PAGINA).size();
+            }
+        }
+        return itens;
+    }
+    
+    private static void imprimir(String caminho, Medicao medicao) {
+        System.out.printf("📊 %s: %d requisições em %.0f ms (%.3f ms/req) | %.1f KB alocados/req | " +
+                          "GC: %d coleta(s), %d ms%n",
+            caminho, REQUISICOES, medicao.milissegundos(), medicao.milissegundos() / REQUISICOES,
+            medicao.bytesAlocados() / 1024.0 / REQUISICOES, medicao.coletas(), medicao.msColetas());
+    }
+    
+    private static long coletas() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+    
+    private static long msColetas() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,174 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.GutendxResponseCompleta;
+import com.exemplo.literatura.dto.LivroCompletoDto;
+import com.exemplo.literatura.dto.LivroSimplificadoDto;
+import com.exemplo.literatura.dto.PaginaCursorDto;
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import com.exemplo.literatura.support.ContadorSql;
+import com.exemplo.literatura.support.FixturesGutendx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "literatura.leitura-mapeada.habilitada=true",
+    "literatura.leitura-mapeada.diretorio=target/leitura-mapeada-teste",
+    // Poucos recentes: as gravações do teste passam pela consolidação e pelas duas partes das ordens
+    "literatura.leitura-mapeada.maximo-recentes=4"
+})
+@ActiveProfiles("test")
+class LeituraMapeadaCatalogoTest {
+    
+    private static final int AUTORES = 15;
+    
+    @Autowired
+    private LeituraMapeadaCatalogo leituraMapeada;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private ConversaoDadosService conversaoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void popularCatalogo() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        
+        // Títulos e downloads repetidos (desempate pelo ID), downloads nulos e textos com acentos
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Autor> autores = new ArrayList<>();
+            for (int i = 0; i < AUTORES; i++) {
+                autores.add(new Autor("Autor Mapeado " + i + (i % 3 == 0 ? " Ávila" : ""), 1800 + i, null));
+            }
+            autorRepository.saveAll(autores);
+            
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < AUTORES * 4; i++) {
+                String titulo = i % 5 == 0 ? "Título Repetido" : "Livro Mapeado " + (char) ('A' + i % 26) + i;
+                livros.add(new Livro(titulo, i % 11 == 0 ? null : autores.get(i % AUTORES),
+                    List.of("pt", "en", "fr").get(i % 3), i % 9 == 0 ? null : 100 * (i % 6), 500_000L + i));
+            }
+            catalogoService.salvarLivrosEmLote(livros);
+        });
+        
+        leituraMapeada.reconstruir();
+    }
+    
+    @AfterEach
+    void remontarModelo() {
+        if (!leituraMapeada.isPronto()) {
+            leituraMapeada.reconstruir();
+        }
+    }
+    
+    @Test
+    void listagensIguaisAsDoBancoSemNenhumaConsulta() {
+        List<List<String>> mapeadas = new ArrayList<>();
+        List<String> sql = ContadorSql.capturar(() -> mapeadas.addAll(listagens()));
+        assertThat(sql).isEmpty();
+        
+        leituraMapeada.descartar();
+        assertThat(mapeadas).isEqualTo(listagens());
+        assertThat(mapeadas.get(0)).hasSize(AUTORES * 4);
+    }
+    
+    @Test
+    void gravacoesDoCatalogoChegamAoModeloSoDepoisDoCommit() {
+        List<LivroCompletoDto> novos = conversaoService.converterResposta(FixturesGutendx.pagina(6)).getLivros();
+        
+        // Rollback: nada muda no modelo
+        List<List<String>> antes = listagens();
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogoService.importarLote(novos);
+            status.setRollbackOnly();
+        });
+        assertThat(listagens()).isEqualTo(antes);
+        
+        // Novos da página, mais que o máximo de recentes: vão para as ordens principais
+        catalogoService.importarLote(novos);
+        assertThat(leituraMapeada.getEstatisticas()).containsEntry("registrosRecentes", 0);
+        
+        // 3 alterados: saem das principais (marcados como removidos) e entram nas recentes
+        GutendxResponseCompleta alterada = conversaoService.converterResposta(FixturesGutendx.pagina(6));
+        alterada.getLivros().subList(0, 3).forEach(livro -> livro.setNumeroDownloads(livro.getNumeroDownloads() + 1_000_000));
+        alterada.getLivros().get(0).setTitulo("0 Título Alterado");
+        catalogoService.sincronizarLote(1, alterada);
+        
+        // Um deles de novo: sai das recentes
+        alterada.getLivros().get(1).setNumeroDownloads(alterada.getLivros().get(1).getNumeroDownloads() + 1_000_000);
+        catalogoService.sincronizarLote(2, alterada);
+        assertThat(leituraMapeada.getEstatisticas()).containsEntry("registrosRecentes", 4);
+        
+        List<List<String>> mapeadas = listagens();
+        assertThat(mapeadas.get(0)).hasSize((int) livroRepository.count())
+                .first().asString().contains("0 Título Alterado");
+        assertThat(mapeadas.get(2)).hasSize(10).first().asString().contains("|" + alterada.getLivros().stream()
+                .mapToInt(LivroCompletoDto::getNumeroDownloads).max().getAsInt());
+        
+        leituraMapeada.descartar();
+        assertThat(mapeadas).isEqualTo(listagens());
+    }
+    
+    /**
+     * Percurso completo por título e por downloads, e os mais baixados de todos e por idioma
+     */
+    private List<List<String>> listagens() {
+        return List.of(
+            percorrer(CatalogoService.OrdemLivros.TITULO, 7),
+            percorrer(CatalogoService.OrdemLivros.DOWNLOADS, 9),
+            resumir(catalogoService.listarLivrosMaisPopulares(null, 10)),
+            resumir(catalogoService.listarLivrosMaisPopulares("PT", 10)),
+            resumir(catalogoService.listarLivrosMaisPopulares("en", 500)),
+            resumir(catalogoService.listarLivrosMaisPopulares("xx", 10)));
+    }
+    
+    private List<String> percorrer(CatalogoService.OrdemLivros ordem, int tamanho) {
+        List<String> livros = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursorDto<LivroSimplificadoDto> pagina = catalogoService.listarLivrosPorCursor(ordem, cursor, tamanho);
+            livros.addAll(resumir(pagina.getItens()));
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        return livros;
+    }
+    
+    private static List<String> resumir(List<LivroSimplificadoDto> livros) {
+        return livros.stream()
+                .map(livro -> livro.getId() + "|" + livro.getTitulo() + "|" + livro.getAutores() + "|" +
+                              livro.getIdioma() + "|" + livro.getDownloads())
+                .toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara páginas profundas do catálogo: OFFSET (PageRequest.of(n, tamanho))
+ * contra o cursor keyset de listarLivrosPorCursor
+ * Desligado por padrão. Para rodar no H2 dos testes:
+ *   mvn test -Dtest=PaginacaoKeysetBenchmarkTest -Dbenchmark=true [-Dbenchmark.livros=1000000]
+ * (mesmas propriedades de InsercaoEmLoteBenchmarkTest para apontar para um PostgreSQL)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaginacaoKeysetBenchmarkTest {
+    
+    private static final int QUANTIDADE_LIVROS = Integer.getInteger("benchmark.livros", 200_000);
+    private static final int TAMANHO_PAGINA = 50;
+    private static final int REPETICOES = 20;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void popular() {
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        
+        Random aleatorio = new Random(3);
+        List<Object[]> linhas = new ArrayList<>(10_000);
+        for (int i = 0; i < QUANTIDADE_LIVROS; i++) {
+            linhas.add(new Object[] {
+                (long) i + 1, "Livro " + Integer.toString(aleatorio.nextInt(Integer.MAX_VALUE), 36),
+                i % 3 == 0 ? "pt" : "en", aleatorio.nextInt(100_000), 5_000_000L + i
+            });
+            if (linhas.size() == 10_000) {
+                inserir(linhas);
+            }
+        }
+        inserir(linhas);
+    }
+    
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM livros");
+    }
+    
+    @Test
+    void compararOffsetComCursorEmPaginasProfundas() {
+        int ultimaPagina = QUANTIDADE_LIVROS / TAMANHO_PAGINA - 1;
+        for (int pagina : new int[] {0, ultimaPagina / 100, ultimaPagina / 2, ultimaPagina}) {
+            // Cursor da página anterior, obtido fora da medição
+            String cursor = null;
+            if (pagina > 0) {
+                List<Object[]> chave = jdbcTemplate.query(
+                    "SELECT titulo, id FROM livros ORDER BY titulo, id OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY",
+                    (rs, n) -> new Object[] {rs.getString(1), rs.getLong(2)}, (long) pagina * TAMANHO_PAGINA - 1);
+                cursor = new CursorKeyset((String) chave.get(0)[0], (Long) chave.get(0)[1]).codificar();
+            }
+            String cursorPagina = cursor;
+            
+            // Mesma consulta (Slice, com o autor), só muda OFFSET por posição do cursor
+            double offset = medir(() -> livroRepository.findByOrderByTituloAscIdAsc(
+                PageRequest.of(pagina, TAMANHO_PAGINA)).getNumberOfElements());
+            double keyset = medir(() -> catalogoService
+                    .listarLivrosPorCursor(CatalogoService.OrdemLivros.TITULO, cursorPagina, TAMANHO_PAGINA).getTamanho());
+            
+            System.out.printf("📊 %d livros | página %7d | OFFSET: %8.2f ms | cursor: %6.2f ms%n",
+                QUANTIDADE_LIVROS, pagina, offset, keyset);
+        }
+    }
+    
+    private double medir(Supplier<Integer> consulta) {
+        for (int i = 0; i < REPETICOES; i++) {
+            assertThat(consulta.get()).isEqualTo(TAMANHO_PAGINA);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1e6 / REPETICOES;
+    }
+    
+    private void inserir(List<Object[]> linhas) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO livros (id, titulo, idioma, numero_downloads, gutenberg_id) VALUES (?, ?, ?, ?, ?)", linhas);
+        linhas.clear();
+    }
+}
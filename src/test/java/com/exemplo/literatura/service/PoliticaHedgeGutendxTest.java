@@ -0,0 +1,95 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.LivroDto;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latência de cauda com e sem hedge, contra o stub com uma resposta lenta a cada 10
+ */
+class PoliticaHedgeGutendxTest {
+    
+    private static final String LIVRO = "/books/1342/";
+    private static final int AQUECIMENTO = 30;
+    private static final int MEDICOES = 100;
+    private static final long ATRASO_LENTO_MILLIS = 250;
+    
+    private GutendxStubServer stub;
+    private ExecutorService executor;
+    
+    @AfterEach
+    void encerrar() {
+        stub.close();
+        executor.shutdownNow();
+    }
+    
+    private GutendxHttpService iniciar(PoliticaHedgeGutendx politica) {
+        stub = GutendxStubServer.iniciar()
+                .comResposta(LIVRO, "{\"id\": 1342, \"title\": \"Pride and Prejudice\"}")
+                .comRespostasLentas(10, ATRASO_LENTO_MILLIS);
+        executor = Executors.newFixedThreadPool(4);
+        GutendxHttpService gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 4);
+        gutendxHttpService.setHedge(politica);
+        return gutendxHttpService;
+    }
+    
+    @Test
+    void hedgeCortaACaudaDentroDoOrcamento() {
+        GutendxHttpService semHedge = iniciar(PoliticaHedgeGutendx.desabilitada());
+        long[] latenciasSemHedge = medir(semHedge);
+        encerrar();
+        
+        PoliticaHedgeGutendx politica = new PoliticaHedgeGutendx(true, 80, Duration.ofMillis(20), Duration.ofSeconds(1), 0.2);
+        GutendxHttpService comHedge = iniciar(politica);
+        long[] latenciasComHedge = medir(comHedge);
+        
+        long p50Sem = percentil(latenciasSemHedge, 50);
+        long p99Sem = percentil(latenciasSemHedge, 99);
+        long p50Com = percentil(latenciasComHedge, 50);
+        long p99Com = percentil(latenciasComHedge, 99);
+        System.out.printf("📊 Sem hedge: p50 %d ms | p99 %d ms%n", p50Sem, p99Sem);
+        System.out.printf("📊 Com hedge: p50 %d ms | p99 %d ms | %d hedge(s), %d vencedor(es)%n",
+            p50Com, p99Com, politica.getHedgesEnviados(), politica.getHedgesVencedores());
+        
+        assertThat(p99Sem).isGreaterThanOrEqualTo(ATRASO_LENTO_MILLIS);
+        assertThat(p99Com).isLessThan(ATRASO_LENTO_MILLIS / 2);
+        assertThat(politica.getHedgesVencedores()).isPositive();
+        // Crédito inicial (10) mais 20% das requisições
+        assertThat(politica.getHedgesEnviados()).isLessThanOrEqualTo(10 + (long) ((AQUECIMENTO + MEDICOES) * 0.2));
+        
+        // Perdedoras canceladas devolvem a vaga
+        assertThat(comHedge.getEstatisticasRequisicoes())
+                .containsEntry("vagasOcupadas", 0)
+                .containsEntry("emAndamento", 0);
+    }
+    
+    /**
+     * Buscas sequenciais do mesmo livro; devolve as latências em ms depois do aquecimento
+     */
+    private long[] medir(GutendxHttpService gutendxHttpService) {
+        long[] latencias = new long[MEDICOES];
+        for (int i = 0; i < AQUECIMENTO + MEDICOES; i++) {
+            long inicio = System.nanoTime();
+            LivroDto livro = gutendxHttpService.buscarLivroPorIdAsync(1342L).join();
+            assertThat(livro.getTitle()).isEqualTo("Pride and Prejudice");
+            if (i >= AQUECIMENTO) {
+                latencias[i - AQUECIMENTO] = (System.nanoTime() - inicio) / 1_000_000;
+            }
+        }
+        return latencias;
+    }
+    
+    private static long percentil(long[] valores, int percentil) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[(int) Math.ceil(percentil / 100.0 * ordenados.length) - 1];
+    }
+}
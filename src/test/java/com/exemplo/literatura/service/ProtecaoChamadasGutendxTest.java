@@ -0,0 +1,214 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.service.ProtecaoChamadasGutendx.ChamadaRecusadaException;
+import com.exemplo.literatura.service.ProtecaoChamadasGutendx.EstadoCircuito;
+import com.exemplo.literatura.support.GutendxStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProtecaoChamadasGutendxTest {
+    
+    private static final String BUSCA = "/books/?search=shakespeare";
+    private static final String PAGINA_1 = "/books/?page=1";
+    
+    @TempDir
+    Path diretorio;
+    
+    private final AtomicLong agora = new AtomicLong();
+    private GutendxStubServer stub;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void iniciar() {
+        stub = GutendxStubServer.iniciar()
+                .comFixture(BUSCA, "gutendx/pagina-1.json")
+                .comFixture(PAGINA_1, "gutendx/pagina-1.json");
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    void encerrar() {
+        stub.close();
+        executor.shutdownNow();
+    }
+    
+    private ProtecaoChamadasGutendx criar(double porSegundo, int rajada, int falhasParaAbrir, int tentativas, LongSupplier relogio) {
+        return new ProtecaoChamadasGutendx(true, porSegundo, rajada, Duration.ofSeconds(5), falhasParaAbrir,
+                Duration.ofSeconds(30), tentativas, Duration.ofMillis(50), relogio);
+    }
+    
+    private ProtecaoChamadasGutendx comRelogioFalso(double porSegundo, int rajada, int falhasParaAbrir) {
+        return criar(porSegundo, rajada, falhasParaAbrir, 3, agora::get);
+    }
+    
+    private ProtecaoChamadasGutendx comRelogioReal(int falhasParaAbrir, int tentativas) {
+        return criar(1_000, 1_000, falhasParaAbrir, tentativas, System::nanoTime);
+    }
+    
+    private void avancar(Duration tempo) {
+        agora.addAndGet(tempo.toNanos());
+    }
+    
+    @Test
+    void limitadorEsperaPelaReposicaoERecusaEsperaLonga() throws Exception {
+        ProtecaoChamadasGutendx protecao = comRelogioFalso(10, 2, 5);
+        
+        // Rajada de 2 sem espera; depois uma ficha a cada 100 ms, acumulando na fila
+        assertThat(protecao.reservar()).isZero();
+        assertThat(protecao.reservar()).isZero();
+        assertThat(protecao.reservar()).isEqualTo(100);
+        assertThat(protecao.reservar()).isEqualTo(200);
+        
+        avancar(Duration.ofSeconds(1));
+        assertThat(protecao.reservar()).isZero();
+        
+        // 429 com Retry-After: taxa cai pela metade e ninguém passa antes do prazo
+        protecao.registrar(429, "2");
+        assertThat(protecao.reservar()).isEqualTo(2_000);
+        assertThat(protecao.getEstatisticas()).containsEntry("taxaAtualPorSegundo", 5.0);
+        
+        // Fila maior que a espera máxima (5 s): recusa na hora
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 100; i++) {
+                protecao.reservar();
+            }
+        }).isInstanceOf(ChamadaRecusadaException.class);
+        assertThat((Long) protecao.getEstatisticas().get("recusadasPorEspera")).isEqualTo(1);
+        assertThat((Long) protecao.getEstatisticas().get("maiorEsperaMs")).isBetween(4_000L, 5_000L);
+    }
+    
+    @Test
+    void fichaDevolvidaVoltaParaAsRequisicoesReais() throws Exception {
+        ProtecaoChamadasGutendx protecao = comRelogioFalso(10, 2, 5);
+        
+        // Duas fichas tomadas sem espera (como pelo hedge); a terceira não está disponível
+        assertThat(protecao.reservarSemEspera()).isTrue();
+        assertThat(protecao.reservarSemEspera()).isTrue();
+        assertThat(protecao.reservarSemEspera()).isFalse();
+        
+        // Um hedge que não saiu devolve a sua: a próxima requisição real não espera
+        protecao.devolverFicha();
+        assertThat(protecao.reservar()).isZero();
+        assertThat(protecao.reservar()).isEqualTo(100);
+        
+        // A devolução não passa do tamanho da rajada
+        avancar(Duration.ofSeconds(1));
+        protecao.devolverFicha();
+        assertThat(protecao.reservarSemEspera()).isTrue();
+        assertThat(protecao.reservarSemEspera()).isTrue();
+        assertThat(protecao.reservarSemEspera()).isFalse();
+    }
+    
+    @Test
+    void disjuntorAbreRecusaETestaUmaChamadaDepoisDoTempoAberto() throws Exception {
+        ProtecaoChamadasGutendx protecao = comRelogioFalso(1_000, 1_000, 3);
+        
+        protecao.registrar(500, null);
+        protecao.registrar(404, null);  // resposta definitiva: não é falha e zera a sequência
+        for (int i = 0; i < 3; i++) {
+            protecao.reservar();
+            protecao.registrar(0, null);
+        }
+        assertThat(protecao.getEstadoCircuito()).isEqualTo(EstadoCircuito.ABERTO);
+        assertThatThrownBy(protecao::reservar).isInstanceOf(ChamadaRecusadaException.class);
+        assertThat(protecao.atrasoNovaTentativa(1, 503, null)).isEqualTo(-1);
+        
+        // Meio aberto: uma chamada de teste; se falhar, reabre
+        avancar(Duration.ofSeconds(31));
+        assertThat(protecao.getEstadoCircuito()).isEqualTo(EstadoCircuito.MEIO_ABERTO);
+        protecao.reservar();
+        assertThatThrownBy(protecao::reservar).isInstanceOf(ChamadaRecusadaException.class);
+        protecao.registrar(503, null);
+        assertThat(protecao.getEstadoCircuito()).isEqualTo(EstadoCircuito.ABERTO);
+        
+        // Teste com sucesso fecha o circuito
+        avancar(Duration.ofSeconds(31));
+        protecao.reservar();
+        protecao.registrar(200, null);
+        assertThat(protecao.getEstadoCircuito()).isEqualTo(EstadoCircuito.FECHADO);
+        assertThat(protecao.reservar()).isZero();
+        assertThat(protecao.getEstatisticas()).containsEntry("aberturasCircuito", 2L);
+    }
+    
+    @Test
+    void novasTentativasComJitterRespeitamRetryAfter() {
+        ProtecaoChamadasGutendx protecao = comRelogioFalso(10, 10, 5);
+        
+        for (int i = 0; i < 50; i++) {
+            assertThat(protecao.atrasoNovaTentativa(1, 503, null)).isBetween(0L, 50L);
+            assertThat(protecao.atrasoNovaTentativa(2, 0, null)).isBetween(0L, 100L);
+            assertThat(protecao.atrasoNovaTentativa(1, 429, "3")).isBetween(3_000L, 3_050L);
+        }
+        assertThat(protecao.atrasoNovaTentativa(3, 503, null)).as("tentativas esgotadas").isEqualTo(-1);
+        assertThat(protecao.atrasoNovaTentativa(1, 404, null)).as("resposta definitiva").isEqualTo(-1);
+        assertThat(protecao.atrasoNovaTentativa(1, 429, "60")).as("Retry-After acima da espera máxima").isEqualTo(-1);
+        
+        String daquiA2Minutos = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusMinutes(2));
+        assertThat(ProtecaoChamadasGutendx.lerRetryAfter(daquiA2Minutos)).isBetween(
+                Duration.ofSeconds(100).toNanos(), Duration.ofSeconds(121).toNanos());
+        assertThat(ProtecaoChamadasGutendx.lerRetryAfter("amanhã")).isZero();
+    }
+    
+    @Test
+    void repeteAposLimitacaoDaApiEAbreOCircuitoNasFalhasSeguidas() {
+        ProtecaoChamadasGutendx protecao = comRelogioReal(3, 3);
+        GutendxHttpService gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 4);
+        gutendxHttpService.setProtecao(protecao);
+        GutendxService gutendxService = new GutendxService(gutendxHttpService);
+        
+        // Duas respostas 429 (Retry-After: 0) e depois a página: a busca só vê a página
+        stub.comFalha(BUSCA, 429, 2, "0");
+        assertThat(gutendxHttpService.buscarLivros("shakespeare").collectList().block()).hasSize(3);
+        assertThat(stub.getRequisicoes(BUSCA)).isEqualTo(3);
+        stub.comFalha(BUSCA, 503, 1, null);
+        assertThat(gutendxService.buscarLivros("shakespeare")).hasSize(3);
+        assertThat(stub.getRequisicoes(BUSCA)).isEqualTo(5);
+        
+        // API fora do ar: três falhas abrem o circuito e as próximas chamadas nem saem
+        stub.comFalha(BUSCA, 500, 1_000, null);
+        assertThat(gutendxService.buscarLivros("shakespeare")).isEmpty();
+        assertThat(protecao.getEstadoCircuito()).isEqualTo(EstadoCircuito.ABERTO);
+        int enviadas = stub.getRequisicoes(BUSCA);
+        
+        long inicio = System.nanoTime();
+        assertThat(gutendxService.buscarLivros("shakespeare")).isEmpty();
+        assertThatThrownBy(() -> gutendxHttpService.buscarLivros("shakespeare").blockLast())
+                .hasCauseInstanceOf(ChamadaRecusadaException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(1));
+        assertThat(stub.getRequisicoes(BUSCA)).isEqualTo(enviadas);
+        assertThat((Long) protecao.getEstatisticas().get("recusadasCircuitoAberto")).isGreaterThanOrEqualTo(2);
+    }
+    
+    @Test
+    void comApiForaDoArAtendeComOCorpoGuardadoEmDisco() throws Exception {
+        ArmazemRespostasDisco armazem = new ArmazemRespostasDisco(diretorio.toString(), true);
+        GutendxHttpService gutendxHttpService = new GutendxHttpService(stub.getBaseUrl(), executor, 4);
+        gutendxHttpService.setArmazemDisco(armazem);
+        gutendxHttpService.setProtecao(comRelogioReal(2, 1));
+        String url = stub.getBaseUrl() + PAGINA_1;
+        String original = gutendxHttpService.obterJsonPagina(url);
+        
+        // Falhas até abrir o circuito e com ele aberto: o corpo do disco atende
+        stub.comFalha(PAGINA_1, 503, 1_000, null);
+        for (int i = 0; i < 4; i++) {
+            assertThat(gutendxHttpService.obterJsonPagina(url)).isEqualTo(original);
+        }
+        assertThat(stub.getRequisicoes(PAGINA_1)).isEqualTo(3);
+        assertThat(gutendxHttpService.getEstatisticasRequisicoes()).containsEntry("falhasServidasDoDisco", 4);
+        armazem.fechar();
+    }
+}
@@ -0,0 +1,93 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResolucaoAutoresServiceTest {
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @BeforeEach
+    void limpar() {
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+    }
+    
+    @Test
+    void resolvePaginaInteiraEUsaCacheNasProximas() {
+        List<AutorCompletoDto> pagina = List.of(
+            new AutorCompletoDto("Shakespeare, William", 1564, 1616),
+            new AutorCompletoDto("Dickens, Charles", 1812, 1870),
+            new AutorCompletoDto("  shakespeare,   William ", 1564, 1616));
+        
+        Map<String, Long> ids = new HashMap<>();
+        int inseridos = resolucaoAutores.resolverIds(pagina, ids);
+        
+        assertThat(inseridos).isEqualTo(2);
+        assertThat(ids).containsOnlyKeys("shakespeare, william", "dickens, charles");
+        
+        long faltasAntes = (Long) resolucaoAutores.getEstatisticasCache().get("faltas");
+        Map<String, Long> idsSegundaPagina = new HashMap<>();
+        assertThat(resolucaoAutores.resolverIds(pagina, idsSegundaPagina)).isZero();
+        assertThat(idsSegundaPagina).isEqualTo(ids);
+        assertThat(resolucaoAutores.getEstatisticasCache().get("faltas")).isEqualTo(faltasAntes);
+        assertThat(autorRepository.count()).isEqualTo(2);
+    }
+    
+    @Test
+    void importadoresConcorrentesNaoDuplicamAutores() throws Exception {
+        List<AutorCompletoDto> pagina = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pagina.add(new AutorCompletoDto("Autor " + i, 1800 + i, 1870 + i));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Map<String, Long>>> importadores = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                importadores.add(() -> {
+                    Map<String, Long> ids = new HashMap<>();
+                    resolucaoAutores.resolverIds(pagina, ids);
+                    return ids;
+                });
+            }
+            
+            List<Map<String, Long>> resultados = new ArrayList<>();
+            for (Future<Map<String, Long>> futuro : executor.invokeAll(importadores)) {
+                resultados.add(futuro.get());
+            }
+            
+            assertThat(autorRepository.count()).isEqualTo(50);
+            assertThat(resultados).allSatisfy(ids -> assertThat(ids).isEqualTo(resultados.get(0)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a subida a partir do snapshot com um catálogo grande (100 mil livros por padrão):
+ * mapeamento e leitura das colunas, e a carga completa no banco vazio
+ * Desligado por padrão. Para rodar no H2 dos testes:
+ *   mvn test -Dtest=SnapshotCatalogoBenchmarkTest -Dbenchmark=true [-Dbenchmark.livros=100000]
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SnapshotCatalogoBenchmarkTest {
+    
+    private static final int QUANTIDADE_LIVROS = Integer.getInteger("benchmark.livros", 100_000);
+    private static final int QUANTIDADE_AUTORES = QUANTIDADE_LIVROS / 5;
+    private static final String[] IDIOMAS = {"en", "fr", "de", "pt", "es", "it", "nl", "fi", "la", "zh"};
+    
+    @TempDir
+    Path diretorio;
+    
+    @Autowired
+    private SnapshotCatalogoService snapshotService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @BeforeEach
+    void limpar() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+    }
+    
+    @Test
+    void carregarCatalogoGrandeDoSnapshot() throws IOException {
+        Path arquivo = diretorio.resolve("catalogo.snapshot");
+        long bytes = gerarSnapshot(arquivo);
+        
+        // Aquecimento (JIT e pool de conexões) com uma carga completa fora da medição
+        snapshotService.carregar(arquivo);
+        limpar();
+        
+        long inicioLeitura = System.nanoTime();
+        SnapshotCatalogo snapshot = SnapshotCatalogo.abrir(arquivo);
+        long caracteres = 0;
+        for (int i = 0; i < snapshot.getQuantidadeLivros(); i++) {
+            caracteres += snapshot.titulo(i).length() + snapshot.idiomaLivro(i).length();
+            int autor = snapshot.autor(i);
+            if (autor >= 0) {
+                caracteres += snapshot.nomeAutor(autor).length();
+            }
+        }
+        double msLeitura = (System.nanoTime() - inicioLeitura) / 1e6;
+        
+        SnapshotCatalogoService.Resumo carga = snapshotService.carregar(arquivo);
+        
+        System.out.printf("📊 Snapshot de %d livros / %d autores (%d KB) | mmap + leitura das colunas: %.0f ms | " +
+                          "carga no banco vazio: %d ms (%.0f livros/s)%n",
+            QUANTIDADE_LIVROS, QUANTIDADE_AUTORES, bytes / 1024, msLeitura, carga.milissegundos(),
+            QUANTIDADE_LIVROS * 1000.0 / Math.max(1, carga.milissegundos()));
+        
+        assertThat(caracteres).isPositive();
+        assertThat(livroRepository.count()).isEqualTo(QUANTIDADE_LIVROS);
+        assertThat(autorRepository.count()).isEqualTo(QUANTIDADE_AUTORES);
+    }
+    
+    private long gerarSnapshot(Path arquivo) throws IOException {
+        SnapshotCatalogo.Gravador gravador = new SnapshotCatalogo.Gravador();
+        for (int i = 0; i < QUANTIDADE_AUTORES; i++) {
+            gravador.adicionarAutor("Autor de Benchmark " + i, 1700 + i % 300, i % 4 == 0 ? null : 1760 + i % 300);
+        }
+        byte[] hash = new byte[32];
+        for (int i = 0; i < QUANTIDADE_LIVROS; i++) {
+            hash[i % 32]++;
+            gravador.adicionarLivro(1_000_000L + i, "Livro de Benchmark número " + i + " — volume " + (i % 12),
+                i % 50 == 0 ? -1 : i % QUANTIDADE_AUTORES, IDIOMAS[i % IDIOMAS.length], (i * 37) % 100_000,
+                HexFormat.of().formatHex(hash));
+        }
+        gravador.gravar(arquivo);
+        return Files.size(arquivo);
+    }
+}
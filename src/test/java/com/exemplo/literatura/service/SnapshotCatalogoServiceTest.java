@@ -0,0 +1,164 @@
+package com.exemplo.literatura.service;
+
+import com.exemplo.literatura.dto.AutorCompletoDto;
+import com.exemplo.literatura.model.Autor;
+import com.exemplo.literatura.model.Livro;
+import com.exemplo.literatura.repository.AutorRepository;
+import com.exemplo.literatura.repository.LivroRepository;
+import com.exemplo.literatura.repository.SincronizacaoCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SnapshotCatalogoServiceTest {
+    
+    private static final int AUTORES = 12;
+    private static final String TITULO_UNICO = "Crônicas do Snapshot Colunar";
+    private static final String SELECT_LIVROS =
+        "SELECT l.gutenberg_id, l.titulo, a.nome, a.nome_normalizado, a.ano_nascimento, a.ano_morte, " +
+        "l.idioma, l.numero_downloads, l.hash_conteudo " +
+        "FROM livros l LEFT JOIN autores a ON a.id = l.autor_id ORDER BY l.gutenberg_id";
+    
+    @TempDir
+    Path diretorio;
+    
+    @Autowired
+    private SnapshotCatalogoService snapshotService;
+    
+    @Autowired
+    private CatalogoService catalogoService;
+    
+    @Autowired
+    private LivroRepository livroRepository;
+    
+    @Autowired
+    private AutorRepository autorRepository;
+    
+    @Autowired
+    private SincronizacaoCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private ResolucaoAutoresService resolucaoAutores;
+    
+    @Autowired
+    private IndiceTextoCatalogo indiceTexto;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void popularCatalogo() {
+        esvaziarCatalogo();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Autor> autores = new ArrayList<>();
+            for (int i = 0; i < AUTORES; i++) {
+                autores.add(new Autor("Autor Snapshot " + i + (i % 4 == 0 ? " Ñandú" : ""),
+                    i % 5 == 0 ? null : 1800 + i, i % 3 == 0 ? null : 1870 + i));
+            }
+            autorRepository.saveAll(autores);
+            
+            List<Livro> livros = new ArrayList<>();
+            for (int i = 0; i < AUTORES * 3; i++) {
+                Livro livro = new Livro("Livro Snapshot " + i + " — edição " + (char) ('α' + i % 20),
+                    autores.get(i % AUTORES), List.of("pt", "en", "fr").get(i % 3), i % 7 == 0 ? null : 900 - i, 600_000L + i);
+                livro.setHashConteudo(i % 5 == 0 ? null : HexFormat.of().formatHex(new byte[32]).replace('0', (char) ('1' + i % 9)));
+                livros.add(livro);
+            }
+            livros.add(new Livro(TITULO_UNICO, null, "la", 3, 699_999L));
+            catalogoService.salvarLivrosEmLote(livros);
+        });
+    }
+    
+    @Test
+    void carregaNumBancoVazioOMesmoCatalogoQueFoiGravado() throws IOException {
+        Path arquivo = diretorio.resolve("catalogo.snapshot");
+        List<Map<String, Object>> gravados = jdbcTemplate.queryForList(SELECT_LIVROS);
+        
+        SnapshotCatalogoService.Resumo gravacao = snapshotService.gravar(arquivo);
+        assertThat(gravacao.livros()).isEqualTo(AUTORES * 3 + 1);
+        assertThat(gravacao.autores()).isEqualTo(AUTORES);
+        assertThat(Files.size(arquivo)).isEqualTo(gravacao.bytes());
+        
+        esvaziarCatalogo();
+        assertThat(catalogoService.buscarNoCatalogo("cronicas snapshot", 10).total()).isZero();
+        
+        SnapshotCatalogoService.Resumo carga = snapshotService.carregar(arquivo);
+        
+        assertThat(carga.livros()).isEqualTo(gravacao.livros());
+        assertThat(jdbcTemplate.queryForList(SELECT_LIVROS)).isEqualTo(gravados);
+        assertThat(autorRepository.count()).isEqualTo(AUTORES);
+        
+        // Estatísticas e índice de texto refletem o que foi carregado
+        assertThat(catalogoService.obterEstatisticas().getTotalLivros()).isEqualTo(AUTORES * 3 + 1);
+        assertThat(catalogoService.obterEstatisticas().getLivrosPorIdioma()).containsEntry("la", 1L);
+        assertThat(catalogoService.buscarNoCatalogo("cronicas snapshot", 10).documentos())
+                .singleElement()
+                .satisfies(documento -> assertThat(documento.gutenbergId()).isEqualTo(699_999L));
+    }
+    
+    @Test
+    void gravacoesDepoisDaCargaNaoColidemComOsIdsCarregados() {
+        Path arquivo = diretorio.resolve("catalogo.snapshot");
+        snapshotService.gravar(arquivo);
+        esvaziarCatalogo();
+        snapshotService.carregar(arquivo);
+        
+        // Hibernate (sequência pooled) e upsert de autores (nextval direto) depois da carga
+        Map<String, Long> ids = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            resolucaoAutores.resolverIds(List.of(new AutorCompletoDto("Autor Depois da Carga", 1900, null)), ids);
+            catalogoService.salvarLivrosEmLote(List.of(
+                new Livro("Livro Depois da Carga", null, "pt", 10, 800_000L),
+                new Livro("Outro Livro Depois da Carga", null, "en", 11, 800_001L)));
+        });
+        
+        assertThat(ids).hasSize(1);
+        assertThat(autorRepository.count()).isEqualTo(AUTORES + 1);
+        assertThat(livroRepository.count()).isEqualTo(AUTORES * 3 + 3);
+    }
+    
+    @Test
+    void recusaCargaNumCatalogoComDadosEArquivoInvalido() throws IOException {
+        Path arquivo = diretorio.resolve("catalogo.snapshot");
+        snapshotService.gravar(arquivo);
+        
+        assertThatThrownBy(() -> snapshotService.carregar(arquivo)).isInstanceOf(IllegalStateException.class);
+        
+        esvaziarCatalogo();
+        Path invalido = Files.writeString(diretorio.resolve("invalido.snapshot"), "não é um snapshot");
+        assertThatThrownBy(() -> snapshotService.carregar(invalido)).isInstanceOf(UncheckedIOException.class);
+        assertThat(livroRepository.count()).isZero();
+    }
+    
+    private void esvaziarCatalogo() {
+        checkpointRepository.deleteAll();
+        livroRepository.deleteAll();
+        autorRepository.deleteAll();
+        resolucaoAutores.limparCache();
+        indiceTexto.reconstruir();
+    }
+}
@@ -0,0 +1,40 @@
+package com.exemplo.literatura.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector do Hibernate que registra os comandos SQL da thread atual
+ * enquanto uma ação roda em capturar(); fora disso, só repassa o SQL
+ * (ativado em application-test.properties)
+ */
+public class ContadorSql implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> CAPTURADOS = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> capturados = CAPTURADOS.get();
+        if (capturados != null) {
+            capturados.add(sql);
+        }
+        return sql;
+    }
+    
+    /**
+     * Roda a ação e devolve os comandos SQL que o Hibernate preparou nela (nesta thread)
+     */
+    public static List<String> capturar(Runnable acao) {
+        List<String> anteriores = CAPTURADOS.get();
+        List<String> capturados = new ArrayList<>();
+        CAPTURADOS.set(capturados);
+        try {
+            acao.run();
+        } finally {
+            CAPTURADOS.set(anteriores);
+        }
+        return capturados;
+    }
+}
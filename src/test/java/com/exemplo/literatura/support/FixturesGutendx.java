@@ -0,0 +1,69 @@
+package com.exemplo.literatura.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Páginas da API Gutendx do tamanho que o teste precisar, montadas a partir dos
+ * livros gravados em src/test/resources/gutendx (repetidos com IDs, títulos e
+ * downloads diferentes, para não colapsarem em agregações por ID ou título)
+ */
+public final class FixturesGutendx {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] PAGINAS = {"gutendx/pagina-1.json", "gutendx/pagina-2.json", "gutendx/pagina-3.json"};
+
+    private FixturesGutendx() {
+    }
+
+    /**
+     * JSON de uma página com a quantidade de livros pedida (sem next/previous)
+     */
+    public static String pagina(int livros) {
+        List<JsonNode> gravados = livrosGravados();
+
+        ObjectNode pagina = MAPPER.createObjectNode();
+        pagina.put("count", livros);
+        pagina.putNull("next");
+        pagina.putNull("previous");
+        ArrayNode resultados = pagina.putArray("results");
+
+        for (int i = 0; i < livros; i++) {
+            JsonNode original = gravados.get(i % gravados.size());
+            int copia = i / gravados.size();
+            ObjectNode livro = original.deepCopy();
+            if (copia > 0) {
+                livro.put("id", original.get("id").asLong() + copia * 100_000L);
+                livro.put("title", original.get("title").asText() + " (" + copia + ")");
+                livro.put("download_count", Math.max(0, original.get("download_count").asInt() - copia * 7));
+            }
+            resultados.add(livro);
+        }
+
+        try {
+            return MAPPER.writeValueAsString(pagina);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<JsonNode> livrosGravados() {
+        List<JsonNode> livros = new ArrayList<>();
+        for (String recurso : PAGINAS) {
+            try (InputStream in = FixturesGutendx.class.getClassLoader().getResourceAsStream(recurso)) {
+                MAPPER.readTree(in).get("results").forEach(livros::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return livros;
+    }
+}
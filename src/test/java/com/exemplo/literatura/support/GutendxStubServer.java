@@ -0,0 +1,232 @@
+package com.exemplo.literatura.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que imita a API Gutendx para os testes
+ * Responde com fixtures gravadas em src/test/resources/gutendx, trocando
+ * {{baseUrl}} pelo endereço do próprio servidor nos links de paginação
+ */
+public class GutendxStubServer implements AutoCloseable {
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> respostas = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requisicoesPorCaminho = new ConcurrentHashMap<>();
+    private final AtomicInteger totalRequisicoes = new AtomicInteger();
+    private final AtomicInteger simultaneas = new AtomicInteger();
+    private final AtomicInteger maximoSimultaneas = new AtomicInteger();
+    private final AtomicInteger naoModificadas = new AtomicInteger();
+    private final Map<String, String> ultimosIfNoneMatch = new ConcurrentHashMap<>();
+    private final Map<String, FalhaProgramada> falhas = new ConcurrentHashMap<>();
+    private volatile long atrasoMillis;
+    private volatile int lentaACada;
+    private volatile long atrasoLentoMillis;
+    
+    private GutendxStubServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::responder);
+    }
+    
+    public static GutendxStubServer iniciar() {
+        try {
+            GutendxStubServer stub = new GutendxStubServer();
+            stub.server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Registra uma fixture do classpath para um caminho com query (ex: "/books/?page=1")
+     */
+    public GutendxStubServer comFixture(String caminho, String recurso) {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Fixture não encontrada: " + recurso);
+            }
+            return comResposta(caminho, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Registra um corpo JSON para um caminho com query
+     */
+    public GutendxStubServer comResposta(String caminho, String json) {
+        respostas.put(caminho, json.replace("{{baseUrl}}", getBaseUrl()));
+        return this;
+    }
+    
+    /**
+     * As próximas "vezes" requisições ao caminho recebem o status informado (ex: 429 ou 503),
+     * com Retry-After se não for nulo; depois volta a responder normalmente
+     */
+    public GutendxStubServer comFalha(String caminho, int status, int vezes, String retryAfter) {
+        falhas.put(caminho, new FalhaProgramada(status, new AtomicInteger(vezes), retryAfter));
+        return this;
+    }
+    
+    /**
+     * Atrasa todas as respostas (simula uma API lenta)
+     */
+    public GutendxStubServer comAtraso(long millis) {
+        this.atrasoMillis = millis;
+        return this;
+    }
+    
+    /**
+     * Uma em cada "aCada" requisições (contando todas) demora "millis" a mais: respostas
+     * lentas esporádicas, numa sequência repetível e sem duas lentas seguidas
+     */
+    public GutendxStubServer comRespostasLentas(int aCada, long millis) {
+        this.lentaACada = aCada;
+        this.atrasoLentoMillis = millis;
+        return this;
+    }
+    
+    public int getTotalRequisicoes() {
+        return totalRequisicoes.get();
+    }
+    
+    public int getRequisicoes(String caminho) {
+        AtomicInteger contador = requisicoesPorCaminho.get(caminho);
+        return contador != null ? contador.get() : 0;
+    }
+    
+    /**
+     * Quantas respostas 304 foram enviadas (If-None-Match igual ao ETag atual)
+     */
+    public int getNaoModificadas() {
+        return naoModificadas.get();
+    }
+    
+    /**
+     * Último If-None-Match recebido para o caminho (null se nunca veio)
+     */
+    public String getUltimoIfNoneMatch(String caminho) {
+        return ultimosIfNoneMatch.get(caminho);
+    }
+    
+    /**
+     * ETag que o servidor envia para o corpo registrado no caminho
+     */
+    public String getEtag(String caminho) {
+        String corpo = respostas.get(caminho);
+        return corpo != null ? calcularEtag(corpo) : null;
+    }
+    
+    /**
+     * Maior número de requisições atendidas ao mesmo tempo desde o início
+     */
+    public int getMaximoSimultaneas() {
+        return maximoSimultaneas.get();
+    }
+    
+    private void responder(HttpExchange exchange) throws IOException {
+        // A requisição conta como simultânea só até a resposta começar a ser enviada:
+        // depois disso o cliente já pode liberar a vaga e mandar a próxima da fila
+        maximoSimultaneas.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+        String caminho;
+        try {
+            caminho = registrarEAguardar(exchange);
+        } finally {
+            simultaneas.decrementAndGet();
+        }
+        enviarResposta(exchange, caminho);
+    }
+    
+    private String registrarEAguardar(HttpExchange exchange) {
+        String caminho = exchange.getRequestURI().getRawPath();
+        if (exchange.getRequestURI().getRawQuery() != null) {
+            caminho += "?" + exchange.getRequestURI().getRawQuery();
+        }
+        
+        int numero = totalRequisicoes.incrementAndGet();
+        requisicoesPorCaminho.computeIfAbsent(caminho, c -> new AtomicInteger()).incrementAndGet();
+        
+        long atraso = atrasoMillis;
+        if (lentaACada > 0 && numero % lentaACada == 0) {
+            atraso += atrasoLentoMillis;
+        }
+        if (atraso > 0) {
+            try {
+                Thread.sleep(atraso);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return caminho;
+    }
+    
+    private void enviarResposta(HttpExchange exchange, String caminho) throws IOException {
+        FalhaProgramada falha = falhas.get(caminho);
+        if (falha != null && falha.restantes().getAndDecrement() > 0) {
+            if (falha.retryAfter() != null) {
+                exchange.getResponseHeaders().set("Retry-After", falha.retryAfter());
+            }
+            exchange.sendResponseHeaders(falha.status(), -1);
+            exchange.close();
+            return;
+        }
+        
+        String corpo = respostas.get(caminho);
+        
+        // Respostas com ETag: If-None-Match igual ao atual recebe 304 sem corpo
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            ultimosIfNoneMatch.put(caminho, ifNoneMatch);
+        }
+        if (corpo != null) {
+            String etag = calcularEtag(corpo);
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                naoModificadas.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        
+        byte[] bytes = (corpo != null ? corpo : "{\"detail\": \"Not found.\"}").getBytes(StandardCharsets.UTF_8);
+        
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(corpo != null ? 200 : 404, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static String calcularEtag(String corpo) {
+        return "\"" + Integer.toHexString(corpo.hashCode()) + "\"";
+    }
+    
+    private record FalhaProgramada(int status, AtomicInteger restantes, String retryAfter) {}
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}